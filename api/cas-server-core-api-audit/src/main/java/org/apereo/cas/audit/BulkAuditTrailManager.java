@@ -0,0 +1,23 @@
+package org.apereo.cas.audit;
+
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+
+import java.util.Collection;
+
+/**
+ * This is {@link BulkAuditTrailManager}, implemented by audit trail managers
+ * that are able to record a number of audit records in a single operation.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface BulkAuditTrailManager extends AuditTrailManager {
+
+    /**
+     * Record all audit records at once.
+     *
+     * @param audits the audit records
+     */
+    void recordAll(Collection<AuditActionContext> audits);
+}
@@ -0,0 +1,60 @@
+package org.apereo.cas.configuration.model.core.audit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+import java.io.Serializable;
+
+/**
+ * This is {@link AuditPipelineProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RequiresModule(name = "cas-server-core-audit")
+@Getter
+@Setter
+public class AuditPipelineProperties implements Serializable {
+
+    private static final long serialVersionUID = -2871245016529364512L;
+
+    /**
+     * Whether audit records should be handed over to audit trail managers asynchronously.
+     * <p>
+     * When enabled, audit records are placed into a bounded buffer per audit trail manager
+     * and are recorded in batches by a background thread, so requests no longer wait
+     * for audit destinations to be written.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of audit records that may be buffered per audit trail manager.
+     */
+    private int capacity = 8192;
+
+    /**
+     * Maximum number of audit records recorded in a single batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Maximum amount of time an audit record may be held back
+     * while waiting for a batch to fill up.
+     */
+    private String batchWindow = "PT1S";
+
+    /**
+     * Decides how to handle audit records when the buffer is full.
+     * Accepted values are {@code BLOCK}, which makes the request wait until room is available,
+     * {@code DROP_OLDEST}, which discards the oldest buffered record, and {@code SPILL},
+     * which appends the record to a local file.
+     */
+    private String overflowPolicy = "BLOCK";
+
+    /**
+     * Location of the file to which audit records are appended when the buffer is full
+     * and the {@code SPILL} overflow policy is used. Defaults to a file in the temporary directory.
+     */
+    private String spillFile;
+}
@@ -3,8 +3,10 @@ package org.apereo.cas.configuration.model.core.authentication;
 import org.apereo.cas.configuration.support.RequiresModule;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
@@ -128,4 +130,59 @@ public class PrincipalAttributesProperties implements Serializable {
      * </pre>
      */
     private GrouperPrincipalAttributesProperties grouper = new GrouperPrincipalAttributesProperties();
+
+    /**
+     * Query attribute repositories concurrently rather than one after another.
+     */
+    private Parallel parallel = new Parallel();
+
+    @Getter
+    @Setter
+    public static class Parallel implements Serializable {
+        private static final long serialVersionUID = 5206405284861290254L;
+
+        /**
+         * Whether attribute repositories should be queried concurrently. Results are merged
+         * in the order of the attribute repositories, following the configured merging strategy.
+         */
+        private boolean enabled;
+
+        /**
+         * Number of threads dedicated to querying attribute repositories.
+         */
+        private int poolSize = 16;
+
+        /**
+         * Maximum amount of time each attribute repository is given to produce results.
+         */
+        private String sourceTimeout = "PT3S";
+
+        /**
+         * Timeouts for individual attribute repositories, keyed by the repository name,
+         * that override the default timeout.
+         */
+        private Map<String, String> sourceTimeouts = new HashMap<>();
+
+        /**
+         * Maximum amount of time allowed to query all attribute repositories;
+         * whatever has arrived by then is merged.
+         */
+        private String deadline = "PT5S";
+
+        /**
+         * Whether failures and timeouts of attribute repositories that are not optional should fail
+         * the attribute lookup. By default, such repositories are skipped and the results of the other
+         * repositories are merged.
+         */
+        private boolean failFast;
+
+        /**
+         * Names of attribute repositories that are optional, whose failures and timeouts are ignored
+         * when lookups fail fast. Failures of other attribute repositories then fail the attribute lookup. Repositories are named
+         * after their type (i.e. {@code LdaptivePersonAttributeDao}), suffixed with their position
+         * if the same type is configured more than once (i.e. {@code LdaptivePersonAttributeDao-2}).
+         * Use {@code *} to treat all attribute repositories as optional.
+         */
+        private Set<String> optionalSources = new HashSet<>();
+    }
 }
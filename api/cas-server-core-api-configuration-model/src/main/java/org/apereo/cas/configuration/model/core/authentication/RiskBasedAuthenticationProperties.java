@@ -59,6 +59,12 @@ public class RiskBasedAuthenticationProperties implements Serializable {
      */
     private long daysInRecentHistory = 30;
 
+    /**
+     * Settings that control how the risk profile of each principal,
+     * aggregated from its authentication history, is cached.
+     */
+    private Profile profile = new Profile();
+
     @Getter
     @Setter
     public static class IpAddress implements Serializable {
@@ -117,6 +123,24 @@ public class RiskBasedAuthenticationProperties implements Serializable {
         private int windowInHours = 2;
     }
 
+    @Getter
+    @Setter
+    public static class Profile implements Serializable {
+
+        private static final long serialVersionUID = 2467360741852917743L;
+
+        /**
+         * Maximum number of principal risk profiles kept in the cache.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Amount of time after which a cached risk profile is discarded
+         * and rebuilt from the authentication history.
+         */
+        private String expireAfterWrite = "PT30M";
+    }
+
     @Getter
     @Setter
     public static class Response implements Serializable {
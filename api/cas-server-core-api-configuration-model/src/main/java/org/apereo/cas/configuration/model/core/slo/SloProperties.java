@@ -28,4 +28,58 @@ public class SloProperties implements Serializable {
      * Whether SLO should be entirely disabled globally for the CAS deployment.
      */
     private boolean disabled;
+
+    /**
+     * Settings that control how back-channel logout messages are dispatched.
+     */
+    private Dispatcher dispatcher = new Dispatcher();
+
+    @Getter
+    @Setter
+    public static class Dispatcher implements Serializable {
+
+        private static final long serialVersionUID = 1793474960184936252L;
+
+        /**
+         * Whether back-channel logout messages should be sent in parallel via a bounded pool of workers.
+         * When false, messages are sent one at a time via the HTTP client.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of workers that send logout messages.
+         */
+        private int poolSize = 10;
+
+        /**
+         * Maximum number of logout messages that may wait for a worker.
+         * Messages beyond this limit are rejected and marked as failed.
+         */
+        private int queueSize = 1000;
+
+        /**
+         * Maximum number of logout messages that may be sent to the same host at the same time.
+         */
+        private int maxConcurrencyPerHost = 4;
+
+        /**
+         * Amount of time to wait for a single logout message to be delivered before it's cancelled.
+         */
+        private String timeout = "PT5S";
+
+        /**
+         * Maximum number of attempts to deliver a logout message.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Amount of time to wait before the first retry.
+         */
+        private String retryDelay = "PT2S";
+
+        /**
+         * Multiplier applied to the retry delay after every failed attempt.
+         */
+        private double retryBackoffMultiplier = 2;
+    }
 }
@@ -0,0 +1,58 @@
+package org.apereo.cas.configuration.model.core.ticket.registry;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
+import org.apereo.cas.configuration.support.RequiresModule;
+
+/**
+ * This is {@link TicketRegistryCleanerProperties}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RequiresModule(name = "cas-server-core-tickets", automated = true)
+@Getter
+@Setter
+@NoArgsConstructor
+public class TicketRegistryCleanerProperties extends ScheduledJobProperties {
+
+    private static final long serialVersionUID = -3125496128711452683L;
+
+    /**
+     * Number of expired tickets that are loaded and removed from the registry at a time.
+     * A value of zero or less, which is the default, removes expired tickets one at a time.
+     */
+    private int batchSize;
+
+    /**
+     * Maximum amount of time a single cleaner run may take. Once elapsed, the run stops
+     * after the current batch and the remaining expired tickets are removed by the next run.
+     * A zero duration indicates no limit.
+     */
+    private String maxRunTime = "PT0S";
+
+    /**
+     * Maximum number of expired tickets removed per second.
+     * A value of zero or less indicates no limit.
+     */
+    private double ticketsPerSecond;
+
+    /**
+     * Number of shards the ticket id space is divided into. When more than one,
+     * each node only removes tickets whose id hash falls into its own shard
+     * and the cleaner no longer acquires the global cleanup lock.
+     */
+    private int shardCount = 1;
+
+    /**
+     * Shard owned by this node, starting at zero and less than the shard count.
+     * Each node should be assigned a distinct shard.
+     */
+    private int shardIndex;
+
+    public TicketRegistryCleanerProperties(final String startDelay, final String repeatInterval) {
+        super(startDelay, repeatInterval);
+    }
+}
@@ -12,12 +12,13 @@ import org.apereo.cas.configuration.model.support.jms.JmsTicketRegistryPropertie
 import org.apereo.cas.configuration.model.support.jpa.ticketregistry.JpaTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.memcached.MemcachedTicketRegistryProperties;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoTicketRegistryProperties;
-import org.apereo.cas.configuration.model.support.quartz.ScheduledJobProperties;
 import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
 import org.apereo.cas.configuration.support.RequiresModule;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -117,7 +118,32 @@ public class TicketRegistryProperties implements Serializable {
      * Ticket registry cleaner settings.
      */
     @NestedConfigurationProperty
-    private ScheduledJobProperties cleaner = new ScheduledJobProperties("PT10S", "PT1M");
+    private TicketRegistryCleanerProperties cleaner = new TicketRegistryCleanerProperties("PT10S", "PT1M");
+
+    /**
+     * Codec used by distributed ticket registries to turn tickets into bytes.
+     * Accepted values are {@code java}, which relies on Java serialization and only
+     * encodes tickets when ticket encryption is turned on, and {@code kryo}, which always encodes
+     * tickets into a compact binary form. Tickets written via Java serialization can still be read
+     * once the codec is switched to Kryo, but not the other way around.
+     */
+    private String codec = "java";
+
+    /**
+     * How long the number of sessions and service tickets reported by the ticket registry is cached
+     * before the registry is asked to count tickets again, so that frequent monitoring does not load the registry.
+     */
+    private String countCacheDuration = "PT5S";
+
+    /**
+     * Settings relevant for the local cache of decoded tickets kept in front of remote ticket registries.
+     */
+    private NearCache nearCache = new NearCache();
+
+    /**
+     * Settings relevant for routing ticket types to separate storage tiers.
+     */
+    private Tiered tiered = new Tiered();
 
     @RequiresModule(name = "cas-server-core-tickets", automated = true)
     @Getter
@@ -161,4 +187,56 @@ public class TicketRegistryProperties implements Serializable {
             crypto.setEnabled(false);
         }
     }
+
+    @RequiresModule(name = "cas-server-core-tickets", automated = true)
+    @Getter
+    @Setter
+    public static class NearCache implements Serializable {
+
+        private static final long serialVersionUID = 3612862367342612561L;
+
+        /**
+         * Keep decoded tickets in a local cache in front of the remote ticket registry,
+         * for ticket types that opt into near caching via the ticket catalog.
+         * The cache is only put in place if the registry offers a channel to invalidate
+         * cached tickets on all nodes.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of tickets kept in the local cache.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a ticket may be served from the local cache once loaded,
+         * which bounds staleness should an invalidation from another node be missed.
+         */
+        private String timeToLive = "PT5S";
+    }
+
+    @RequiresModule(name = "cas-server-core-tickets", automated = true)
+    @Getter
+    @Setter
+    public static class Tiered implements Serializable {
+
+        private static final long serialVersionUID = -6163829140573541893L;
+
+        /**
+         * Route ticket types to the ticket registry of their storage tier,
+         * rather than keeping all tickets in the configured ticket registry.
+         * Applies to the Redis, MongoDb, Couchbase and DynamoDb ticket registries;
+         * the Hazelcast and JPA ticket registries are not tiered.
+         */
+        private boolean enabled;
+
+        /**
+         * Prefixes of ticket types, such as {@code ST}, {@code PT} or {@code OC}, that are kept in the memory
+         * of the CAS node that issued them rather than in the configured ticket registry. Such tickets are only
+         * visible to the issuing node, so requests that validate or consume them should be routed back to it.
+         * Lookups that miss the memory of the node fall back to the configured ticket registry.
+         * Ticket-granting tickets are always kept in the configured ticket registry.
+         */
+        private List<String> localTicketTypes = new ArrayList<>();
+    }
 }
@@ -2,6 +2,8 @@ package org.apereo.cas.configuration.model.core.util;
 
 import org.apereo.cas.CipherExecutor;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -40,4 +42,18 @@ public class EncryptionJwtSigningJwtCryptographyProperties implements Serializab
      * The signing/encryption algorithm to use.
      */
     private String alg = CipherExecutor.DEFAULT_CONTENT_ENCRYPTION_ALGORITHM;
+
+    /**
+     * The crypto strategy to use. By default, values are encrypted and then signed
+     * according to the encryption and signing settings. {@code AES_GCM} instead encrypts and
+     * authenticates values in a single pass via AES-GCM using the encryption key only,
+     * which produces considerably smaller values.
+     */
+    private String strategyType = "ENCRYPT_AND_SIGN";
+
+    /**
+     * Previous encryption keys that remain accepted to decrypt values when the {@code AES_GCM} strategy is used,
+     * allowing the encryption key to be rotated without invalidating values that are encrypted with an older key.
+     */
+    private List<String> retiredKeys = new ArrayList<>();
 }
@@ -1,6 +1,8 @@
 package org.apereo.cas.configuration.model.core.util;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -39,4 +41,18 @@ public class EncryptionRandomizedSigningJwtCryptographyProperties implements Ser
      * The signing/encryption algorithm to use.
      */
     private String alg = "AES";
+
+    /**
+     * The crypto strategy to use. By default, values are encrypted and then signed
+     * according to the encryption and signing settings. {@code AES_GCM} instead encrypts and
+     * authenticates values in a single pass via AES-GCM using the encryption key only,
+     * which produces considerably smaller values.
+     */
+    private String strategyType = "ENCRYPT_AND_SIGN";
+
+    /**
+     * Previous encryption keys that remain accepted to decrypt values when the {@code AES_GCM} strategy is used,
+     * allowing the encryption key to be rotated without invalidating values that are encrypted with an older key.
+     */
+    private List<String> retiredKeys = new ArrayList<>();
 }
@@ -180,6 +180,14 @@ public abstract class AbstractLdapProperties implements Serializable {
      */
     private String blockWaitTime = "PT3S";
 
+    /**
+     * Whether the connection pool should be shared with other components that connect
+     * to the same LDAP url(s) with the same connection settings. A shared pool is built from the
+     * settings of the first component that creates it.
+     * Pools used to authenticate users via bind operations are never shared.
+     */
+    private boolean sharedPool = true;
+
     /**
      * If multiple URLs are provided as the ldapURL this describes how each URL will be processed.
      * <ul>
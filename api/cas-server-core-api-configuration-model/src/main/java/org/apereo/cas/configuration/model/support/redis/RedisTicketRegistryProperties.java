@@ -26,6 +26,13 @@ public class RedisTicketRegistryProperties extends BaseRedisProperties {
     @NestedConfigurationProperty
     private EncryptionRandomizedSigningJwtCryptographyProperties crypto = new EncryptionRandomizedSigningJwtCryptographyProperties();
 
+    /**
+     * Number of keys requested per {@code SCAN} iteration and
+     * number of tickets fetched per pipelined {@code MGET} batch
+     * when the registry is asked to walk through all tickets.
+     */
+    private int batchSize = 500;
+
     public RedisTicketRegistryProperties() {
         this.crypto.setEnabled(false);
     }
@@ -37,6 +37,11 @@ public class ThrottleProperties implements Serializable {
      */
     private Failure failure = new Failure();
 
+    /**
+     * Track authentication throttling events in memory.
+     */
+    private InMemory inMemory = new InMemory();
+
     /**
      * Record authentication throttling events in a JDBC resource.
      */
@@ -93,6 +98,29 @@ public class ThrottleProperties implements Serializable {
         private int rangeSeconds = -1;
     }
 
+    /**
+     * In-memory throttling.
+     */
+    @RequiresModule(name = "cas-server-support-throttle", automated = true)
+    @Getter
+    @Setter
+    public static class InMemory implements Serializable {
+
+        private static final long serialVersionUID = -2379160356420393617L;
+
+        /**
+         * Maximum number of keys, i.e. IP addresses and usernames, tracked at the same time.
+         * Once capacity is reached, keys whose failures are closest to decaying are evicted first.
+         */
+        private int capacity = 100_000;
+
+        /**
+         * Number of failures that may occur in quick succession before
+         * the failure rate is considered to exceed the threshold.
+         */
+        private int burst = 1;
+    }
+
     @RequiresModule(name = "cas-server-support-throttle-jdbc")
     @Getter
     @Setter
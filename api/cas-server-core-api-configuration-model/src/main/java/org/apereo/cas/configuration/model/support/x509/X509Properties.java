@@ -185,6 +185,36 @@ public class X509Properties implements Serializable {
      */
     private long cacheTimeToIdleSeconds = TimeUnit.MINUTES.toSeconds(30);
 
+    /**
+     * When CRL revocation checking is done via distribution points, keep CRLs as an index
+     * of revoked serial numbers and fetch them again in the background ahead of their next update,
+     * rather than caching CRLs via the cache settings above.
+     */
+    private boolean crlPrefetch;
+
+    /**
+     * When CRLs are prefetched, indicate how long ahead of the next update of a CRL it is fetched again.
+     */
+    private long crlRefreshAheadSeconds = TimeUnit.HOURS.toSeconds(1);
+
+    /**
+     * When CRLs are prefetched, the directory where the last CRL of each distribution point is kept
+     * so it remains available across restarts. CRLs are only kept in memory if left undefined.
+     */
+    private String crlCacheDirectory;
+
+    /**
+     * When CRLs are prefetched, indicate how long after a distribution point was last checked
+     * its CRL is dropped, both from memory and from the cache directory, and no longer fetched.
+     */
+    private long crlIdleTimeoutSeconds = TimeUnit.DAYS.toSeconds(1);
+
+    /**
+     * When CRLs are prefetched, the maximum number of distribution points whose CRLs are kept.
+     * CRLs of the distribution points that were checked least recently are dropped first.
+     */
+    private int crlMaxDistributionPoints = 1000;
+
     /**
      * If the CRL resource is unavailable, activate the this policy.
      * Activated if {@link #revocationChecker} is {@code RESOURCE}.
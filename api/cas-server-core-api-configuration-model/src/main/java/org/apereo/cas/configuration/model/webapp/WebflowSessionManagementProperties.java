@@ -3,6 +3,8 @@ package org.apereo.cas.configuration.model.webapp;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -49,6 +51,23 @@ public class WebflowSessionManagementProperties implements Serializable {
      */
     private boolean storage;
 
+    /**
+     * Codec used to turn webflow state into bytes when it is kept on the client.
+     * Accepted values are {@code java}, which relies on Java serialization of the entire flow execution,
+     * and {@code kryo}, which writes flow executions in a compact binary form and requires webflow state to be
+     * encrypted via AES-GCM. State encoded by one codec cannot be read by the other, so flows that are in progress
+     * when the codec is switched must be restarted.
+     * Only relevant if session storage is done on the client.
+     */
+    private String codec = "java";
+
+    /**
+     * Packages, such as {@code org.example.}, whose classes may be part of webflow state encoded via Kryo,
+     * in addition to the JDK, CAS and Spring Webflow packages that are always allowed. Webflow state that refers
+     * to classes of any other package is rejected. Only relevant if the {@code kryo} codec is used.
+     */
+    private List<String> codecAllowedPackages = new ArrayList<>();
+
     /**
      * If sessions are to be replicated via Hazelcast, defines the location of a {@code hazelcast.xml}
      * file that defines how state should be replicated.
@@ -76,4 +76,35 @@ public interface TicketDefinitionProperties {
      */
     void setStorageTimeout(long timeout);
 
+    /**
+     * Describes whether decoded instances of this ticket may be kept
+     * in a short-lived local cache in front of a remote registry,
+     * so repeated lookups do not hit the underlying storage.
+     *
+     * @return true /false
+     */
+    boolean isNearCacheEnabled();
+
+    /**
+     * Sets near cache enabled.
+     *
+     * @param nearCacheEnabled the near cache enabled
+     */
+    void setNearCacheEnabled(boolean nearCacheEnabled);
+
+    /**
+     * Generic name of the storage tier that tickets of this definition should be routed to,
+     * in cases where several ticket registries are used side by side. Tickets with no storage tier
+     * are kept in the primary registry.
+     *
+     * @return the storage tier
+     */
+    String getStorageTier();
+
+    /**
+     * Sets storage tier.
+     *
+     * @param storageTier the storage tier
+     */
+    void setStorageTier(String storageTier);
 }
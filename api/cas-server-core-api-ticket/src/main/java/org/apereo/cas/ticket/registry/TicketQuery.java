@@ -0,0 +1,98 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketDefinition;
+
+import java.util.function.Predicate;
+
+/**
+ * This is {@link TicketQuery}, which describes the tickets that should be fetched from a {@link TicketRegistry}.
+ * <p>
+ * Tickets may be narrowed down by type, by expiration state and by an arbitrary predicate. Registries are
+ * expected to push the type and expiration filters down into the underlying store where possible, and to evaluate
+ * the predicate as tickets are streamed. Results may be requested one page at a time, where each page continues
+ * after the opaque cursor handed out with the previous page, or may be limited to the number of matching tickets.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Getter
+@ToString(exclude = "predicate")
+@Builder(toBuilder = true)
+public class TicketQuery {
+    /**
+     * The type of tickets to fetch.
+     */
+    @Builder.Default
+    private final Class<? extends Ticket> type = Ticket.class;
+
+    /**
+     * Predicate that tickets must pass, if any.
+     */
+    private final Predicate<Ticket> predicate;
+
+    /**
+     * Whether expired tickets should be included.
+     */
+    @Builder.Default
+    private final boolean includeExpired = true;
+
+    /**
+     * Cursor handed out with the previous page, if any.
+     */
+    private final String cursor;
+
+    /**
+     * Number of tickets in a page; zero or less fetches all tickets after the cursor.
+     */
+    private final int pageSize;
+
+    /**
+     * Whether only the number of matching tickets should be calculated.
+     */
+    private final boolean countOnly;
+
+    /**
+     * Whether tickets of the given definition may match this query.
+     *
+     * @param definition the ticket definition
+     * @return true/false
+     */
+    public boolean matches(final TicketDefinition definition) {
+        return this.type.isAssignableFrom(definition.getImplementationClass());
+    }
+
+    /**
+     * Whether the ticket matches this query.
+     *
+     * @param ticket the ticket
+     * @return true/false
+     */
+    public boolean matches(final Ticket ticket) {
+        return this.type.isInstance(ticket)
+            && (this.includeExpired || !ticket.isExpired())
+            && (this.predicate == null || this.predicate.test(ticket));
+    }
+
+    /**
+     * Whether every ticket of a matching type matches this query,
+     * so that tickets may be counted without being fetched.
+     *
+     * @return true/false
+     */
+    public boolean isUnfiltered() {
+        return this.includeExpired && this.predicate == null;
+    }
+
+    /**
+     * Whether results should be split into pages.
+     *
+     * @return true/false
+     */
+    public boolean isPaged() {
+        return this.pageSize > 0;
+    }
+}
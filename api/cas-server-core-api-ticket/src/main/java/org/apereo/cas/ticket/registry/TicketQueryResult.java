@@ -0,0 +1,109 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.apereo.cas.ticket.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link TicketQueryResult}, which carries the outcome of a {@link TicketQuery}:
+ * a page of tickets ordered by their cursor key along with the cursor for the next page,
+ * or the number of matching tickets for count-only queries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TicketQueryResult {
+    private final List<Ticket> tickets;
+
+    private final long count;
+
+    /**
+     * Cursor for the next page, or null if there are no more tickets.
+     */
+    private final String nextCursor;
+
+    /**
+     * Whether more tickets are available after this page.
+     *
+     * @return true/false
+     */
+    public boolean hasMore() {
+        return this.nextCursor != null;
+    }
+
+    /**
+     * Build a result that only carries the number of matching tickets.
+     *
+     * @param count the count
+     * @return the result
+     */
+    public static TicketQueryResult ofCount(final long count) {
+        return new TicketQueryResult(Collections.emptyList(), count, null);
+    }
+
+    /**
+     * Build a page from matching tickets that arrive in no particular order.
+     * The stream is consumed entirely, while only the tickets of the requested page are retained.
+     *
+     * @param tickets   the matching tickets
+     * @param query     the query
+     * @param keyMapper maps tickets to the key by which tickets are ordered and which serves as the cursor
+     * @return the result
+     */
+    public static TicketQueryResult of(final Stream<Ticket> tickets, final TicketQuery query, final Function<Ticket, String> keyMapper) {
+        final Stream<Ticket> remaining = query.getCursor() == null
+            ? tickets
+            : tickets.filter(ticket -> keyMapper.apply(ticket).compareTo(query.getCursor()) > 0);
+        if (!query.isPaged()) {
+            return ofOrderedTickets(remaining.sorted(Comparator.comparing(keyMapper)), query, keyMapper);
+        }
+        final Comparator<Ticket> order = Comparator.comparing(keyMapper);
+        final PriorityQueue<Ticket> page = new PriorityQueue<>(query.getPageSize() + 1, order.reversed());
+        remaining.forEach(ticket -> {
+            page.add(ticket);
+            if (page.size() > query.getPageSize() + 1) {
+                page.poll();
+            }
+        });
+        final List<Ticket> results = new ArrayList<>(page);
+        results.sort(order);
+        return ofOrderedTickets(results.stream(), query, keyMapper);
+    }
+
+    /**
+     * Build a page from matching tickets that arrive ordered by their key,
+     * starting after the cursor. Only the tickets of the requested page are consumed from the stream.
+     *
+     * @param tickets   the matching tickets
+     * @param query     the query
+     * @param keyMapper maps tickets to the key by which tickets are ordered and which serves as the cursor
+     * @return the result
+     */
+    public static TicketQueryResult ofOrderedTickets(final Stream<Ticket> tickets, final TicketQuery query,
+                                                     final Function<Ticket, String> keyMapper) {
+        if (!query.isPaged()) {
+            final List<Ticket> results = tickets.collect(Collectors.toList());
+            return new TicketQueryResult(results, results.size(), null);
+        }
+        final List<Ticket> results = tickets.limit(query.getPageSize() + 1L).collect(Collectors.toList());
+        if (results.size() <= query.getPageSize()) {
+            return new TicketQueryResult(results, results.size(), null);
+        }
+        final List<Ticket> page = new ArrayList<>(results.subList(0, query.getPageSize()));
+        return new TicketQueryResult(page, page.size(), keyMapper.apply(page.get(page.size() - 1)));
+    }
+}
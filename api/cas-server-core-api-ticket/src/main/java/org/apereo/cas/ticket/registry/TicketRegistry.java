@@ -5,6 +5,7 @@ import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 /**
  * Interface for a registry that stores tickets. The underlying registry can be
@@ -69,6 +70,8 @@ public interface TicketRegistry {
 
     /**
      * Gets tickets as a stream having applied a predicate.
+     * The stream may hold resources of the underlying store, such as cursors
+     * or connections, and must be closed once consumed.
      *
      * @param predicate the predicate
      * @return the tickets
@@ -85,6 +88,18 @@ public interface TicketRegistry {
      */
     Ticket updateTicket(Ticket ticket);
 
+    /**
+     * Update and add the given tickets together. Registries that are able to batch
+     * writes into a single round trip should override this operation.
+     *
+     * @param ticketsToUpdate the tickets to update
+     * @param ticketsToAdd    the tickets to add
+     */
+    default void updateAndAddTickets(final Collection<? extends Ticket> ticketsToUpdate, final Collection<? extends Ticket> ticketsToAdd) {
+        ticketsToUpdate.forEach(this::updateTicket);
+        ticketsToAdd.forEach(this::addTicket);
+    }
+
     /**
      * Computes the number of SSO sessions stored in the ticket registry.
      *
@@ -100,12 +115,85 @@ public interface TicketRegistry {
     long serviceTicketCount();
 
     /**
-     * Gets tickets stream.
+     * Gets the unexpired ticket-granting tickets (sessions) that are tied to the given principal id.
+     * Principal ids are compared in a case-insensitive manner. Registries that are able to
+     * maintain a principal-to-session index should override this operation;
+     * the default implementation scans the entire registry.
+     * The stream may hold resources of the underlying store and must be closed once consumed.
+     *
+     * @param principalId the principal id
+     * @return the sessions for the principal
+     */
+    default Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return getTickets(t -> t instanceof TicketGrantingTicket && !t.isExpired())
+            .map(TicketGrantingTicket.class::cast)
+            .filter(t -> t.getAuthentication().getPrincipal().getId().equalsIgnoreCase(principalId));
+    }
+
+    /**
+     * Gets tickets stream. The stream may hold resources of the underlying store,
+     * such as cursors or connections, and must be closed once consumed;
+     * streams derived from it share its close handlers.
      *
      * @return the tickets stream
      */
     default Stream<Ticket> getTicketsStream() {
         return getTickets().stream();
     }
-    
+
+    /**
+     * Gets the expired tickets in the registry. Registries that are able to
+     * page through the underlying store should override this operation and load
+     * tickets {@code batchSize} at a time; the default implementation filters the tickets stream.
+     * The stream must be closed once consumed.
+     *
+     * @param batchSize the number of tickets to load from the store at a time
+     * @return the expired tickets
+     */
+    default Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return getTicketsStream().filter(Ticket::isExpired);
+    }
+
+    /**
+     * Stream the tickets that match the given query, disregarding its paging options.
+     * Registries that are able to filter tickets by type or expiration state in the
+     * underlying store should override this operation; the default implementation
+     * filters the tickets stream. The stream must be closed once consumed.
+     *
+     * @param query the query
+     * @return the matching tickets
+     */
+    default Stream<Ticket> streamTickets(final TicketQuery query) {
+        return getTicketsStream().filter(query::matches);
+    }
+
+    /**
+     * Fetch a page of the tickets that match the given query, ordered by their cursor key,
+     * or only count the matching tickets. Registries that are able to page through or count
+     * entries in the underlying store should override this operation; the default implementation
+     * streams all matching tickets and retains those of the requested page, ordered by ticket id.
+     *
+     * @param query the query
+     * @return the result
+     */
+    default TicketQueryResult queryTickets(final TicketQuery query) {
+        try (Stream<Ticket> tickets = streamTickets(query)) {
+            if (query.isCountOnly()) {
+                return TicketQueryResult.ofCount(tickets.count());
+            }
+            return TicketQueryResult.of(tickets, query, Ticket::getId);
+        }
+    }
+
+    /**
+     * Delete the given tickets, and their descendants, in bulk.
+     * Registries that are able to remove several entries in a single
+     * operation should override this operation.
+     *
+     * @param tickets the tickets
+     * @return the number of tickets deleted including children
+     */
+    default int deleteTickets(final Collection<? extends Ticket> tickets) {
+        return tickets.stream().mapToInt(ticket -> deleteTicket(ticket.getId())).sum();
+    }
 }
@@ -11,6 +11,8 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyTicket;
+import org.apereo.cas.ticket.registry.TicketQuery;
+import org.apereo.cas.ticket.registry.TicketQueryResult;
 import org.apereo.cas.validation.Assertion;
 
 import java.util.Collection;
@@ -126,6 +128,18 @@ public interface CentralAuthenticationService {
      */
     Collection<Ticket> getTickets(Predicate<Ticket> predicate);
 
+    /**
+     * Query the underlying ticket registry for a page of tickets, or for the number of tickets,
+     * that match the given query. Unlike {@link #getTickets(Predicate)}, tickets are streamed from the
+     * registry and only those of the requested page are retained, which allows type and
+     * expiration filters as well as paging to be pushed down into the registry.
+     *
+     * @param query the query
+     * @return the result
+     * @since 5.3.0
+     */
+    TicketQueryResult queryTickets(TicketQuery query);
+
     /**
      * Grant a {@link ServiceTicket} that may be used to access the given service
      * by authenticating the given credentials.
@@ -0,0 +1,254 @@
+package org.apereo.cas.audit.spi;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.audit.BulkAuditTrailManager;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This is {@link AsynchronousAuditTrailManager}, which decorates an audit trail manager so that
+ * audit records are placed into a {@link BoundedRingBuffer} on the request thread and are recorded
+ * by a background thread. Records are recorded in batches of up to the configured size, and a batch
+ * is recorded once it fills up or once the batch window elapses. Audit trail managers that implement
+ * {@link BulkAuditTrailManager} record each batch in a single operation.
+ * <p>
+ * When the buffer is full, the {@link OverflowPolicies overflow policy} decides whether the request
+ * waits, the oldest record is discarded or the record is appended to a local spill file. Spilled records
+ * are kept for recovery and are prefixed with the name of the audit trail manager they were meant for;
+ * they are not replayed automatically.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class AsynchronousAuditTrailManager implements AuditTrailManager, DisposableBean {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AuditTrailManager delegate;
+
+    private final BoundedRingBuffer<AuditActionContext> buffer;
+
+    private final int batchSize;
+
+    private final Duration batchWindow;
+
+    private final OverflowPolicies overflowPolicy;
+
+    private final File spillFile;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    private final LongAdder recordedAudits = new LongAdder();
+
+    private final LongAdder droppedAudits = new LongAdder();
+
+    private final LongAdder spilledAudits = new LongAdder();
+
+    private final LongAdder failedAudits = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder totalBatchLatency = new LongAdder();
+
+    private final AtomicLong maximumBatchLatency = new AtomicLong();
+
+    private final AtomicLong lag = new AtomicLong();
+
+    /**
+     * Policies applied when an audit record arrives while the buffer is full.
+     */
+    public enum OverflowPolicies {
+        /**
+         * Wait until the buffer has room for the record.
+         */
+        BLOCK,
+        /**
+         * Discard the oldest buffered record to make room for the record.
+         */
+        DROP_OLDEST,
+        /**
+         * Append the record to the spill file.
+         */
+        SPILL
+    }
+
+    public AsynchronousAuditTrailManager(final AuditTrailManager delegate, final int capacity, final int batchSize,
+                                         final Duration batchWindow, final OverflowPolicies overflowPolicy,
+                                         final File spillFile) {
+        this.delegate = delegate;
+        this.buffer = new BoundedRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWindow = batchWindow;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = spillFile;
+        this.worker = new Thread(this::drain, "cas-audit-" + delegate.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void record(final AuditActionContext audit) {
+        if (!this.running) {
+            LOGGER.trace("Audit pipeline is shut down; recording audit record directly via [{}]", this.delegate);
+            this.delegate.record(audit);
+            return;
+        }
+        while (!this.buffer.offer(audit)) {
+            switch (this.overflowPolicy) {
+                case DROP_OLDEST:
+                    if (this.buffer.poll() != null) {
+                        LOGGER.trace("Audit buffer for [{}] is full; the oldest audit record is dropped", this.delegate);
+                        this.droppedAudits.increment();
+                    }
+                    break;
+                case SPILL:
+                    spill(audit);
+                    return;
+                case BLOCK:
+                default:
+                    LockSupport.unpark(this.worker);
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                    if (!this.running) {
+                        this.delegate.record(audit);
+                        return;
+                    }
+                    break;
+            }
+        }
+        if (this.buffer.size() >= this.batchSize) {
+            LockSupport.unpark(this.worker);
+        }
+    }
+
+    @Override
+    public Set<AuditActionContext> getAuditRecordsSince(final LocalDate sinceDate) {
+        return this.delegate.getAuditRecordsSince(sinceDate);
+    }
+
+    /**
+     * Gets statistics about the pipeline.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final long batchCount = this.batches.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", this.buffer.size());
+        stats.put("capacity", this.buffer.getCapacity());
+        stats.put("lagMillis", this.lag.get());
+        stats.put("recorded", this.recordedAudits.sum());
+        stats.put("dropped", this.droppedAudits.sum());
+        stats.put("spilled", this.spilledAudits.sum());
+        stats.put("failed", this.failedAudits.sum());
+        stats.put("batches", batchCount);
+        stats.put("averageBatchLatencyMillis", batchCount == 0 ? 0 : this.totalBatchLatency.sum() / batchCount);
+        stats.put("maximumBatchLatencyMillis", this.maximumBatchLatency.get());
+        return stats;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        this.running = false;
+        LockSupport.unpark(this.worker);
+        this.worker.join(TimeUnit.SECONDS.toMillis(10));
+        LOGGER.debug("Audit pipeline for [{}] is shut down with [{}] pending audit record(s)", this.delegate, this.buffer.size());
+    }
+
+    private void drain() {
+        final long windowNanos = this.batchWindow.toNanos();
+        while (this.running || !this.buffer.isEmpty()) {
+            final long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            while (this.running && remaining > 0 && this.buffer.size() < this.batchSize) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            final List<AuditActionContext> batch = new ArrayList<>(this.batchSize);
+            while (batch.size() < this.batchSize) {
+                final AuditActionContext audit = this.buffer.poll();
+                if (audit == null) {
+                    break;
+                }
+                batch.add(audit);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(final List<AuditActionContext> batch) {
+        final AuditActionContext oldest = batch.get(0);
+        if (oldest.getWhenActionWasPerformed() != null) {
+            this.lag.set(Math.max(0, System.currentTimeMillis() - oldest.getWhenActionWasPerformed().getTime()));
+        }
+        final long start = System.nanoTime();
+        try {
+            if (this.delegate instanceof BulkAuditTrailManager) {
+                ((BulkAuditTrailManager) this.delegate).recordAll(batch);
+            } else {
+                batch.forEach(this.delegate::record);
+            }
+            this.recordedAudits.add(batch.size());
+        } catch (final Exception e) {
+            LOGGER.error("Unable to record [{}] audit record(s) via [{}]: [{}]", batch.size(), this.delegate, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            this.failedAudits.add(batch.size());
+        }
+        final long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.batches.increment();
+        this.totalBatchLatency.add(latency);
+        this.maximumBatchLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    private void spill(final AuditActionContext audit) {
+        synchronized (AsynchronousAuditTrailManager.class) {
+            spillRecord(audit);
+        }
+    }
+
+    private void spillRecord(final AuditActionContext audit) {
+        try (Writer writer = Files.newBufferedWriter(this.spillFile.toPath(), StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(this.delegate.getClass().getSimpleName());
+            writer.write('|');
+            writer.write(toSpillRecord(audit));
+            writer.write(System.lineSeparator());
+            this.spilledAudits.increment();
+        } catch (final IOException e) {
+            LOGGER.error("Unable to spill audit record to [{}]; the record is dropped: [{}]", this.spillFile, e.getMessage());
+            this.droppedAudits.increment();
+        }
+    }
+
+    private static String toSpillRecord(final AuditActionContext audit) {
+        final Instant when = audit.getWhenActionWasPerformed() == null ? Instant.now() : audit.getWhenActionWasPerformed().toInstant();
+        return String.join("|", when.toString(), audit.getPrincipal(), audit.getResourceOperatedUpon(),
+            audit.getActionPerformed(), audit.getApplicationCode(), audit.getClientIpAddress(), audit.getServerIpAddress());
+    }
+}
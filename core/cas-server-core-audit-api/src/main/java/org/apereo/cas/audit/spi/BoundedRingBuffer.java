@@ -0,0 +1,105 @@
+package org.apereo.cas.audit.spi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This is {@link BoundedRingBuffer}, a fixed-size queue that may be offered to and polled from
+ * by any number of threads without locking. Every slot carries a sequence number that tells
+ * producers and consumers whether the slot is ready to be written or read, and the head and tail
+ * positions are claimed via compare-and-set.
+ *
+ * @param <T> the type parameter
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class BoundedRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong tail = new AtomicLong();
+
+    public BoundedRingBuffer(final int capacity) {
+        int size = 1;
+        while (size < capacity && size < (1 << 30)) {
+            size <<= 1;
+        }
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add the element unless the buffer is full.
+     *
+     * @param element the element
+     * @return true if the element was added
+     */
+    public boolean offer(final T element) {
+        while (true) {
+            final long position = this.tail.get();
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.lazySet(index, element);
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element.
+     *
+     * @return the element, or null if the buffer is empty
+     */
+    public T poll() {
+        while (true) {
+            final long position = this.head.get();
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    final T element = this.elements.get(index);
+                    this.elements.lazySet(index, null);
+                    this.sequences.set(index, position + this.mask + 1);
+                    return element;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Number of elements in the buffer, which is approximate while the buffer is modified.
+     *
+     * @return the size
+     */
+    public int size() {
+        final long size = this.tail.get() - this.head.get();
+        return (int) Math.max(0, Math.min(size, getCapacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+}
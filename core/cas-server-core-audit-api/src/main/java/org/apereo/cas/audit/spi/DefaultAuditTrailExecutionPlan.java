@@ -5,27 +5,41 @@ import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.audit.AuditTrailExecutionPlan;
 import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
+import org.springframework.beans.factory.DisposableBean;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * This is {@link DefaultAuditTrailExecutionPlan}.
+ * Audit trail managers may be decorated as they are registered, which allows
+ * them to be placed behind an {@link AsynchronousAuditTrailManager}.
  *
  * @author Misagh Moayyed
  * @since 5.3.0
  */
 @Slf4j
 @Getter
-public class DefaultAuditTrailExecutionPlan implements AuditTrailExecutionPlan {
+public class DefaultAuditTrailExecutionPlan implements AuditTrailExecutionPlan, DisposableBean {
     private List<AuditTrailManager> auditTrailManagers = new ArrayList<>();
 
+    private final UnaryOperator<AuditTrailManager> auditTrailManagerDecorator;
+
+    public DefaultAuditTrailExecutionPlan() {
+        this(UnaryOperator.identity());
+    }
+
+    public DefaultAuditTrailExecutionPlan(final UnaryOperator<AuditTrailManager> auditTrailManagerDecorator) {
+        this.auditTrailManagerDecorator = auditTrailManagerDecorator;
+    }
+
     @Override
     public void registerAuditTrailManager(final AuditTrailManager manager) {
-        this.auditTrailManagers.add(manager);
+        this.auditTrailManagers.add(this.auditTrailManagerDecorator.apply(manager));
     }
 
     @Override
@@ -41,4 +55,13 @@ public class DefaultAuditTrailExecutionPlan implements AuditTrailExecutionPlan {
             .flatMap(Set::stream)
             .collect(Collectors.toSet());
     }
+
+    @Override
+    public void destroy() throws Exception {
+        for (final AuditTrailManager manager : this.auditTrailManagers) {
+            if (manager instanceof AsynchronousAuditTrailManager) {
+                ((AsynchronousAuditTrailManager) manager).destroy();
+            }
+        }
+    }
 }
@@ -7,6 +7,7 @@ import org.apereo.cas.audit.AuditTrailExecutionPlan;
 import org.apereo.cas.audit.AuditTrailExecutionPlanConfigurer;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlan;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
+import org.apereo.cas.audit.spi.AsynchronousAuditTrailManager;
 import org.apereo.cas.audit.spi.ChainingAuditPrincipalIdProvider;
 import org.apereo.cas.audit.spi.CredentialsAsFirstParameterResourceResolver;
 import org.apereo.cas.audit.spi.DefaultAuditTrailExecutionPlan;
@@ -20,8 +21,10 @@ import org.apereo.cas.audit.spi.ThreadLocalPrincipalResolver;
 import org.apereo.cas.audit.spi.TicketAsFirstParameterResourceResolver;
 import org.apereo.cas.audit.spi.TicketValidationResourceResolver;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.audit.AuditPipelineProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditSlf4jLogProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.inspektr.audit.AuditTrailManagementAspect;
 import org.apereo.inspektr.audit.spi.AuditActionResolver;
@@ -32,6 +35,8 @@ import org.apereo.inspektr.common.spi.PrincipalResolver;
 import org.apereo.inspektr.common.web.ClientInfoThreadLocalFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -42,6 +47,7 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -96,7 +102,21 @@ public class CasCoreAuditConfiguration implements AuditTrailExecutionPlanConfigu
     @ConditionalOnMissingBean(name = "auditTrailExecutionPlan")
     @Bean
     public AuditTrailExecutionPlan auditTrailExecutionPlan(final List<AuditTrailExecutionPlanConfigurer> configurers) {
-        final DefaultAuditTrailExecutionPlan plan = new DefaultAuditTrailExecutionPlan();
+        final AuditPipelineProperties pipeline = casProperties.getAudit().getPipeline();
+        final DefaultAuditTrailExecutionPlan plan;
+        if (pipeline.isEnabled()) {
+            final File spillFile = StringUtils.isBlank(pipeline.getSpillFile())
+                ? new File(System.getProperty("java.io.tmpdir"), "cas-audit-spill.log")
+                : new File(pipeline.getSpillFile());
+            final AsynchronousAuditTrailManager.OverflowPolicies overflowPolicy =
+                AsynchronousAuditTrailManager.OverflowPolicies.valueOf(pipeline.getOverflowPolicy().trim().toUpperCase());
+            LOGGER.debug("Audit records are recorded asynchronously in batches of [{}] with overflow policy [{}]",
+                pipeline.getBatchSize(), overflowPolicy);
+            plan = new DefaultAuditTrailExecutionPlan(manager -> new AsynchronousAuditTrailManager(manager,
+                pipeline.getCapacity(), pipeline.getBatchSize(), Beans.newDuration(pipeline.getBatchWindow()), overflowPolicy, spillFile));
+        } else {
+            plan = new DefaultAuditTrailExecutionPlan();
+        }
         configurers.forEach(c -> {
             final String name = StringUtils.removePattern(c.getClass().getSimpleName(), "\\$.+");
             LOGGER.debug("Registering audit trail manager [{}]", name);
@@ -105,6 +125,32 @@ public class CasCoreAuditConfiguration implements AuditTrailExecutionPlanConfigu
         return plan;
     }
 
+    @ConditionalOnMissingBean(name = "auditTrailPipelineHealthIndicator")
+    @Bean
+    public HealthIndicator auditTrailPipelineHealthIndicator(@Qualifier("auditTrailExecutionPlan") final AuditTrailExecutionPlan auditTrailExecutionPlan) {
+        return () -> {
+            final Health.Builder builder = Health.up();
+            final List<AsynchronousAuditTrailManager> managers = new ArrayList<>();
+            auditTrailExecutionPlan.getAuditTrailManagers()
+                .stream()
+                .filter(AsynchronousAuditTrailManager.class::isInstance)
+                .map(AsynchronousAuditTrailManager.class::cast)
+                .forEach(managers::add);
+            if (managers.isEmpty()) {
+                return builder.withDetail("enabled", Boolean.FALSE).build();
+            }
+            final Map<String, Object> details = new HashMap<>();
+            for (int i = 0; i < managers.size(); i++) {
+                final AsynchronousAuditTrailManager manager = managers.get(i);
+                final String name = manager.getDelegate().getClass().getSimpleName();
+                final String key = details.containsKey(name) ? name + '-' + i : name;
+                details.put(key, manager.getStatistics());
+            }
+            details.forEach(builder::withDetail);
+            return builder.build();
+        };
+    }
+
     @Bean
     public FilterRegistrationBean casClientInfoLoggingFilter() {
         final AuditProperties audit = casProperties.getAudit();
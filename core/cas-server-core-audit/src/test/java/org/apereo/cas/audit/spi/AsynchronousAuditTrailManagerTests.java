@@ -0,0 +1,95 @@
+package org.apereo.cas.audit.spi;
+
+import org.apereo.cas.audit.BulkAuditTrailManager;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link AsynchronousAuditTrailManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class AsynchronousAuditTrailManagerTests {
+
+    private static AuditActionContext newAuditRecord(final int index) {
+        return new AuditActionContext("casuser" + index, "resource", "action", "CAS", new Date(), "1.2.3.4", "5.6.7.8");
+    }
+
+    @Test
+    public void verifyRecordsAreBatched() throws Exception {
+        final BulkAuditTrailManager delegate = mock(BulkAuditTrailManager.class);
+        final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(delegate, 64, 10,
+            Duration.ofMinutes(1), AsynchronousAuditTrailManager.OverflowPolicies.BLOCK, null);
+        IntStream.range(0, 20).forEach(i -> manager.record(newAuditRecord(i)));
+
+        verify(delegate, timeout(5000).times(2)).recordAll(anyCollection());
+        verify(delegate, never()).record(any(AuditActionContext.class));
+        manager.destroy();
+        assertEquals(20L, manager.getStatistics().get("recorded"));
+        assertEquals(2L, manager.getStatistics().get("batches"));
+    }
+
+    @Test
+    public void verifyBatchWindowFlushesPartialBatch() throws Exception {
+        final AuditTrailManager delegate = mock(AuditTrailManager.class);
+        final AsynchronousAuditTrailManager manager = new AsynchronousAuditTrailManager(delegate, 64, 100,
+            Duration.ofMillis(50), AsynchronousAuditTrailManager.OverflowPolicies.BLOCK, null);
+        manager.record(newAuditRecord(1));
+        verify(delegate, timeout(5000)).record(any(AuditActionContext.class));
+        manager.destroy();
+    }
+
+    @Test
+    public void verifyOverflowPolicies() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final BulkAuditTrailManager delegate = mock(BulkAuditTrailManager.class);
+        doAnswer(invocation -> latch.await(10, TimeUnit.SECONDS)).when(delegate).recordAll(anyCollection());
+
+        final AsynchronousAuditTrailManager dropping = new AsynchronousAuditTrailManager(delegate, 4, 1,
+            Duration.ofMinutes(1), AsynchronousAuditTrailManager.OverflowPolicies.DROP_OLDEST, null);
+        IntStream.range(0, 20).forEach(i -> dropping.record(newAuditRecord(i)));
+        assertTrue((Long) dropping.getStatistics().get("dropped") > 0);
+
+        final File spillFile = File.createTempFile("cas-audit", ".log");
+        spillFile.deleteOnExit();
+        final AsynchronousAuditTrailManager spilling = new AsynchronousAuditTrailManager(delegate, 4, 1,
+            Duration.ofMinutes(1), AsynchronousAuditTrailManager.OverflowPolicies.SPILL, spillFile);
+        IntStream.range(0, 20).forEach(i -> spilling.record(newAuditRecord(i)));
+        final long spilled = (Long) spilling.getStatistics().get("spilled");
+        assertTrue(spilled > 0);
+        assertEquals(spilled, Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8).size());
+
+        latch.countDown();
+        dropping.destroy();
+        spilling.destroy();
+    }
+
+    @Test
+    public void verifyRingBuffer() {
+        final BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(3);
+        assertEquals(4, buffer.getCapacity());
+        IntStream.range(0, 4).forEach(i -> assertTrue(buffer.offer(i)));
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        IntStream.range(1, 5).forEach(i -> assertEquals(Integer.valueOf(i), buffer.poll()));
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -9,6 +9,7 @@ import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 
 import java.security.GeneralSecurityException;
+import java.util.stream.Stream;
 
 /**
  * This is {@link UniquePrincipalAuthenticationPolicy}
@@ -29,14 +30,10 @@ public class UniquePrincipalAuthenticationPolicy implements AuthenticationPolicy
     public boolean isSatisfiedBy(final Authentication authentication) throws Exception {
         try {
             final Principal authPrincipal = authentication.getPrincipal();
-            final long count = this.ticketRegistry.getTickets(t -> {
-                boolean pass = TicketGrantingTicket.class.isInstance(t) && !t.isExpired();
-                if (pass) {
-                    final Principal principal = TicketGrantingTicket.class.cast(t).getAuthentication().getPrincipal();
-                    pass = principal.getId().equalsIgnoreCase(authPrincipal.getId());
-                }
-                return pass;
-            }).count();
+            final long count;
+            try (Stream<TicketGrantingTicket> sessions = this.ticketRegistry.getSessionsFor(authPrincipal.getId())) {
+                count = sessions.count();
+            }
             if (count == 0) {
                 LOGGER.debug("Authentication policy is satisfied with [{}]", authPrincipal.getId());
                 return true;
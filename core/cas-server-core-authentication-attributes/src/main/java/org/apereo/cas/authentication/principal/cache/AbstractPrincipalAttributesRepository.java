@@ -187,21 +187,37 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
             LOGGER.debug("Found [{}] cached attributes for principal [{}] that are [{}]", cachedAttributes.size(), p.getId(), cachedAttributes);
             return cachedAttributes;
         }
+        final Map<String, Object> attributes = retrievePrincipalAttributes(p);
+        if (attributes == null) {
+            return cachedAttributes;
+        }
+        addPrincipalAttributes(p.getId(), attributes);
+        return attributes;
+    }
+
+    /**
+     * Retrieve principal attributes from the attribute repository and merge them
+     * with those of the principal, without consulting or populating the cache.
+     *
+     * @param p the principal
+     * @return the principal attributes, or null if no attribute repository is defined
+     */
+    protected Map<String, Object> retrievePrincipalAttributes(final Principal p) {
         if (getAttributeRepository() == null) {
             LOGGER.debug("No attribute repository is defined for [{}]. Returning default principal attributes for [{}]", getClass().getName(), p.getId());
-            return cachedAttributes;
+            return null;
         }
         final Map<String, List<Object>> sourceAttributes = retrievePersonAttributesToPrincipalAttributes(p.getId());
         LOGGER.debug("Found [{}] attributes for principal [{}] from the attribute repository.", sourceAttributes.size(), p.getId());
         if (this.mergingStrategy == null || this.mergingStrategy.getAttributeMerger() == null) {
             LOGGER.debug("No merging strategy found, so attributes retrieved from the repository will be used instead.");
-            return convertAttributesToPrincipalAttributesAndCache(p, sourceAttributes);
+            return convertPersonAttributesToPrincipalAttributes(sourceAttributes);
         }
         final Map<String, List<Object>> principalAttributes = convertPrincipalAttributesToPersonAttributes(p);
         LOGGER.debug("Merging current principal attributes with that of the repository via strategy [{}]", this.mergingStrategy);
         try {
             final Map<String, List<Object>> mergedAttributes = this.mergingStrategy.getAttributeMerger().mergeAttributes(principalAttributes, sourceAttributes);
-            return convertAttributesToPrincipalAttributesAndCache(p, mergedAttributes);
+            return convertPersonAttributesToPrincipalAttributes(mergedAttributes);
         } catch (final Exception e) {
             final StringBuilder builder = new StringBuilder();
             builder.append(e.getClass().getName().concat("-"));
@@ -212,23 +228,10 @@ public abstract class AbstractPrincipalAttributesRepository implements Principal
                 + "This usually is indicative of a bug and/or configuration mismatch. CAS will skip the merging process "
                 + "and will return the original collection of principal attributes [{}]", this.mergingStrategy, p.getId(),
                 builder.toString(), principalAttributes);
-            return convertAttributesToPrincipalAttributesAndCache(p, principalAttributes);
+            return convertPersonAttributesToPrincipalAttributes(principalAttributes);
         }
     }
 
-    /**
-     * Convert attributes to principal attributes and cache.
-     *
-     * @param p                the p
-     * @param sourceAttributes the source attributes
-     * @return the map
-     */
-    private Map<String, Object> convertAttributesToPrincipalAttributesAndCache(final Principal p, final Map<String, List<Object>> sourceAttributes) {
-        final Map<String, Object> finalAttributes = convertPersonAttributesToPrincipalAttributes(sourceAttributes);
-        addPrincipalAttributes(p.getId(), finalAttributes);
-        return finalAttributes;
-    }
-
     /**
      * Add principal attributes into the underlying cache instance.
      *
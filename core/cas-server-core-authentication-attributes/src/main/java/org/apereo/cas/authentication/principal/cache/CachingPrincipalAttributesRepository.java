@@ -1,21 +1,32 @@
 package org.apereo.cas.authentication.principal.cache;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.authentication.principal.Principal;
+import org.apereo.cas.authentication.principal.PrincipalFactoryUtils;
 import org.springframework.data.annotation.Transient;
 
-import java.util.HashMap;
+import java.io.Serializable;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Wrapper around an attribute repository where attributes cached for a configurable period
- * based on google guava's caching library.
+ * based on caffeine's caching library.
+ * <p>
+ * Attributes are loaded through the cache, so concurrent lookups of the same principal that miss the cache
+ * share a single query against the attribute repository. Cached attributes are refreshed in the background
+ * once most of their expiration period has elapsed, so that frequent users are not made to wait
+ * for the attribute repository when their attributes expire.
  *
  * @author Misagh Moayyed
  * @since 4.2
@@ -24,25 +35,39 @@ import java.util.concurrent.TimeUnit;
 public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttributesRepository {
     private static final long serialVersionUID = 6350244643948535906L;
     private static final long DEFAULT_MAXIMUM_CACHE_SIZE = 1000;
+    private static final double REFRESH_RATIO = 0.8;
 
     @JsonIgnore
     @Transient
-    private final transient Cache<String, Map<String, Object>> cache;
+    private final transient LoadingCache<String, CachedPrincipalAttributes> cache;
 
     @JsonIgnore
     @Transient
     private final transient PrincipalAttributesCacheLoader cacheLoader = new PrincipalAttributesCacheLoader();
 
+    @JsonIgnore
+    @Transient
+    private final transient LongAdder requests = new LongAdder();
+
+    @JsonIgnore
+    @Transient
+    private final transient LongAdder hits = new LongAdder();
+
+    @JsonIgnore
+    @Transient
+    private final transient LongAdder loads = new LongAdder();
+
+    @JsonIgnore
+    @Transient
+    private final transient LongAdder coalescedRequests = new LongAdder();
+
     private long maxCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
 
     /**
      * Used for serialization only.
      */
     private CachingPrincipalAttributesRepository() {
-        this.cache = Caffeine.newBuilder()
-            .maximumSize(this.maxCacheSize)
-            .expireAfterWrite(getExpiration(), TimeUnit.valueOf(getTimeUnit()))
-            .build(this.cacheLoader);
+        this.cache = buildCache();
     }
 
     /**
@@ -68,29 +93,78 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
                                                 final long expiryDuration) {
         super(expiryDuration, timeUnit);
         this.maxCacheSize = maxCacheSize;
-        this.cache = Caffeine.newBuilder()
-            .maximumSize(maxCacheSize)
-            .expireAfterWrite(getExpiration(), TimeUnit.valueOf(getTimeUnit()))
-            .build(this.cacheLoader);
+        this.cache = buildCache();
+    }
+
+    private LoadingCache<String, CachedPrincipalAttributes> buildCache() {
+        final long expirationNanos = TimeUnit.valueOf(getTimeUnit()).toNanos(getExpiration());
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(this.maxCacheSize)
+            .expireAfterWrite(expirationNanos, TimeUnit.NANOSECONDS);
+        final long refreshNanos = (long) (expirationNanos * REFRESH_RATIO);
+        if (refreshNanos > 0) {
+            builder.refreshAfterWrite(refreshNanos, TimeUnit.NANOSECONDS);
+        }
+        return builder.build(this.cacheLoader);
+    }
+
+    @Override
+    public Map<String, Object> getAttributes(final Principal p) {
+        this.requests.increment();
+        final CachedPrincipalAttributes cached = this.cache.getIfPresent(p.getId());
+        if (cached != null) {
+            LOGGER.debug("Found [{}] cached attributes for principal [{}]", cached.getAttributes().size(), p.getId());
+            this.hits.increment();
+            return cached.getAttributes();
+        }
+        final AtomicBoolean loaded = new AtomicBoolean();
+        final CachedPrincipalAttributes result = this.cache.get(p.getId(), id -> {
+            loaded.set(true);
+            return this.cacheLoader.load(p);
+        });
+        if (!loaded.get()) {
+            LOGGER.debug("Attributes for [{}] were loaded by a concurrent request", p.getId());
+            this.coalescedRequests.increment();
+        }
+        return result == null ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : result.getAttributes();
     }
 
     @Override
     protected void addPrincipalAttributes(final String id, final Map<String, Object> attributes) {
-        this.cache.put(id, attributes);
+        this.cache.put(id, new CachedPrincipalAttributes(PrincipalFactoryUtils.newPrincipalFactory().createPrincipal(id), attributes));
         LOGGER.debug("Cached attributes for [{}]", id);
     }
 
     @Override
     protected Map<String, Object> getPrincipalAttributes(final Principal p) {
-        try {
-            return this.cache.get(p.getId(), s -> {
-                LOGGER.debug("No cached attributes could be found for [{}]", p.getId());
-                return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            });
-        } catch (final Exception e) {
-            LOGGER.error(e.getMessage(), e);
+        final CachedPrincipalAttributes cached = this.cache.getIfPresent(p.getId());
+        if (cached == null) {
+            LOGGER.debug("No cached attributes could be found for [{}]", p.getId());
+            return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         }
-        return new HashMap<>(0);
+        return cached.getAttributes();
+    }
+
+    /**
+     * Gets statistics about the cache, including the share of lookups answered from the cache
+     * and the share of lookups that were answered by joining a load already in flight.
+     *
+     * @return the statistics
+     */
+    @JsonIgnore
+    public Map<String, Object> getStatistics() {
+        final long total = this.requests.sum();
+        final long hitCount = this.hits.sum();
+        final long coalesced = this.coalescedRequests.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", total);
+        stats.put("hits", hitCount);
+        stats.put("loads", this.loads.sum());
+        stats.put("coalescedRequests", coalesced);
+        stats.put("hitRate", total == 0 ? 0D : (double) hitCount / total);
+        stats.put("coalescingRatio", total == 0 ? 0D : (double) coalesced / total);
+        stats.put("size", this.cache.estimatedSize());
+        return stats;
     }
 
     @Override
@@ -98,10 +172,50 @@ public class CachingPrincipalAttributesRepository extends AbstractPrincipalAttri
         this.cache.cleanUp();
     }
 
-    private static class PrincipalAttributesCacheLoader implements CacheLoader<String, Map<String, Object>> {
+    /**
+     * Cached attributes along with the principal they were retrieved for,
+     * which is needed to refresh them in the background.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class CachedPrincipalAttributes implements Serializable {
+        private static final long serialVersionUID = -2620340297135584347L;
+
+        private final Principal principal;
+
+        private final Map<String, Object> attributes;
+    }
+
+    /**
+     * Loads attributes from the attribute repository. Principals without attributes are not cached,
+     * so that they are looked up again once attributes become available.
+     */
+    private class PrincipalAttributesCacheLoader implements CacheLoader<String, CachedPrincipalAttributes> {
         @Override
-        public Map<String, Object> load(final String key) {
-            return new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        public CachedPrincipalAttributes load(final String key) {
+            return load(PrincipalFactoryUtils.newPrincipalFactory().createPrincipal(key));
+        }
+
+        @Override
+        public CachedPrincipalAttributes reload(final String key, final CachedPrincipalAttributes oldValue) {
+            LOGGER.debug("Refreshing cached attributes for [{}]", key);
+            return load(oldValue.getPrincipal());
+        }
+
+        /**
+         * Load attributes for the principal.
+         *
+         * @param principal the principal
+         * @return the cached attributes, or null if none are found
+         */
+        CachedPrincipalAttributes load(final Principal principal) {
+            loads.increment();
+            final Map<String, Object> attributes = retrievePrincipalAttributes(principal);
+            if (attributes == null || attributes.isEmpty()) {
+                LOGGER.debug("No attributes could be found for [{}]", principal.getId());
+                return null;
+            }
+            return new CachedPrincipalAttributes(principal, attributes);
         }
     }
 }
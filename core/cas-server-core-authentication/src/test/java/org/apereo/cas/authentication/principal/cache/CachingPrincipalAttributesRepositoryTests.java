@@ -3,14 +3,25 @@ package org.apereo.cas.authentication.principal.cache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
+import org.apereo.cas.authentication.principal.DefaultPrincipalFactory;
+import org.apereo.cas.authentication.principal.Principal;
 import org.apereo.cas.authentication.principal.PrincipalAttributesRepository;
+import org.apereo.services.persondir.IPersonAttributes;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Handles tests for {@link CachingPrincipalAttributesRepository}.
@@ -38,4 +49,41 @@ public class CachingPrincipalAttributesRepositoryTests extends AbstractCachingPr
 
         assertEquals(repositoryWritten, repositoryRead);
     }
+
+    @Test
+    public void verifyConcurrentLookupsAreCoalesced() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final IPersonAttributes person = this.dao.getPerson("uid");
+        reset(this.dao);
+        when(this.dao.getPerson(any(String.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return person;
+        });
+        final Principal principal = new DefaultPrincipalFactory().createPrincipal("casuser");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (CachingPrincipalAttributesRepository repository = new CachingPrincipalAttributesRepository(TimeUnit.MINUTES.name(), 5)) {
+            repository.setAttributeRepository(this.dao);
+            final List<Future<Map<String, Object>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> repository.getAttributes(principal)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> repository.getAttributes(principal)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (final Future<Map<String, Object>> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS).containsKey("mail"));
+            }
+            verify(this.dao, times(1)).getPerson("casuser");
+            assertTrue(repository.getAttributes(principal).containsKey("mail"));
+            final Map<String, Object> stats = repository.getStatistics();
+            assertEquals(5L, stats.get("requests"));
+            assertEquals(1L, stats.get("loads"));
+            assertEquals(3L, stats.get("coalescedRequests"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
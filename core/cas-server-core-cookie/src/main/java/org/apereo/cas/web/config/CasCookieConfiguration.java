@@ -8,6 +8,8 @@ import org.apereo.cas.configuration.model.core.util.EncryptionJwtSigningJwtCrypt
 import org.apereo.cas.configuration.model.support.cookie.TicketGrantingCookieProperties;
 import org.apereo.cas.configuration.model.support.cookie.WarningCookieProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.util.cipher.AesGcmStringCipherExecutor;
+import org.apereo.cas.util.cipher.BaseAesGcmCipherExecutor;
 import org.apereo.cas.util.cipher.TicketGrantingCookieCipherExecutor;
 import org.apereo.cas.web.WarningCookieRetrievingCookieGenerator;
 import org.apereo.cas.web.support.CookieRetrievingCookieGenerator;
@@ -67,6 +69,10 @@ public class CasCookieConfiguration {
         }
 
         if (enabled) {
+            if (BaseAesGcmCipherExecutor.STRATEGY_TYPE.equalsIgnoreCase(crypto.getStrategyType())) {
+                return new AesGcmStringCipherExecutor(crypto.getEncryption().getKey(), crypto.getRetiredKeys(),
+                    "Ticket-granting Cookie", "cas.tgc.crypto.encryption.key");
+            }
             return new TicketGrantingCookieCipherExecutor(crypto.getEncryption().getKey(),
                 crypto.getSigning().getKey(), crypto.getAlg());
         }
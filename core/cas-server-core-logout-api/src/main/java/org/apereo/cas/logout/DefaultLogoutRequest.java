@@ -30,7 +30,7 @@ public class DefaultLogoutRequest implements LogoutRequest {
     private final WebApplicationService service;
 
     /** The status of the logout request. */
-    private LogoutRequestStatus status = LogoutRequestStatus.NOT_ATTEMPTED;
+    private volatile LogoutRequestStatus status = LogoutRequestStatus.NOT_ATTEMPTED;
 
     private final URL logoutUrl;
 
@@ -12,7 +12,9 @@ import org.apereo.cas.util.http.HttpClient;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +34,17 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
     private final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder;
     private boolean asynchronous = true;
     private final AuthenticationServiceSelectionPlan authenticationRequestServiceSelectionStrategies;
+    private final SingleLogoutMessageDispatcher dispatcher;
+
+    public DefaultSingleLogoutServiceMessageHandler(final HttpClient httpClient,
+                                                    final LogoutMessageCreator logoutMessageBuilder,
+                                                    final ServicesManager servicesManager,
+                                                    final SingleLogoutServiceLogoutUrlBuilder singleLogoutServiceLogoutUrlBuilder,
+                                                    final boolean asynchronous,
+                                                    final AuthenticationServiceSelectionPlan authenticationRequestServiceSelectionStrategies) {
+        this(httpClient, logoutMessageBuilder, servicesManager, singleLogoutServiceLogoutUrlBuilder,
+            asynchronous, authenticationRequestServiceSelectionStrategies, null);
+    }
 
     /**
      * Handle logout for slo service.
@@ -74,17 +87,24 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
                                                            final WebApplicationService selectedService,
                                                            final RegisteredService registeredService,
                                                            final Collection<URL> logoutUrls) {
-        return logoutUrls
+        final List<CompletableFuture<LogoutRequestStatus>> dispatched = new ArrayList<>();
+        final List<LogoutRequest> requests = logoutUrls
             .stream()
-            .map(url -> createLogoutRequest(ticketId, selectedService, registeredService, url))
+            .map(url -> createLogoutRequest(ticketId, selectedService, registeredService, url, dispatched))
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
+        if (!this.asynchronous && !dispatched.isEmpty()) {
+            LOGGER.debug("Waiting for [{}] dispatched logout message(s) to complete", dispatched.size());
+            CompletableFuture.allOf(dispatched.toArray(new CompletableFuture[0])).join();
+        }
+        return requests;
     }
 
     private LogoutRequest createLogoutRequest(final String ticketId,
                                               final WebApplicationService selectedService,
                                               final RegisteredService registeredService,
-                                              final URL logoutUrl) {
+                                              final URL logoutUrl,
+                                              final List<CompletableFuture<LogoutRequestStatus>> dispatched) {
         final DefaultLogoutRequest logoutRequest = new DefaultLogoutRequest(ticketId, selectedService, logoutUrl);
         LOGGER.debug("Logout request [{}] created for [{}] and ticket id [{}]", logoutRequest, selectedService, ticketId);
         final RegisteredService.LogoutType type = registeredService.getLogoutType() == null
@@ -92,7 +112,9 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
         LOGGER.debug("Logout type registered for [{}] is [{}]", selectedService, type);
 
         if (type == RegisteredService.LogoutType.BACK_CHANNEL) {
-            if (performBackChannelLogout(logoutRequest)) {
+            if (this.dispatcher != null) {
+                dispatched.add(dispatchBackChannelLogout(logoutRequest));
+            } else if (performBackChannelLogout(logoutRequest)) {
                 logoutRequest.setStatus(LogoutRequestStatus.SUCCESS);
             } else {
                 logoutRequest.setStatus(LogoutRequestStatus.FAILURE);
@@ -105,6 +127,31 @@ public class DefaultSingleLogoutServiceMessageHandler implements SingleLogoutSer
         return logoutRequest;
     }
 
+    /**
+     * Hand off the back channel logout message to the dispatcher.
+     * When asynchronous, the request is optimistically marked as successful and its status
+     * is updated by the dispatcher once the message is delivered or abandoned.
+     *
+     * @param request the logout request.
+     * @return the future that completes with the final status of the request.
+     */
+    public CompletableFuture<LogoutRequestStatus> dispatchBackChannelLogout(final LogoutRequest request) {
+        try {
+            LOGGER.debug("Creating back-channel logout request based on [{}]", request);
+            final String logoutRequest = this.logoutMessageBuilder.create(request);
+            request.getService().setLoggedOutAlready(true);
+            final LogoutHttpMessage msg = new LogoutHttpMessage(request.getLogoutUrl(), logoutRequest, false);
+            if (this.asynchronous) {
+                request.setStatus(LogoutRequestStatus.SUCCESS);
+            }
+            return this.dispatcher.dispatch(request, msg);
+        } catch (final Exception e) {
+            LOGGER.error(e.getMessage(), e);
+            request.setStatus(LogoutRequestStatus.FAILURE);
+            return CompletableFuture.completedFuture(LogoutRequestStatus.FAILURE);
+        }
+    }
+
     /**
      * Log out of a service through back channel.
      *
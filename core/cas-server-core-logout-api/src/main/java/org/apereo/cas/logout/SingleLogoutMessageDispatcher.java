@@ -0,0 +1,271 @@
+package org.apereo.cas.logout;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcher}. It sends back-channel logout messages
+ * using a bounded pool of workers so that a logout fan-out to many services is done in parallel
+ * and its latency is bounded by the slowest endpoint rather than the sum of all of them.
+ * <p>
+ * The number of concurrent requests to the same host is limited, every request is cancelled
+ * once its timeout elapses, and failed requests are retried with an exponential backoff until
+ * the maximum number of attempts is reached. The final status of each request is reported
+ * back via {@link LogoutRequest#setStatus(LogoutRequestStatus)} and the returned future.
+ * A request that times out keeps counting against the limit of its host until the http client
+ * actually returns, so that slow hosts cannot accumulate more requests than they are allowed.
+ * Messages passed to the dispatcher are expected to be sent synchronously by the http client.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class SingleLogoutMessageDispatcher implements DisposableBean {
+    private static final long HOST_BUSY_DELAY_IN_MILLIS = 50;
+
+    private final HttpClient httpClient;
+
+    private final int maxConcurrencyPerHost;
+
+    private final long timeoutInMillis;
+
+    private final int maxAttempts;
+
+    private final long retryDelayInMillis;
+
+    private final double retryBackoffMultiplier;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private final Set<DispatchTask> pendingRetries = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder succeeded = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder retried = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder totalLatencyInNanos = new LongAdder();
+
+    private final LongAccumulator maxLatencyInNanos = new LongAccumulator(Math::max, 0);
+
+    public SingleLogoutMessageDispatcher(final HttpClient httpClient, final int poolSize, final int queueSize,
+                                         final int maxConcurrencyPerHost, final long timeoutInMillis,
+                                         final int maxAttempts, final long retryDelayInMillis,
+                                         final double retryBackoffMultiplier) {
+        this.httpClient = httpClient;
+        this.maxConcurrencyPerHost = Math.max(1, maxConcurrencyPerHost);
+        this.timeoutInMillis = timeoutInMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayInMillis = retryDelayInMillis;
+        this.retryBackoffMultiplier = Math.max(1, retryBackoffMultiplier);
+
+        final CustomizableThreadFactory workerFactory = new CustomizableThreadFactory("cas-slo-dispatcher-");
+        workerFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueSize), workerFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+
+        final CustomizableThreadFactory schedulerFactory = new CustomizableThreadFactory("cas-slo-scheduler-");
+        schedulerFactory.setDaemon(true);
+        final ScheduledThreadPoolExecutor scheduledExecutor = new ScheduledThreadPoolExecutor(1, schedulerFactory);
+        scheduledExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduledExecutor;
+    }
+
+    /**
+     * Dispatch the logout message for the given request.
+     *
+     * @param request the logout request whose status is updated once the message is delivered or abandoned
+     * @param message the message to send
+     * @return the future that completes with the final status of the request
+     */
+    public CompletableFuture<LogoutRequestStatus> dispatch(final LogoutRequest request, final HttpMessage message) {
+        final DispatchTask task = new DispatchTask(request, message, System.nanoTime());
+        this.dispatched.increment();
+        LOGGER.debug("Dispatching logout message to [{}]", message.getUrl());
+        submit(task);
+        return task.getResult();
+    }
+
+    /**
+     * Gets dispatcher statistics such as queue depth and latency.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final long completed = this.succeeded.sum() + this.failed.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", this.executor.getQueue().size());
+        stats.put("pendingRetries", this.pendingRetries.size());
+        stats.put("activeCount", this.executor.getActiveCount());
+        stats.put("dispatched", this.dispatched.sum());
+        stats.put("succeeded", this.succeeded.sum());
+        stats.put("failed", this.failed.sum());
+        stats.put("retried", this.retried.sum());
+        stats.put("timedOut", this.timedOut.sum());
+        stats.put("rejected", this.rejected.sum());
+        stats.put("averageLatencyInMillis", completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalLatencyInNanos.sum() / completed));
+        stats.put("maxLatencyInMillis", TimeUnit.NANOSECONDS.toMillis(this.maxLatencyInNanos.get()));
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        if (!this.pendingRetries.isEmpty()) {
+            LOGGER.warn("Abandoning [{}] logout message(s) that are pending retries", this.pendingRetries.size());
+        }
+        this.scheduler.shutdownNow();
+        this.executor.shutdown();
+    }
+
+    private void submit(final DispatchTask task) {
+        final Semaphore permits = this.hostPermits.computeIfAbsent(task.getHost(), k -> new Semaphore(this.maxConcurrencyPerHost));
+        if (!permits.tryAcquire()) {
+            LOGGER.trace("Host [{}] has reached its concurrency limit; deferring logout message", task.getHost());
+            defer(task, HOST_BUSY_DELAY_IN_MILLIS);
+            return;
+        }
+        task.attempts++;
+        final AtomicBoolean started = new AtomicBoolean();
+        final FutureTask<Boolean> send = new FutureTask<Boolean>(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return false;
+            }
+            try {
+                return this.httpClient.sendMessageToEndPoint(task.getMessage());
+            } finally {
+                permits.release();
+            }
+        }) {
+            @Override
+            protected void done() {
+                if (started.compareAndSet(false, true)) {
+                    permits.release();
+                }
+                final ScheduledFuture<?> timeout = task.timeout;
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                onSendCompleted(task, this);
+            }
+        };
+        try {
+            this.executor.execute(send);
+            task.timeout = this.scheduler.schedule(() -> send.cancel(true), this.timeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            if (started.compareAndSet(false, true)) {
+                permits.release();
+            }
+            this.rejected.increment();
+            LOGGER.warn("Logout message to [{}] is rejected; the dispatcher queue is full or has shut down", task.getMessage().getUrl());
+            complete(task, LogoutRequestStatus.FAILURE);
+        }
+    }
+
+    private void onSendCompleted(final DispatchTask task, final FutureTask<Boolean> send) {
+        boolean sent = false;
+        if (send.isCancelled()) {
+            this.timedOut.increment();
+            LOGGER.debug("Logout message to [{}] timed out after [{}] ms", task.getMessage().getUrl(), this.timeoutInMillis);
+        } else {
+            try {
+                sent = send.get();
+            } catch (final Exception e) {
+                LOGGER.debug("Unable to send logout message to [{}]: [{}]", task.getMessage().getUrl(), e.getMessage());
+            }
+        }
+        if (sent) {
+            complete(task, LogoutRequestStatus.SUCCESS);
+        } else if (task.attempts < this.maxAttempts) {
+            final long delay = (long) (this.retryDelayInMillis * Math.pow(this.retryBackoffMultiplier, task.attempts - 1));
+            this.retried.increment();
+            LOGGER.debug("Retrying logout message to [{}] in [{}] ms; attempt [{}] of [{}]",
+                task.getMessage().getUrl(), delay, task.attempts + 1, this.maxAttempts);
+            defer(task, delay);
+        } else {
+            LOGGER.warn("Logout message is not delivered to [{}] after [{}] attempt(s)", task.getMessage().getUrl(), task.attempts);
+            complete(task, LogoutRequestStatus.FAILURE);
+        }
+    }
+
+    private void defer(final DispatchTask task, final long delayInMillis) {
+        this.pendingRetries.add(task);
+        try {
+            this.scheduler.schedule(() -> {
+                this.pendingRetries.remove(task);
+                submit(task);
+            }, delayInMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            this.pendingRetries.remove(task);
+            this.rejected.increment();
+            complete(task, LogoutRequestStatus.FAILURE);
+        }
+    }
+
+    private void complete(final DispatchTask task, final LogoutRequestStatus status) {
+        final long latency = System.nanoTime() - task.getStartTime();
+        this.totalLatencyInNanos.add(latency);
+        this.maxLatencyInNanos.accumulate(latency);
+        if (status == LogoutRequestStatus.SUCCESS) {
+            this.succeeded.increment();
+        } else {
+            this.failed.increment();
+        }
+        task.getRequest().setStatus(status);
+        task.getResult().complete(status);
+    }
+
+    /**
+     * A logout message that is in flight, along with its delivery state.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class DispatchTask {
+        private final LogoutRequest request;
+        private final HttpMessage message;
+        private final long startTime;
+        private final CompletableFuture<LogoutRequestStatus> result = new CompletableFuture<>();
+
+        private volatile int attempts;
+        private volatile ScheduledFuture<?> timeout;
+
+        String getHost() {
+            return this.message.getUrl().getHost();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.core.slo.SloProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.logout.DefaultLogoutExecutionPlan;
 import org.apereo.cas.logout.DefaultLogoutManager;
 import org.apereo.cas.logout.DefaultSingleLogoutServiceLogoutUrlBuilder;
@@ -13,6 +15,7 @@ import org.apereo.cas.logout.LogoutExecutionPlanConfigurer;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.LogoutMessageCreator;
 import org.apereo.cas.logout.SamlCompliantLogoutMessageCreator;
+import org.apereo.cas.logout.SingleLogoutMessageDispatcher;
 import org.apereo.cas.logout.SingleLogoutServiceLogoutUrlBuilder;
 import org.apereo.cas.logout.SingleLogoutServiceMessageHandler;
 import org.apereo.cas.services.ServicesManager;
@@ -22,6 +25,8 @@ import org.apereo.cas.web.UrlValidator;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
@@ -78,7 +83,32 @@ public class CasCoreLogoutConfiguration implements LogoutExecutionPlanConfigurer
             servicesManager,
             singleLogoutServiceLogoutUrlBuilder(),
             casProperties.getSlo().isAsynchronous(),
-            authenticationServiceSelectionPlan.getIfAvailable());
+            authenticationServiceSelectionPlan.getIfAvailable(),
+            casProperties.getSlo().getDispatcher().isEnabled() ? singleLogoutMessageDispatcher() : null);
+    }
+
+    @ConditionalOnMissingBean(name = "singleLogoutMessageDispatcher")
+    @Bean
+    public SingleLogoutMessageDispatcher singleLogoutMessageDispatcher() {
+        final SloProperties.Dispatcher dispatcher = casProperties.getSlo().getDispatcher();
+        return new SingleLogoutMessageDispatcher(httpClient,
+            dispatcher.getPoolSize(),
+            dispatcher.getQueueSize(),
+            dispatcher.getMaxConcurrencyPerHost(),
+            Beans.newDuration(dispatcher.getTimeout()).toMillis(),
+            dispatcher.getMaxAttempts(),
+            Beans.newDuration(dispatcher.getRetryDelay()).toMillis(),
+            dispatcher.getRetryBackoffMultiplier());
+    }
+
+    @ConditionalOnMissingBean(name = "singleLogoutMessageDispatcherHealthIndicator")
+    @Bean
+    public HealthIndicator singleLogoutMessageDispatcherHealthIndicator() {
+        return () -> {
+            final Health.Builder builder = Health.up();
+            singleLogoutMessageDispatcher().getStatistics().forEach(builder::withDetail);
+            return builder.build();
+        };
     }
 
     @ConditionalOnMissingBean(name = "logoutManager")
@@ -0,0 +1,115 @@
+package org.apereo.cas.logout;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.http.HttpClient;
+import org.apereo.cas.util.http.HttpMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SingleLogoutMessageDispatcherTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class SingleLogoutMessageDispatcherTests {
+    private SingleLogoutMessageDispatcher dispatcher;
+
+    @After
+    public void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+    }
+
+    private static LogoutRequest newLogoutRequest() throws Exception {
+        final URL url = new URL("https://www.example.org/logout");
+        return new DefaultLogoutRequest("ST-1", DefaultLogoutManagerTests.getService(url.toExternalForm()), url);
+    }
+
+    private static HttpMessage newMessage(final LogoutRequest request) {
+        return new LogoutHttpMessage(request.getLogoutUrl(), "LogoutMessage", false);
+    }
+
+    @Test
+    public void verifyMessageIsRetriedUntilDelivered() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false, true);
+        dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10, 1, 5000, 3, 10, 2);
+
+        final LogoutRequest request = newLogoutRequest();
+        final LogoutRequestStatus status = dispatcher.dispatch(request, newMessage(request)).get(5, TimeUnit.SECONDS);
+        assertEquals(LogoutRequestStatus.SUCCESS, status);
+        assertEquals(LogoutRequestStatus.SUCCESS, request.getStatus());
+        verify(client, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertEquals(1L, dispatcher.getStatistics().get("retried"));
+        assertEquals(1L, dispatcher.getStatistics().get("succeeded"));
+    }
+
+    @Test
+    public void verifyMessageFailsAfterMaxAttempts() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenReturn(false);
+        dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10, 1, 5000, 2, 10, 1);
+
+        final LogoutRequest request = newLogoutRequest();
+        final LogoutRequestStatus status = dispatcher.dispatch(request, newMessage(request)).get(5, TimeUnit.SECONDS);
+        assertEquals(LogoutRequestStatus.FAILURE, status);
+        assertEquals(LogoutRequestStatus.FAILURE, request.getStatus());
+        verify(client, times(2)).sendMessageToEndPoint(any(HttpMessage.class));
+    }
+
+    @Test
+    public void verifySlowMessageTimesOut() throws Exception {
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return true;
+        });
+        dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10, 1, 100, 1, 10, 1);
+
+        final LogoutRequest request = newLogoutRequest();
+        final LogoutRequestStatus status = dispatcher.dispatch(request, newMessage(request)).get(5, TimeUnit.SECONDS);
+        assertEquals(LogoutRequestStatus.FAILURE, status);
+        assertEquals(1L, dispatcher.getStatistics().get("timedOut"));
+    }
+
+    @Test
+    public void verifyTimedOutMessageHoldsHostPermitUntilSent() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final HttpClient client = mock(HttpClient.class);
+        when(client.sendMessageToEndPoint(any(HttpMessage.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Uninterruptibles.awaitUninterruptibly(release);
+                return true;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        dispatcher = new SingleLogoutMessageDispatcher(client, 2, 10, 1, 100, 3, 10, 1);
+
+        final LogoutRequest request = newLogoutRequest();
+        final CompletableFuture<LogoutRequestStatus> result = dispatcher.dispatch(request, newMessage(request));
+        verify(client, after(500).times(1)).sendMessageToEndPoint(any(HttpMessage.class));
+        assertFalse(result.isDone());
+
+        release.countDown();
+        assertEquals(LogoutRequestStatus.SUCCESS, result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, maxInFlight.get());
+        assertEquals(1L, dispatcher.getStatistics().get("timedOut"));
+    }
+}
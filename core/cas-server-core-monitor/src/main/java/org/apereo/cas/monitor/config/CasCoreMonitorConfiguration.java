@@ -6,6 +6,7 @@ import org.apereo.cas.configuration.model.core.monitor.MonitorWarningProperties;
 import org.apereo.cas.monitor.MemoryMonitor;
 import org.apereo.cas.monitor.SessionMonitor;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.util.ScriptingUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.health.Health;
@@ -57,4 +58,14 @@ public class CasCoreMonitorConfiguration {
         }
         return () -> Health.up().build();
     }
+
+    @ConditionalOnMissingBean(name = "groovyScriptCacheHealthIndicator")
+    @Bean
+    public HealthIndicator groovyScriptCacheHealthIndicator() {
+        return () -> {
+            final Health.Builder builder = Health.up();
+            ScriptingUtils.getGroovyScriptClassCache().getStatistics().forEach(builder::withDetail);
+            return builder.build();
+        };
+    }
 }
@@ -179,7 +179,7 @@ public abstract class AbstractServicesManager implements ServicesManager {
         publishEvent(new CasRegisteredServicePreSaveEvent(this, registeredService));
         final RegisteredService r = this.serviceRegistry.save(registeredService);
         this.services.put(r.getId(), r);
-        saveInternal(registeredService);
+        saveInternal(r);
 
         if (publishEvent) {
             publishEvent(new CasRegisteredServiceSavedEvent(this, r));
@@ -260,6 +260,16 @@ public abstract class AbstractServicesManager implements ServicesManager {
         };
     }
 
+    /**
+     * Determines whether the service is still active and has not expired.
+     *
+     * @param service the service
+     * @return true if the service may be considered for matching
+     */
+    protected boolean isRegisteredServiceActive(final RegisteredService service) {
+        return getRegisteredServiceExpirationPolicyPredicate().test(service);
+    }
+
     /**
      * Gets current system time.
      *
@@ -4,11 +4,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collection;
-import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
 
 /**
  * Default implementation of the {@link ServicesManager} interface.
+ * Candidate services are located via a {@link RegisteredServiceMatchingIndex}
+ * that is maintained incrementally as services are saved or deleted.
  *
  * @author Scott Battaglia
  * @since 3.1
@@ -17,29 +17,39 @@ import java.util.concurrent.ConcurrentSkipListSet;
 public class DefaultServicesManager extends AbstractServicesManager {
     private static final long serialVersionUID = -8581398063126547772L;
 
-    private Set<RegisteredService> orderedServices = new ConcurrentSkipListSet<>();
+    private final RegisteredServiceMatchingIndex matchingIndex;
 
     public DefaultServicesManager(final ServiceRegistry serviceRegistry, final ApplicationEventPublisher eventPublisher) {
+        this(serviceRegistry, eventPublisher, new PrefixTreeRegisteredServiceMatchingIndex());
+    }
+
+    public DefaultServicesManager(final ServiceRegistry serviceRegistry, final ApplicationEventPublisher eventPublisher,
+                                  final RegisteredServiceMatchingIndex matchingIndex) {
         super(serviceRegistry, eventPublisher);
+        this.matchingIndex = matchingIndex;
     }
 
     @Override
     protected Collection<RegisteredService> getCandidateServicesToMatch(final String serviceId) {
-        return this.orderedServices;
+        return this.matchingIndex.getCandidateServices(serviceId);
     }
 
     @Override
     protected void deleteInternal(final RegisteredService service) {
-        this.orderedServices.remove(service);
+        this.matchingIndex.remove(service);
     }
 
     @Override
     protected void saveInternal(final RegisteredService service) {
-        this.orderedServices = new ConcurrentSkipListSet<>(getAllServices());
+        if (isRegisteredServiceActive(service)) {
+            this.matchingIndex.add(service);
+        } else {
+            this.matchingIndex.remove(service);
+        }
     }
 
     @Override
     protected void loadInternal() {
-        this.orderedServices = new ConcurrentSkipListSet<>(getAllServices());
+        this.matchingIndex.load(getAllServices());
     }
 }
@@ -0,0 +1,187 @@
+package org.apereo.cas.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This is {@link PrefixTreeRegisteredServiceMatchingIndex}. Services are organized into a character
+ * trie keyed by the literal prefix of their service id pattern (i.e. scheme, host and path prefix).
+ * Looking up candidates walks the trie along the requested service id, collecting every service
+ * whose literal prefix is a prefix of the service id. Patterns whose prefix cannot be determined
+ * (non-regex services, top-level alternations, leading groups, etc.) are kept in the root bucket
+ * and are always evaluated.
+ * <p>
+ * Since regular expressions are compiled to be case insensitive, prefixes and lookups are
+ * lower-cased one character at a time; this may only widen the candidate set and never narrows it.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class PrefixTreeRegisteredServiceMatchingIndex implements RegisteredServiceMatchingIndex {
+    private static final long serialVersionUID = 4129345780129435172L;
+
+    private static final String REGEX_META_CHARACTERS = ".^$|()[]{}*+?";
+
+    private volatile Node root = new Node();
+
+    private volatile Map<Long, Node> locations = new ConcurrentHashMap<>();
+
+    /**
+     * Extract the literal prefix of the pattern that any matching value must start with.
+     * The prefix is lower-cased.
+     *
+     * @param pattern the pattern
+     * @return the literal prefix, or an empty string if none can be determined.
+     */
+    public static String extractLiteralPrefix(final String pattern) {
+        if (StringUtils.isBlank(pattern) || pattern.contains("\\Q") || hasTopLevelAlternation(pattern)) {
+            return StringUtils.EMPTY;
+        }
+        final StringBuilder prefix = new StringBuilder();
+        final int length = pattern.length();
+        int i = pattern.charAt(0) == '^' ? 1 : 0;
+        while (i < length) {
+            final char c = pattern.charAt(i);
+            final char literal;
+            if (c == '\\') {
+                if (i + 1 >= length || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+                    break;
+                }
+                literal = pattern.charAt(i + 1);
+                i += 2;
+            } else if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+                i++;
+            }
+            if (i < length) {
+                final char quantifier = pattern.charAt(i);
+                if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+                    break;
+                }
+                if (quantifier == '+') {
+                    prefix.append(Character.toLowerCase(literal));
+                    break;
+                }
+            }
+            prefix.append(Character.toLowerCase(literal));
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(final String pattern) {
+        int depth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '|' && depth <= 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String getIndexKey(final RegisteredService service) {
+        if (service instanceof RegexRegisteredService) {
+            return extractLiteralPrefix(service.getServiceId());
+        }
+        return StringUtils.EMPTY;
+    }
+
+    @Override
+    public synchronized void load(final Collection<RegisteredService> services) {
+        final Node localRoot = new Node();
+        final Map<Long, Node> localLocations = new ConcurrentHashMap<>();
+        services.forEach(service -> insert(localRoot, localLocations, service));
+        this.root = localRoot;
+        this.locations = localLocations;
+        LOGGER.debug("Indexed [{}] service(s) by service id prefix", localLocations.size());
+    }
+
+    @Override
+    public synchronized void add(final RegisteredService service) {
+        remove(service);
+        insert(this.root, this.locations, service);
+    }
+
+    @Override
+    public synchronized void remove(final RegisteredService service) {
+        final Node node = this.locations.remove(service.getId());
+        if (node != null) {
+            node.getServices().remove(service.getId());
+        }
+    }
+
+    @Override
+    public Collection<RegisteredService> getCandidateServices(final String serviceId) {
+        final List<RegisteredService> candidates = new ArrayList<>();
+        Node node = this.root;
+        candidates.addAll(node.getServices().values());
+        for (int i = 0; i < serviceId.length(); i++) {
+            node = node.getChildren().get(Character.toLowerCase(serviceId.charAt(i)));
+            if (node == null) {
+                break;
+            }
+            candidates.addAll(node.getServices().values());
+        }
+        candidates.sort(null);
+        LOGGER.trace("Located [{}] candidate service(s) for [{}]", candidates.size(), serviceId);
+        return candidates;
+    }
+
+    @Override
+    public int size() {
+        return this.locations.size();
+    }
+
+    private static void insert(final Node root, final Map<Long, Node> locations, final RegisteredService service) {
+        final String key = getIndexKey(service);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getChildren().computeIfAbsent(key.charAt(i), k -> new Node());
+        }
+        LOGGER.trace("Indexed service [{}] under prefix [{}]", service.getServiceId(), key);
+        node.getServices().put(service.getId(), service);
+        locations.put(service.getId(), node);
+    }
+
+    /**
+     * A single node in the prefix tree.
+     */
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = -2017612378239548013L;
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+
+        private final Map<Long, RegisteredService> services = new ConcurrentHashMap<>();
+
+        Map<Character, Node> getChildren() {
+            return children;
+        }
+
+        Map<Long, RegisteredService> getServices() {
+            return services;
+        }
+    }
+}
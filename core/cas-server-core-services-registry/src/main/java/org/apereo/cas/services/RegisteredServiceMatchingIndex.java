@@ -0,0 +1,52 @@
+package org.apereo.cas.services;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * This is {@link RegisteredServiceMatchingIndex}. It narrows down the set of
+ * registered services that need to be evaluated against a given service identifier.
+ * Implementations must never exclude a service that could match the identifier,
+ * and must return candidates sorted by their natural (evaluation) order.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface RegisteredServiceMatchingIndex extends Serializable {
+
+    /**
+     * Rebuild the index from scratch using the given services.
+     *
+     * @param services the services
+     */
+    void load(Collection<RegisteredService> services);
+
+    /**
+     * Add or replace the service in the index.
+     *
+     * @param service the service
+     */
+    void add(RegisteredService service);
+
+    /**
+     * Remove the service from the index.
+     *
+     * @param service the service
+     */
+    void remove(RegisteredService service);
+
+    /**
+     * Gets candidate services, sorted by evaluation order, that may match the service id.
+     *
+     * @param serviceId the service id
+     * @return the candidate services
+     */
+    Collection<RegisteredService> getCandidateServices(String serviceId);
+
+    /**
+     * Number of indexed services.
+     *
+     * @return the count
+     */
+    int size();
+}
@@ -1,8 +1,11 @@
 package org.apereo.cas.services.resource;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.math.NumberUtils;
@@ -15,6 +18,7 @@ import org.apereo.cas.support.events.service.CasRegisteredServiceDeletedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServiceLoadedEvent;
 import org.apereo.cas.support.events.service.CasRegisteredServicePreDeleteEvent;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.DigestUtils;
 import org.apereo.cas.util.RegexUtils;
 import org.apereo.cas.util.ResourceUtils;
 import org.apereo.cas.util.io.PathWatcherService;
@@ -24,15 +28,17 @@ import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
 
 import javax.annotation.PreDestroy;
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,12 +53,18 @@ import java.util.stream.Collectors;
 
 /**
  * This is {@link AbstractResourceBasedServiceRegistry}.
+ * <p>
+ * Registered services are kept in an immutable snapshot that is swapped atomically whenever services are
+ * loaded or changed, so lookups are never blocked and always see a consistent set of services.
+ * Service definition files are loaded in parallel, and a manifest of the size, modification time and digest
+ * of each file is kept along with the services it defines; files that have not changed since they were last
+ * read are not deserialized again, whether they are reloaded in bulk or in response to a change in the directory.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 @Slf4j
-@ToString
+@ToString(exclude = "manifest")
 public abstract class AbstractResourceBasedServiceRegistry extends AbstractServiceRegistry implements ResourceBasedServiceRegistry {
 
     private static final String PATTERN_REGISTERED_SERVICE_FILE_NAME = "(\\w+)-(\\d+)\\.";
@@ -70,7 +82,12 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
     /**
      * Map of service ID to registered service.
      */
-    private Map<Long, RegisteredService> serviceMap = new ConcurrentHashMap<>();
+    private volatile Map<Long, RegisteredService> serviceMap = Collections.emptyMap();
+
+    /**
+     * Map of service definition file paths to their state when they were last read.
+     */
+    private final Map<String, ServiceDefinitionResource> manifest = new ConcurrentHashMap<>();
 
     /**
      * The Registered service json serializers.
@@ -218,6 +235,7 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
         final File f = getRegisteredServiceFileName(service);
         publishEvent(new CasRegisteredServicePreDeleteEvent(this, service));
         final boolean result = f.exists() ? f.delete() : true;
+        this.manifest.remove(f.getAbsolutePath());
         if (!result) {
             LOGGER.warn("Failed to delete service definition file [{}]", f.getCanonicalPath());
         } else {
@@ -235,20 +253,24 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
      * @param service the service
      */
     protected void removeRegisteredService(final RegisteredService service) {
-        this.serviceMap.remove(service.getId());
+        updateServiceMap(services -> services.remove(service.getId()));
     }
 
     @Override
     public synchronized List<RegisteredService> load() {
         final Collection<File> files = FileUtils.listFiles(this.serviceRegistryDirectory.toFile(), new String[]{getExtension()}, true);
-        this.serviceMap = files
-            .stream()
+        this.manifest.keySet().retainAll(files.stream().map(File::getAbsolutePath).collect(Collectors.toSet()));
+        final List<RegisteredService> loadedServices = files
+            .parallelStream()
             .map(this::load)
             .filter(Objects::nonNull)
             .flatMap(Collection::stream)
+            .collect(Collectors.toList());
+        this.serviceMap = Collections.unmodifiableMap(loadedServices
+            .stream()
             .sorted()
             .collect(Collectors.toMap(RegisteredService::getId, Function.identity(),
-                LOG_DUPLICATE_AND_RETURN_FIRST_ONE, LinkedHashMap::new));
+                LOG_DUPLICATE_AND_RETURN_FIRST_ONE, LinkedHashMap::new)));
         final List<RegisteredService> services = new ArrayList<>(this.serviceMap.values());
         final List<RegisteredService> results =
             this.registeredServiceReplicationStrategy.updateLoadedRegisteredServicesFromCache(services, this);
@@ -284,14 +306,32 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
                     + "Future CAS versions may try to strictly force the naming syntax, refusing to load the file.",
                 fileName, this.serviceFileNamePattern.pattern());
         }
-        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
-            return this.registeredServiceSerializers
-                .stream()
-                .filter(s -> s.supports(file))
-                .map(s -> s.load(in))
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
+        try {
+            final String path = file.getAbsolutePath();
+            final long lastModified = file.lastModified();
+            final long length = file.length();
+            final ServiceDefinitionResource resource = this.manifest.get(path);
+            if (resource != null && resource.isUnchanged(lastModified, length)) {
+                LOGGER.trace("[{}] is unchanged since it was last read", fileName);
+                return new ArrayList<>(resource.getServices());
+            }
+            final byte[] content = Files.readAllBytes(file.toPath());
+            final byte[] digest = DigestUtils.rawDigest(MessageDigestAlgorithms.SHA_256, content);
+            final List<RegisteredService> services;
+            if (resource != null && MessageDigest.isEqual(resource.getDigest(), digest)) {
+                LOGGER.trace("[{}] has the same contents as when it was last read", fileName);
+                services = resource.getServices();
+            } else {
+                services = this.registeredServiceSerializers
+                    .stream()
+                    .filter(s -> s.supports(file))
+                    .map(s -> s.load(new ByteArrayInputStream(content)))
+                    .filter(Objects::nonNull)
+                    .flatMap(Collection::stream)
+                    .collect(Collectors.toList());
+            }
+            this.manifest.put(path, new ServiceDefinitionResource(lastModified, length, System.currentTimeMillis(), digest, services));
+            return new ArrayList<>(services);
         } catch (final Exception e) {
             LOGGER.error("Error reading configuration file [{}]", fileName, e);
         }
@@ -321,7 +361,8 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
             if (this.serviceMap.containsKey(service.getId())) {
                 LOGGER.debug("Found existing service definition by id [{}]. Saving...", service.getId());
             }
-            this.serviceMap.put(service.getId(), service);
+            this.manifest.remove(f.getAbsolutePath());
+            updateServiceMap(services -> services.put(service.getId(), service));
             LOGGER.debug("Saved service to [{}]", f.getCanonicalPath());
         } catch (final IOException e) {
             throw new IllegalArgumentException("IO error opening file stream.", e);
@@ -331,7 +372,17 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
 
     @Override
     public void update(final RegisteredService service) {
-        this.serviceMap.put(service.getId(), service);
+        updateServiceMap(services -> services.put(service.getId(), service));
+    }
+
+    /**
+     * Apply the change to a copy of the registered services and swap the copy in,
+     * so that lookups continue to be served from the previous snapshot in the meantime.
+     */
+    private synchronized void updateServiceMap(final Consumer<Map<Long, RegisteredService>> change) {
+        final Map<Long, RegisteredService> services = new LinkedHashMap<>(this.serviceMap);
+        change.accept(services);
+        this.serviceMap = Collections.unmodifiableMap(services);
     }
 
     /**
@@ -341,6 +392,10 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
      * @return the registered service from file
      */
     protected RegisteredService getRegisteredServiceFromFile(final File file) {
+        final ServiceDefinitionResource resource = this.manifest.get(file.getAbsolutePath());
+        if (resource != null && !resource.getServices().isEmpty()) {
+            return findServiceById(resource.getServices().get(0).getId());
+        }
         final Matcher matcher = this.serviceFileNamePattern.matcher(file.getName());
         if (matcher.find()) {
             final String serviceId = matcher.group(2);
@@ -381,4 +436,28 @@ public abstract class AbstractResourceBasedServiceRegistry extends AbstractServi
      * @return the extension
      */
     protected abstract String getExtension();
+
+    /**
+     * The state of a service definition file when it was last read, along with the services it defines.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class ServiceDefinitionResource {
+        /**
+         * Changes made within this window of the file being read may share its modification time,
+         * so such files are always compared by their contents.
+         */
+        private static final long MODIFICATION_TIME_RESOLUTION = 2000;
+
+        private final long lastModified;
+        private final long length;
+        private final long readAt;
+        private final byte[] digest;
+        private final List<RegisteredService> services;
+
+        boolean isUnchanged(final long lastModified, final long length) {
+            return this.lastModified == lastModified && this.length == length
+                && this.lastModified < this.readAt - MODIFICATION_TIME_RESOLUTION;
+        }
+    }
 }
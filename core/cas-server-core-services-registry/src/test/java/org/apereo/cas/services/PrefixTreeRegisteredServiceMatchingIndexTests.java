@@ -0,0 +1,71 @@
+package org.apereo.cas.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrefixTreeRegisteredServiceMatchingIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class PrefixTreeRegisteredServiceMatchingIndexTests {
+
+    private static RegexRegisteredService newService(final long id, final String serviceId, final int order) {
+        final RegexRegisteredService r = new RegexRegisteredService();
+        r.setId(id);
+        r.setName("service" + id);
+        r.setServiceId(serviceId);
+        r.setEvaluationOrder(order);
+        return r;
+    }
+
+    @Test
+    public void verifyLiteralPrefixes() {
+        assertEquals("http", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("^https?://.*"));
+        assertEquals("https://app.example.org/", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("^https://app\\.example\\.org/.*"));
+        assertEquals("https://exa", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("https://exa+mple.org"));
+        assertEquals("https://", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("https://(www|app)\\.example\\.org"));
+        assertEquals("", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("^https://a\\.org|^https://b\\.org"));
+        assertEquals("", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("(?i)https://.*"));
+        assertEquals("", PrefixTreeRegisteredServiceMatchingIndex.extractLiteralPrefix("\\Qhttps://\\E.*"));
+    }
+
+    @Test
+    public void verifyEvaluationOrderIsPreserved() {
+        final PrefixTreeRegisteredServiceMatchingIndex index = new PrefixTreeRegisteredServiceMatchingIndex();
+        final RegexRegisteredService all = newService(1, "^https?://.*", 100);
+        final RegexRegisteredService app = newService(2, "^https://APP\\.example\\.org/.*", 10);
+        final RegexRegisteredService other = newService(3, "^https://other\\.example\\.org/.*", 1);
+        final RegexRegisteredService alternation = newService(4, "^https://a\\.org/.*|^https://app\\.example\\.org/admin", 50);
+        index.load(Arrays.asList(all, app, other, alternation));
+
+        final Collection<RegisteredService> candidates = index.getCandidateServices("https://app.example.org/login");
+        assertArrayEquals(new RegisteredService[]{app, alternation, all}, candidates.toArray());
+        assertEquals(app, candidates.stream().filter(r -> r.matches("https://app.example.org/login")).findFirst().get());
+    }
+
+    @Test
+    public void verifyIncrementalUpdates() {
+        final PrefixTreeRegisteredServiceMatchingIndex index = new PrefixTreeRegisteredServiceMatchingIndex();
+        final RegexRegisteredService app = newService(1, "^https://app\\.example\\.org/.*", 10);
+        index.add(app);
+        assertEquals(1, index.getCandidateServices("https://app.example.org/x").size());
+
+        final RegexRegisteredService updated = newService(1, "^https://new\\.example\\.org/.*", 10);
+        index.add(updated);
+        assertEquals(1, index.size());
+        assertTrue(index.getCandidateServices("https://app.example.org/x").isEmpty());
+        assertEquals(1, index.getCandidateServices("https://new.example.org/x").size());
+
+        index.remove(updated);
+        assertEquals(0, index.size());
+        assertTrue(index.getCandidateServices("https://new.example.org/x").isEmpty());
+    }
+}
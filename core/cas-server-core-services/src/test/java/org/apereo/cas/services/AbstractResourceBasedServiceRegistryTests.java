@@ -14,6 +14,8 @@ import org.springframework.core.io.ClassPathResource;
 import java.util.Arrays;
 import java.util.Collection;
 
+import static org.junit.Assert.*;
+
 /**
  * This is {@link AbstractResourceBasedServiceRegistryTests}.
  *
@@ -47,6 +49,24 @@ public abstract class AbstractResourceBasedServiceRegistryTests extends Abstract
         this.dao.save(r);
     }
 
+    @Test
+    public void verifyUnchangedServiceDefinitionsAreNotReloaded() {
+        final AbstractRegisteredService r = buildRegisteredServiceInstance(RandomUtils.nextInt());
+        this.dao.save(r);
+        this.dao.load();
+        final RegisteredService loaded = this.dao.findServiceById(r.getId());
+        assertNotNull(loaded);
+        this.dao.load();
+        assertSame(loaded, this.dao.findServiceById(r.getId()));
+
+        r.setDescription("The changed description");
+        this.dao.save(r);
+        this.dao.load();
+        final RegisteredService reloaded = this.dao.findServiceById(r.getId());
+        assertNotSame(loaded, reloaded);
+        assertEquals("The changed description", reloaded.getDescription());
+    }
+
     @Override
     public ServiceRegistry getNewServiceRegistry() {
         return this.dao;
@@ -11,11 +11,14 @@ import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.authentication.Authentication;
+import org.apereo.cas.ticket.registry.TicketExpirationIndex;
 
 import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.Lob;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -96,6 +99,15 @@ public abstract class AbstractTicket implements Ticket, TicketState {
     @Column(name = "EXPIRED", nullable = false)
     private Boolean expired = Boolean.FALSE;
 
+    /**
+     * The projected expiration time of this ticket in milliseconds, kept as a separate
+     * column to allow tickets that may have expired to be located by the database.
+     */
+    @JsonIgnore
+    @Column(name = "EXPIRATION_CHECK_TIME")
+    @Getter
+    private Long expirationCheckTime;
+
 
     public AbstractTicket(@NonNull final String id, @NonNull final ExpirationPolicy expirationPolicy) {
         this.id = id;
@@ -120,6 +132,16 @@ public abstract class AbstractTicket implements Ticket, TicketState {
         return this.expirationPolicy.isExpired(this) || isExpiredInternal();
     }
 
+    /**
+     * Project the expiration time of this ticket before it is stored.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void updateExpirationCheckTime() {
+        this.expirationCheckTime = TicketExpirationIndex.getProjectedExpirationTime(this,
+            System.currentTimeMillis(), TicketExpirationIndex.DEFAULT_RECHECK_INTERVAL_IN_MILLIS);
+    }
+
     @JsonIgnore
     protected boolean isExpiredInternal() {
         return this.expired;
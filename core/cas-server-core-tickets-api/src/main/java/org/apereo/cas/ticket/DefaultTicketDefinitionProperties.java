@@ -38,4 +38,14 @@ public class DefaultTicketDefinitionProperties implements TicketDefinitionProper
      * Password for this ticket storage, if any.
      */
     private String storagePassword;
+
+    /**
+     * Whether decoded tickets may be cached locally in front of the registry.
+     */
+    private boolean nearCacheEnabled;
+
+    /**
+     * Storage tier whose ticket registry holds this ticket, if any.
+     */
+    private String storageTier;
 }
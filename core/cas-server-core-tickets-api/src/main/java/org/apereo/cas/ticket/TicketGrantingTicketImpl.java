@@ -17,6 +17,7 @@ import javax.persistence.Column;
 import javax.persistence.DiscriminatorColumn;
 import javax.persistence.DiscriminatorValue;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -25,6 +26,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Concrete implementation of a TicketGrantingTicket. A TicketGrantingTicket is
@@ -37,7 +39,7 @@ import java.util.List;
  * @since 3.0.0
  */
 @Entity
-@Table(name = "TICKETGRANTINGTICKET")
+@Table(name = "TICKETGRANTINGTICKET", indexes = @Index(name = "IDX_TGT_PRINCIPAL_ID", columnList = "PRINCIPAL_ID"))
 @DiscriminatorColumn(name = "TYPE")
 @DiscriminatorValue(TicketGrantingTicket.PREFIX)
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -58,7 +60,15 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
     @Lob
     @Column(name = "AUTHENTICATION", nullable = false, length = Integer.MAX_VALUE)
     private Authentication authentication;
-    
+
+    /**
+     * The lower-cased principal id, kept as a separate indexed column
+     * to allow sessions to be looked up by principal.
+     */
+    @JsonIgnore
+    @Column(name = "PRINCIPAL_ID", length = 512)
+    private String principalId;
+
     /**
      * Service that produced a proxy-granting ticket.
      */
@@ -114,6 +124,9 @@ public class TicketGrantingTicketImpl extends AbstractTicket implements TicketGr
         this.ticketGrantingTicket = parentTicketGrantingTicket;
         this.authentication = authentication;
         this.proxiedBy = proxiedBy;
+        if (authentication.getPrincipal() != null) {
+            this.principalId = StringUtils.lowerCase(authentication.getPrincipal().getId(), Locale.ENGLISH);
+        }
     }
 
     /**
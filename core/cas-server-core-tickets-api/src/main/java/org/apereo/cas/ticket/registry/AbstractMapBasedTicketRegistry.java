@@ -1,14 +1,26 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.Iterators;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This is {@link AbstractMapBasedTicketRegistry}.
@@ -20,6 +32,21 @@ import java.util.Map;
 @NoArgsConstructor
 public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegistry {
 
+    /**
+     * Principal index key mapped to the ids of its ticket-granting tickets.
+     */
+    private final Map<String, Set<String>> principalSessionIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Ticket-granting ticket id mapped to its principal index key.
+     */
+    private final Map<String, String> sessionPrincipalIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Ticket ids grouped by their projected expiration time.
+     */
+    private final TicketExpirationIndex expirationIndex = new TicketExpirationIndex();
+
     /**
      * Creates a new, empty registry with the cipher.
      *
@@ -34,6 +61,8 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         final Ticket encTicket = encodeTicket(ticket);
         LOGGER.debug("Added ticket [{}] to registry.", ticket.getId());
         getMapInstance().put(encTicket.getId(), encTicket);
+        indexSession(ticket);
+        this.expirationIndex.index(ticket);
     }
 
     @Override
@@ -52,6 +81,8 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         if (result != null && result.isExpired()) {
             LOGGER.debug("Ticket [{}] has expired and is now removed from the cache", result.getId());
             getMapInstance().remove(encTicketId);
+            removeSessionFromIndex(ticketId);
+            this.expirationIndex.remove(ticketId);
             return null;
         }
         return result;
@@ -63,6 +94,8 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
         if (StringUtils.isBlank(encTicketId)) {
             return false;
         }
+        removeSessionFromIndex(ticketId);
+        this.expirationIndex.remove(ticketId);
         return getMapInstance().remove(encTicketId) != null;
     }
 
@@ -70,9 +103,90 @@ public abstract class AbstractMapBasedTicketRegistry extends AbstractTicketRegis
     public long deleteAll() {
         final int size = getMapInstance().size();
         getMapInstance().clear();
+        this.principalSessionIndex.clear();
+        this.sessionPrincipalIndex.clear();
+        this.expirationIndex.clear();
         return size;
     }
 
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        final Set<String> ticketIds = this.principalSessionIndex.get(getPrincipalIndexKey(principalId));
+        if (ticketIds == null) {
+            return Stream.empty();
+        }
+        return new HashSet<>(ticketIds)
+            .stream()
+            .map(ticketId -> {
+                final Ticket ticket = getTicket(ticketId);
+                if (ticket == null) {
+                    LOGGER.trace("Ticket [{}] is no longer found in the registry and is removed from the principal index", ticketId);
+                    removeSessionFromIndex(ticketId);
+                }
+                return ticket;
+            })
+            .filter(Objects::nonNull)
+            .filter(TicketGrantingTicket.class::isInstance)
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only tickets whose projected expiration time has passed are examined.
+     * Those that turn out not to be expired yet, such as tickets with sliding expiration
+     * policies, are moved to the bucket of their new projected expiration time.
+     * The ids of due tickets are taken from the index a batch at a time, so that
+     * removing the tickets of a batch does not disturb the traversal of the index.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        final Iterator<List<String>> batches = Iterators.partition(this.expirationIndex.getDueTicketIds().iterator(), Math.max(1, batchSize));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .flatMap(List::stream)
+            .map(ticketId -> {
+                final Ticket found = getMapInstance().get(encodeTicketId(ticketId));
+                if (found == null) {
+                    LOGGER.trace("Ticket [{}] is no longer found in the registry and is removed from the expiration index", ticketId);
+                    this.expirationIndex.remove(ticketId);
+                    return null;
+                }
+                final Ticket ticket = decodeTicket(found);
+                if (ticket == null) {
+                    LOGGER.warn("Ticket [{}] cannot be decoded and is removed from the registry", ticketId);
+                    deleteSingleTicket(ticketId);
+                    return null;
+                }
+                if (ticket.isExpired()) {
+                    return ticket;
+                }
+                this.expirationIndex.index(ticket);
+                return null;
+            })
+            .filter(Objects::nonNull);
+    }
+
+    private void indexSession(final Ticket ticket) {
+        final String principal = getPrincipalIndexKey(ticket);
+        if (principal != null) {
+            this.sessionPrincipalIndex.put(ticket.getId(), principal);
+            this.principalSessionIndex.compute(principal, (key, ids) -> {
+                final Set<String> sessions = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                sessions.add(ticket.getId());
+                return sessions;
+            });
+        }
+    }
+
+    private void removeSessionFromIndex(final String ticketId) {
+        final String principal = this.sessionPrincipalIndex.remove(ticketId);
+        if (principal != null) {
+            this.principalSessionIndex.computeIfPresent(principal, (key, ids) -> {
+                ids.remove(ticketId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
     @Override
     public Collection<Ticket> getTickets() {
         return decodeTickets(getMapInstance().values());
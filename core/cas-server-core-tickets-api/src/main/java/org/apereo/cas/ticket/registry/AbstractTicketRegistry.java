@@ -1,7 +1,11 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.io.ByteSource;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -9,18 +13,36 @@ import org.apereo.cas.CipherExecutor;
 import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.serialization.SerializationTicketCodec;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.util.DigestUtils;
-import org.apereo.cas.util.serialization.SerializationUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -39,11 +61,27 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     private static final String MESSAGE = "Ticket encryption is not enabled. Falling back to default behavior";
 
+    private static final int QUERY_BATCH_SIZE = 100;
+
+    private static final int DEFAULT_COUNT_CACHE_SECONDS = 5;
+
     /**
      * The cipher executor for ticket objects.
      */
     protected CipherExecutor cipherExecutor;
 
+    /**
+     * The codec that turns tickets into bytes before they are encrypted.
+     */
+    protected TicketCodec ticketCodec = new SerializationTicketCodec();
+
+    /**
+     * How long ticket counts are cached before they are calculated again.
+     */
+    protected Duration countCacheDuration = Duration.ofSeconds(DEFAULT_COUNT_CACHE_SECONDS);
+
+    private final Map<Class<? extends Ticket>, CachedTicketCount> ticketCounts = new ConcurrentHashMap<>();
+
     /**
      * @return specified ticket from the registry
      * @throws IllegalArgumentException if class is null.
@@ -64,22 +102,60 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
 
     @Override
     public long sessionCount() {
-        try {
-            return getTickets().stream().filter(TicketGrantingTicket.class::isInstance).count();
-        } catch (final Exception t) {
-            LOGGER.trace("sessionCount() operation is not implemented by the ticket registry instance [{}]. "
-                + "Message is: [{}] Returning unknown as [{}]", this.getClass().getName(), t.getMessage(), Long.MIN_VALUE);
-            return Long.MIN_VALUE;
-        }
+        return getCachedTicketCount(TicketGrantingTicket.class, "sessionCount()");
     }
 
     @Override
     public long serviceTicketCount() {
+        return getCachedTicketCount(ServiceTicket.class, "serviceTicketCount()");
+    }
+
+    /**
+     * Count the tickets of the given type in the registry. Registries that are able to count
+     * entries in the underlying store, without fetching them, should override this operation;
+     * the default implementation streams all tickets. Counts are cached for {@link #countCacheDuration}
+     * so that frequent monitoring does not translate into load on the store.
+     *
+     * @param type the ticket type
+     * @return the number of tickets
+     */
+    protected long countTickets(final Class<? extends Ticket> type) {
+        try (Stream<Ticket> tickets = getTicketsStream()) {
+            return tickets.filter(type::isInstance).count();
+        }
+    }
+
+    /**
+     * Concurrent requests for the same count while it is being calculated
+     * wait for the single calculation in progress rather than starting their own.
+     * Counts are calculated outside of any map operation, since they may reach out to the store.
+     */
+    private long getCachedTicketCount(final Class<? extends Ticket> type, final String operation) {
         try {
-            return getTickets().stream().filter(ServiceTicket.class::isInstance).count();
+            while (true) {
+                final long now = System.nanoTime();
+                final CachedTicketCount cached = this.ticketCounts.get(type);
+                if (cached != null && (!cached.getCount().isDone() || cached.getExpiresAt() - now > 0)) {
+                    return cached.getCount().join();
+                }
+                final CachedTicketCount calculation = new CachedTicketCount(new CompletableFuture<>(), now + this.countCacheDuration.toNanos());
+                final boolean calculating = cached == null
+                    ? this.ticketCounts.putIfAbsent(type, calculation) == null
+                    : this.ticketCounts.replace(type, cached, calculation);
+                if (calculating) {
+                    try {
+                        calculation.getCount().complete(countTickets(type));
+                    } catch (final Exception e) {
+                        this.ticketCounts.remove(type, calculation);
+                        calculation.getCount().completeExceptionally(e);
+                    }
+                    return calculation.getCount().join();
+                }
+            }
         } catch (final Exception t) {
-            LOGGER.trace("serviceTicketCount() operation is not implemented by the ticket registry instance [{}]. "
-                + "Message is: [{}] Returning unknown as [{}]", this.getClass().getName(), t.getMessage(), Long.MIN_VALUE);
+            final Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            LOGGER.trace("{} operation is not implemented by the ticket registry instance [{}]. "
+                + "Message is: [{}] Returning unknown as [{}]", operation, this.getClass().getName(), cause.getMessage(), Long.MIN_VALUE);
             return Long.MIN_VALUE;
         }
     }
@@ -95,14 +171,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             return count.intValue();
         }
         if (ticket instanceof TicketGrantingTicket) {
-            LOGGER.debug("Removing children of ticket [{}] from the registry.", ticket.getId());
-            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
-            count.addAndGet(deleteChildren(tgt));
-            if (ticket instanceof ProxyGrantingTicket) {
-                deleteProxyGrantingTicketFromParent((ProxyGrantingTicket) ticket);
-            } else {
-                deleteLinkedProxyGrantingTickets(count, tgt);
-            }
+            count.addAndGet(deleteDescendantTickets((TicketGrantingTicket) ticket));
         }
         LOGGER.debug("Removing ticket [{}] from the registry.", ticket);
         if (deleteSingleTicket(ticketId)) {
@@ -111,6 +180,48 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         return count.intValue();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Descendants of ticket-granting tickets are removed first, after which
+     * the tickets themselves are removed via {@link #deleteSingleTickets(Collection)}.</p>
+     */
+    @Override
+    public int deleteTickets(final Collection<? extends Ticket> tickets) {
+        int count = 0;
+        final List<String> ticketIds = new ArrayList<>(tickets.size());
+        for (final Ticket ticket : tickets) {
+            if (ticket instanceof TicketGrantingTicket) {
+                count += deleteDescendantTickets((TicketGrantingTicket) ticket);
+            }
+            ticketIds.add(ticket.getId());
+        }
+        LOGGER.debug("Removing [{}] ticket(s) from the registry.", ticketIds.size());
+        return count + deleteSingleTickets(ticketIds);
+    }
+
+    /**
+     * Delete several ticket instances from the store.
+     * Registries that are able to remove several entries at once should override this operation.
+     *
+     * @param ticketIds the ticket ids
+     * @return the number of tickets removed
+     */
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        return (int) ticketIds.stream().filter(this::deleteSingleTicket).count();
+    }
+
+    private int deleteDescendantTickets(final TicketGrantingTicket tgt) {
+        final AtomicInteger count = new AtomicInteger(0);
+        LOGGER.debug("Removing children of ticket [{}] from the registry.", tgt.getId());
+        count.addAndGet(deleteChildren(tgt));
+        if (tgt instanceof ProxyGrantingTicket) {
+            deleteProxyGrantingTicketFromParent((ProxyGrantingTicket) tgt);
+        } else {
+            deleteLinkedProxyGrantingTickets(count, tgt);
+        }
+        return count.intValue();
+    }
+
     /**
      * Delete tickets.
      *
@@ -205,7 +316,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     @SneakyThrows
     protected Ticket encodeTicket(final Ticket ticket) {
-        if (!isCipherExecutorEnabled()) {
+        if (!isTicketEncodingEnabled()) {
             LOGGER.trace(MESSAGE);
             return ticket;
         }
@@ -214,7 +325,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
             return null;
         }
         LOGGER.debug("Encoding ticket [{}]", ticket);
-        final byte[] encodedTicketObject = SerializationUtils.serializeAndEncodeObject(this.cipherExecutor, ticket);
+        final byte[] encodedTicketObject = (byte[]) getTicketCipherExecutor().encode(this.ticketCodec.encode(ticket));
         final String encodedTicketId = encodeTicketId(ticket.getId());
         final Ticket encodedTicket = new EncodedTicket(encodedTicketId, ByteSource.wrap(encodedTicketObject).read());
         LOGGER.debug("Created encoded ticket [{}]", encodedTicket);
@@ -229,7 +340,7 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      */
     @SneakyThrows
     protected Ticket decodeTicket(final Ticket result) {
-        if (!isCipherExecutorEnabled()) {
+        if (!isTicketEncodingEnabled()) {
             LOGGER.trace(MESSAGE);
             return result;
         }
@@ -243,7 +354,12 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
         }
         LOGGER.debug("Attempting to decode [{}]", result);
         final EncodedTicket encodedTicket = (EncodedTicket) result;
-        final Ticket ticket = SerializationUtils.decodeAndDeserializeObject(encodedTicket.getEncodedTicket(), this.cipherExecutor, Ticket.class);
+        final byte[] decrypted = (byte[]) getTicketCipherExecutor().decode(encodedTicket.getEncodedTicket());
+        if (decrypted == null) {
+            LOGGER.warn("Encoded ticket [{}] cannot be decrypted and is ignored", encodedTicket.getId());
+            return null;
+        }
+        final Ticket ticket = this.ticketCodec.decode(decrypted);
         LOGGER.debug("Decoded ticket to [{}]", ticket);
         return ticket;
     }
@@ -255,14 +371,166 @@ public abstract class AbstractTicketRegistry implements TicketRegistry {
      * @return the set
      */
     protected Collection<Ticket> decodeTickets(final Collection<Ticket> items) {
-        if (!isCipherExecutorEnabled()) {
+        if (!isTicketEncodingEnabled()) {
             LOGGER.trace(MESSAGE);
             return items;
         }
-        return items.stream().map(this::decodeTicket).collect(Collectors.toSet());
+        return items.stream().map(this::decodeTicket).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    /**
+     * Gets the principal index key for the ticket, if the ticket is a ticket-granting ticket.
+     *
+     * @param ticket the ticket
+     * @return the principal index key, or null if the ticket is not tied to a principal.
+     */
+    protected static String getPrincipalIndexKey(final Ticket ticket) {
+        if (ticket instanceof TicketGrantingTicket) {
+            final TicketGrantingTicket tgt = (TicketGrantingTicket) ticket;
+            if (tgt.getAuthentication() != null && tgt.getAuthentication().getPrincipal() != null) {
+                return getPrincipalIndexKey(tgt.getAuthentication().getPrincipal().getId());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the principal index key. Principal ids are indexed in a case-insensitive manner.
+     *
+     * @param principalId the principal id
+     * @return the principal index key
+     */
+    protected static String getPrincipalIndexKey(final String principalId) {
+        return StringUtils.lowerCase(principalId, Locale.ENGLISH);
+    }
+
+    /**
+     * Stream entries from the store one page at a time, using keyset pagination.
+     * Each page is loaded with the key of the last entry in the previous page, or {@code null}
+     * for the first page, and is expected to hold up to {@code pageSize} entries sorted by key.
+     * Since pages are not loaded by offset, entries may be safely removed as the stream is consumed.
+     *
+     * @param <T>        the entry type
+     * @param pageSize   the page size
+     * @param keyMapper  the function that maps an entry to its key
+     * @param pageLoader the function that loads the page after the given key
+     * @return the stream of entries
+     */
+    protected static <T> Stream<T> streamInPages(final int pageSize,
+                                                 final Function<T, String> keyMapper,
+                                                 final Function<String, List<T>> pageLoader) {
+        final Iterator<T> iterator = new AbstractIterator<T>() {
+            private Iterator<T> page = Collections.emptyIterator();
+            private String lastKey;
+            private boolean exhausted;
+
+            @Override
+            protected T computeNext() {
+                if (!page.hasNext()) {
+                    if (exhausted) {
+                        return endOfData();
+                    }
+                    final List<T> entries = pageLoader.apply(lastKey);
+                    exhausted = entries.size() < pageSize;
+                    if (entries.isEmpty()) {
+                        return endOfData();
+                    }
+                    lastKey = keyMapper.apply(entries.get(entries.size() - 1));
+                    page = entries.iterator();
+                }
+                return page.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Answer the query by paging through the entries that the store holds for each matching ticket definition,
+     * ordered by key and starting after the cursor, and merging the entries of all definitions in key order.
+     * Entries are loaded lazily, so that no more pages are fetched than needed to fill the requested page.
+     * Count-only queries that are not filtered beyond the ticket type are answered by counting entries in the store.
+     *
+     * @param <T>          the entry type
+     * @param query        the query
+     * @param definitions  the ticket definitions whose entries are kept separately in the store
+     * @param keyMapper    the function that maps an entry to its key
+     * @param ticketMapper the function that maps an entry to its decoded ticket
+     * @param pageLoader   the function that loads the page of entries after the given key
+     * @param counter      the function that counts the entries of a ticket definition
+     * @return the result
+     */
+    protected <T> TicketQueryResult queryTicketsInPages(final TicketQuery query,
+                                                        final Collection<TicketDefinition> definitions,
+                                                        final Function<T, String> keyMapper,
+                                                        final Function<T, Ticket> ticketMapper,
+                                                        final TicketPageLoader<T> pageLoader,
+                                                        final ToLongFunction<TicketDefinition> counter) {
+        final List<TicketDefinition> matchingDefinitions = definitions.stream()
+            .filter(query::matches)
+            .collect(Collectors.toList());
+        if (query.isCountOnly()) {
+            if (query.isUnfiltered()) {
+                return TicketQueryResult.ofCount(matchingDefinitions.stream().mapToLong(counter).sum());
+            }
+            try (Stream<Ticket> tickets = streamTickets(query)) {
+                return TicketQueryResult.ofCount(tickets.count());
+            }
+        }
+        final int batchSize = query.isPaged() ? query.getPageSize() + 1 : QUERY_BATCH_SIZE;
+        final List<Iterator<T>> entries = matchingDefinitions.stream()
+            .map(definition -> streamInPages(batchSize, keyMapper,
+                lastKey -> pageLoader.load(definition, lastKey == null ? query.getCursor() : lastKey, batchSize)).iterator())
+            .collect(Collectors.toList());
+        final Iterator<T> merged = Iterators.mergeSorted(entries, Comparator.comparing(keyMapper));
+        final Stream<Ticket> tickets = StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+            .map(ticketMapper)
+            .filter(Objects::nonNull)
+            .filter(query::matches);
+        return TicketQueryResult.ofOrderedTickets(tickets, query, ticket -> encodeTicketId(ticket.getId()));
     }
 
     protected boolean isCipherExecutorEnabled() {
         return this.cipherExecutor != null && this.cipherExecutor.isEnabled();
     }
+
+    /**
+     * Whether tickets are encoded before they are stored, either because they are
+     * encrypted or because the ticket codec requires it.
+     *
+     * @return true/false
+     */
+    protected boolean isTicketEncodingEnabled() {
+        return isCipherExecutorEnabled() || this.ticketCodec.isEncodingRequired();
+    }
+
+    private CipherExecutor getTicketCipherExecutor() {
+        return isCipherExecutorEnabled() ? this.cipherExecutor : CipherExecutor.noOp();
+    }
+
+    /**
+     * Loads the entries that the store holds for a ticket definition, one page at a time.
+     *
+     * @param <T> the entry type
+     */
+    @FunctionalInterface
+    protected interface TicketPageLoader<T> {
+        /**
+         * Load up to {@code pageSize} entries of the ticket definition whose keys
+         * follow the given key, sorted by key.
+         *
+         * @param definition the ticket definition
+         * @param afterKey   the key after which entries are loaded, or null to load the first page
+         * @param pageSize   the page size
+         * @return the entries
+         */
+        List<T> load(TicketDefinition definition, String afterKey, int pageSize);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedTicketCount {
+        private final CompletableFuture<Long> count;
+
+        private final long expiresAt;
+    }
 }
@@ -1,6 +1,9 @@
 package org.apereo.cas.ticket.registry;
 
-import lombok.RequiredArgsConstructor;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.AllArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.ticket.Ticket;
@@ -9,16 +12,27 @@ import org.apereo.cas.ticket.registry.support.LockingStrategy;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
 
 /**
  * This is {@link DefaultTicketRegistryCleaner}.
+ * <p>
+ * When a batch size is defined, expired tickets are loaded and removed from the registry
+ * in batches. A run may be bounded in time and throttled to a number of tickets per second.
+ * The ticket id space may also be divided into shards, in which case each node only
+ * removes tickets that fall into its own shard without acquiring the global cleanup lock.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
  */
 @Transactional(transactionManager = "ticketTransactionManager")
 @Slf4j
-@RequiredArgsConstructor
+@Setter
+@AllArgsConstructor
 public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Serializable {
     private static final long serialVersionUID = -8581398063126547772L;
 
@@ -26,26 +40,75 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
     private final transient LogoutManager logoutManager;
     private final transient TicketRegistry ticketRegistry;
 
+    /**
+     * Executor that runs the logout fan-out of expired ticket-granting tickets,
+     * so the cleaner does not have to wait for services to be notified.
+     * The cleaner performs the logout itself if no executor is defined.
+     */
+    private final transient Executor logoutExecutor;
+
+    /**
+     * Number of expired tickets removed at a time. Zero or less removes tickets one at a time.
+     */
+    private int batchSize;
+
+    /**
+     * Maximum amount of time in milliseconds a single run may take. Zero or less indicates no limit.
+     */
+    private long maxRunTimeInMillis;
+
+    /**
+     * Maximum number of expired tickets removed per second. Zero or less indicates no limit.
+     */
+    private double ticketsPerSecond;
+
+    /**
+     * Number of shards the ticket id space is divided into.
+     */
+    private int shardCount = 1;
+
+    /**
+     * Shard owned by this cleaner.
+     */
+    private int shardIndex;
+
+    public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy, final LogoutManager logoutManager,
+                                        final TicketRegistry ticketRegistry) {
+        this(lockingStrategy, logoutManager, ticketRegistry, null);
+    }
+
+    public DefaultTicketRegistryCleaner(final LockingStrategy lockingStrategy, final LogoutManager logoutManager,
+                                        final TicketRegistry ticketRegistry, final Executor logoutExecutor) {
+        this(lockingStrategy, logoutManager, ticketRegistry, logoutExecutor, 0, 0, 0, 1, 0);
+    }
+
     @Override
     public void clean() {
+        final boolean sharded = isSharded();
         try {
             if (!isCleanerSupported()) {
                 LOGGER.trace("Ticket registry cleaner is not supported by [{}]. No cleaner processes will run.", getClass().getSimpleName());
                 return;
             }
 
-            LOGGER.debug("Attempting to acquire ticket cleanup lock.");
-            if (!this.lockingStrategy.acquire()) {
-                LOGGER.info("Could not obtain lock. Aborting cleanup. The ticket registry may not support self-service maintenance.");
-                return;
+            if (sharded) {
+                LOGGER.debug("Cleaning up expired tickets in shard [{}] of [{}] without acquiring the cleanup lock.", shardIndex, shardCount);
+            } else {
+                LOGGER.debug("Attempting to acquire ticket cleanup lock.");
+                if (!this.lockingStrategy.acquire()) {
+                    LOGGER.info("Could not obtain lock. Aborting cleanup. The ticket registry may not support self-service maintenance.");
+                    return;
+                }
+                LOGGER.debug("Acquired lock. Proceeding with cleanup.");
             }
-            LOGGER.debug("Acquired lock. Proceeding with cleanup.");
             cleanInternal();
         } catch (final Exception e) {
             LOGGER.error(e.getMessage(), e);
         } finally {
-            LOGGER.debug("Releasing ticket cleanup lock.");
-            this.lockingStrategy.release();
+            if (!sharded) {
+                LOGGER.debug("Releasing ticket cleanup lock.");
+                this.lockingStrategy.release();
+            }
             LOGGER.debug("Finished ticket cleanup.");
         }
     }
@@ -54,10 +117,47 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
      * Clean tickets.
      */
     protected void cleanInternal() {
-        final int ticketsDeleted = ticketRegistry.getTicketsStream()
-            .filter(Ticket::isExpired)
-            .mapToInt(this::cleanTicket)
-            .sum();
+        if (batchSize > 0) {
+            cleanInBatches();
+            return;
+        }
+        try (Stream<Ticket> tickets = ticketRegistry.getTicketsStream()) {
+            final int ticketsDeleted = tickets
+                .filter(Ticket::isExpired)
+                .filter(this::isTicketInShard)
+                .mapToInt(this::cleanTicket)
+                .sum();
+            LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
+        }
+    }
+
+    /**
+     * Clean expired tickets in batches, until there are no more expired
+     * tickets or the time allotted to the run has elapsed.
+     */
+    protected void cleanInBatches() {
+        final long deadline = maxRunTimeInMillis > 0 ? System.currentTimeMillis() + maxRunTimeInMillis : Long.MAX_VALUE;
+        final RateLimiter rateLimiter = ticketsPerSecond > 0 ? RateLimiter.create(ticketsPerSecond) : null;
+        int ticketsDeleted = 0;
+        try (Stream<Ticket> expiredTickets = ticketRegistry.getExpiredTickets(batchSize)) {
+            final Iterator<List<Ticket>> batches = Iterators.partition(expiredTickets.filter(this::isTicketInShard).iterator(), batchSize);
+            while (batches.hasNext()) {
+                if (System.currentTimeMillis() >= deadline) {
+                    LOGGER.info("Ticket cleanup has reached its maximum run time of [{}] ms; remaining expired tickets are left to the next run.",
+                        maxRunTimeInMillis);
+                    break;
+                }
+                final List<Ticket> batch = batches.next();
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(batch.size());
+                }
+                LOGGER.debug("Cleaning up batch of [{}] expired tickets", batch.size());
+                batch.stream()
+                    .filter(TicketGrantingTicket.class::isInstance)
+                    .forEach(ticket -> performLogout((TicketGrantingTicket) ticket));
+                ticketsDeleted += ticketRegistry.deleteTickets(batch);
+            }
+        }
         LOGGER.info("[{}] expired tickets removed.", ticketsDeleted);
     }
 
@@ -65,12 +165,45 @@ public class DefaultTicketRegistryCleaner implements TicketRegistryCleaner, Seri
     public int cleanTicket(final Ticket ticket) {
         if (ticket instanceof TicketGrantingTicket) {
             LOGGER.debug("Cleaning up expired ticket-granting ticket [{}]", ticket.getId());
-            logoutManager.performLogout((TicketGrantingTicket) ticket);
+            performLogout((TicketGrantingTicket) ticket);
         }
         LOGGER.debug("Cleaning up expired service ticket [{}]", ticket.getId());
         return ticketRegistry.deleteTicket(ticket.getId());
     }
 
+    private void performLogout(final TicketGrantingTicket ticket) {
+        if (logoutExecutor == null) {
+            logoutManager.performLogout(ticket);
+            return;
+        }
+        try {
+            logoutExecutor.execute(() -> {
+                try {
+                    logoutManager.performLogout(ticket);
+                } catch (final Exception e) {
+                    LOGGER.error("Unable to perform logout for [{}]: [{}]", ticket.getId(), e.getMessage());
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("Logout queue is full; performing logout for expired ticket-granting ticket [{}] inline", ticket.getId());
+            logoutManager.performLogout(ticket);
+        }
+    }
+
+    private boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Whether the ticket falls into the shard owned by this cleaner.
+     *
+     * @param ticket the ticket
+     * @return true/false
+     */
+    protected boolean isTicketInShard(final Ticket ticket) {
+        return !isSharded() || Math.floorMod(ticket.getId().hashCode(), shardCount) == shardIndex;
+    }
+
     /**
      * Indicates whether the registry supports automated ticket cleanup.
      * Generally, a registry that is able to return a collection of available
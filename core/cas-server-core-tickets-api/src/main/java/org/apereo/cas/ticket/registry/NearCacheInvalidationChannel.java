@@ -0,0 +1,50 @@
+package org.apereo.cas.ticket.registry;
+
+import java.util.function.Consumer;
+
+/**
+ * This is {@link NearCacheInvalidationChannel}, which broadcasts ticket updates and removals
+ * to all CAS nodes so each may drop the stale copies held by its {@link NearCacheTicketRegistry}.
+ * Implementations may be backed by a pub/sub facility of the underlying registry or by a message broker.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface NearCacheInvalidationChannel {
+
+    /**
+     * Ticket id that asks subscribers to drop every cached ticket.
+     */
+    String ALL_TICKETS = "*";
+
+    /**
+     * Publish the invalidation of the ticket to other nodes.
+     *
+     * @param ticketId the ticket id, or {@link #ALL_TICKETS}
+     */
+    void publish(String ticketId);
+
+    /**
+     * Subscribe to invalidations published by other nodes.
+     *
+     * @param listener the listener that receives the invalidated ticket id
+     */
+    void subscribe(Consumer<String> listener);
+
+    /**
+     * Channel that does not reach other nodes, suitable for a single node deployment.
+     *
+     * @return the channel
+     */
+    static NearCacheInvalidationChannel local() {
+        return new NearCacheInvalidationChannel() {
+            @Override
+            public void publish(final String ticketId) {
+            }
+
+            @Override
+            public void subscribe(final Consumer<String> listener) {
+            }
+        };
+    }
+}
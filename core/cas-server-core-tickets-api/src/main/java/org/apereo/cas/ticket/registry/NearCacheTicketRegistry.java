@@ -0,0 +1,316 @@
+package org.apereo.cas.ticket.registry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.serialization.TicketCodec;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link NearCacheTicketRegistry}, which decorates a (typically remote) ticket registry
+ * with a small, short-lived local cache of decoded tickets. Repeated lookups of the same ticket, such as
+ * those made for the ticket-granting ticket during a single login, are then answered without fetching,
+ * decrypting and deserializing the ticket again.
+ * <p>
+ * Only ticket types whose {@link TicketDefinition} opts into near caching are cached. Tickets are kept in their
+ * encoded form, so that every lookup receives its own copy and changes made to it are not visible to other
+ * lookups until the ticket is updated in the registry. Tickets that are updated or removed via this node are
+ * refreshed or dropped locally and the change is announced to other nodes via the {@link NearCacheInvalidationChannel};
+ * dropping a ticket-granting ticket drops the cached tickets that were issued by it as well. The time-to-live of
+ * cached entries bounds the staleness should an announcement be lost, which is why the near cache must only be
+ * used along with a channel that reaches every node.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class NearCacheTicketRegistry implements TicketRegistry {
+
+    private final TicketRegistry delegate;
+
+    private final TicketCatalog ticketCatalog;
+
+    private final NearCacheInvalidationChannel invalidationChannel;
+
+    private final TicketCodec ticketCodec;
+
+    private final Cache<String, CachedTicket> cache;
+
+    /**
+     * Ticket-granting ticket id mapped to the ids of cached tickets that were issued by it.
+     */
+    private final Map<String, Set<String>> cachedDescendants = new ConcurrentHashMap<>();
+
+    private final Map<String, Boolean> cacheablePrefixes = new ConcurrentHashMap<>();
+
+    public NearCacheTicketRegistry(final TicketRegistry delegate, final TicketCatalog ticketCatalog,
+                                   final NearCacheInvalidationChannel invalidationChannel, final TicketCodec ticketCodec,
+                                   final long maximumSize, final Duration timeToLive) {
+        this.delegate = delegate;
+        this.ticketCatalog = ticketCatalog;
+        this.invalidationChannel = invalidationChannel;
+        this.ticketCodec = ticketCodec;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive)
+            .removalListener((String ticketId, CachedTicket cached, RemovalCause cause) -> removeDescendant(ticketId, cached))
+            .recordStats()
+            .build();
+        this.invalidationChannel.subscribe(this::invalidate);
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        this.delegate.addTicket(ticket);
+        cache(ticket);
+    }
+
+    @Override
+    public <T extends Ticket> T getTicket(final String ticketId, @NonNull final Class<T> clazz) {
+        final Ticket ticket = getTicket(ticketId);
+        if (ticket == null) {
+            return null;
+        }
+        if (!clazz.isAssignableFrom(ticket.getClass())) {
+            throw new ClassCastException("Ticket [" + ticket.getId() + " is of type " + ticket.getClass() + " when we were expecting " + clazz);
+        }
+        return (T) ticket;
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        if (!isCacheable(ticketId)) {
+            return this.delegate.getTicket(ticketId);
+        }
+        final CachedTicket cached = this.cache.getIfPresent(ticketId);
+        if (cached != null) {
+            final Ticket ticket = this.ticketCodec.decode(cached.getTicket());
+            if (ticket != null && !ticket.isExpired()) {
+                return ticket;
+            }
+            this.cache.invalidate(ticketId);
+        }
+        final Ticket ticket = this.delegate.getTicket(ticketId);
+        cache(ticket);
+        return ticket;
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        final CachedTicket cached = StringUtils.isBlank(ticketId) ? null : this.cache.getIfPresent(ticketId);
+        final int count = this.delegate.deleteTicket(ticketId);
+        if (cached != null) {
+            invalidateRelatedTickets(this.ticketCodec.decode(cached.getTicket()));
+        }
+        invalidateAndPublish(ticketId);
+        return count;
+    }
+
+    @Override
+    public int deleteTickets(final Collection<? extends Ticket> tickets) {
+        final int count = this.delegate.deleteTickets(tickets);
+        tickets.forEach(ticket -> {
+            invalidateRelatedTickets(ticket);
+            invalidateAndPublish(ticket.getId());
+        });
+        return count;
+    }
+
+    @Override
+    public long deleteAll() {
+        final long count = this.delegate.deleteAll();
+        this.cache.invalidateAll();
+        this.invalidationChannel.publish(NearCacheInvalidationChannel.ALL_TICKETS);
+        return count;
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        return this.delegate.getTickets();
+    }
+
+    @Override
+    public Stream<Ticket> getTickets(final Predicate<Ticket> predicate) {
+        return this.delegate.getTickets(predicate);
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        final Ticket result = this.delegate.updateTicket(ticket);
+        refreshAndPublish(ticket);
+        return result;
+    }
+
+    @Override
+    public void updateAndAddTickets(final Collection<? extends Ticket> ticketsToUpdate, final Collection<? extends Ticket> ticketsToAdd) {
+        this.delegate.updateAndAddTickets(ticketsToUpdate, ticketsToAdd);
+        ticketsToUpdate.forEach(this::refreshAndPublish);
+        ticketsToAdd.forEach(this::cache);
+    }
+
+    @Override
+    public long sessionCount() {
+        return this.delegate.sessionCount();
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return this.delegate.serviceTicketCount();
+    }
+
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return this.delegate.getSessionsFor(principalId);
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return this.delegate.getTicketsStream();
+    }
+
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return this.delegate.getExpiredTickets(batchSize);
+    }
+
+    @Override
+    public Stream<Ticket> streamTickets(final TicketQuery query) {
+        return this.delegate.streamTickets(query);
+    }
+
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        return this.delegate.queryTickets(query);
+    }
+
+    /**
+     * Drop the ticket from the local cache, typically in response to an invalidation
+     * published by another node.
+     *
+     * @param ticketId the ticket id, or {@link NearCacheInvalidationChannel#ALL_TICKETS}
+     */
+    public void invalidate(final String ticketId) {
+        if (NearCacheInvalidationChannel.ALL_TICKETS.equals(ticketId)) {
+            LOGGER.trace("Dropping all tickets from the near cache");
+            this.cache.invalidateAll();
+            this.cachedDescendants.clear();
+        } else if (StringUtils.isNotBlank(ticketId)) {
+            LOGGER.trace("Dropping ticket [{}] from the near cache", ticketId);
+            this.cache.invalidate(ticketId);
+            final Set<String> descendants = this.cachedDescendants.remove(ticketId);
+            if (descendants != null) {
+                descendants.forEach(this::invalidate);
+            }
+        }
+    }
+
+    /**
+     * Gets statistics about the near cache.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final CacheStats stats = this.cache.stats();
+        final Map<String, Object> results = new LinkedHashMap<>();
+        results.put("hitCount", stats.hitCount());
+        results.put("missCount", stats.missCount());
+        results.put("hitRate", stats.hitRate());
+        results.put("evictionCount", stats.evictionCount());
+        results.put("size", this.cache.estimatedSize());
+        return results;
+    }
+
+    private void cache(final Ticket ticket) {
+        if (ticket != null && !ticket.isExpired() && isCacheable(ticket.getId())) {
+            final TicketGrantingTicket parent = ticket.getTicketGrantingTicket();
+            final String parentId = parent == null ? null : parent.getId();
+            if (parentId != null) {
+                this.cachedDescendants.computeIfAbsent(parentId, k -> ConcurrentHashMap.newKeySet()).add(ticket.getId());
+            }
+            this.cache.put(ticket.getId(), new CachedTicket(this.ticketCodec.encode(ticket), parentId));
+        }
+    }
+
+    private void refreshAndPublish(final Ticket ticket) {
+        this.cache.invalidate(ticket.getId());
+        cache(ticket);
+        this.invalidationChannel.publish(ticket.getId());
+    }
+
+    private void invalidateAndPublish(final String ticketId) {
+        if (StringUtils.isNotBlank(ticketId)) {
+            invalidate(ticketId);
+            this.invalidationChannel.publish(ticketId);
+        }
+    }
+
+    private void removeDescendant(final String ticketId, final CachedTicket cached) {
+        if (ticketId != null && cached != null && cached.getParentId() != null) {
+            this.cachedDescendants.computeIfPresent(cached.getParentId(), (parentId, descendants) -> {
+                descendants.remove(ticketId);
+                return descendants.isEmpty() ? null : descendants;
+            });
+        }
+    }
+
+    /**
+     * Removing a ticket-granting ticket removes its proxy-granting tickets as well,
+     * and removing a proxy-granting ticket updates its parent, so neither may be served from the cache.
+     */
+    private void invalidateRelatedTickets(final Ticket ticket) {
+        if (ticket instanceof ProxyGrantingTicket) {
+            final TicketGrantingTicket parent = ((ProxyGrantingTicket) ticket).getTicketGrantingTicket();
+            if (parent != null) {
+                invalidateAndPublish(parent.getId());
+            }
+        }
+        if (ticket instanceof TicketGrantingTicket) {
+            ((TicketGrantingTicket) ticket).getProxyGrantingTickets().keySet().forEach(this::invalidateAndPublish);
+        }
+    }
+
+    private boolean isCacheable(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return false;
+        }
+        if (!ticketId.contains("-")) {
+            return isNearCacheEnabled(ticketId);
+        }
+        return this.cacheablePrefixes.computeIfAbsent(StringUtils.substringBefore(ticketId, "-"), p -> isNearCacheEnabled(ticketId));
+    }
+
+    private boolean isNearCacheEnabled(final String ticketId) {
+        final TicketDefinition definition = this.ticketCatalog.find(ticketId);
+        return definition != null && definition.getProperties().isNearCacheEnabled();
+    }
+
+    /**
+     * An encoded ticket along with the id of the ticket-granting ticket that issued it.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedTicket {
+        private final byte[] ticket;
+        private final String parentId;
+    }
+}
@@ -0,0 +1,209 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.ticket.ExpirationPolicy;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketState;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link TicketExpirationIndex}. It groups ticket ids into time buckets
+ * by the projected expiration time of each ticket, so that locating expired tickets
+ * only visits the buckets that are due rather than every ticket in the registry.
+ * <p>
+ * The projection is the earliest instant, still in the future, at which the expiration
+ * policy may consider the ticket expired; i.e. the creation time plus the time-to-live,
+ * or the last time used plus the time-to-live or time-to-idle. Projections are therefore
+ * never later than the actual expiration time for the built-in policies. Tickets must be
+ * re-indexed when they are updated, since sliding policies extend their expiration time as
+ * tickets are used. Tickets whose expiration time cannot be projected are revisited
+ * periodically, and those that never expire are not indexed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class TicketExpirationIndex {
+    /**
+     * Default width of a time bucket.
+     */
+    public static final long DEFAULT_BUCKET_SIZE_IN_MILLIS = 1_000;
+
+    /**
+     * Default amount of time after which tickets that cannot be projected are checked again.
+     */
+    public static final long DEFAULT_RECHECK_INTERVAL_IN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final NavigableMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+
+    private final Map<String, Long> ticketBuckets = new ConcurrentHashMap<>();
+
+    private final long bucketSizeInMillis;
+
+    private final long recheckIntervalInMillis;
+
+    public TicketExpirationIndex() {
+        this(DEFAULT_BUCKET_SIZE_IN_MILLIS, DEFAULT_RECHECK_INTERVAL_IN_MILLIS);
+    }
+
+    public TicketExpirationIndex(final long bucketSizeInMillis, final long recheckIntervalInMillis) {
+        this.bucketSizeInMillis = Math.max(1, bucketSizeInMillis);
+        this.recheckIntervalInMillis = Math.max(1, recheckIntervalInMillis);
+    }
+
+    /**
+     * Add the ticket to the index, or move it to the bucket of its new projected expiration time.
+     *
+     * @param ticket the ticket
+     */
+    public void index(final Ticket ticket) {
+        final long expiration = getProjectedExpirationTime(ticket, System.currentTimeMillis());
+        if (expiration == NEVER) {
+            remove(ticket.getId());
+            return;
+        }
+        move(ticket.getId(), expiration / this.bucketSizeInMillis);
+    }
+
+    /**
+     * Remove the ticket from the index.
+     *
+     * @param ticketId the ticket id
+     */
+    public synchronized void remove(final String ticketId) {
+        final Long bucket = this.ticketBuckets.remove(ticketId);
+        if (bucket != null) {
+            removeFromBucket(bucket, ticketId);
+        }
+    }
+
+    /**
+     * Remove all tickets from the index.
+     */
+    public synchronized void clear() {
+        this.buckets.clear();
+        this.ticketBuckets.clear();
+    }
+
+    /**
+     * Gets the ids of tickets whose projected expiration time has passed.
+     * Tickets remain in the index until they are removed or re-indexed.
+     *
+     * @return the ticket ids
+     */
+    public Stream<String> getDueTicketIds() {
+        final long now = System.currentTimeMillis() / this.bucketSizeInMillis;
+        return this.buckets.headMap(now, true)
+            .values()
+            .stream()
+            .flatMap(Set::stream);
+    }
+
+    /**
+     * Number of indexed tickets.
+     *
+     * @return the size
+     */
+    public int size() {
+        return this.ticketBuckets.size();
+    }
+
+    /**
+     * Gets the projected expiration time of the ticket.
+     *
+     * @param ticket the ticket
+     * @param now    the current time in milliseconds
+     * @return the projected expiration time in milliseconds, or {@link Long#MAX_VALUE} if the ticket never expires.
+     */
+    protected long getProjectedExpirationTime(final Ticket ticket, final long now) {
+        return getProjectedExpirationTime(ticket, now, this.recheckIntervalInMillis);
+    }
+
+    /**
+     * Gets the projected expiration time of the ticket. Registries that keep tickets in an external store
+     * may record this time along with each ticket, so that the store can locate the tickets that are due.
+     *
+     * @param ticket                  the ticket
+     * @param now                     the current time in milliseconds
+     * @param recheckIntervalInMillis amount of time after which tickets that cannot be projected are due
+     * @return the projected expiration time in milliseconds, or {@link Long#MAX_VALUE} if the ticket never expires.
+     */
+    public static long getProjectedExpirationTime(final Ticket ticket, final long now, final long recheckIntervalInMillis) {
+        if (ticket.isExpired()) {
+            return now;
+        }
+        final ExpirationPolicy policy = ticket.getExpirationPolicy();
+        if (policy == null || !(ticket instanceof TicketState)) {
+            return now + recheckIntervalInMillis;
+        }
+        final TicketState state = (TicketState) ticket;
+        final long timeToLive = toSeconds(policy.getTimeToLive(state));
+        final long timeToIdle = toSeconds(policy.getTimeToIdle());
+        if (isUnbounded(timeToLive) && (isUnbounded(timeToIdle) || timeToIdle <= 0)) {
+            return NEVER;
+        }
+        final long creationTime = toMillis(state.getCreationTime());
+        final long lastTimeUsed = toMillis(state.getLastTimeUsed());
+        final long projected = Stream.of(
+            plus(creationTime, timeToLive),
+            plus(lastTimeUsed, timeToLive),
+            plus(lastTimeUsed, timeToIdle))
+            .filter(Objects::nonNull)
+            .filter(time -> time > now)
+            .min(Long::compare)
+            .orElse(now + recheckIntervalInMillis);
+        LOGGER.trace("Projected expiration time of ticket [{}] is [{}]", ticket.getId(), projected);
+        return projected;
+    }
+
+    private synchronized void move(final String ticketId, final long bucket) {
+        final Long previous = this.ticketBuckets.put(ticketId, bucket);
+        if (previous != null) {
+            if (previous == bucket) {
+                return;
+            }
+            removeFromBucket(previous, ticketId);
+        }
+        this.buckets.computeIfAbsent(bucket, k -> ConcurrentHashMap.newKeySet()).add(ticketId);
+    }
+
+    private void removeFromBucket(final long bucket, final String ticketId) {
+        final Set<String> ids = this.buckets.get(bucket);
+        if (ids != null) {
+            ids.remove(ticketId);
+            if (ids.isEmpty()) {
+                this.buckets.remove(bucket);
+            }
+        }
+    }
+
+    private static boolean isUnbounded(final long seconds) {
+        return seconds >= Integer.MAX_VALUE;
+    }
+
+    private static long toSeconds(final Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static long toMillis(final ZonedDateTime time) {
+        return time == null ? 0 : time.toInstant().toEpochMilli();
+    }
+
+    private static Long plus(final long time, final long seconds) {
+        if (time <= 0 || seconds <= 0 || isUnbounded(seconds)) {
+            return null;
+        }
+        return time + TimeUnit.SECONDS.toMillis(seconds);
+    }
+}
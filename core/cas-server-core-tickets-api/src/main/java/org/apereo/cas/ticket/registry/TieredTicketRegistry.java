@@ -0,0 +1,321 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This is {@link TieredTicketRegistry}, which routes each ticket type to the ticket registry
+ * of the storage tier that its {@link TicketDefinition} is assigned to. Short-lived, single-use tickets
+ * such as service tickets may then be kept in a local registry, while long-lived tickets such as
+ * ticket-granting tickets remain in the primary, typically remote, registry.
+ * <p>
+ * The storage tier of a ticket type is taken from its definition in the ticket catalog, or else from the tier
+ * assignments given to this registry. Ticket types without a storage tier, or with a tier that has no registry,
+ * are stored in the primary registry. Ticket-granting tickets always remain in the primary registry since their
+ * removal cascades down to other tickets.
+ * <p>
+ * Tickets kept in a local tier are only visible to the node that issued them, so requests that validate or
+ * consume such tickets should be routed back to that node. Lookups that miss the tier fall back to the primary
+ * registry, which still finds tickets stored there before the ticket type was assigned to its tier, or by nodes
+ * that do not assign it; such tickets are updated and removed in the primary registry as well.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class TieredTicketRegistry implements TicketRegistry {
+
+    /**
+     * Storage tier of tickets that are kept in the memory of the node that issued them.
+     */
+    public static final String LOCAL_TIER = "local";
+
+    private final TicketRegistry primary;
+
+    private final TicketCatalog ticketCatalog;
+
+    private final Map<String, TicketRegistry> tiers;
+
+    /**
+     * Ticket prefix mapped to the storage tier of ticket types whose definition assigns none.
+     */
+    private final Map<String, String> storageTiers;
+
+    private final Map<String, TicketRegistry> prefixRegistries = new ConcurrentHashMap<>();
+
+    public TieredTicketRegistry(final TicketRegistry primary, final TicketCatalog ticketCatalog, final Map<String, TicketRegistry> tiers) {
+        this(primary, ticketCatalog, tiers, new LinkedHashMap<>(0));
+    }
+
+    public TieredTicketRegistry(final TicketRegistry primary, final TicketCatalog ticketCatalog,
+                                final Map<String, TicketRegistry> tiers, final Map<String, String> storageTiers) {
+        this.primary = primary;
+        this.ticketCatalog = ticketCatalog;
+        this.tiers = new LinkedHashMap<>(tiers);
+        this.storageTiers = new LinkedHashMap<>(storageTiers);
+    }
+
+    @Override
+    public void addTicket(final Ticket ticket) {
+        getTicketRegistry(ticket.getId()).addTicket(ticket);
+    }
+
+    @Override
+    public <T extends Ticket> T getTicket(final String ticketId, @NonNull final Class<T> clazz) {
+        final TicketRegistry registry = getTicketRegistry(ticketId);
+        final T ticket = registry.getTicket(ticketId, clazz);
+        if (ticket != null || registry == this.primary) {
+            return ticket;
+        }
+        LOGGER.trace("Ticket [{}] is not found in its storage tier; looking it up in the primary ticket registry", ticketId);
+        return this.primary.getTicket(ticketId, clazz);
+    }
+
+    @Override
+    public Ticket getTicket(final String ticketId) {
+        final TicketRegistry registry = getTicketRegistry(ticketId);
+        final Ticket ticket = registry.getTicket(ticketId);
+        if (ticket != null || registry == this.primary) {
+            return ticket;
+        }
+        LOGGER.trace("Ticket [{}] is not found in its storage tier; looking it up in the primary ticket registry", ticketId);
+        return this.primary.getTicket(ticketId);
+    }
+
+    @Override
+    public int deleteTicket(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return 0;
+        }
+        TicketRegistry registry = getTicketRegistry(ticketId);
+        Ticket ticket = registry.getTicket(ticketId);
+        if (ticket == null && registry != this.primary) {
+            registry = this.primary;
+            ticket = registry.getTicket(ticketId);
+        }
+        final int count = ticket instanceof TicketGrantingTicket ? deleteChildrenInOtherTiers((TicketGrantingTicket) ticket, registry) : 0;
+        return count + registry.deleteTicket(ticketId);
+    }
+
+    @Override
+    public int deleteTickets(final Collection<? extends Ticket> tickets) {
+        final Map<TicketRegistry, List<Ticket>> ticketsByRegistry = groupByHoldingTicketRegistry(tickets);
+        return ticketsByRegistry.entrySet()
+            .stream()
+            .mapToInt(entry -> {
+                final int count = entry.getValue().stream()
+                    .filter(TicketGrantingTicket.class::isInstance)
+                    .mapToInt(ticket -> deleteChildrenInOtherTiers((TicketGrantingTicket) ticket, entry.getKey()))
+                    .sum();
+                return count + entry.getKey().deleteTickets(entry.getValue());
+            })
+            .sum();
+    }
+
+    @Override
+    public long deleteAll() {
+        return getTicketRegistries().stream().mapToLong(TicketRegistry::deleteAll).sum();
+    }
+
+    @Override
+    public Collection<Ticket> getTickets() {
+        final List<Ticket> tickets = new ArrayList<>();
+        getTicketRegistries().forEach(registry -> tickets.addAll(registry.getTickets()));
+        return tickets;
+    }
+
+    @Override
+    public Stream<Ticket> getTickets(final Predicate<Ticket> predicate) {
+        return getTicketRegistries().stream().flatMap(registry -> registry.getTickets(predicate));
+    }
+
+    @Override
+    public Ticket updateTicket(final Ticket ticket) {
+        return getHoldingTicketRegistry(ticket.getId()).updateTicket(ticket);
+    }
+
+    @Override
+    public void updateAndAddTickets(final Collection<? extends Ticket> ticketsToUpdate, final Collection<? extends Ticket> ticketsToAdd) {
+        final Map<TicketRegistry, List<Ticket>> updatesByRegistry = groupByHoldingTicketRegistry(ticketsToUpdate);
+        final Map<TicketRegistry, List<Ticket>> additionsByRegistry = groupByTicketRegistry(ticketsToAdd);
+        getTicketRegistries().forEach(registry -> {
+            final List<Ticket> updates = updatesByRegistry.getOrDefault(registry, new ArrayList<>(0));
+            final List<Ticket> additions = additionsByRegistry.getOrDefault(registry, new ArrayList<>(0));
+            if (!updates.isEmpty() || !additions.isEmpty()) {
+                registry.updateAndAddTickets(updates, additions);
+            }
+        });
+    }
+
+    @Override
+    public long sessionCount() {
+        return sumCounts(TicketRegistry::sessionCount);
+    }
+
+    @Override
+    public long serviceTicketCount() {
+        return sumCounts(TicketRegistry::serviceTicketCount);
+    }
+
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        return getTicketRegistry(TicketGrantingTicket.PREFIX).getSessionsFor(principalId);
+    }
+
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return getTicketRegistries().stream().flatMap(TicketRegistry::getTicketsStream);
+    }
+
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return getTicketRegistries().stream().flatMap(registry -> registry.getExpiredTickets(batchSize));
+    }
+
+    @Override
+    public Stream<Ticket> streamTickets(final TicketQuery query) {
+        return getTicketRegistries(query).stream().flatMap(registry -> registry.streamTickets(query));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Queries that match tickets of a single tier are answered by the registry of that tier.
+     * Pages that span several tiers are assembled from all matching tickets, ordered by ticket id.</p>
+     */
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        final List<TicketRegistry> registries = getTicketRegistries(query);
+        if (registries.size() == 1) {
+            return registries.get(0).queryTickets(query);
+        }
+        if (query.isCountOnly()) {
+            return TicketQueryResult.ofCount(registries.stream().mapToLong(registry -> registry.queryTickets(query).getCount()).sum());
+        }
+        try (Stream<Ticket> tickets = streamTickets(query)) {
+            return TicketQueryResult.of(tickets, query, Ticket::getId);
+        }
+    }
+
+    /**
+     * Service tickets are removed along with their ticket-granting ticket,
+     * which only reaches the registry of the ticket-granting ticket itself.
+     */
+    private int deleteChildrenInOtherTiers(final TicketGrantingTicket ticket, final TicketRegistry registry) {
+        final Map<String, ?> services = ticket.getServices();
+        if (services == null || services.isEmpty()) {
+            return 0;
+        }
+        return new ArrayList<>(services.keySet())
+            .stream()
+            .filter(ticketId -> getTicketRegistry(ticketId) != registry)
+            .mapToInt(ticketId -> {
+                LOGGER.debug("Removing ticket [{}] of ticket-granting ticket [{}] from its storage tier", ticketId, ticket.getId());
+                return getHoldingTicketRegistry(ticketId).deleteTicket(ticketId);
+            })
+            .sum();
+    }
+
+    private long sumCounts(final ToLongFunction<TicketRegistry> counter) {
+        long total = 0;
+        for (final TicketRegistry registry : getTicketRegistries()) {
+            final long count = counter.applyAsLong(registry);
+            if (count < 0) {
+                return count;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    private Map<TicketRegistry, List<Ticket>> groupByTicketRegistry(final Collection<? extends Ticket> tickets) {
+        return tickets.stream().collect(Collectors.groupingBy(ticket -> getTicketRegistry(ticket.getId()),
+            IdentityHashMap::new, Collectors.toList()));
+    }
+
+    private Map<TicketRegistry, List<Ticket>> groupByHoldingTicketRegistry(final Collection<? extends Ticket> tickets) {
+        return tickets.stream().collect(Collectors.groupingBy(ticket -> getHoldingTicketRegistry(ticket.getId()),
+            IdentityHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Tickets missing from their storage tier are updated and removed in the primary registry, if found there.
+     */
+    private TicketRegistry getHoldingTicketRegistry(final String ticketId) {
+        final TicketRegistry registry = getTicketRegistry(ticketId);
+        if (registry == this.primary || registry.getTicket(ticketId) != null || this.primary.getTicket(ticketId) == null) {
+            return registry;
+        }
+        return this.primary;
+    }
+
+    private List<TicketRegistry> getTicketRegistries() {
+        final List<TicketRegistry> registries = new ArrayList<>();
+        registries.add(this.primary);
+        this.tiers.values().stream().filter(registry -> registries.stream().noneMatch(r -> r == registry)).forEach(registries::add);
+        return registries;
+    }
+
+    private List<TicketRegistry> getTicketRegistries(final TicketQuery query) {
+        final List<TicketRegistry> matching = this.ticketCatalog.findAll()
+            .stream()
+            .filter(query::matches)
+            .map(definition -> getTicketRegistry(definition.getPrefix()))
+            .collect(Collectors.toList());
+        return getTicketRegistries().stream()
+            .filter(registry -> matching.stream().anyMatch(r -> r == registry))
+            .collect(Collectors.toList());
+    }
+
+    private TicketRegistry getTicketRegistry(final String ticketId) {
+        if (StringUtils.isBlank(ticketId)) {
+            return this.primary;
+        }
+        if (!ticketId.contains("-")) {
+            return locateTicketRegistry(ticketId);
+        }
+        return this.prefixRegistries.computeIfAbsent(StringUtils.substringBefore(ticketId, "-"), p -> locateTicketRegistry(ticketId));
+    }
+
+    private TicketRegistry locateTicketRegistry(final String ticketId) {
+        final TicketDefinition definition = this.ticketCatalog.find(ticketId);
+        if (definition == null) {
+            return this.primary;
+        }
+        final String tier = StringUtils.defaultIfBlank(definition.getProperties().getStorageTier(), this.storageTiers.get(definition.getPrefix()));
+        if (StringUtils.isBlank(tier)) {
+            return this.primary;
+        }
+        if (TicketGrantingTicket.class.isAssignableFrom(definition.getImplementationClass())) {
+            LOGGER.warn("Ticket-granting tickets of type [{}] cannot be assigned to a storage tier and are kept in the primary ticket registry",
+                definition.getPrefix());
+            return this.primary;
+        }
+        final TicketRegistry registry = this.tiers.get(tier);
+        if (registry == null) {
+            LOGGER.warn("No ticket registry is defined for storage tier [{}] of ticket type [{}]; tickets are kept in the primary ticket registry",
+                tier, definition.getPrefix());
+            return this.primary;
+        }
+        LOGGER.debug("Tickets of type [{}] are kept in the ticket registry of storage tier [{}]", definition.getPrefix(), tier);
+        return registry;
+    }
+}
@@ -0,0 +1,33 @@
+package org.apereo.cas.ticket.serialization;
+
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.util.serialization.SerializationUtils;
+
+/**
+ * This is {@link SerializationTicketCodec}, which relies on Java serialization
+ * and is the default codec of ticket registries.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@NoArgsConstructor
+public class SerializationTicketCodec implements TicketCodec {
+
+    @Override
+    public byte[] encode(final Ticket ticket) {
+        return SerializationUtils.serialize(ticket);
+    }
+
+    @Override
+    public Ticket decode(final byte[] bytes) {
+        return SerializationUtils.deserializeAndCheckObject(bytes, Ticket.class);
+    }
+
+    @Override
+    public boolean isEncodingRequired() {
+        return false;
+    }
+}
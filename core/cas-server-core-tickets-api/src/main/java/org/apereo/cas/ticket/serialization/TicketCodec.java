@@ -0,0 +1,41 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link TicketCodec}, which turns tickets into bytes and back
+ * so they may be stored in, and shared via, distributed ticket registries.
+ * Codecs are independent of any particular registry; a registry that encodes
+ * tickets applies its cipher to the output of the codec.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface TicketCodec {
+
+    /**
+     * Encode the ticket.
+     *
+     * @param ticket the ticket
+     * @return the bytes
+     */
+    byte[] encode(Ticket ticket);
+
+    /**
+     * Decode the ticket.
+     *
+     * @param bytes the bytes
+     * @return the ticket, or null if the bytes were produced by an incompatible schema
+     */
+    Ticket decode(byte[] bytes);
+
+    /**
+     * Whether registries should encode tickets with this codec even if ticket encryption is turned off.
+     * Codecs that merely replicate the native serialization of the registry need not.
+     *
+     * @return true/false
+     */
+    default boolean isEncodingRequired() {
+        return true;
+    }
+}
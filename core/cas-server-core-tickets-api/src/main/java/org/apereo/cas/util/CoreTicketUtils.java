@@ -4,9 +4,30 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryCleanerProperties;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
 import org.apereo.cas.configuration.model.core.util.EncryptionRandomizedSigningJwtCryptographyProperties;
+import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistry;
+import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.registry.TieredTicketRegistry;
+import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.serialization.TicketCodec;
+import org.apereo.cas.util.cipher.AesGcmTicketCipherExecutor;
+import org.apereo.cas.util.cipher.BaseAesGcmCipherExecutor;
 import org.apereo.cas.util.cipher.DefaultTicketCipherExecutor;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
 /**
  * This is {@link CoreTicketUtils}.
  *
@@ -50,6 +71,9 @@ public class CoreTicketUtils {
 
         if (enabled || forceIfBlankKeys) {
             LOGGER.debug("Ticket registry encryption/signing is enabled for [{}]", registryName);
+            if (BaseAesGcmCipherExecutor.STRATEGY_TYPE.equalsIgnoreCase(registry.getStrategyType())) {
+                return new AesGcmTicketCipherExecutor(registry.getEncryption().getKey(), registry.getRetiredKeys(), registryName);
+            }
             return new DefaultTicketCipherExecutor(
                     registry.getEncryption().getKey(),
                     registry.getSigning().getKey(),
@@ -63,4 +87,100 @@ public class CoreTicketUtils {
                 + "ticket registry tickets, and verify the chosen ticket registry does support this behavior.");
         return CipherExecutor.noOp();
     }
+
+    /**
+     * New ticket registry cleaner configured with the batching, time budget,
+     * throttling and sharding settings of the cleaner.
+     *
+     * @param properties      the cleaner properties
+     * @param lockingStrategy the locking strategy
+     * @param logoutManager   the logout manager
+     * @param ticketRegistry  the ticket registry
+     * @param logoutExecutor  the executor that runs the logout of expired ticket-granting tickets
+     * @return the ticket registry cleaner
+     * @throws IllegalArgumentException if the shard of the cleaner falls outside the configured number of shards
+     */
+    public static DefaultTicketRegistryCleaner newTicketRegistryCleaner(final TicketRegistryCleanerProperties properties,
+                                                                        final LockingStrategy lockingStrategy,
+                                                                        final LogoutManager logoutManager,
+                                                                        final TicketRegistry ticketRegistry,
+                                                                        final Executor logoutExecutor) {
+        final int shardCount = Math.max(1, properties.getShardCount());
+        if (properties.getShardIndex() < 0 || properties.getShardIndex() >= shardCount) {
+            throw new IllegalArgumentException("Ticket registry cleaner shard index " + properties.getShardIndex()
+                + " must be at least zero and less than the shard count " + shardCount);
+        }
+        final DefaultTicketRegistryCleaner cleaner = new DefaultTicketRegistryCleaner(lockingStrategy, logoutManager, ticketRegistry, logoutExecutor);
+        cleaner.setBatchSize(properties.getBatchSize());
+        cleaner.setMaxRunTimeInMillis(Beans.newDuration(properties.getMaxRunTime()).toMillis());
+        cleaner.setTicketsPerSecond(properties.getTicketsPerSecond());
+        cleaner.setShardCount(shardCount);
+        cleaner.setShardIndex(properties.getShardIndex());
+        return cleaner;
+    }
+
+    /**
+     * Decorate the ticket registry with a near cache, if one is enabled.
+     * The near cache is only put in place when an invalidation channel that reaches
+     * every node is available; otherwise, a node would keep serving tickets that were
+     * updated or removed, such as on logout, by another node.
+     *
+     * @param ticketRegistry      the ticket registry
+     * @param properties          the near cache properties
+     * @param ticketCatalog       the ticket catalog
+     * @param invalidationChannel the invalidation channel, or null if the registry offers none
+     * @param ticketCodec         the codec that encodes cached tickets
+     * @return the ticket registry, decorated with a near cache if enabled
+     */
+    public static TicketRegistry newNearCacheTicketRegistry(final TicketRegistry ticketRegistry,
+                                                            final TicketRegistryProperties.NearCache properties,
+                                                            final TicketCatalog ticketCatalog,
+                                                            final NearCacheInvalidationChannel invalidationChannel,
+                                                            final TicketCodec ticketCodec) {
+        if (!properties.isEnabled()) {
+            return ticketRegistry;
+        }
+        if (invalidationChannel == null) {
+            LOGGER.warn("Near cache is enabled, yet ticket registry [{}] offers no channel to invalidate cached tickets on all nodes. "
+                + "The near cache is turned off", ticketRegistry.getClass().getSimpleName());
+            return ticketRegistry;
+        }
+        LOGGER.debug("Ticket registry [{}] is decorated with a near cache of up to [{}] tickets", ticketRegistry.getClass().getSimpleName(),
+            properties.getMaximumSize());
+        return new NearCacheTicketRegistry(ticketRegistry, ticketCatalog, invalidationChannel, ticketCodec,
+            properties.getMaximumSize(), Beans.newDuration(properties.getTimeToLive()));
+    }
+
+    /**
+     * Route ticket types to the ticket registry of their storage tier, if tiers are enabled.
+     * Ticket types listed as local, and that are not assigned to a storage tier by the ticket catalog,
+     * are routed to the {@link TieredTicketRegistry#LOCAL_TIER local tier}; the definitions in the
+     * ticket catalog, which are shared by other components, are left as they are.
+     * <p>
+     * Tiers are put in place by the Redis, MongoDb, Couchbase and DynamoDb ticket registries only.
+     * The Hazelcast ticket registry keeps tickets in the memory of the cluster members already,
+     * and the JPA ticket registry stores tickets within transactions that a local tier would not take part in.
+     *
+     * @param ticketRegistry the ticket registry
+     * @param properties     the tiered properties
+     * @param ticketCatalog  the ticket catalog
+     * @return the ticket registry, routing tickets to their storage tier if enabled
+     */
+    public static TicketRegistry newTieredTicketRegistry(final TicketRegistry ticketRegistry,
+                                                         final TicketRegistryProperties.Tiered properties,
+                                                         final TicketCatalog ticketCatalog) {
+        if (!properties.isEnabled()) {
+            return ticketRegistry;
+        }
+        final Map<String, String> storageTiers = new LinkedHashMap<>();
+        properties.getLocalTicketTypes().forEach(prefix -> {
+            final TicketDefinition definition = ticketCatalog.find(prefix);
+            if (definition != null && StringUtils.isBlank(definition.getProperties().getStorageTier())) {
+                LOGGER.debug("Tickets of type [{}] are assigned to the local storage tier", prefix);
+                storageTiers.put(definition.getPrefix(), TieredTicketRegistry.LOCAL_TIER);
+            }
+        });
+        return new TieredTicketRegistry(ticketRegistry, ticketCatalog,
+            Collections.singletonMap(TieredTicketRegistry.LOCAL_TIER, new DefaultTicketRegistry()), storageTiers);
+    }
 }
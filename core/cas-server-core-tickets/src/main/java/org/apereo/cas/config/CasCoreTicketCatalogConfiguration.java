@@ -55,6 +55,7 @@ public class CasCoreTicketCatalogConfiguration extends BaseTicketCatalogConfigur
     }
 
     protected void buildAndRegisterProxyGrantingTicketDefinition(final TicketCatalog plan, final TicketDefinition metadata) {
+        metadata.getProperties().setNearCacheEnabled(true);
         registerTicketDefinition(plan, metadata);
     }
 
@@ -67,6 +68,7 @@ public class CasCoreTicketCatalogConfiguration extends BaseTicketCatalogConfigur
     }
 
     protected void buildAndRegisterTicketGrantingTicketDefinition(final TicketCatalog plan, final TicketDefinition metadata) {
+        metadata.getProperties().setNearCacheEnabled(true);
         registerTicketDefinition(plan, metadata);
     }
 
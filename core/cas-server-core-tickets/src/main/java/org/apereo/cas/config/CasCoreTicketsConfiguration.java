@@ -37,10 +37,14 @@ import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandler;
 import org.apereo.cas.ticket.registry.CachingTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistrySupport;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistry;
 import org.apereo.cas.ticket.registry.NoOpLockingStrategy;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.serialization.KryoTicketCodec;
+import org.apereo.cas.ticket.serialization.SerializationTicketCodec;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
 import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicy;
@@ -51,6 +55,8 @@ import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
 import org.apereo.cas.ticket.support.TimeoutExpirationPolicy;
 import org.apereo.cas.util.CoreTicketUtils;
 import org.apereo.cas.util.HostNameBasedUniqueTicketIdGenerator;
+import org.apereo.cas.util.cipher.AesGcmStringCipherExecutor;
+import org.apereo.cas.util.cipher.BaseAesGcmCipherExecutor;
 import org.apereo.cas.util.cipher.ProtocolTicketCipherExecutor;
 import org.apereo.cas.util.http.HttpClient;
 import org.jasig.cas.client.ssl.HttpURLConnectionFactory;
@@ -58,9 +64,12 @@ import org.jasig.cas.client.validation.AbstractUrlBasedTicketValidator;
 import org.jasig.cas.client.validation.Cas10TicketValidator;
 import org.jasig.cas.client.validation.Cas20ServiceTicketValidator;
 import org.jasig.cas.client.validation.Cas30ServiceTicketValidator;
+import org.springframework.aop.framework.Advised;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -274,6 +283,31 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
         return new DefaultTicketRegistry(mem.getInitialCapacity(), mem.getLoadFactor(), mem.getConcurrency(), cipher);
     }
 
+    @ConditionalOnMissingBean(name = "ticketRegistryCodec")
+    @Bean
+    public TicketCodec ticketRegistryCodec() {
+        final String codec = casProperties.getTicket().getRegistry().getCodec();
+        if ("kryo".equalsIgnoreCase(StringUtils.trimToEmpty(codec))) {
+            LOGGER.debug("Ticket registries shall encode tickets using Kryo with codec schema version [{}]", KryoTicketCodec.SCHEMA_VERSION);
+            return new KryoTicketCodec();
+        }
+        return new SerializationTicketCodec();
+    }
+
+    @ConditionalOnMissingBean(name = "ticketRegistryNearCacheHealthIndicator")
+    @Bean
+    public HealthIndicator ticketRegistryNearCacheHealthIndicator() {
+        return () -> {
+            final Object registry = unwrapTicketRegistry();
+            if (registry instanceof NearCacheTicketRegistry) {
+                final Health.Builder builder = Health.up();
+                NearCacheTicketRegistry.class.cast(registry).getStatistics().forEach(builder::withDetail);
+                return builder.build();
+            }
+            return Health.up().withDetail("enabled", Boolean.FALSE).build();
+        };
+    }
+
     @ConditionalOnMissingBean(name = "defaultTicketRegistrySupport")
     @Bean
     public TicketRegistrySupport defaultTicketRegistrySupport() {
@@ -335,6 +369,10 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
     public CipherExecutor protocolTicketCipherExecutor() {
         final EncryptionJwtSigningJwtCryptographyProperties crypto = casProperties.getTicket().getCrypto();
         if (crypto.isEnabled()) {
+            if (BaseAesGcmCipherExecutor.STRATEGY_TYPE.equalsIgnoreCase(crypto.getStrategyType())) {
+                return new AesGcmStringCipherExecutor(crypto.getEncryption().getKey(), crypto.getRetiredKeys(),
+                    "CAS Protocol Tickets", "cas.ticket.crypto.encryption.key");
+            }
             return new ProtocolTicketCipherExecutor(
                 crypto.getEncryption().getKey(),
                 crypto.getSigning().getKey(),
@@ -400,4 +438,20 @@ public class CasCoreTicketsConfiguration implements TransactionManagementConfigu
         });
         return plan;
     }
+
+    /**
+     * The ticket registry may be hidden behind the refresh-scope proxy; resolve
+     * the bean that currently backs it.
+     */
+    private Object unwrapTicketRegistry() {
+        Object registry = this.ticketRegistry;
+        try {
+            while (registry instanceof Advised) {
+                registry = Advised.class.cast(registry).getTargetSource().getTarget();
+            }
+        } catch (final Exception e) {
+            LOGGER.debug("Unable to resolve the target of the ticket registry proxy: [{}]", e.getMessage());
+        }
+        return registry;
+    }
 }
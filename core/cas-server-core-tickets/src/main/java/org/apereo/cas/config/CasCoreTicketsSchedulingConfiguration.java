@@ -3,11 +3,11 @@ package org.apereo.cas.config;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.logout.LogoutManager;
-import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.util.CoreTicketUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
@@ -20,8 +20,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * This is {@link CasCoreTicketsSchedulingConfiguration}.
  *
@@ -36,8 +42,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @AutoConfigureAfter(CasCoreTicketsConfiguration.class)
 @Slf4j
 public class CasCoreTicketsSchedulingConfiguration {
-
-
+    private static final int CLEANER_LOGOUT_QUEUE_SIZE = 10_000;
 
     @Autowired
     private CasConfigurationProperties casProperties;
@@ -51,7 +56,8 @@ public class CasCoreTicketsSchedulingConfiguration {
         final boolean isCleanerEnabled = casProperties.getTicket().getRegistry().getCleaner().getSchedule().isEnabled();
         if (isCleanerEnabled) {
             LOGGER.debug("Ticket registry cleaner is enabled.");
-            return new DefaultTicketRegistryCleaner(lockingStrategy, logoutManager, ticketRegistry);
+            return CoreTicketUtils.newTicketRegistryCleaner(casProperties.getTicket().getRegistry().getCleaner(),
+                lockingStrategy, logoutManager, ticketRegistry, ticketRegistryCleanerLogoutExecutor());
         }
         LOGGER.debug("Ticket registry cleaner is not enabled. "
                 + "Expired tickets are not forcefully collected and cleaned by CAS. It is up to the ticket registry itself to "
@@ -59,6 +65,22 @@ public class CasCoreTicketsSchedulingConfiguration {
         return NoOpTicketRegistryCleaner.getInstance();
     }
 
+    /**
+     * Executor that runs the logout fan-out of expired ticket-granting tickets
+     * in the background. Once the queue is full, the executor rejects the logout and
+     * the cleaner performs it itself, which throttles the cleanup to the pace of the logout process.
+     *
+     * @return the executor service
+     */
+    @ConditionalOnMissingBean(name = "ticketRegistryCleanerLogoutExecutor")
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ticketRegistryCleanerLogoutExecutor() {
+        final CustomizableThreadFactory factory = new CustomizableThreadFactory("cas-cleaner-logout-");
+        factory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(CLEANER_LOGOUT_QUEUE_SIZE), factory);
+    }
+
     @ConditionalOnMissingBean(name = "ticketRegistryCleanerScheduler")
     @ConditionalOnProperty(prefix = "cas.ticket.registry.cleaner", name = "enabled", havingValue = "true", matchIfMissing = true)
     @Bean
@@ -0,0 +1,87 @@
+package org.apereo.cas.ticket.serialization;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.serialization.kryo.CasKryoPool;
+import org.apereo.cas.ticket.serialization.kryo.CloseableKryo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * This is {@link KryoTicketCodec}, which serializes tickets with Kryo using the deterministic
+ * class registrations of {@link CasKryoPool}, producing a much more compact payload than Java serialization.
+ * <p>
+ * Every payload starts with a short header that carries the schema version of the codec.
+ * The schema version must be bumped whenever the registrations change in a way that alters the binary
+ * format, so that nodes never attempt to read tickets written by an incompatible peer; such tickets
+ * are treated as missing. Payloads without the header are assumed to be written by Java serialization,
+ * which allows tickets stored before the codec was switched to continue to be read.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class KryoTicketCodec implements TicketCodec {
+    /**
+     * Version of the binary format written by this codec.
+     */
+    public static final byte SCHEMA_VERSION = 1;
+
+    private static final byte[] MAGIC = {(byte) 0xCA, (byte) 0x5C};
+
+    private static final int HEADER_LENGTH = MAGIC.length + 1;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final CasKryoPool kryoPool;
+
+    private final TicketCodec fallbackCodec = new SerializationTicketCodec();
+
+    public KryoTicketCodec() {
+        this(new ArrayList<>());
+    }
+
+    public KryoTicketCodec(final Collection<Class> classesToRegister) {
+        this(new CasKryoPool(classesToRegister, false, false, true, true));
+    }
+
+    public KryoTicketCodec(final CasKryoPool kryoPool) {
+        this.kryoPool = kryoPool;
+    }
+
+    @Override
+    public byte[] encode(final Ticket ticket) {
+        try (CloseableKryo kryo = this.kryoPool.borrow();
+             Output output = new Output(BUFFER_SIZE, -1)) {
+            output.writeBytes(MAGIC);
+            output.writeByte(SCHEMA_VERSION);
+            kryo.writeClassAndObject(output, ticket);
+            return output.toBytes();
+        }
+    }
+
+    @Override
+    public Ticket decode(final byte[] bytes) {
+        if (!hasHeader(bytes)) {
+            LOGGER.trace("Ticket payload carries no codec header and is read via Java serialization");
+            return this.fallbackCodec.decode(bytes);
+        }
+        final byte version = bytes[MAGIC.length];
+        if (version != SCHEMA_VERSION) {
+            LOGGER.warn("Ticket payload was written with codec schema version [{}] while version [{}] is expected; the ticket is ignored",
+                version, SCHEMA_VERSION);
+            return null;
+        }
+        try (CloseableKryo kryo = this.kryoPool.borrow();
+             Input input = new Input(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH)) {
+            return (Ticket) kryo.readClassAndObject(input);
+        }
+    }
+
+    private static boolean hasHeader(final byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC[0] && bytes[1] == MAGIC[1];
+    }
+}
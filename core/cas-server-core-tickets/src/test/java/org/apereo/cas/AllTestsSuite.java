@@ -10,6 +10,9 @@ import org.apereo.cas.ticket.proxy.support.Cas20ProxyHandlerTests;
 import org.apereo.cas.ticket.registry.CachingTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DefaultTicketRegistryTests;
 import org.apereo.cas.ticket.registry.DistributedTicketRegistryTests;
+import org.apereo.cas.ticket.registry.NearCacheTicketRegistryTests;
+import org.apereo.cas.ticket.registry.TieredTicketRegistryTests;
+import org.apereo.cas.ticket.serialization.KryoTicketCodecTests;
 import org.apereo.cas.ticket.support.MultiTimeUseOrTimeoutExpirationPolicyTests;
 import org.apereo.cas.ticket.support.RememberMeDelegatingExpirationPolicyTests;
 import org.apereo.cas.ticket.support.ThrottledUseAndTimeoutExpirationPolicyTests;
@@ -38,6 +41,9 @@ import org.junit.runners.Suite;
     DefaultTicketRegistryTests.class,
     CachingTicketRegistryTests.class,
     DistributedTicketRegistryTests.class,
+    NearCacheTicketRegistryTests.class,
+    TieredTicketRegistryTests.class,
+    KryoTicketCodecTests.class,
     Cas10ProxyHandlerTests.class,
     Cas20ProxyHandlerTests.class})
 @Slf4j
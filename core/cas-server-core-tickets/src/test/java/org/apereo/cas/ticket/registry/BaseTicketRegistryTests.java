@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.springframework.test.util.AopTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -404,4 +405,72 @@ public abstract class BaseTicketRegistryTests {
         final int c = this.ticketRegistry.deleteTicket(TGT_ID);
         assertEquals(6, c);
     }
+
+    @Test
+    @Transactional
+    public void verifyGetSessionsForPrincipal() {
+        Assume.assumeTrue(isIterableRegistry());
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-SESSION-1",
+            CoreAuthenticationTestUtils.getAuthentication("casuser"), new NeverExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-SESSION-2",
+            CoreAuthenticationTestUtils.getAuthentication("CASUSER"), new NeverExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-SESSION-3",
+            CoreAuthenticationTestUtils.getAuthentication("otheruser"), new NeverExpiresExpirationPolicy()));
+
+        assertEquals(2, this.ticketRegistry.getSessionsFor("casuser").count());
+        assertEquals(1, this.ticketRegistry.getSessionsFor("otheruser").count());
+
+        this.ticketRegistry.deleteTicket(TicketGrantingTicket.PREFIX + "-SESSION-1");
+        assertEquals(1, this.ticketRegistry.getSessionsFor("casuser").count());
+        assertEquals(0, this.ticketRegistry.getSessionsFor("unknown").count());
+    }
+
+    @Test
+    @Transactional
+    public void verifyQueryTicketsInPages() {
+        Assume.assumeTrue(isIterableRegistry());
+        IntStream.range(0, 5).forEach(i -> this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-PAGED-" + i,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy())));
+
+        final TicketQuery count = TicketQuery.builder().type(TicketGrantingTicket.class).countOnly(true).build();
+        assertEquals(5, this.ticketRegistry.queryTickets(count).getCount());
+
+        final Collection<String> ticketIds = new ArrayList<>();
+        TicketQuery query = TicketQuery.builder().type(TicketGrantingTicket.class).includeExpired(false).pageSize(2).build();
+        TicketQueryResult page = this.ticketRegistry.queryTickets(query);
+        assertEquals(2, page.getTickets().size());
+        page.getTickets().forEach(ticket -> ticketIds.add(ticket.getId()));
+        while (page.hasMore()) {
+            query = query.toBuilder().cursor(page.getNextCursor()).build();
+            page = this.ticketRegistry.queryTickets(query);
+            page.getTickets().forEach(ticket -> ticketIds.add(ticket.getId()));
+        }
+        assertEquals(1, page.getTickets().size());
+        assertEquals(5, ticketIds.size());
+        assertEquals(5, ticketIds.stream().distinct().count());
+    }
+
+    @Test
+    @Transactional
+    public void verifyTicketCounts() {
+        Assume.assumeTrue(isIterableRegistry());
+        final AbstractTicketRegistry registry = AopTestUtils.getTargetObject(this.ticketRegistry);
+        registry.setCountCacheDuration(Duration.ZERO);
+
+        IntStream.range(0, 2).forEach(i -> this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-COUNTED-" + i,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy())));
+        final TicketGrantingTicket tgt = this.ticketRegistry.getTicket(TicketGrantingTicket.PREFIX + "-COUNTED-0", TicketGrantingTicket.class);
+        final Service service = RegisteredServiceTestUtils.getService("TGT_COUNT_TEST");
+        IntStream.range(0, 3).forEach(i -> this.ticketRegistry.addTicket(tgt.grantServiceTicket(ServiceTicket.PREFIX + "-COUNTED-" + i,
+            service, new NeverExpiresExpirationPolicy(), false, false)));
+        this.ticketRegistry.updateTicket(tgt);
+
+        assertEquals(2, this.ticketRegistry.sessionCount());
+        assertEquals(3, this.ticketRegistry.serviceTicketCount());
+
+        this.ticketRegistry.deleteTicket(ServiceTicket.PREFIX + "-COUNTED-0");
+        assertEquals(2, this.ticketRegistry.serviceTicketCount());
+        this.ticketRegistry.deleteTicket(TicketGrantingTicket.PREFIX + "-COUNTED-1");
+        assertEquals(1, this.ticketRegistry.sessionCount());
+    }
 }
@@ -1,7 +1,10 @@
 package org.apereo.cas.ticket.registry;
 
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryCleanerProperties;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.mock.MockTicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.CoreTicketUtils;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -27,4 +30,51 @@ public class DefaultTicketRegistryCleanerTests {
         c.clean();
         assertTrue(ticketRegistry.sessionCount() == 0);
     }
+
+    @Test
+    public void verifyBatchedCleanup() {
+        final LogoutManager logoutManager = mock(LogoutManager.class);
+        final TicketRegistry ticketRegistry = new DefaultTicketRegistry();
+        for (int i = 0; i < 5; i++) {
+            final MockTicketGrantingTicket expired = new MockTicketGrantingTicket("casuser");
+            expired.markTicketExpired();
+            ticketRegistry.addTicket(expired);
+        }
+        ticketRegistry.addTicket(new MockTicketGrantingTicket("casuser"));
+        final DefaultTicketRegistryCleaner c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
+        c.setBatchSize(2);
+        c.clean();
+        assertEquals(1, ticketRegistry.sessionCount());
+        verify(logoutManager, times(5)).performLogout(any(TicketGrantingTicket.class));
+    }
+
+    @Test
+    public void verifyShardedCleanupSkipsOtherShards() {
+        final LogoutManager logoutManager = mock(LogoutManager.class);
+        final TicketRegistry ticketRegistry = new DefaultTicketRegistry();
+        for (int i = 0; i < 10; i++) {
+            final MockTicketGrantingTicket expired = new MockTicketGrantingTicket("casuser");
+            expired.markTicketExpired();
+            ticketRegistry.addTicket(expired);
+        }
+        final long inShard = ticketRegistry.getTickets().stream()
+            .filter(t -> Math.floorMod(t.getId().hashCode(), 2) == 0)
+            .count();
+        final DefaultTicketRegistryCleaner c = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(), logoutManager, ticketRegistry);
+        c.setBatchSize(3);
+        c.setShardCount(2);
+        c.setShardIndex(0);
+        c.clean();
+        assertEquals(10 - inShard, ticketRegistry.getTickets().size());
+        assertTrue(ticketRegistry.getTickets().stream().allMatch(t -> Math.floorMod(t.getId().hashCode(), 2) == 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyShardIndexOutsideShardCountIsRejected() {
+        final TicketRegistryCleanerProperties properties = new TicketRegistryCleanerProperties();
+        properties.setShardCount(2);
+        properties.setShardIndex(2);
+        CoreTicketUtils.newTicketRegistryCleaner(properties, new NoOpLockingStrategy(), mock(LogoutManager.class),
+            new DefaultTicketRegistry(), null);
+    }
 }
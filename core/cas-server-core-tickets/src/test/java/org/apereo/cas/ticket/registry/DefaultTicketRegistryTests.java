@@ -1,16 +1,33 @@
 package org.apereo.cas.ticket.registry;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.CasCoreTicketCatalogConfiguration;
 import org.apereo.cas.config.CasCoreTicketsConfiguration;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.cipher.AesGcmTicketCipherExecutor;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.*;
 
@@ -47,4 +64,98 @@ public class DefaultTicketRegistryTests extends BaseSpringRunnableTicketRegistry
     public void verifyOtherConstructor() {
         assertNotNull(new DefaultTicketRegistry(10, 10, 5, CipherExecutor.noOp()));
     }
+
+    @Test
+    public void verifyConcurrentCountsShareOneCalculation() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calculations = new AtomicInteger();
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry() {
+            @Override
+            protected long countTickets(final Class<? extends Ticket> type) {
+                calculations.incrementAndGet();
+                Uninterruptibles.awaitUninterruptibly(release, 10, TimeUnit.SECONDS);
+                return super.countTickets(type);
+            }
+        };
+        registry.setCountCacheDuration(Duration.ofMinutes(1));
+        registry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX, CoreAuthenticationTestUtils.getAuthentication(),
+            new NeverExpiresExpirationPolicy()));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Long>> counts = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                counts.add(executor.submit(registry::sessionCount));
+            }
+            while (calculations.get() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (final Future<Long> count : counts) {
+                assertEquals(1L, count.get(10, TimeUnit.SECONDS).longValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calculations.get());
+
+        registry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-2", CoreAuthenticationTestUtils.getAuthentication(),
+            new NeverExpiresExpirationPolicy()));
+        assertEquals(1, registry.sessionCount());
+        assertEquals(1, calculations.get());
+    }
+
+    @Test
+    public void verifyCountsAreCalculatedAgainOnceExpired() {
+        final AtomicInteger calculations = new AtomicInteger();
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry() {
+            @Override
+            protected long countTickets(final Class<? extends Ticket> type) {
+                calculations.incrementAndGet();
+                return super.countTickets(type);
+            }
+        };
+        registry.setCountCacheDuration(Duration.ZERO);
+        assertEquals(0, registry.sessionCount());
+        registry.addTicket(new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX, CoreAuthenticationTestUtils.getAuthentication(),
+            new NeverExpiresExpirationPolicy()));
+        assertEquals(1, registry.sessionCount());
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    public void verifyFailedCountIsUnknownAndNotCached() {
+        final AtomicInteger calculations = new AtomicInteger();
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry() {
+            @Override
+            protected long countTickets(final Class<? extends Ticket> type) {
+                if (calculations.incrementAndGet() == 1) {
+                    throw new IllegalStateException("Store is unavailable");
+                }
+                return super.countTickets(type);
+            }
+        };
+        registry.setCountCacheDuration(Duration.ofMinutes(1));
+        assertEquals(Long.MIN_VALUE, registry.sessionCount());
+        assertEquals(0, registry.sessionCount());
+        assertEquals(2, calculations.get());
+    }
+
+    @Test
+    public void verifyTicketsThatCannotBeDecryptedAreIgnored() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        registry.setCipherExecutor(new AesGcmTicketCipherExecutor(null, null, "Test"));
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        tgt.markTicketExpired();
+        registry.addTicket(tgt);
+
+        registry.setCipherExecutor(new AesGcmTicketCipherExecutor(null, null, "Test"));
+        assertNull(registry.getTicket(TicketGrantingTicket.PREFIX));
+        assertTrue(registry.getTickets().isEmpty());
+        try (Stream<Ticket> expired = registry.getExpiredTickets(10)) {
+            assertEquals(0, expired.count());
+        }
+        assertTrue(registry.getMapInstance().isEmpty());
+    }
 }
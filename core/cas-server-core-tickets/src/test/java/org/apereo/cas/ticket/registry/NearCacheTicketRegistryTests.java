@@ -0,0 +1,158 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.DefaultTicketCatalog;
+import org.apereo.cas.ticket.DefaultTicketDefinition;
+import org.apereo.cas.ticket.ProxyGrantingTicketImpl;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.serialization.SerializationTicketCodec;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link NearCacheTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class NearCacheTicketRegistryTests {
+    private final List<String> published = new ArrayList<>();
+
+    private final List<Consumer<String>> listeners = new ArrayList<>();
+
+    private TicketRegistry delegate;
+
+    private NearCacheTicketRegistry registry;
+
+    @Before
+    public void initialize() {
+        final DefaultTicketCatalog catalog = new DefaultTicketCatalog();
+        final DefaultTicketDefinition tgtDefinition = new DefaultTicketDefinition(TicketGrantingTicketImpl.class, TicketGrantingTicket.PREFIX);
+        tgtDefinition.getProperties().setNearCacheEnabled(true);
+        catalog.register(tgtDefinition);
+        catalog.register(new DefaultTicketDefinition(ServiceTicketImpl.class, ServiceTicket.PREFIX));
+        final DefaultTicketDefinition pgtDefinition = new DefaultTicketDefinition(ProxyGrantingTicketImpl.class, ProxyGrantingTicket.PROXY_GRANTING_TICKET_PREFIX);
+        pgtDefinition.getProperties().setNearCacheEnabled(true);
+        catalog.register(pgtDefinition);
+
+        final NearCacheInvalidationChannel channel = new NearCacheInvalidationChannel() {
+            @Override
+            public void publish(final String ticketId) {
+                published.add(ticketId);
+            }
+
+            @Override
+            public void subscribe(final Consumer<String> listener) {
+                listeners.add(listener);
+            }
+        };
+        this.delegate = spy(new DefaultTicketRegistry());
+        this.registry = new NearCacheTicketRegistry(this.delegate, catalog, channel, new SerializationTicketCodec(), 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void verifyOnlyOptedInTicketsAreCached() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.delegate.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+        this.delegate.addTicket(st);
+
+        assertEquals(tgt, this.registry.getTicket("TGT-1", TicketGrantingTicket.class));
+        assertEquals(tgt, this.registry.getTicket("TGT-1"));
+        assertNotNull(this.registry.getTicket("ST-1"));
+        assertNotNull(this.registry.getTicket("ST-1"));
+
+        verify(this.delegate, times(1)).getTicket("TGT-1");
+        verify(this.delegate, times(2)).getTicket("ST-1");
+        assertEquals(1L, this.registry.getStatistics().get("hitCount"));
+        assertEquals(1L, this.registry.getStatistics().get("missCount"));
+    }
+
+    @Test
+    public void verifyUpdatesAndRemovalsInvalidate() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(tgt);
+        assertNotNull(this.registry.getTicket("TGT-1"));
+        verify(this.delegate, never()).getTicket("TGT-1");
+
+        this.registry.updateTicket(tgt);
+        assertTrue(this.published.contains("TGT-1"));
+
+        this.listeners.forEach(listener -> listener.accept("TGT-1"));
+        assertNotNull(this.registry.getTicket("TGT-1"));
+        verify(this.delegate, times(1)).getTicket("TGT-1");
+
+        this.registry.deleteTicket("TGT-1");
+        assertNull(this.registry.getTicket("TGT-1"));
+
+        this.registry.deleteAll();
+        assertTrue(this.published.contains(NearCacheInvalidationChannel.ALL_TICKETS));
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreNotServed() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(tgt);
+        tgt.markTicketExpired();
+        this.registry.updateTicket(tgt);
+        assertNull(this.registry.getTicket("TGT-1"));
+        verify(this.delegate, times(1)).getTicket("TGT-1");
+        assertEquals(0L, this.registry.getStatistics().get("size"));
+    }
+
+    @Test
+    public void verifyEachLookupReceivesItsOwnCopy() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(tgt);
+
+        final TicketGrantingTicket first = this.registry.getTicket("TGT-1", TicketGrantingTicket.class);
+        assertNotSame(tgt, first);
+        first.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(), new NeverExpiresExpirationPolicy(), false, true);
+
+        final TicketGrantingTicket second = this.registry.getTicket("TGT-1", TicketGrantingTicket.class);
+        assertNotSame(first, second);
+        assertTrue(second.getServices().isEmpty());
+        verify(this.delegate, never()).getTicket("TGT-1");
+    }
+
+    @Test
+    public void verifyRemovingTicketGrantingTicketDropsCachedDescendants() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.delegate.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+        final ProxyGrantingTicket pgt = st.grantProxyGrantingTicket("PGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(pgt);
+        assertNotNull(this.registry.getTicket("PGT-1"));
+        verify(this.delegate, never()).getTicket("PGT-1");
+
+        this.listeners.forEach(listener -> listener.accept("TGT-1"));
+        assertNotNull(this.registry.getTicket("PGT-1"));
+        verify(this.delegate, times(1)).getTicket("PGT-1");
+
+        this.registry.deleteTicket("TGT-1");
+        this.registry.getTicket("PGT-1");
+        verify(this.delegate, times(2)).getTicket("PGT-1");
+    }
+}
@@ -0,0 +1,66 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.HardTimeoutExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.TicketGrantingTicketExpirationPolicy;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TicketExpirationIndexTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TicketExpirationIndexTests {
+
+    @Test
+    public void verifySlidingExpirationIsProjectedFromLastUse() throws Exception {
+        final TicketExpirationIndex index = new TicketExpirationIndex();
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new TicketGrantingTicketExpirationPolicy(100, 10));
+        final long now = System.currentTimeMillis();
+        final long projected = index.getProjectedExpirationTime(tgt, now);
+        assertEquals(tgt.getLastTimeUsed().toInstant().toEpochMilli() + 10_000, projected);
+
+        Thread.sleep(50);
+        tgt.update();
+        assertTrue(index.getProjectedExpirationTime(tgt, now) > projected);
+    }
+
+    @Test
+    public void verifyNeverExpiringTicketsAreNotIndexed() {
+        final TicketExpirationIndex index = new TicketExpirationIndex();
+        index.index(new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void verifyOnlyDueTicketsAreExamined() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        final TicketGrantingTicketImpl expired = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new HardTimeoutExpirationPolicy(100));
+        expired.markTicketExpired();
+        final TicketGrantingTicketImpl valid = new TicketGrantingTicketImpl("TGT-2",
+            CoreAuthenticationTestUtils.getAuthentication(), new HardTimeoutExpirationPolicy(100));
+        registry.addTicket(expired);
+        registry.addTicket(valid);
+
+        try (Stream<Ticket> tickets = registry.getExpiredTickets(10)) {
+            final List<String> ids = tickets.map(Ticket::getId).collect(Collectors.toList());
+            assertEquals(1, ids.size());
+            assertEquals(expired.getId(), ids.get(0));
+        }
+        registry.deleteTickets(registry.getExpiredTickets(10).collect(Collectors.toList()));
+        assertNull(registry.getTicket(expired.getId()));
+        assertNotNull(registry.getTicket(valid.getId()));
+    }
+}
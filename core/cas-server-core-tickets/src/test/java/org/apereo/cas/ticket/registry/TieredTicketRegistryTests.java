@@ -0,0 +1,128 @@
+package org.apereo.cas.ticket.registry;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.configuration.model.core.ticket.registry.TicketRegistryProperties;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.DefaultTicketCatalog;
+import org.apereo.cas.ticket.DefaultTicketDefinition;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.ServiceTicketImpl;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.CoreTicketUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link TieredTicketRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class TieredTicketRegistryTests {
+    private TicketRegistry primary;
+
+    private TicketRegistry local;
+
+    private TieredTicketRegistry registry;
+
+    @Before
+    public void initialize() {
+        final DefaultTicketCatalog catalog = new DefaultTicketCatalog();
+        final DefaultTicketDefinition tgtDefinition = new DefaultTicketDefinition(TicketGrantingTicketImpl.class, TicketGrantingTicket.PREFIX);
+        tgtDefinition.getProperties().setStorageTier(TieredTicketRegistry.LOCAL_TIER);
+        catalog.register(tgtDefinition);
+        final DefaultTicketDefinition stDefinition = new DefaultTicketDefinition(ServiceTicketImpl.class, ServiceTicket.PREFIX);
+        stDefinition.getProperties().setStorageTier(TieredTicketRegistry.LOCAL_TIER);
+        catalog.register(stDefinition);
+
+        this.primary = new DefaultTicketRegistry();
+        this.local = new DefaultTicketRegistry();
+        this.registry = new TieredTicketRegistry(this.primary, catalog, Collections.singletonMap(TieredTicketRegistry.LOCAL_TIER, this.local));
+    }
+
+    @Test
+    public void verifyTicketsAreRoutedToTheirTier() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+        this.registry.updateAndAddTickets(Collections.singletonList(tgt), Collections.singletonList(st));
+
+        assertNotNull(this.primary.getTicket("TGT-1"));
+        assertNull(this.local.getTicket("TGT-1"));
+        assertNotNull(this.local.getTicket("ST-1"));
+        assertNull(this.primary.getTicket("ST-1"));
+
+        assertNotNull(this.registry.getTicket("ST-1", ServiceTicket.class));
+        assertEquals(2, this.registry.getTickets().size());
+        assertEquals(1, this.registry.sessionCount());
+        assertEquals(1, this.registry.serviceTicketCount());
+        assertEquals(1, this.registry.queryTickets(TicketQuery.builder().type(ServiceTicket.class).countOnly(true).build()).getCount());
+    }
+
+    @Test
+    public void verifyServiceTicketsAreRemovedWithTheirSession() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.registry.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+        this.registry.addTicket(st);
+        this.registry.updateTicket(tgt);
+
+        assertEquals(2, this.registry.deleteTicket("TGT-1"));
+        assertNull(this.registry.getTicket("ST-1"));
+        assertNull(this.registry.getTicket("TGT-1"));
+        assertEquals(0, this.registry.deleteAll());
+    }
+
+    @Test
+    public void verifyTicketsMissingFromTheirTierAreFoundInPrimary() {
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        this.primary.addTicket(tgt);
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+        this.primary.addTicket(st);
+
+        assertNotNull(this.registry.getTicket("ST-1"));
+        assertNotNull(this.registry.getTicket("ST-1", ServiceTicket.class));
+        this.registry.updateTicket(st);
+        assertNull(this.local.getTicket("ST-1"));
+
+        assertEquals(1, this.registry.deleteTicket("ST-1"));
+        assertNull(this.primary.getTicket("ST-1"));
+        assertNull(this.registry.getTicket("ST-1"));
+    }
+
+    @Test
+    public void verifyLocalTicketTypesLeaveTicketCatalogUnchanged() {
+        final DefaultTicketCatalog catalog = new DefaultTicketCatalog();
+        catalog.register(new DefaultTicketDefinition(TicketGrantingTicketImpl.class, TicketGrantingTicket.PREFIX));
+        final DefaultTicketDefinition stDefinition = new DefaultTicketDefinition(ServiceTicketImpl.class, ServiceTicket.PREFIX);
+        catalog.register(stDefinition);
+
+        final TicketRegistryProperties.Tiered properties = new TicketRegistryProperties.Tiered();
+        properties.setEnabled(true);
+        properties.getLocalTicketTypes().add(ServiceTicket.PREFIX);
+        final TicketRegistry tiered = CoreTicketUtils.newTieredTicketRegistry(this.primary, properties, catalog);
+        assertTrue(tiered instanceof TieredTicketRegistry);
+        assertNull(stDefinition.getProperties().getStorageTier());
+
+        final TicketGrantingTicketImpl tgt = new TicketGrantingTicketImpl("TGT-1",
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        tiered.addTicket(tgt);
+        tiered.addTicket(tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true));
+        assertNotNull(this.primary.getTicket("TGT-1"));
+        assertNull(this.primary.getTicket("ST-1"));
+        assertNotNull(tiered.getTicket("ST-1"));
+    }
+}
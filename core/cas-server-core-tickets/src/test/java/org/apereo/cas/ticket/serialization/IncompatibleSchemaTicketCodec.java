@@ -0,0 +1,30 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.ticket.Ticket;
+
+/**
+ * This is {@link IncompatibleSchemaTicketCodec}, which writes tickets the way a peer running
+ * a later schema version of {@link KryoTicketCodec} would, and is able to read them back.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class IncompatibleSchemaTicketCodec implements TicketCodec {
+    private static final int VERSION_INDEX = 2;
+
+    private final KryoTicketCodec codec = new KryoTicketCodec();
+
+    @Override
+    public byte[] encode(final Ticket ticket) {
+        final byte[] bytes = codec.encode(ticket);
+        bytes[VERSION_INDEX] = (byte) (KryoTicketCodec.SCHEMA_VERSION + 1);
+        return bytes;
+    }
+
+    @Override
+    public Ticket decode(final byte[] bytes) {
+        final byte[] copy = bytes.clone();
+        copy[VERSION_INDEX] = KryoTicketCodec.SCHEMA_VERSION;
+        return codec.decode(copy);
+    }
+}
@@ -0,0 +1,73 @@
+package org.apereo.cas.ticket.serialization;
+
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.services.RegisteredServiceTestUtils;
+import org.apereo.cas.ticket.ServiceTicket;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.registry.DefaultTicketRegistry;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.apereo.cas.util.serialization.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link KryoTicketCodecTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class KryoTicketCodecTests {
+    private final KryoTicketCodec codec = new KryoTicketCodec();
+
+    private static TicketGrantingTicketImpl newTicketGrantingTicket() {
+        return new TicketGrantingTicketImpl("TGT-1", CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+    }
+
+    @Test
+    public void verifyTicketsRoundTrip() {
+        final TicketGrantingTicketImpl tgt = newTicketGrantingTicket();
+        final ServiceTicket st = tgt.grantServiceTicket("ST-1", RegisteredServiceTestUtils.getService(),
+            new NeverExpiresExpirationPolicy(), false, true);
+
+        final TicketGrantingTicket decodedTgt = (TicketGrantingTicket) codec.decode(codec.encode(tgt));
+        assertEquals(tgt, decodedTgt);
+        assertEquals(tgt.getAuthentication().getPrincipal(), decodedTgt.getAuthentication().getPrincipal());
+        assertTrue(decodedTgt.getServices().containsKey("ST-1"));
+
+        final ServiceTicket decodedSt = (ServiceTicket) codec.decode(codec.encode(st));
+        assertEquals(st, decodedSt);
+        assertEquals(tgt.getId(), decodedSt.getTicketGrantingTicket().getId());
+    }
+
+    @Test
+    public void verifyPayloadIsSmallerThanJavaSerialization() {
+        final TicketGrantingTicketImpl tgt = newTicketGrantingTicket();
+        assertTrue(codec.encode(tgt).length < SerializationUtils.serialize(tgt).length);
+    }
+
+    @Test
+    public void verifyJavaSerializedTicketsAreRead() {
+        final TicketGrantingTicketImpl tgt = newTicketGrantingTicket();
+        assertEquals(tgt, codec.decode(SerializationUtils.serialize(tgt)));
+    }
+
+    @Test
+    public void verifyIncompatibleSchemaIsIgnored() {
+        final byte[] bytes = codec.encode(newTicketGrantingTicket());
+        bytes[2] = (byte) (KryoTicketCodec.SCHEMA_VERSION + 1);
+        assertNull(codec.decode(bytes));
+    }
+
+    @Test
+    public void verifyRegistryEncodesWithCodec() {
+        final DefaultTicketRegistry registry = new DefaultTicketRegistry();
+        registry.setTicketCodec(codec);
+        registry.addTicket(newTicketGrantingTicket());
+        final Ticket ticket = registry.getTicket("TGT-1");
+        assertTrue(ticket instanceof TicketGrantingTicket);
+        assertEquals(1, registry.sessionCount());
+    }
+}
@@ -1,14 +1,13 @@
 package org.apereo.cas.util;
 
 import groovy.lang.Binding;
-import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyObject;
-import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.codehaus.groovy.control.CompilerConfiguration;
+import org.apereo.cas.util.scripting.GroovyScriptClassCache;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
 
@@ -48,6 +47,20 @@ public class ScriptingUtils {
      */
     private static final Pattern FILE_GROOVY_PATTERN = RegexUtils.createPattern("(file|classpath):(.+\\.groovy)");
 
+    /**
+     * Compiled groovy classes, shared by all script executions.
+     */
+    private static final GroovyScriptClassCache GROOVY_SCRIPT_CLASS_CACHE = new GroovyScriptClassCache();
+
+    /**
+     * Gets the cache of compiled groovy scripts.
+     *
+     * @return the groovy script class cache
+     */
+    public static GroovyScriptClassCache getGroovyScriptClassCache() {
+        return GROOVY_SCRIPT_CLASS_CACHE;
+    }
+
     /**
      * Is inline groovy script ?.
      *
@@ -102,7 +115,6 @@ public class ScriptingUtils {
                                                  final Class<T> clazz) {
         try {
             final Binding binding = new Binding();
-            final GroovyShell shell = new GroovyShell(binding);
             if (variables != null && !variables.isEmpty()) {
                 variables.forEach(binding::setVariable);
             }
@@ -111,7 +123,8 @@ public class ScriptingUtils {
             }
             LOGGER.debug("Executing groovy script [{}] with variables [{}]", script, binding.getVariables());
 
-            final Object result = shell.evaluate(script);
+            final Script groovyScript = InvokerHelper.createScript(GROOVY_SCRIPT_CLASS_CACHE.getScriptClass(script), binding);
+            final Object result = groovyScript.run();
             if (result != null && !clazz.isAssignableFrom(result.getClass())) {
                 throw new ClassCastException("Result [" + result
                     + " is of type " + result.getClass()
@@ -190,16 +203,15 @@ public class ScriptingUtils {
             return null;
         }
 
-        final ClassLoader parent = ScriptingUtils.class.getClassLoader();
-        return AccessController.doPrivileged((PrivilegedAction<T>) () -> getGroovyResult(groovyScript, methodName, args, clazz, parent));
+        return AccessController.doPrivileged((PrivilegedAction<T>) () -> getGroovyResult(groovyScript, methodName, args, clazz));
     }
 
     private static <T> T getGroovyResult(final Resource groovyScript, final String methodName,
-                                         final Object[] args, final Class<T> clazz, final ClassLoader parent) {
-        try (GroovyClassLoader loader = new GroovyClassLoader(parent)) {
+                                         final Object[] args, final Class<T> clazz) {
+        try {
             final File groovyFile = groovyScript.getFile();
             if (groovyFile.exists()) {
-                final Class<?> groovyClass = loader.parseClass(groovyFile);
+                final Class<?> groovyClass = GROOVY_SCRIPT_CLASS_CACHE.getScriptClass(groovyScript);
                 LOGGER.trace("Creating groovy object instance from class [{}]", groovyFile.getCanonicalPath());
 
                 final GroovyObject groovyObject = (GroovyObject) groovyClass.getDeclaredConstructor().newInstance();
@@ -329,13 +341,8 @@ public class ScriptingUtils {
                 return null;
             }
 
-            final String script = IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
-            
-            final Class<T> clazz = AccessController.doPrivileged((PrivilegedAction<Class<T>>) () -> {
-                final GroovyClassLoader classLoader = new GroovyClassLoader(ScriptingUtils.class.getClassLoader(),
-                    new CompilerConfiguration(), true);
-                return classLoader.parseClass(script);
-            });
+            final Class<T> clazz = AccessController.doPrivileged((PrivilegedAction<Class<T>>) () ->
+                (Class<T>) GROOVY_SCRIPT_CLASS_CACHE.getScriptClass(resource));
 
             LOGGER.debug("Preparing constructor arguments [{}] for resource [{}]", args, resource);
             final Constructor<T> ctor = clazz.getDeclaredConstructor(constructorArgs);
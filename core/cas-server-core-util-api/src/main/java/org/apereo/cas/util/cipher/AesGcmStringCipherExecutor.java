@@ -0,0 +1,36 @@
+package org.apereo.cas.util.cipher;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.EncodingUtils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * This is {@link AesGcmStringCipherExecutor}, which encrypts string values via AES-GCM
+ * and encodes the envelope as URL-safe base64. It may be used in place of
+ * {@link ProtocolTicketCipherExecutor} and {@link TicketGrantingCookieCipherExecutor}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class AesGcmStringCipherExecutor extends BaseAesGcmCipherExecutor<Serializable, String> {
+
+    public AesGcmStringCipherExecutor(final String encryptionSecretKey, final Collection<String> retiredSecretKeys,
+                                      final String cipherName, final String encryptionKeySetting) {
+        super(encryptionSecretKey, retiredSecretKeys, cipherName, encryptionKeySetting);
+    }
+
+    @Override
+    public String encode(final Serializable value, final Object[] parameters) {
+        return EncodingUtils.encodeUrlSafeBase64(encrypt(value.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public String decode(final Serializable value, final Object[] parameters) {
+        final byte[] decoded = decrypt(EncodingUtils.decodeUrlSafeBase64(value.toString()));
+        return decoded == null ? null : new String(decoded, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,32 @@
+package org.apereo.cas.util.cipher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+/**
+ * This is {@link AesGcmTicketCipherExecutor}, which encrypts tickets stored in ticket registries
+ * via AES-GCM, and may be used in place of {@link DefaultTicketCipherExecutor}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class AesGcmTicketCipherExecutor extends BaseAesGcmCipherExecutor<byte[], byte[]> {
+
+    public AesGcmTicketCipherExecutor(final String encryptionSecretKey, final Collection<String> retiredSecretKeys,
+                                      final String registryName) {
+        super(encryptionSecretKey, retiredSecretKeys, registryName,
+            "cas.ticket.registry." + registryName + ".encryption.key");
+    }
+
+    @Override
+    public byte[] encode(final byte[] value, final Object[] parameters) {
+        return encrypt(value);
+    }
+
+    @Override
+    public byte[] decode(final byte[] value, final Object[] parameters) {
+        return decrypt(value);
+    }
+}
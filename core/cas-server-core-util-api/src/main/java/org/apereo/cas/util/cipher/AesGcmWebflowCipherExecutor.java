@@ -0,0 +1,30 @@
+package org.apereo.cas.util.cipher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+/**
+ * This is {@link AesGcmWebflowCipherExecutor}, which encrypts the webflow conversation state
+ * that is kept on the client via AES-GCM, and may be used in place of {@link WebflowConversationStateCipherExecutor}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class AesGcmWebflowCipherExecutor extends BaseAesGcmCipherExecutor<byte[], byte[]> {
+
+    public AesGcmWebflowCipherExecutor(final String encryptionSecretKey, final Collection<String> retiredSecretKeys) {
+        super(encryptionSecretKey, retiredSecretKeys, "Spring Webflow Session State Management", "cas.webflow.crypto.encryption.key");
+    }
+
+    @Override
+    public byte[] encode(final byte[] value, final Object[] parameters) {
+        return encrypt(value);
+    }
+
+    @Override
+    public byte[] decode(final byte[] value, final Object[] parameters) {
+        return decrypt(value);
+    }
+}
@@ -0,0 +1,211 @@
+package org.apereo.cas.util.cipher;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.util.DigestUtils;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This is {@link BaseAesGcmCipherExecutor}, which encrypts and authenticates values in a single pass
+ * using AES in Galois/Counter mode, as an alternative to encrypting values and then signing them as a JWS.
+ * <p>
+ * Every value is written as a compact binary envelope of
+ * {@code [version (1 byte)][key id (4 bytes)][iv (12 bytes)][ciphertext and authentication tag]}, where the
+ * version and key id are authenticated alongside the ciphertext. The key id is derived from the key itself
+ * and selects the decryption key, which allows the encryption key to be rotated: values are always
+ * encrypted with the primary key while retired keys remain accepted for decryption.
+ * <p>
+ * {@link Cipher} instances are not thread-safe and are therefore kept per thread, along with the
+ * random number generator that produces the initialization vectors.
+ *
+ * @param <I> the type parameter
+ * @param <O> the type parameter
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public abstract class BaseAesGcmCipherExecutor<I, O> extends AbstractCipherExecutor<I, O> {
+    /**
+     * Strategy type that selects authenticated encryption via AES-GCM in crypto settings.
+     */
+    public static final String STRATEGY_TYPE = "AES_GCM";
+
+    /**
+     * Version of the envelope written by this cipher.
+     */
+    public static final byte ENVELOPE_VERSION = 1;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int KEY_ID_LENGTH = 4;
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int TAG_LENGTH = 16;
+
+    private static final int HEADER_LENGTH = 1 + KEY_ID_LENGTH;
+
+    private static final int DEFAULT_KEY_SIZE = 32;
+
+    private static final ThreadLocal<Cipher> CIPHER = ThreadLocal.withInitial(BaseAesGcmCipherExecutor::newCipher);
+
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    /**
+     * Name of the cipher/component whose keys are used here.
+     */
+    private final String cipherName;
+
+    /**
+     * Name of the setting that holds the encryption key.
+     */
+    private final String encryptionKeySetting;
+
+    private final int primaryKeyId;
+
+    /**
+     * Encryption keys by key id; key material is never exposed.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, SecretKeySpec> keys = new LinkedHashMap<>();
+
+    /**
+     * Instantiates a new cipher executor.
+     *
+     * @param encryptionSecretKey the encryption key, base64 encoded
+     * @param retiredSecretKeys   previous encryption keys that are only used for decryption
+     * @param cipherName          the cipher name
+     * @param encryptionKeySetting the name of the setting that holds the encryption key
+     */
+    public BaseAesGcmCipherExecutor(final String encryptionSecretKey, final Collection<String> retiredSecretKeys,
+                                    final String cipherName, final String encryptionKeySetting) {
+        this.cipherName = cipherName;
+        this.encryptionKeySetting = encryptionKeySetting;
+        final SecretKeySpec primaryKey = new SecretKeySpec(getOrGenerateKey(encryptionSecretKey), "AES");
+        this.primaryKeyId = getKeyId(primaryKey.getEncoded());
+        this.keys.put(this.primaryKeyId, primaryKey);
+        if (retiredSecretKeys != null) {
+            retiredSecretKeys.stream()
+                .filter(StringUtils::isNotBlank)
+                .map(key -> new SecretKeySpec(toKeyBytes(key), "AES"))
+                .forEach(key -> this.keys.putIfAbsent(getKeyId(key.getEncoded()), key));
+        }
+        LOGGER.debug("Configured [{}] AES-GCM key(s) for [{}]", this.keys.size(), cipherName);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return this.cipherName;
+    }
+
+    /**
+     * Encrypt the value with the primary key into an envelope.
+     *
+     * @param value the value
+     * @return the envelope
+     */
+    @SneakyThrows
+    protected byte[] encrypt(final byte[] value) {
+        final Cipher cipher = CIPHER.get();
+        final byte[] envelope = new byte[HEADER_LENGTH + IV_LENGTH + value.length + TAG_LENGTH];
+        final ByteBuffer header = ByteBuffer.wrap(envelope);
+        header.put(ENVELOPE_VERSION).putInt(this.primaryKeyId);
+        final byte[] iv = new byte[IV_LENGTH];
+        RANDOM.get().nextBytes(iv);
+        header.put(iv);
+
+        cipher.init(Cipher.ENCRYPT_MODE, this.keys.get(this.primaryKeyId), new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, iv));
+        cipher.updateAAD(envelope, 0, HEADER_LENGTH);
+        cipher.doFinal(value, 0, value.length, envelope, HEADER_LENGTH + IV_LENGTH);
+        return envelope;
+    }
+
+    /**
+     * Verify and decrypt the envelope.
+     *
+     * @param envelope the envelope
+     * @return the value, or null if the envelope cannot be read or fails authentication
+     */
+    protected byte[] decrypt(final byte[] envelope) {
+        if (envelope == null || envelope.length < HEADER_LENGTH + IV_LENGTH + TAG_LENGTH || envelope[0] != ENVELOPE_VERSION) {
+            LOGGER.warn("Value cannot be decrypted by [{}] as it is not an envelope of version [{}]", this.cipherName, ENVELOPE_VERSION);
+            return null;
+        }
+        final int keyId = ByteBuffer.wrap(envelope, 1, KEY_ID_LENGTH).getInt();
+        final SecretKeySpec key = this.keys.get(keyId);
+        if (key == null) {
+            LOGGER.warn("Value cannot be decrypted by [{}] as it was encrypted with an unknown key [{}]", this.cipherName, keyId);
+            return null;
+        }
+        try {
+            final Cipher cipher = CIPHER.get();
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH * Byte.SIZE, envelope, HEADER_LENGTH, IV_LENGTH));
+            cipher.updateAAD(envelope, 0, HEADER_LENGTH);
+            final int offset = HEADER_LENGTH + IV_LENGTH;
+            return cipher.doFinal(envelope, offset, envelope.length - offset);
+        } catch (final Exception e) {
+            LOGGER.warn("Value cannot be decrypted by [{}] as it failed authentication: [{}]", this.cipherName, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private byte[] getOrGenerateKey(final String encryptionSecretKey) {
+        if (StringUtils.isNotBlank(encryptionSecretKey)) {
+            return toKeyBytes(encryptionSecretKey);
+        }
+        LOGGER.warn("Secret key for encryption is not defined under [{}]. CAS will attempt to auto-generate the encryption key",
+            getEncryptionKeySetting());
+        final String key = new Base64RandomStringGenerator(DEFAULT_KEY_SIZE).getNewString();
+        LOGGER.warn("Generated encryption key [{}] of size [{}]. The generated key MUST be added to CAS settings under setting [{}].",
+            key, DEFAULT_KEY_SIZE, getEncryptionKeySetting());
+        return EncodingUtils.decodeBase64(key);
+    }
+
+    /**
+     * Keys are expected to be base64 (or base64url) encoded AES keys of 128, 192 or 256 bits.
+     * Other values are stretched into a 256-bit key via SHA-256 so that existing keys remain usable.
+     */
+    private byte[] toKeyBytes(final String secretKey) {
+        if (EncodingUtils.isBase64(secretKey)) {
+            final byte[] key = EncodingUtils.decodeUrlSafeBase64(secretKey);
+            if (key != null && (key.length == 16 || key.length == 24 || key.length == 32)) {
+                return key;
+            }
+        }
+        LOGGER.warn("Secret key for encryption defined under [{}] is not a Base64 encoded AES key of 128, 192 or 256 bits "
+            + "and is hashed into a 256-bit key instead.", getEncryptionKeySetting());
+        return DigestUtils.rawDigest(MessageDigestAlgorithms.SHA_256, secretKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int getKeyId(final byte[] key) {
+        final byte[] digest = DigestUtils.rawDigest(MessageDigestAlgorithms.SHA_256, key);
+        return ByteBuffer.wrap(digest, 0, KEY_ID_LENGTH).getInt();
+    }
+
+    @SneakyThrows
+    private static Cipher newCipher() {
+        return Cipher.getInstance(TRANSFORMATION);
+    }
+}
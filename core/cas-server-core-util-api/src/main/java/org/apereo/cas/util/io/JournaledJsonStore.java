@@ -0,0 +1,341 @@
+package org.apereo.cas.util.io;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * This is {@link JournaledJsonStore}, which keeps keyed records in memory and persists them
+ * into a JSON file without rewriting the file on every change.
+ * <p>
+ * Every change is appended as a single line to a journal that sits next to the JSON file, and the journal
+ * is flushed to disk periodically so that a burst of changes shares a single sync. Once the journal grows
+ * beyond a threshold, and when the store is closed, the records are compacted into the JSON file, which
+ * is replaced atomically, and the journal is truncated. The in-memory index is rebuilt on startup from the
+ * JSON file and the journal. An entry at the end of the journal that was only partially written before a crash
+ * is ignored, while an entry that cannot be read anywhere else in the journal fails the store, since records would
+ * otherwise be lost silently.
+ * <p>
+ * A file is written by at most one store at a time: a store that is opened for a file whose store is still open,
+ * such as a store of a component that is rebuilt after a refresh, closes the previous store before it loads the file.
+ * <p>
+ * The layout of the JSON file is left to the owner of the store, which allows existing
+ * JSON resources to be read and written in their current format.
+ *
+ * @param <V> the type of records
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class JournaledJsonStore<V> implements Closeable {
+    /**
+     * Extension of the journal file that is kept next to the JSON file.
+     */
+    public static final String JOURNAL_FILE_EXTENSION = ".journal";
+
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(500);
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final Map<File, JournaledJsonStore<?>> OPEN_STORES = new ConcurrentHashMap<>();
+
+    private final Map<String, V> index = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    @Getter
+    private final File snapshotFile;
+
+    @Getter
+    private final File journalFile;
+
+    private final ObjectMapper mapper;
+
+    private final JavaType entryType;
+
+    private final Function<Map<String, V>, Object> snapshotWriter;
+
+    private final int compactionThreshold;
+
+    private final ScheduledExecutorService scheduler;
+
+    private FileChannel journal;
+
+    private int journalEntries;
+
+    private boolean unsynced;
+
+    public JournaledJsonStore(final File snapshotFile, final ObjectMapper mapper, final Class<V> valueType,
+                              final Function<File, Map<String, V>> snapshotReader,
+                              final Function<Map<String, V>, Object> snapshotWriter) {
+        this(snapshotFile, mapper, valueType, snapshotReader, snapshotWriter, DEFAULT_SYNC_INTERVAL, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @SneakyThrows
+    public JournaledJsonStore(final File snapshotFile, final ObjectMapper mapper, final Class<V> valueType,
+                              final Function<File, Map<String, V>> snapshotReader,
+                              final Function<Map<String, V>, Object> snapshotWriter,
+                              final Duration syncInterval, final int compactionThreshold) {
+        this.snapshotFile = snapshotFile.getAbsoluteFile();
+        this.journalFile = new File(this.snapshotFile.getPath() + JOURNAL_FILE_EXTENSION);
+        this.mapper = mapper;
+        this.entryType = mapper.getTypeFactory().constructParametricType(JournalEntry.class, valueType);
+        this.snapshotWriter = snapshotWriter;
+        this.compactionThreshold = compactionThreshold;
+
+        final JournaledJsonStore<?> previous = OPEN_STORES.put(this.snapshotFile, this);
+        if (previous != null) {
+            LOGGER.debug("Closing previous store of [{}] that is still open", this.snapshotFile);
+            previous.close();
+        }
+
+        try {
+            load(snapshotReader);
+        } catch (final Exception e) {
+            OPEN_STORES.remove(this.snapshotFile, this);
+            throw e;
+        }
+
+        final long interval = Math.max(1, syncInterval.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, getClass().getSimpleName() + '-' + this.snapshotFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sync, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the record for the given key.
+     *
+     * @param key the key
+     * @return the record, or null
+     */
+    public V get(final String key) {
+        return this.index.get(key);
+    }
+
+    /**
+     * All records, keyed by their key. The view reflects changes to the store and cannot be modified.
+     *
+     * @return the map
+     */
+    public Map<String, V> asMap() {
+        return Collections.unmodifiableMap(this.index);
+    }
+
+    /**
+     * All records.
+     *
+     * @return the records
+     */
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(this.index.values());
+    }
+
+    /**
+     * Store the record under the given key, replacing any previous record.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(final String key, final V value) {
+        synchronized (this.lock) {
+            append(new JournalEntry<>(key, value, false));
+            this.index.put(key, value);
+        }
+    }
+
+    /**
+     * Remove the record with the given key.
+     *
+     * @param key the key
+     * @return the removed record, or null
+     */
+    public V remove(final String key) {
+        synchronized (this.lock) {
+            if (!this.index.containsKey(key)) {
+                return null;
+            }
+            append(new JournalEntry<>(key, null, true));
+            return this.index.remove(key);
+        }
+    }
+
+    /**
+     * Flush pending journal entries to disk, and compact the journal if it has grown beyond its threshold.
+     */
+    public void sync() {
+        synchronized (this.lock) {
+            try {
+                if (this.journal == null) {
+                    return;
+                }
+                if (this.unsynced) {
+                    this.journal.force(false);
+                    this.unsynced = false;
+                }
+                if (this.journalEntries >= this.compactionThreshold) {
+                    compact();
+                }
+            } catch (final Exception e) {
+                LOGGER.error("Unable to sync journal [{}]: [{}]", this.journalFile, e.getMessage());
+                LOGGER.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Compact all records into the JSON file and truncate the journal.
+     */
+    @SneakyThrows
+    public void compact() {
+        synchronized (this.lock) {
+            final byte[] snapshot = this.mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(this.snapshotWriter.apply(asMap()));
+            final File temp = new File(this.snapshotFile.getPath() + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(snapshot);
+                out.getFD().sync();
+            }
+            Files.move(temp.toPath(), this.snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (this.journal != null) {
+                this.journal.truncate(0);
+                this.journal.force(true);
+            } else {
+                Files.deleteIfExists(this.journalFile.toPath());
+            }
+            LOGGER.debug("Compacted [{}] journal entries into [{}] holding [{}] record(s)", this.journalEntries, this.snapshotFile, this.index.size());
+            this.journalEntries = 0;
+            this.unsynced = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        synchronized (this.lock) {
+            if (this.journal != null) {
+                compact();
+                this.journal.close();
+                this.journal = null;
+            }
+        }
+        OPEN_STORES.remove(this.snapshotFile, this);
+    }
+
+    @SneakyThrows
+    private void append(final JournalEntry<V> entry) {
+        if (this.journal == null) {
+            throw new IllegalStateException("Journal " + this.journalFile + " is closed");
+        }
+        final ByteBuffer line = ByteBuffer.wrap((this.mapper.writeValueAsString(entry) + '\n').getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            this.journal.write(line);
+        }
+        this.journalEntries++;
+        this.unsynced = true;
+    }
+
+    private void load(final Function<File, Map<String, V>> snapshotReader) throws IOException {
+        if (this.snapshotFile.exists() && this.snapshotFile.length() > 0) {
+            final Map<String, V> records = snapshotReader.apply(this.snapshotFile);
+            if (records != null) {
+                this.index.putAll(records);
+            }
+        }
+        final int replayed = replayJournal();
+        LOGGER.debug("Loaded [{}] record(s) from [{}] after replaying [{}] journal entries", this.index.size(), this.snapshotFile, replayed);
+        synchronized (this.lock) {
+            if (replayed > 0 || this.journalFile.length() > 0) {
+                compact();
+            }
+            this.journal = openJournal();
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        final File parent = this.journalFile.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            LOGGER.warn("Unable to create directory [{}] for journal [{}]", parent, this.journalFile);
+        }
+        return new FileOutputStream(this.journalFile, true).getChannel();
+    }
+
+    private int replayJournal() throws IOException {
+        if (!this.journalFile.exists()) {
+            return 0;
+        }
+        final String journalContents = new String(Files.readAllBytes(this.journalFile.toPath()), StandardCharsets.UTF_8);
+        int count = 0;
+        int lineNumber = 0;
+        int start = 0;
+        while (start < journalContents.length()) {
+            final int end = journalContents.indexOf('\n', start);
+            if (end < 0) {
+                LOGGER.warn("Ignoring incomplete entry at the end of journal [{}]", this.journalFile);
+                break;
+            }
+            final String line = journalContents.substring(start, end);
+            lineNumber++;
+            start = end + 1;
+            if (!line.trim().isEmpty()) {
+                final JournalEntry<V> entry;
+                try {
+                    entry = this.mapper.readValue(line, this.entryType);
+                } catch (final IOException e) {
+                    throw new IllegalStateException("Journal " + this.journalFile + " is corrupt at line " + lineNumber, e);
+                }
+                if (entry.isRemoved()) {
+                    this.index.remove(entry.getKey());
+                } else {
+                    this.index.put(entry.getKey(), entry.getValue());
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A single change recorded in the journal.
+     *
+     * @param <V> the type of records
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JournalEntry<V> {
+        private String key;
+
+        private V value;
+
+        private boolean removed;
+    }
+}
@@ -0,0 +1,162 @@
+package org.apereo.cas.util.scripting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import groovy.lang.GroovyClassLoader;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.DigestUtils;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link GroovyScriptClassCache}. It holds on to compiled groovy classes
+ * so that scripts are only parsed once. External scripts are keyed by their location
+ * and are recompiled once their last-modified timestamp changes; inline scripts are
+ * keyed by the hash of their body. The cache is bounded in size and tracks
+ * hits, misses and total compilation time.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class GroovyScriptClassCache {
+    /**
+     * Default maximum number of compiled scripts to hold onto.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    private final Cache<String, CompiledScript> cache;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder compilationTimeInNanos = new LongAdder();
+
+    public GroovyScriptClassCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public GroovyScriptClassCache(final long maximumSize) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Gets the compiled class for the groovy resource, compiling it if the resource
+     * is not found in the cache or has changed since it was last compiled.
+     *
+     * @param resource the resource
+     * @return the script class
+     */
+    public Class<?> getScriptClass(final Resource resource) {
+        final String key = getResourceKey(resource);
+        final long lastModified = getLastModified(resource);
+        final CompiledScript compiled = this.cache.asMap().compute(key, (k, current) -> {
+            if (current != null && current.getLastModified() == lastModified) {
+                this.hits.increment();
+                return current;
+            }
+            this.misses.increment();
+            LOGGER.debug("Compiling groovy script [{}] last modified at [{}]", key, lastModified);
+            return new CompiledScript(compile(readResource(resource), resource.getFilename()), lastModified);
+        });
+        return compiled.getScriptClass();
+    }
+
+    /**
+     * Gets the compiled class for the inline groovy script.
+     *
+     * @param script the script
+     * @return the script class
+     */
+    public Class<?> getScriptClass(final String script) {
+        final String key = DigestUtils.sha256(script);
+        final CompiledScript compiled = this.cache.asMap().compute(key, (k, current) -> {
+            if (current != null) {
+                this.hits.increment();
+                return current;
+            }
+            this.misses.increment();
+            LOGGER.debug("Compiling inline groovy script [{}]", key);
+            return new CompiledScript(compile(script, null), 0);
+        });
+        return compiled.getScriptClass();
+    }
+
+    /**
+     * Invalidate all compiled scripts.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets cache statistics.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        return CollectionUtils.wrap("size", this.cache.estimatedSize(),
+            "hits", this.hits.sum(),
+            "misses", this.misses.sum(),
+            "compilationTimeInMillis", TimeUnit.NANOSECONDS.toMillis(this.compilationTimeInNanos.sum()));
+    }
+
+    private Class<?> compile(final String script, final String fileName) {
+        final long start = System.nanoTime();
+        try {
+            final GroovyClassLoader loader = AccessController.doPrivileged((PrivilegedAction<GroovyClassLoader>) () ->
+                new GroovyClassLoader(GroovyScriptClassCache.class.getClassLoader(), new CompilerConfiguration(), true));
+            return StringUtils.isBlank(fileName) ? loader.parseClass(script) : loader.parseClass(script, fileName);
+        } finally {
+            this.compilationTimeInNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @SneakyThrows
+    private static String readResource(final Resource resource) {
+        return IOUtils.toString(resource.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    private static String getResourceKey(final Resource resource) {
+        try {
+            return resource.getURI().toString();
+        } catch (final Exception e) {
+            LOGGER.trace("Unable to determine location of [{}]: [{}]", resource, e.getMessage());
+            return resource.getDescription();
+        }
+    }
+
+    private static long getLastModified(final Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (final Exception e) {
+            LOGGER.trace("Unable to determine last-modified timestamp of [{}]: [{}]", resource, e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * A compiled script class along with the timestamp of its source.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class CompiledScript {
+        private final Class<?> scriptClass;
+        private final long lastModified;
+    }
+}
@@ -7,6 +7,7 @@ import org.apereo.cas.util.EncodingUtilsTests;
 import org.apereo.cas.util.RegexUtilsTests;
 import org.apereo.cas.util.ResourceUtilsTests;
 import org.apereo.cas.util.ScriptingUtilsTests;
+import org.apereo.cas.util.cipher.AesGcmCipherExecutorTests;
 import org.apereo.cas.util.cipher.BinaryCipherExecutorTests;
 import org.apereo.cas.util.cipher.DefaultTicketCipherExecutorTests;
 import org.apereo.cas.util.cipher.JsonWebKeySetStringCipherExecutorTests;
@@ -24,6 +25,8 @@ import org.apereo.cas.util.http.HttpMessageTests;
 import org.apereo.cas.util.http.SimpleHttpClientTests;
 import org.apereo.cas.util.io.CommunicationsManagerTests;
 import org.apereo.cas.util.io.CopyServletOutputStreamTests;
+import org.apereo.cas.util.io.JournaledJsonStoreTests;
+import org.apereo.cas.util.scripting.GroovyScriptClassCacheTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -35,6 +38,7 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+    AesGcmCipherExecutorTests.class,
     JsonWebKeySetStringCipherExecutorTests.class,
     ProtocolTicketCipherExecutorTests.class,
     TicketGrantingCookieCipherExecutorTests.class,
@@ -45,6 +49,7 @@ import org.junit.runners.Suite;
     SimpleHttpClientTests.class,
     CommunicationsManagerTests.class,
     CopyServletOutputStreamTests.class,
+    JournaledJsonStoreTests.class,
     Base64RandomStringGeneratorTests.class,
     ChainingPrincipalNameTransformerTests.class,
     CollectionUtilsTests.class,
@@ -59,6 +64,7 @@ import org.junit.runners.Suite;
     BinaryCipherExecutorTests.class,
     ResourceUtilsTests.class,
     ScriptingUtilsTests.class,
+    GroovyScriptClassCacheTests.class,
     CopyServletOutputStreamTests.class
 })
 public class AllUtilityTestsSuite {
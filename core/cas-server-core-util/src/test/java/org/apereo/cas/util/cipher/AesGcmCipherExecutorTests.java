@@ -0,0 +1,91 @@
+package org.apereo.cas.util.cipher;
+
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.EncodingUtils;
+import org.apereo.cas.util.gen.Base64RandomStringGenerator;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link AesGcmCipherExecutorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class AesGcmCipherExecutorTests {
+
+    @Test
+    public void verifyTicketEnvelope() {
+        final AesGcmTicketCipherExecutor cipher = new AesGcmTicketCipherExecutor(null, null, "Test");
+        final byte[] value = "ST-1234567890".getBytes(StandardCharsets.UTF_8);
+        final byte[] encoded = cipher.encode(value);
+        assertEquals(1 + 4 + 12 + value.length + 16, encoded.length);
+        assertEquals(BaseAesGcmCipherExecutor.ENVELOPE_VERSION, encoded[0]);
+        assertArrayEquals(value, cipher.decode(encoded));
+        assertTrue(cipher.isEnabled());
+        assertNotNull(cipher.getEncryptionKeySetting());
+
+        encoded[encoded.length - 1] ^= 1;
+        assertNull(cipher.decode(encoded));
+    }
+
+    @Test
+    public void verifyKeyRotation() {
+        final String oldKey = new Base64RandomStringGenerator(32).getNewString();
+        final String newKey = new Base64RandomStringGenerator(32).getNewString();
+        final AesGcmStringCipherExecutor oldCipher = new AesGcmStringCipherExecutor(oldKey, null, "Test", "test.key");
+        final String encoded = oldCipher.encode("TGT-1234567890");
+
+        final AesGcmStringCipherExecutor rotated = new AesGcmStringCipherExecutor(newKey,
+            CollectionUtils.wrapList(oldKey), "Test", "test.key");
+        assertEquals("TGT-1234567890", rotated.decode(encoded));
+        assertEquals("TGT-1234567890", rotated.decode(rotated.encode("TGT-1234567890")));
+        assertNull(oldCipher.decode(rotated.encode("TGT-1234567890")));
+
+        final AesGcmStringCipherExecutor retired = new AesGcmStringCipherExecutor(newKey, null, "Test", "test.key");
+        assertNull(retired.decode(encoded));
+    }
+
+    @Test
+    public void verifyKeyOfUnexpectedSizeIsUsable() {
+        final AesGcmStringCipherExecutor cipher = new AesGcmStringCipherExecutor("not-an-aes-key", null, "Test", "test.key");
+        final String encoded = cipher.encode("CAS Test");
+        assertNotNull(EncodingUtils.decodeUrlSafeBase64(encoded));
+        assertEquals("CAS Test", cipher.decode(encoded));
+    }
+
+    @Test
+    public void verifyConcurrentUse() throws Exception {
+        final AesGcmTicketCipherExecutor cipher = new AesGcmTicketCipherExecutor(null, null, "Test");
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final byte[] value = ("TGT-" + i).getBytes(StandardCharsets.UTF_8);
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        if (!Arrays.equals(value, cipher.decode(cipher.encode(value)))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.apereo.cas.util.io;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link JournaledJsonStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class JournaledJsonStoreTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String ENTRY_CASUSER = "{\"key\":\"casuser\",\"value\":\"device1\",\"removed\":false}\n";
+
+    private static final String ENTRY_OTHER = "{\"key\":\"other\",\"value\":\"device2\",\"removed\":false}\n";
+
+    private File directory;
+
+    private File file;
+
+    @Before
+    public void initialize() throws Exception {
+        this.directory = Files.createTempDirectory("journal").toFile();
+        this.file = new File(this.directory, "records.json");
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(this.directory);
+    }
+
+    @Test
+    public void verifyRecordsAreCompactedOnClose() throws Exception {
+        try (JournaledJsonStore<String> store = newStore()) {
+            store.put("casuser", "device1");
+            store.put("casuser", "device2");
+            store.put("other", "device3");
+            assertEquals("device3", store.remove("other"));
+            assertNull(store.remove("missing"));
+            assertTrue(store.getJournalFile().length() > 0);
+        }
+        assertEquals(0, new File(this.file.getPath() + JournaledJsonStore.JOURNAL_FILE_EXTENSION).length());
+        final Map<String, String> snapshot = readSnapshot(this.file);
+        assertEquals(1, snapshot.size());
+        assertEquals("device2", snapshot.get("casuser"));
+
+        try (JournaledJsonStore<String> store = newStore()) {
+            assertEquals("device2", store.get("casuser"));
+            assertEquals(1, store.asMap().size());
+        }
+    }
+
+    @Test
+    public void verifyIndexIsRebuiltFromJournal() throws Exception {
+        writeJournal(ENTRY_CASUSER + ENTRY_OTHER + "{\"key\":\"other\",\"value\":null,\"removed\":true}\n"
+            + "{\"key\":\"partial\",\"val");
+
+        try (JournaledJsonStore<String> recovered = newStore()) {
+            assertEquals("device1", recovered.get("casuser"));
+            assertNull(recovered.get("other"));
+            assertNull(recovered.get("partial"));
+            assertEquals(0, recovered.getJournalFile().length());
+            assertEquals("device1", readSnapshot(this.file).get("casuser"));
+
+            recovered.put("next", "device3");
+            recovered.sync();
+        }
+        assertEquals("device3", readSnapshot(this.file).get("next"));
+    }
+
+    @Test
+    public void verifyCorruptJournalIsRejected() throws Exception {
+        writeJournal(ENTRY_CASUSER + "{\"key\":\"broken\",\"val\n" + ENTRY_OTHER);
+        try {
+            newStore();
+            fail("Journal with a corrupt entry must not be loaded");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("line 2"));
+        }
+        assertFalse(this.file.exists());
+    }
+
+    @Test
+    public void verifyStoreOfSameFileTakesOver() throws Exception {
+        final JournaledJsonStore<String> store = newStore();
+        store.put("casuser", "device1");
+
+        try (JournaledJsonStore<String> next = newStore()) {
+            assertEquals("device1", next.get("casuser"));
+            next.put("other", "device2");
+            try {
+                store.put("late", "device3");
+                fail("Store that was taken over must not be written");
+            } catch (final IllegalStateException e) {
+                assertNull(next.get("late"));
+            }
+            store.close();
+            next.put("last", "device4");
+        }
+        final Map<String, String> snapshot = readSnapshot(this.file);
+        assertEquals(3, snapshot.size());
+        assertEquals("device4", snapshot.get("last"));
+    }
+
+    @Test
+    public void verifyJournalIsCompactedAtThreshold() throws Exception {
+        final JournaledJsonStore<String> store = new JournaledJsonStore<>(this.file, MAPPER, String.class,
+            JournaledJsonStoreTests::readSnapshot, records -> records, Duration.ofHours(1), 2);
+        store.put("first", "1");
+        store.put("second", "2");
+        store.sync();
+        assertEquals(0, store.getJournalFile().length());
+        assertEquals(2, readSnapshot(this.file).size());
+        store.close();
+    }
+
+    private void writeJournal(final String contents) throws Exception {
+        Files.write(new File(this.file.getPath() + JournaledJsonStore.JOURNAL_FILE_EXTENSION).toPath(),
+            contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private JournaledJsonStore<String> newStore() {
+        return new JournaledJsonStore<>(this.file, MAPPER, String.class, JournaledJsonStoreTests::readSnapshot, records -> records);
+    }
+
+    @SneakyThrows
+    private static Map<String, String> readSnapshot(final File file) {
+        return MAPPER.readValue(file, new TypeReference<Map<String, String>>() {
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package org.apereo.cas.util.scripting;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link GroovyScriptClassCacheTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@RunWith(JUnit4.class)
+public class GroovyScriptClassCacheTests {
+
+    @Test
+    public void verifyInlineScriptIsCompiledOnce() {
+        final GroovyScriptClassCache cache = new GroovyScriptClassCache();
+        final Class<?> first = cache.getScriptClass("return 'casuser'");
+        final Class<?> second = cache.getScriptClass("return 'casuser'");
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses().sum());
+        assertEquals(1, cache.getHits().sum());
+        assertNotSame(first, cache.getScriptClass("return 'other'"));
+    }
+
+    @Test
+    public void verifyResourceIsRecompiledWhenModified() throws Exception {
+        final GroovyScriptClassCache cache = new GroovyScriptClassCache();
+        final File file = File.createTempFile("cached", ".groovy");
+        FileUtils.write(file, "def run(String name) { return name }", StandardCharsets.UTF_8);
+        final FileSystemResource resource = new FileSystemResource(file);
+
+        final Class<?> first = cache.getScriptClass(resource);
+        assertSame(first, cache.getScriptClass(resource));
+
+        FileUtils.write(file, "def run(String name) { return name.toUpperCase() }", StandardCharsets.UTF_8);
+        assertTrue(file.setLastModified(file.lastModified() + 5_000));
+        assertNotSame(first, cache.getScriptClass(resource));
+        assertEquals(2, cache.getMisses().sum());
+        assertEquals(1, cache.getHits().sum());
+        assertFalse(cache.getStatistics().isEmpty());
+    }
+}
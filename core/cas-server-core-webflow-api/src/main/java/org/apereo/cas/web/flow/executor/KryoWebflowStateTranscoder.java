@@ -0,0 +1,262 @@
+package org.apereo.cas.web.flow.executor;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.pool.KryoPool;
+import com.esotericsoftware.kryo.serializers.ExternalizableSerializer;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.spring.webflow.plugin.Transcoder;
+import org.cryptacular.bean.CipherBean;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This is {@link KryoWebflowStateTranscoder}, which turns the flow execution state that is kept on the client
+ * into a compact binary form via Kryo, as an alternative to the Java serialization of the default transcoder.
+ * <p>
+ * Flow executions and sessions are written via their own externalization contract, which carries the
+ * flow and state ids along with the attributes of the flow, flash and conversation scopes but not the
+ * flow definitions themselves; scope attributes are in turn written by Kryo. The payload is compressed
+ * and then handed to the cipher, which must encrypt and authenticate it, so that states altered or made up
+ * by the client are rejected before they are deserialized.
+ * <p>
+ * As a second line of defense, only classes of {@link #DEFAULT_ALLOWED_PACKAGES allowed packages} may be written
+ * or read; a state that names any other class is rejected before the class is instantiated or initialized.
+ * <p>
+ * Every payload starts with a short header that carries the schema version of the transcoder and whether the
+ * payload is compressed; payloads written by an incompatible version are rejected. The size of encoded states
+ * and the time spent decoding them are recorded per flow via {@link WebflowStateTranscoderStatistics}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class KryoWebflowStateTranscoder implements Transcoder {
+    /**
+     * Version of the binary format written by this transcoder.
+     */
+    public static final byte SCHEMA_VERSION = 1;
+
+    /**
+     * Packages whose classes may be part of webflow state.
+     */
+    public static final List<String> DEFAULT_ALLOWED_PACKAGES = Collections.unmodifiableList(Arrays.asList(
+        "java.lang.", "java.util.", "java.time.", "java.net.", "java.math.",
+        "org.apereo.cas.", "org.apereo.spring.webflow.plugin.", "org.springframework.webflow.", "org.springframework.binding."));
+
+    /**
+     * Packages whose classes may never be part of webflow state, even if their parent package is allowed.
+     */
+    private static final List<String> DENIED_PACKAGES = Arrays.asList("java.lang.reflect.", "java.lang.invoke.", "java.lang.management.");
+
+    private static final String FLOW_ID_PROPERTY = "flowId";
+
+    private static final byte[] MAGIC = {(byte) 0xCA, (byte) 0x5F};
+
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+
+    private static final byte FLAG_COMPRESSED = 1;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final CipherBean cipherBean;
+
+    private final boolean compress;
+
+    private final List<String> allowedPackages;
+
+    private final WebflowStateTranscoderStatistics statistics;
+
+    private final KryoPool kryoPool;
+
+    public KryoWebflowStateTranscoder(final CipherBean cipherBean, final boolean compress,
+                                      final WebflowStateTranscoderStatistics statistics) {
+        this(cipherBean, compress, DEFAULT_ALLOWED_PACKAGES, statistics);
+    }
+
+    public KryoWebflowStateTranscoder(final CipherBean cipherBean, final boolean compress,
+                                      final Collection<String> allowedPackages,
+                                      final WebflowStateTranscoderStatistics statistics) {
+        this.cipherBean = cipherBean;
+        this.compress = compress;
+        this.allowedPackages = new ArrayList<>(allowedPackages);
+        this.statistics = statistics;
+        this.kryoPool = new KryoPool.Builder(() -> newKryo(this.allowedPackages)).softReferences().build();
+    }
+
+    @Override
+    public byte[] encode(final Object o) throws IOException {
+        final byte[] serialized;
+        try {
+            serialized = this.kryoPool.run(kryo -> {
+                try (Output output = new Output(BUFFER_SIZE, -1)) {
+                    kryo.writeClassAndObject(output, o);
+                    return output.toBytes();
+                }
+            });
+        } catch (final KryoException e) {
+            throw new IOException("Webflow state cannot be encoded: " + e.getMessage(), e);
+        }
+        final byte[] payload = this.compress ? deflate(serialized) : serialized;
+        final byte[] state = new byte[HEADER_LENGTH + payload.length];
+        System.arraycopy(MAGIC, 0, state, 0, MAGIC.length);
+        state[MAGIC.length] = SCHEMA_VERSION;
+        state[MAGIC.length + 1] = this.compress ? FLAG_COMPRESSED : 0;
+        System.arraycopy(payload, 0, state, HEADER_LENGTH, payload.length);
+
+        final byte[] encoded = this.cipherBean.encrypt(state);
+        final String flowId = getFlowId(o);
+        this.statistics.recordEncode(flowId, encoded.length);
+        LOGGER.trace("Encoded webflow state of flow [{}] into [{}] bytes", flowId, encoded.length);
+        return encoded;
+    }
+
+    @Override
+    public Object decode(final byte[] encoded) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            final Object state = decodeState(encoded);
+            this.statistics.recordDecode(getFlowId(state), System.nanoTime() - start);
+            return state;
+        } catch (final IOException | RuntimeException e) {
+            this.statistics.recordDecodeFailure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private Object decodeState(final byte[] encoded) throws IOException {
+        final byte[] state = this.cipherBean.decrypt(encoded);
+        if (state == null || state.length < HEADER_LENGTH || state[0] != MAGIC[0] || state[1] != MAGIC[1]) {
+            throw new IOException("Webflow state cannot be decrypted or was not encoded by this transcoder");
+        }
+        if (state[MAGIC.length] != SCHEMA_VERSION) {
+            throw new IOException("Webflow state was encoded with schema version "
+                + state[MAGIC.length] + " while version " + SCHEMA_VERSION + " is expected");
+        }
+        final byte[] serialized = (state[MAGIC.length + 1] & FLAG_COMPRESSED) != 0
+            ? inflate(state, HEADER_LENGTH)
+            : Arrays.copyOfRange(state, HEADER_LENGTH, state.length);
+        try {
+            return this.kryoPool.run(kryo -> {
+                try (Input input = new Input(serialized)) {
+                    return kryo.readClassAndObject(input);
+                }
+            });
+        } catch (final KryoException e) {
+            throw new IOException("Webflow state cannot be decoded: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * States handed over by the client flow execution repository carry the id of their flow.
+     */
+    private static String getFlowId(final Object state) {
+        if (state == null) {
+            return WebflowStateTranscoderStatistics.UNKNOWN_FLOW;
+        }
+        final BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(state);
+        if (wrapper.isReadableProperty(FLOW_ID_PROPERTY)) {
+            final Object flowId = wrapper.getPropertyValue(FLOW_ID_PROPERTY);
+            if (flowId != null) {
+                return flowId.toString();
+            }
+        }
+        return WebflowStateTranscoderStatistics.UNKNOWN_FLOW;
+    }
+
+    private static byte[] deflate(final byte[] bytes) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2 + 1);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] bytes, final int offset) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length * 2);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                final int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Webflow state is truncated");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new IOException("Webflow state cannot be decompressed", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static Kryo newKryo(final List<String> allowedPackages) {
+        final Kryo kryo = new Kryo(new AllowedPackagesClassResolver(allowedPackages), new MapReferenceResolver());
+        kryo.setInstantiatorStrategy(new Kryo.DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        kryo.setRegistrationRequired(false);
+        kryo.setWarnUnregisteredClasses(false);
+        kryo.setReferences(true);
+        kryo.addDefaultSerializer(Externalizable.class, ExternalizableSerializer.class);
+        return kryo;
+    }
+
+    /**
+     * Classes are registered implicitly by name once they are first written or read, which
+     * happens after the class is loaded but before it is initialized or instantiated.
+     */
+    @RequiredArgsConstructor
+    private static class AllowedPackagesClassResolver extends DefaultClassResolver {
+        private final List<String> allowedPackages;
+
+        @Override
+        public Registration registerImplicit(final Class type) {
+            if (!isAllowed(type)) {
+                throw new KryoException("Class " + type.getName() + " is not allowed to be part of webflow state");
+            }
+            return super.registerImplicit(type);
+        }
+
+        private boolean isAllowed(final Class type) {
+            if (type.isArray()) {
+                return isAllowed(type.getComponentType());
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+            final String name = type.getName();
+            return this.allowedPackages.stream().anyMatch(name::startsWith) && DENIED_PACKAGES.stream().noneMatch(name::startsWith);
+        }
+    }
+}
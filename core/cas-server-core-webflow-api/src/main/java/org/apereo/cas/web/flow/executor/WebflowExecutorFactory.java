@@ -20,6 +20,11 @@ import org.springframework.webflow.execution.repository.snapshot.SerializedFlowE
 import org.springframework.webflow.executor.FlowExecutor;
 import org.springframework.webflow.executor.FlowExecutorImpl;
 
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * This is {@link WebflowExecutorFactory}.
  *
@@ -29,10 +34,18 @@ import org.springframework.webflow.executor.FlowExecutorImpl;
 @Slf4j
 @RequiredArgsConstructor
 public class WebflowExecutorFactory {
+    /**
+     * Codec that keeps client-side webflow state in a compact binary form via Kryo.
+     */
+    public static final String CODEC_KRYO = "kryo";
+
+    private static final int PROBE_LENGTH = 16;
+
     private final WebflowProperties webflowProperties;
     private final FlowDefinitionRegistry flowDefinitionRegistry;
     private final CipherExecutor webflowCipherExecutor;
     private final FlowExecutionListener[] executionListeners;
+    private final WebflowStateTranscoderStatistics webflowStateTranscoderStatistics;
 
     /**
      * Build flow executor.
@@ -80,6 +93,38 @@ public class WebflowExecutorFactory {
     @SneakyThrows
     private Transcoder getWebflowStateTranscoder() {
         final WebflowCipherBean cipherBean = new WebflowCipherBean(this.webflowCipherExecutor);
+        final WebflowSessionManagementProperties session = webflowProperties.getSession();
+        if (CODEC_KRYO.equalsIgnoreCase(session.getCodec())) {
+            verifyAuthenticatedEncryption(cipherBean);
+            final List<String> allowedPackages = new ArrayList<>(KryoWebflowStateTranscoder.DEFAULT_ALLOWED_PACKAGES);
+            allowedPackages.addAll(session.getCodecAllowedPackages());
+            LOGGER.debug("Client-side webflow state of flow(s) [{}] is encoded via Kryo, allowing classes of [{}]",
+                this.flowDefinitionRegistry.getFlowDefinitionIds(), allowedPackages);
+            return new KryoWebflowStateTranscoder(cipherBean, session.isCompress(), allowedPackages, this.webflowStateTranscoderStatistics);
+        }
         return new EncryptedTranscoder(cipherBean);
     }
+
+    /**
+     * Kryo will read whatever the client hands back, so state must be encrypted and authenticated:
+     * the cipher must change a probe value and must refuse to decrypt it once it is altered.
+     */
+    private static void verifyAuthenticatedEncryption(final WebflowCipherBean cipherBean) {
+        final byte[] probe = new byte[PROBE_LENGTH];
+        new SecureRandom().nextBytes(probe);
+        final byte[] sealed = cipherBean.encrypt(probe);
+        boolean authenticated = sealed != null && sealed.length > 0 && !Arrays.equals(probe, sealed);
+        if (authenticated) {
+            sealed[sealed.length - 1] ^= 1;
+            try {
+                authenticated = !Arrays.equals(probe, cipherBean.decrypt(sealed));
+            } catch (final Exception e) {
+                LOGGER.trace("Altered webflow state is rejected by the cipher: [{}]", e.getMessage());
+            }
+        }
+        if (!authenticated) {
+            throw new IllegalStateException("Webflow state encoded via Kryo must be encrypted and authenticated via AES-GCM. "
+                + "Enable webflow encryption via cas.webflow.crypto.enabled, or switch cas.webflow.session.codec back to java");
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package org.apereo.cas.web.flow.executor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link WebflowStateTranscoderStatistics}, which records the size of encoded client-side
+ * webflow states and the time spent decoding them, per flow. States that cannot be decoded are recorded
+ * under {@link #UNKNOWN_FLOW}, since their flow cannot be told.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class WebflowStateTranscoderStatistics {
+    /**
+     * Flow id under which states of an unknown flow are recorded.
+     */
+    public static final String UNKNOWN_FLOW = "unknown";
+
+    private final Map<String, FlowStatistics> flows = new ConcurrentHashMap<>();
+
+    /**
+     * Record the encoding of a state.
+     *
+     * @param flowId the flow id
+     * @param size   the size of the encoded state
+     */
+    public void recordEncode(final String flowId, final long size) {
+        final FlowStatistics stats = getFlowStatistics(flowId);
+        stats.encodeCount.increment();
+        stats.encodedBytes.add(size);
+        stats.maxEncodedSize.accumulateAndGet(size, Math::max);
+    }
+
+    /**
+     * Record the decoding of a state.
+     *
+     * @param flowId the flow id
+     * @param nanos  the time spent decoding the state
+     */
+    public void recordDecode(final String flowId, final long nanos) {
+        final FlowStatistics stats = getFlowStatistics(flowId);
+        stats.decodeCount.increment();
+        recordDecodeTime(stats, nanos);
+    }
+
+    /**
+     * Record a state that could not be decoded.
+     *
+     * @param nanos the time spent on the state
+     */
+    public void recordDecodeFailure(final long nanos) {
+        final FlowStatistics stats = getFlowStatistics(UNKNOWN_FLOW);
+        stats.decodeFailureCount.increment();
+        recordDecodeTime(stats, nanos);
+    }
+
+    /**
+     * Gets statistics about the size of encoded states and the time spent decoding them, keyed by flow id.
+     *
+     * @return the statistics
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        final Map<String, Map<String, Object>> results = new TreeMap<>();
+        this.flows.forEach((flowId, stats) -> results.put(flowId, stats.toMap()));
+        return results;
+    }
+
+    private FlowStatistics getFlowStatistics(final String flowId) {
+        return this.flows.computeIfAbsent(flowId == null ? UNKNOWN_FLOW : flowId, id -> new FlowStatistics());
+    }
+
+    private static void recordDecodeTime(final FlowStatistics stats, final long nanos) {
+        stats.decodeNanos.add(nanos);
+        stats.maxDecodeNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static class FlowStatistics {
+        private final LongAdder encodeCount = new LongAdder();
+
+        private final LongAdder encodedBytes = new LongAdder();
+
+        private final AtomicLong maxEncodedSize = new AtomicLong();
+
+        private final LongAdder decodeCount = new LongAdder();
+
+        private final LongAdder decodeFailureCount = new LongAdder();
+
+        private final LongAdder decodeNanos = new LongAdder();
+
+        private final AtomicLong maxDecodeNanos = new AtomicLong();
+
+        Map<String, Object> toMap() {
+            final long encodes = this.encodeCount.sum();
+            final long decodes = this.decodeCount.sum() + this.decodeFailureCount.sum();
+            final Map<String, Object> results = new LinkedHashMap<>();
+            results.put("encodeCount", encodes);
+            results.put("averageEncodedSize", encodes == 0 ? 0 : this.encodedBytes.sum() / encodes);
+            results.put("maxEncodedSize", this.maxEncodedSize.get());
+            results.put("decodeCount", this.decodeCount.sum());
+            results.put("decodeFailureCount", this.decodeFailureCount.sum());
+            results.put("averageDecodeTimeInMicros", decodes == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(this.decodeNanos.sum() / decodes));
+            results.put("maxDecodeTimeInMicros", TimeUnit.NANOSECONDS.toMicros(this.maxDecodeNanos.get()));
+            return results;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.apereo.cas.services.ServicesManager;
 import org.apereo.cas.services.UnauthorizedServiceForPrincipalException;
 import org.apereo.cas.ticket.UnsatisfiedAuthenticationPolicyException;
 import org.apereo.cas.ticket.registry.TicketRegistrySupport;
+import org.apereo.cas.util.cipher.AesGcmWebflowCipherExecutor;
+import org.apereo.cas.util.cipher.BaseAesGcmCipherExecutor;
 import org.apereo.cas.util.cipher.WebflowConversationStateCipherExecutor;
 import org.apereo.cas.web.flow.CasWebflowConstants;
 import org.apereo.cas.web.flow.DefaultSingleSignOnParticipationStrategy;
@@ -36,6 +38,7 @@ import org.apereo.cas.web.flow.actions.InjectResponseHeadersAction;
 import org.apereo.cas.web.flow.actions.RedirectToServiceAction;
 import org.apereo.cas.web.flow.authentication.GroovyScriptMultifactorAuthenticationProviderSelector;
 import org.apereo.cas.web.flow.authentication.RankedMultifactorAuthenticationProviderSelector;
+import org.apereo.cas.web.flow.executor.WebflowExecutorFactory;
 import org.apereo.cas.web.flow.resolver.CasDelegatingWebflowEventResolver;
 import org.apereo.cas.web.flow.resolver.CasWebflowEventResolver;
 import org.apereo.cas.web.flow.resolver.impl.InitialAuthenticationAttemptWebflowEventResolver;
@@ -417,6 +420,10 @@ public class CasCoreWebflowConfiguration {
             enabled = true;
         }
         if (enabled) {
+            if (BaseAesGcmCipherExecutor.STRATEGY_TYPE.equalsIgnoreCase(crypto.getStrategyType())
+                || WebflowExecutorFactory.CODEC_KRYO.equalsIgnoreCase(webflow.getSession().getCodec())) {
+                return new AesGcmWebflowCipherExecutor(crypto.getEncryption().getKey(), crypto.getRetiredKeys());
+            }
             return new WebflowConversationStateCipherExecutor(
                 crypto.getEncryption().getKey(),
                 crypto.getSigning().getKey(),
@@ -424,6 +431,10 @@ public class CasCoreWebflowConfiguration {
                 crypto.getSigning().getKeySize(),
                 crypto.getEncryption().getKeySize());
         }
+        if (WebflowExecutorFactory.CODEC_KRYO.equalsIgnoreCase(webflow.getSession().getCodec())) {
+            throw new IllegalStateException("Webflow state encoded via Kryo must be encrypted and authenticated via AES-GCM, "
+                + "yet webflow encryption/signing is turned off. Enable it via cas.webflow.crypto.enabled");
+        }
         LOGGER.warn("Webflow encryption/signing is turned off. This "
             + "MAY NOT be safe in a production environment. Consider using other choices to handle encryption, "
             + "signing and verification of webflow state.");
@@ -15,12 +15,15 @@ import org.apereo.cas.web.flow.configurer.DefaultLogoutWebflowConfigurer;
 import org.apereo.cas.web.flow.configurer.GroovyWebflowConfigurer;
 import org.apereo.cas.web.flow.configurer.plan.DefaultCasWebflowExecutionPlan;
 import org.apereo.cas.web.flow.executor.WebflowExecutorFactory;
+import org.apereo.cas.web.flow.executor.WebflowStateTranscoderStatistics;
 import org.apereo.cas.web.support.AuthenticationThrottlingExecutionPlan;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.binding.convert.ConversionService;
 import org.springframework.binding.expression.ExpressionParser;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
@@ -201,11 +204,27 @@ public class CasWebflowContextConfiguration {
         return builder.build();
     }
 
+    @ConditionalOnMissingBean(name = "webflowStateTranscoderStatistics")
+    @Bean
+    public WebflowStateTranscoderStatistics webflowStateTranscoderStatistics() {
+        return new WebflowStateTranscoderStatistics();
+    }
+
+    @ConditionalOnMissingBean(name = "webflowStateTranscoderHealthIndicator")
+    @Bean
+    public HealthIndicator webflowStateTranscoderHealthIndicator() {
+        return () -> {
+            final Health.Builder builder = Health.up();
+            webflowStateTranscoderStatistics().getStatistics().forEach(builder::withDetail);
+            return builder.build();
+        };
+    }
+
     @RefreshScope
     @Bean
     public FlowExecutor logoutFlowExecutor() {
         final WebflowExecutorFactory factory = new WebflowExecutorFactory(casProperties.getWebflow(),
-            logoutFlowRegistry(), this.webflowCipherExecutor, new FlowExecutionListener[0]);
+            logoutFlowRegistry(), this.webflowCipherExecutor, new FlowExecutionListener[0], webflowStateTranscoderStatistics());
         return factory.build();
     }
 
@@ -214,7 +233,7 @@ public class CasWebflowContextConfiguration {
     public FlowExecutor loginFlowExecutor() {
         final WebflowExecutorFactory factory = new WebflowExecutorFactory(casProperties.getWebflow(),
             loginFlowRegistry(), this.webflowCipherExecutor,
-            new FlowExecutionListener[0]);
+            new FlowExecutionListener[0], webflowStateTranscoderStatistics());
 
         return factory.build();
     }
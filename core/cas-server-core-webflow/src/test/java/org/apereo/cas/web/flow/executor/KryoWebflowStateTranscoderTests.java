@@ -0,0 +1,139 @@
+package org.apereo.cas.web.flow.executor;
+
+import org.apereo.cas.CipherExecutor;
+import org.apereo.cas.configuration.model.webapp.WebflowProperties;
+import org.apereo.cas.util.cipher.AesGcmWebflowCipherExecutor;
+import org.apereo.spring.webflow.plugin.ClientFlowExecutionRepository;
+import org.junit.Test;
+import org.springframework.webflow.core.collection.LocalAttributeMap;
+import org.springframework.webflow.definition.registry.FlowDefinitionRegistryImpl;
+import org.springframework.webflow.engine.Flow;
+import org.springframework.webflow.engine.ViewState;
+import org.springframework.webflow.engine.impl.FlowExecutionImplFactory;
+import org.springframework.webflow.execution.Event;
+import org.springframework.webflow.execution.FlowExecution;
+import org.springframework.webflow.execution.FlowExecutionListener;
+import org.springframework.webflow.execution.View;
+import org.springframework.webflow.test.MockExternalContext;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link KryoWebflowStateTranscoderTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class KryoWebflowStateTranscoderTests {
+    private final WebflowCipherBean cipherBean = new WebflowCipherBean(new AesGcmWebflowCipherExecutor(null, new ArrayList<>()));
+
+    private final WebflowStateTranscoderStatistics statistics = new WebflowStateTranscoderStatistics();
+
+    private final KryoWebflowStateTranscoder transcoder = new KryoWebflowStateTranscoder(this.cipherBean, true, this.statistics);
+
+    @Test
+    public void verifyStateIsEncodedAndDecoded() throws Exception {
+        final LocalAttributeMap<Object> scope = new LocalAttributeMap<>();
+        scope.put("service", "https://example.org");
+        scope.put("warnCookieValue", Boolean.TRUE);
+
+        final byte[] encoded = this.transcoder.encode(scope);
+        final Object decoded = this.transcoder.decode(encoded);
+        assertEquals(scope, decoded);
+        final Map<String, Object> stats = this.statistics.getStatistics().get(WebflowStateTranscoderStatistics.UNKNOWN_FLOW);
+        assertEquals(1L, stats.get("encodeCount"));
+        assertEquals(1L, stats.get("decodeCount"));
+    }
+
+    @Test
+    public void verifyFlowExecutionIsEncodedAndRestored() {
+        final Flow flow = new Flow("login");
+        flow.getStartActionList().add(context -> {
+            context.getFlowScope().put("service", "https://example.org");
+            return new Event(this, "success");
+        });
+        final View view = mock(View.class);
+        new ViewState(flow, "viewLoginForm", context -> view);
+
+        final ClientFlowExecutionRepository repository = new ClientFlowExecutionRepository();
+        repository.setFlowDefinitionLocator(id -> flow);
+        repository.setTranscoder(this.transcoder);
+        final FlowExecutionImplFactory factory = new FlowExecutionImplFactory();
+        factory.setExecutionKeyFactory(repository);
+        repository.setFlowExecutionFactory(factory);
+
+        final FlowExecution execution = factory.createFlowExecution(flow);
+        execution.start(null, new MockExternalContext());
+        assertTrue(execution.isActive());
+
+        final FlowExecution restored = repository.getFlowExecution(execution.getKey());
+        assertEquals("login", restored.getDefinition().getId());
+        assertEquals("viewLoginForm", restored.getActiveSession().getState().getId());
+        assertEquals("https://example.org", restored.getActiveSession().getScope().get("service"));
+
+        final Map<String, Object> stats = this.statistics.getStatistics().get("login");
+        assertTrue((Long) stats.get("encodeCount") >= 1);
+        assertEquals(1L, stats.get("decodeCount"));
+    }
+
+    @Test
+    public void verifyTamperedStateIsRejected() throws Exception {
+        final byte[] encoded = this.transcoder.encode(new LocalAttributeMap<>("service", "https://example.org"));
+        encoded[encoded.length - 1] ^= 1;
+        try {
+            this.transcoder.decode(encoded);
+            fail("Tampered webflow state must not be decoded");
+        } catch (final IOException e) {
+            assertEquals(1L, this.statistics.getStatistics().get(WebflowStateTranscoderStatistics.UNKNOWN_FLOW).get("decodeFailureCount"));
+        }
+    }
+
+    @Test
+    public void verifyClassesOutsideAllowedPackagesAreRejected() throws Exception {
+        final List<String> packages = new ArrayList<>(KryoWebflowStateTranscoder.DEFAULT_ALLOWED_PACKAGES);
+        packages.add("javax.xml.");
+        final KryoWebflowStateTranscoder permissive = new KryoWebflowStateTranscoder(this.cipherBean, true, packages, this.statistics);
+        final LocalAttributeMap<Object> scope = new LocalAttributeMap<>("name", new QName("urn:example", "casuser"));
+        final byte[] encoded = permissive.encode(scope);
+        assertEquals(scope, permissive.decode(encoded));
+
+        try {
+            this.transcoder.decode(encoded);
+            fail("Webflow state must not refer to classes outside of allowed packages");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(QName.class.getName()));
+        }
+        try {
+            this.transcoder.encode(scope);
+            fail("Webflow state must not refer to classes outside of allowed packages");
+        } catch (final IOException e) {
+            assertTrue(e.getMessage().contains(QName.class.getName()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void verifyKryoCodecRequiresAuthenticatedEncryption() {
+        final WebflowProperties properties = new WebflowProperties();
+        properties.getSession().setCodec(WebflowExecutorFactory.CODEC_KRYO);
+        new WebflowExecutorFactory(properties, new FlowDefinitionRegistryImpl(), CipherExecutor.noOp(),
+            new FlowExecutionListener[0], this.statistics).build();
+    }
+
+    @Test
+    public void verifyKryoCodecIsUsedWithAuthenticatedEncryption() {
+        final WebflowProperties properties = new WebflowProperties();
+        properties.getSession().setCodec(WebflowExecutorFactory.CODEC_KRYO);
+        properties.getSession().setCodecAllowedPackages(Collections.singletonList("org.example."));
+        assertNotNull(new WebflowExecutorFactory(properties, new FlowDefinitionRegistryImpl(),
+            new AesGcmWebflowCipherExecutor(null, new ArrayList<>()),
+            new FlowExecutionListener[0], this.statistics).build());
+    }
+}
@@ -25,6 +25,8 @@ import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketFactory;
 import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.ticket.UnsatisfiedAuthenticationPolicyException;
+import org.apereo.cas.ticket.registry.TicketQuery;
+import org.apereo.cas.ticket.registry.TicketQueryResult;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
@@ -35,6 +37,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.Setter;
 
 /**
@@ -152,7 +155,18 @@ public abstract class AbstractCentralAuthenticationService implements CentralAut
     @Counted(name = "GET_TICKETS_COUNTER", monotonic = true)
     @Override
     public Collection<Ticket> getTickets(final Predicate<Ticket> predicate) {
-        return this.ticketRegistry.getTickets().stream().filter(predicate).collect(Collectors.toSet());
+        try (Stream<Ticket> tickets = this.ticketRegistry.getTickets(predicate)) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    @Transactional(transactionManager = "ticketTransactionManager")
+    @Timed(name = "QUERY_TICKETS_TIMER")
+    @Metered(name = "QUERY_TICKETS_METER")
+    @Counted(name = "QUERY_TICKETS_COUNTER", monotonic = true)
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        return this.ticketRegistry.queryTickets(query);
     }
 
     @Transactional(transactionManager = "ticketTransactionManager")
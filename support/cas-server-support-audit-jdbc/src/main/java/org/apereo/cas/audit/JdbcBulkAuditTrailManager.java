@@ -0,0 +1,86 @@
+package org.apereo.cas.audit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.inspektr.audit.AuditActionContext;
+import org.apereo.inspektr.audit.AuditTrailManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link JdbcBulkAuditTrailManager}, which records batches of audit records
+ * into the audit table using a single JDBC batch insert. Individual audit records and
+ * queries are handled by the delegate audit trail manager.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class JdbcBulkAuditTrailManager implements BulkAuditTrailManager {
+
+    private static final String INSERT_SQL_TEMPLATE = "INSERT INTO %s "
+        + "(AUD_USER, AUD_CLIENT_IP, AUD_SERVER_IP, AUD_RESOURCE, AUD_ACTION, APPLIC_CD, AUD_DATE) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final AuditTrailManager delegate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String insertSql;
+
+    private final int columnLength;
+
+    public JdbcBulkAuditTrailManager(final AuditTrailManager delegate, final DataSource dataSource,
+                                     final TransactionTemplate transactionTemplate, final String tableName,
+                                     final int columnLength) {
+        this.delegate = delegate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.insertSql = String.format(INSERT_SQL_TEMPLATE, tableName);
+        this.columnLength = columnLength;
+    }
+
+    @Override
+    public void record(final AuditActionContext audit) {
+        this.delegate.record(audit);
+    }
+
+    @Override
+    public void recordAll(final Collection<AuditActionContext> audits) {
+        final List<Object[]> rows = audits.stream()
+            .map(audit -> new Object[]{
+                abbreviate(audit.getPrincipal()),
+                audit.getClientIpAddress(),
+                audit.getServerIpAddress(),
+                abbreviate(audit.getResourceOperatedUpon()),
+                abbreviate(audit.getActionPerformed()),
+                audit.getApplicationCode(),
+                new Timestamp(audit.getWhenActionWasPerformed().getTime())})
+            .collect(Collectors.toList());
+        LOGGER.trace("Inserting [{}] audit record(s) in a single batch", rows.size());
+        this.transactionTemplate.execute(status -> this.jdbcTemplate.batchUpdate(this.insertSql, rows));
+    }
+
+    @Override
+    public Set<AuditActionContext> getAuditRecordsSince(final LocalDate sinceDate) {
+        return this.delegate.getAuditRecordsSince(sinceDate);
+    }
+
+    private String abbreviate(final String value) {
+        return this.columnLength > 0 && StringUtils.length(value) > this.columnLength
+            ? value.substring(0, this.columnLength)
+            : value;
+    }
+}
@@ -3,6 +3,7 @@ package org.apereo.cas.audit.config;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.audit.AuditTrailExecutionPlanConfigurer;
+import org.apereo.cas.audit.JdbcBulkAuditTrailManager;
 import org.apereo.cas.audit.entity.AuditTrailEntity;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.core.audit.AuditJdbcProperties;
@@ -50,22 +51,17 @@ public class CasSupportJdbcAuditConfiguration {
         final JdbcAuditTrailManager t = new JdbcAuditTrailManager(inspektrAuditTransactionTemplate());
         t.setCleanupCriteria(auditCleanupCriteria());
         t.setDataSource(inspektrAuditTrailDataSource());
-        t.setAsynchronous(jdbc.isAsynchronous());
+        t.setAsynchronous(jdbc.isAsynchronous() && !casProperties.getAudit().getPipeline().isEnabled());
         t.setColumnLength(jdbc.getColumnLength());
-        String tableName = AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME;
-        if (StringUtils.isNotBlank(jdbc.getDefaultSchema())) {
-            tableName = jdbc.getDefaultSchema().concat(".").concat(tableName);
-        }
-        if (StringUtils.isNotBlank(jdbc.getDefaultCatalog())) {
-            tableName = jdbc.getDefaultCatalog().concat(".").concat(tableName);
-        }
-        t.setTableName(tableName);
+        t.setTableName(getAuditTableName());
         return t;
     }
 
     @Bean
     public AuditTrailExecutionPlanConfigurer jdbcAuditTrailExecutionPlanConfigurer() {
-        return plan -> plan.registerAuditTrailManager(jdbcAuditTrailManager());
+        return plan -> plan.registerAuditTrailManager(new JdbcBulkAuditTrailManager(jdbcAuditTrailManager(),
+            inspektrAuditTrailDataSource(), inspektrAuditTransactionTemplate(), getAuditTableName(),
+            casProperties.getAudit().getJdbc().getColumnLength()));
     }
 
     @Lazy
@@ -103,4 +99,16 @@ public class CasSupportJdbcAuditConfiguration {
         t.setPropagationBehaviorName(casProperties.getAudit().getJdbc().getPropagationBehaviorName());
         return t;
     }
+
+    private String getAuditTableName() {
+        final AuditJdbcProperties jdbc = casProperties.getAudit().getJdbc();
+        String tableName = AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME;
+        if (StringUtils.isNotBlank(jdbc.getDefaultSchema())) {
+            tableName = jdbc.getDefaultSchema().concat(".").concat(tableName);
+        }
+        if (StringUtils.isNotBlank(jdbc.getDefaultCatalog())) {
+            tableName = jdbc.getDefaultCatalog().concat(".").concat(tableName);
+        }
+        return tableName;
+    }
 }
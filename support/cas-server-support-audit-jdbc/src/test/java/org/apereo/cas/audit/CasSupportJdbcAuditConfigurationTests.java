@@ -2,8 +2,10 @@ package org.apereo.cas.audit;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.audit.config.CasSupportJdbcAuditConfiguration;
+import org.apereo.cas.audit.entity.AuditTrailEntity;
 import org.apereo.cas.audit.spi.config.CasCoreAuditConfiguration;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.inspektr.audit.AuditActionContext;
 import org.apereo.inspektr.audit.AuditTrailManager;
@@ -17,6 +19,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
 
 import java.time.LocalDate;
 import java.util.Date;
@@ -47,6 +52,14 @@ public class CasSupportJdbcAuditConfigurationTests {
     @Qualifier("jdbcAuditTrailManager")
     private AuditTrailManager jdbcAuditTrailManager;
 
+    @Autowired
+    @Qualifier("inspektrAuditTrailDataSource")
+    private DataSource inspektrAuditTrailDataSource;
+
+    @Autowired
+    @Qualifier("inspektrAuditTransactionTemplate")
+    private TransactionTemplate inspektrAuditTransactionTemplate;
+
     @Test
     public void verifyAuditManager() {
         final LocalDate time = LocalDate.now().minusDays(2);
@@ -58,4 +71,18 @@ public class CasSupportJdbcAuditConfigurationTests {
         final Set results = jdbcAuditTrailManager.getAuditRecordsSince(time);
         assertFalse(results.isEmpty());
     }
+
+    @Test
+    public void verifyBulkAuditManager() {
+        final LocalDate time = LocalDate.now().minusDays(2);
+        final Date since = DateTimeUtils.dateOf(time);
+        final JdbcBulkAuditTrailManager manager = new JdbcBulkAuditTrailManager(jdbcAuditTrailManager,
+            inspektrAuditTrailDataSource, inspektrAuditTransactionTemplate, AuditTrailEntity.AUDIT_TRAIL_TABLE_NAME, 100);
+        manager.recordAll(CollectionUtils.wrapList(
+            new AuditActionContext("bulkuser1", "TEST", "TEST", "CAS", since, "1.2.3.4", "1.2.3.4"),
+            new AuditActionContext("bulkuser2", "TEST", "TEST", "CAS", since, "1.2.3.4", "1.2.3.4")));
+        final Set<AuditActionContext> results = manager.getAuditRecordsSince(time);
+        assertTrue(results.stream().anyMatch(r -> "bulkuser1".equals(r.getPrincipal())));
+        assertTrue(results.stream().anyMatch(r -> "bulkuser2".equals(r.getPrincipal())));
+    }
 }
@@ -34,7 +34,7 @@ public class CasSupportMongoDbAuditConfiguration {
         final MongoTemplate mongoTemplate = factory.buildMongoTemplate(mongo);
         factory.createCollection(mongoTemplate, mongo.getCollection(), mongo.isDropCollection());
         final MongoDbAuditTrailManager mgmr = new MongoDbAuditTrailManager(mongoTemplate, mongo.getCollection());
-        mgmr.setAsynchronous(mongo.isAsynchronous());
+        mgmr.setAsynchronous(mongo.isAsynchronous() && !casProperties.getAudit().getPipeline().isEnabled());
         return mgmr;
     }
 
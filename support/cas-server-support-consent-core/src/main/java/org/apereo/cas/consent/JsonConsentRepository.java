@@ -4,64 +4,79 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apereo.cas.util.ResourceUtils;
+import org.apereo.cas.util.io.JournaledJsonStore;
 import org.hjson.JsonValue;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
-import java.io.InputStreamReader;
+import java.io.File;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This is {@link JsonConsentRepository}.
+ * <p>
+ * Decisions are persisted via a {@link JournaledJsonStore}, so that changes are appended to a journal
+ * next to the JSON resource instead of rewriting the resource on every change.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 @Slf4j
-public class JsonConsentRepository extends BaseConsentRepository {
+public class JsonConsentRepository extends BaseConsentRepository implements DisposableBean {
     private static final long serialVersionUID = -402728417464783825L;
 
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
-    private final transient Resource jsonResource;
 
+    private final transient JournaledJsonStore<ConsentDecision> store;
+
+    @SneakyThrows
     public JsonConsentRepository(final Resource jsonResource) {
-        this.jsonResource = jsonResource;
-        setConsentDecisions(readDecisionsFromJsonResource());
+        this.store = new JournaledJsonStore<>(jsonResource.getFile(), MAPPER, ConsentDecision.class,
+            JsonConsentRepository::readDecisionsFromJsonFile, decisions -> new ArrayList<>(decisions.values()));
+        setConsentDecisions(new LinkedHashSet<>(this.store.values()));
     }
 
     @Override
     public boolean storeConsentDecision(final ConsentDecision decision) {
         final boolean result = super.storeConsentDecision(decision);
-        writeAccountToJsonResource();
+        this.store.put(String.valueOf(decision.getId()), decision);
         return result;
     }
 
     @Override
     public boolean deleteConsentDecision(final long decisionId, final String principal) {
         final boolean result = super.deleteConsentDecision(decisionId, principal);
-        writeAccountToJsonResource();
+        if (result) {
+            this.store.remove(String.valueOf(decisionId));
+        }
         return result;
     }
 
-    @SneakyThrows
-    private Set<ConsentDecision> readDecisionsFromJsonResource() {
-        if (ResourceUtils.doesResourceExist(jsonResource)) {
-            try (Reader reader = new InputStreamReader(jsonResource.getInputStream(), StandardCharsets.UTF_8)) {
-                final TypeReference<Set<ConsentDecision>> personList = new TypeReference<Set<ConsentDecision>>() {
-                };
-                return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
-            }
-        }
-        return new LinkedHashSet<>(0);
+    /**
+     * Close the store, which compacts pending changes into the JSON resource.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.store.close();
     }
 
     @SneakyThrows
-    private boolean writeAccountToJsonResource() {
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(this.jsonResource.getFile(), getConsentDecisions());
-        readDecisionsFromJsonResource();
-        return true;
+    private static Map<String, ConsentDecision> readDecisionsFromJsonFile(final File file) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final TypeReference<Set<ConsentDecision>> personList = new TypeReference<Set<ConsentDecision>>() {
+            };
+            final Set<ConsentDecision> decisions = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
+            return decisions.stream().collect(Collectors.toMap(d -> String.valueOf(d.getId()), Function.identity(), (d1, d2) -> d2));
+        }
     }
 }
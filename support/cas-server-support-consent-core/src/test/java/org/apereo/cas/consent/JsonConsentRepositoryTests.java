@@ -5,10 +5,13 @@ import org.apereo.cas.authentication.principal.Service;
 import org.apereo.cas.services.AbstractRegisteredService;
 import org.apereo.cas.services.RegisteredServiceTestUtils;
 import org.apereo.cas.util.CollectionUtils;
+import org.apereo.cas.util.io.JournaledJsonStore;
 import org.junit.AfterClass;
 import org.junit.Test;
 import org.springframework.core.io.FileSystemResource;
 
+import java.io.File;
+
 import static org.junit.Assert.*;
 
 /**
@@ -23,10 +26,11 @@ public class JsonConsentRepositoryTests {
     @AfterClass
     public static void shutdown() {
         JSON_FILE.getFile().delete();
+        new File(JSON_FILE.getPath() + JournaledJsonStore.JOURNAL_FILE_EXTENSION).delete();
     }
 
     @Test
-    public void verifyConsentDecisionStored() {
+    public void verifyConsentDecisionStored() throws Exception {
         final DefaultConsentDecisionBuilder builder = new DefaultConsentDecisionBuilder(CipherExecutor.noOpOfSerializableToString());
         final AbstractRegisteredService regSvc = RegisteredServiceTestUtils.getRegisteredService("test");
         final Service svc = RegisteredServiceTestUtils.getService();
@@ -39,5 +43,11 @@ public class JsonConsentRepositoryTests {
         assertTrue(repo.getConsentDecisions().size() == 1);
         final boolean b = repo.deleteConsentDecision(decision.getId(), "casuser");
         assertTrue(b);
+        assertTrue(repo.storeConsentDecision(decision));
+        repo.destroy();
+
+        final JsonConsentRepository reloaded = new JsonConsentRepository(JSON_FILE);
+        assertEquals(1, reloaded.getConsentDecisions().size());
+        reloaded.destroy();
     }
 }
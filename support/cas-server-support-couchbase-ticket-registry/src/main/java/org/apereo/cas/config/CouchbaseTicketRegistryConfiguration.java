@@ -7,10 +7,13 @@ import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.CouchbaseTicketRegistry;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.util.CoreTicketUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -35,6 +38,10 @@ public class CouchbaseTicketRegistryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("ticketRegistryCodec")
+    private TicketCodec ticketRegistryCodec;
+
     @RefreshScope
     @Bean
     public CouchbaseClientFactory ticketRegistryCouchbaseClientFactory() {
@@ -50,11 +57,17 @@ public class CouchbaseTicketRegistryConfiguration {
     @Autowired
     @RefreshScope
     @Bean
-    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
+    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog,
+                                         @Qualifier("ticketRegistryNearCacheInvalidationChannel")
+                                         final ObjectProvider<NearCacheInvalidationChannel> nearCacheInvalidationChannel) {
         final CouchbaseTicketRegistryProperties couchbase = casProperties.getTicket().getRegistry().getCouchbase();
         final CouchbaseTicketRegistry c = new CouchbaseTicketRegistry(ticketCatalog, ticketRegistryCouchbaseClientFactory());
         c.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(couchbase.getCrypto(), "couchbase"));
-        return c;
+        c.setTicketCodec(ticketRegistryCodec);
+        c.setCountCacheDuration(Beans.newDuration(casProperties.getTicket().getRegistry().getCountCacheDuration()));
+        final TicketRegistry registry = CoreTicketUtils.newNearCacheTicketRegistry(c, casProperties.getTicket().getRegistry().getNearCache(),
+            ticketCatalog, nearCacheInvalidationChannel.getIfAvailable(), ticketRegistryCodec);
+        return CoreTicketUtils.newTieredTicketRegistry(registry, casProperties.getTicket().getRegistry().getTiered(), ticketCatalog);
     }
 
     @Bean
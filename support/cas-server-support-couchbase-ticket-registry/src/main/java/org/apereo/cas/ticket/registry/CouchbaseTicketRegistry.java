@@ -13,10 +13,8 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.couchbase.core.CouchbaseClientFactory;
-import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
-import org.apereo.cas.ticket.TicketGrantingTicket;
 import org.apereo.cas.util.CollectionUtils;
 
 import javax.annotation.PreDestroy;
@@ -153,14 +151,17 @@ public class CouchbaseTicketRegistry extends AbstractTicketRegistry {
         return tickets;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are counted via the view, per prefix of the matching ticket definitions.</p>
+     */
     @Override
-    public long sessionCount() {
-        return runQuery(TicketGrantingTicket.PREFIX + '-');
-    }
-
-    @Override
-    public long serviceTicketCount() {
-        return runQuery(ServiceTicket.PREFIX + '-');
+    protected long countTickets(final Class<? extends Ticket> type) {
+        return this.ticketCatalog.findAll()
+            .stream()
+            .filter(t -> type.isAssignableFrom(t.getImplementationClass()))
+            .mapToLong(t -> runQuery(t.getPrefix() + '-'))
+            .sum();
     }
 
     @Override
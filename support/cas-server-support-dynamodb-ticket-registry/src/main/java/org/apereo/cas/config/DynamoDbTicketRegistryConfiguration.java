@@ -10,8 +10,11 @@ import org.apereo.cas.dynamodb.AmazonDynamoDbClientFactory;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.DynamoDbTicketRegistry;
 import org.apereo.cas.ticket.registry.DynamoDbTicketRegistryFacilitator;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.util.CoreTicketUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -32,14 +35,23 @@ public class DynamoDbTicketRegistryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("ticketRegistryCodec")
+    private TicketCodec ticketRegistryCodec;
+
     @Autowired
     @RefreshScope
     @Bean
-    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
+    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog,
+                                         @Qualifier("ticketRegistryNearCacheInvalidationChannel")
+                                         final ObjectProvider<NearCacheInvalidationChannel> nearCacheInvalidationChannel) {
         final DynamoDbTicketRegistryProperties db = casProperties.getTicket().getRegistry().getDynamoDb();
         final EncryptionRandomizedSigningJwtCryptographyProperties crypto = db.getCrypto();
-        return new DynamoDbTicketRegistry(CoreTicketUtils.newTicketRegistryCipherExecutor(crypto, "dynamoDb"),
+        final DynamoDbTicketRegistry registry = new DynamoDbTicketRegistry(CoreTicketUtils.newTicketRegistryCipherExecutor(crypto, "dynamoDb"),
             dynamoDbTicketRegistryFacilitator(ticketCatalog));
+        final TicketRegistry nearCache = CoreTicketUtils.newNearCacheTicketRegistry(registry, casProperties.getTicket().getRegistry().getNearCache(),
+            ticketCatalog, nearCacheInvalidationChannel.getIfAvailable(), ticketRegistryCodec);
+        return CoreTicketUtils.newTieredTicketRegistry(nearCache, casProperties.getTicket().getRegistry().getTiered(), ticketCatalog);
     }
 
     @Autowired
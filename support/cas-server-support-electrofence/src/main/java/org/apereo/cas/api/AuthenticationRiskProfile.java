@@ -0,0 +1,175 @@
+package org.apereo.cas.api;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.dao.CasEvent;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * This is {@link AuthenticationRiskProfile}. It holds the aggregated authentication history
+ * of a principal, i.e. how many times the principal has authenticated from a given ip address,
+ * user agent and geolocation, and at what hour of the day. Risk calculators score authentication
+ * requests against these aggregates instead of examining raw authentication events.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@ToString(of = {"principal", "createdAt", "totalEvents"})
+public class AuthenticationRiskProfile {
+    private static final int HOURS_PER_DAY = 24;
+
+    @Getter
+    private final String principal;
+
+    @Getter
+    private final ZonedDateTime createdAt;
+
+    private final LongAdder totalEvents = new LongAdder();
+
+    private final Map<String, LongAdder> clientIpAddresses = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> userAgents = new ConcurrentHashMap<>();
+
+    private final Map<GeoLocationRequest, LongAdder> geoLocations = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray hoursOfDay = new AtomicLongArray(HOURS_PER_DAY);
+
+    public AuthenticationRiskProfile(final String principal) {
+        this.principal = principal;
+        this.createdAt = ZonedDateTime.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * Build a profile from the given authentication events.
+     *
+     * @param principal the principal
+     * @param events    the events
+     * @return the profile
+     */
+    public static AuthenticationRiskProfile of(final String principal, final Collection<CasEvent> events) {
+        final AuthenticationRiskProfile profile = new AuthenticationRiskProfile(principal);
+        events.forEach(profile::record);
+        LOGGER.debug("Built authentication risk profile [{}] from [{}] events", profile, events.size());
+        return profile;
+    }
+
+    /**
+     * Record an authentication event in the profile.
+     *
+     * @param event the event
+     */
+    public void record(final CasEvent event) {
+        record(event.getClientIpAddress(), event.getAgent(), event.getGeoLocation(), event.getCreationTime());
+    }
+
+    /**
+     * Record an authentication attempt in the profile.
+     *
+     * @param clientIpAddress the client ip address
+     * @param userAgent       the user agent
+     * @param location        the geolocation, if any
+     * @param creationTime    the time of the authentication attempt
+     */
+    public void record(final String clientIpAddress, final String userAgent,
+                       final GeoLocationRequest location, final ZonedDateTime creationTime) {
+        this.totalEvents.increment();
+        increment(this.clientIpAddresses, normalize(clientIpAddress));
+        increment(this.userAgents, normalize(userAgent));
+        increment(this.geoLocations, toGeoLocationKey(location));
+        if (creationTime != null) {
+            this.hoursOfDay.incrementAndGet(creationTime.withZoneSameInstant(ZoneOffset.UTC).getHour());
+        }
+    }
+
+    public long getTotalEvents() {
+        return this.totalEvents.sum();
+    }
+
+    public boolean isEmpty() {
+        return getTotalEvents() == 0;
+    }
+
+    /**
+     * Number of authentication events recorded for the ip address, ignoring case.
+     *
+     * @param clientIpAddress the client ip address
+     * @return the count
+     */
+    public long getClientIpAddressCount(final String clientIpAddress) {
+        return count(this.clientIpAddresses, normalize(clientIpAddress));
+    }
+
+    /**
+     * Number of authentication events recorded for the user agent, ignoring case.
+     *
+     * @param userAgent the user agent
+     * @return the count
+     */
+    public long getUserAgentCount(final String userAgent) {
+        return count(this.userAgents, normalize(userAgent));
+    }
+
+    /**
+     * Number of authentication events recorded for the latitude and longitude of the geolocation.
+     *
+     * @param location the location
+     * @return the count
+     */
+    public long getGeoLocationCount(final GeoLocationRequest location) {
+        return count(this.geoLocations, toGeoLocationKey(location));
+    }
+
+    /**
+     * Number of authentication events recorded at hours of the day, in UTC, that match the filter.
+     *
+     * @param hourFilter the hour filter
+     * @return the count
+     */
+    public long getHourOfDayCount(final IntPredicate hourFilter) {
+        return IntStream.range(0, HOURS_PER_DAY)
+            .filter(hourFilter)
+            .mapToLong(this.hoursOfDay::get)
+            .sum();
+    }
+
+    private static <K> void increment(final Map<K, LongAdder> counts, final K key) {
+        if (key != null) {
+            counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    private static <K> long count(final Map<K, LongAdder> counts, final K key) {
+        if (key == null) {
+            return 0;
+        }
+        final LongAdder count = counts.get(key);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static GeoLocationRequest toGeoLocationKey(final GeoLocationRequest location) {
+        if (location == null || StringUtils.isBlank(location.getLatitude()) || StringUtils.isBlank(location.getLongitude())) {
+            return null;
+        }
+        final GeoLocationRequest key = new GeoLocationRequest();
+        key.setLatitude(location.getLatitude());
+        key.setLongitude(location.getLongitude());
+        return key;
+    }
+
+    private static String normalize(final String value) {
+        return StringUtils.isBlank(value) ? null : value.toLowerCase();
+    }
+}
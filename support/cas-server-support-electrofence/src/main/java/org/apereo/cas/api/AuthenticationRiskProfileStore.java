@@ -0,0 +1,35 @@
+package org.apereo.cas.api;
+
+import org.apereo.cas.ticket.TicketGrantingTicket;
+
+/**
+ * This is {@link AuthenticationRiskProfileStore}, which keeps track of the
+ * {@link AuthenticationRiskProfile} of each principal.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public interface AuthenticationRiskProfileStore {
+
+    /**
+     * Gets the risk profile of the principal, built from its recent authentication history.
+     *
+     * @param principal the principal
+     * @return the profile
+     */
+    AuthenticationRiskProfile getProfile(String principal);
+
+    /**
+     * Record the creation of a ticket-granting ticket in the profile of its principal.
+     *
+     * @param ticketGrantingTicket the ticket granting ticket
+     */
+    void record(TicketGrantingTicket ticketGrantingTicket);
+
+    /**
+     * Remove the profile of the principal, so it is rebuilt the next time it is requested.
+     *
+     * @param principal the principal
+     */
+    void invalidate(String principal);
+}
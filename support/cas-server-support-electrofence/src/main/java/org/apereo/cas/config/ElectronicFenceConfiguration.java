@@ -6,10 +6,12 @@ import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
 import org.apereo.cas.api.AuthenticationRiskContingencyPlan;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
 import org.apereo.cas.api.AuthenticationRiskMitigator;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
 import org.apereo.cas.api.AuthenticationRiskNotifier;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlan;
 import org.apereo.cas.audit.AuditTrailRecordResolutionPlanConfigurer;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.model.core.authentication.RiskBasedAuthenticationProperties;
 import org.apereo.cas.configuration.model.support.email.EmailProperties;
 import org.apereo.cas.configuration.model.support.sms.SmsProperties;
@@ -19,6 +21,7 @@ import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculator;
 import org.apereo.cas.impl.calcs.UserAgentAuthenticationRequestRiskCalculator;
 import org.apereo.cas.impl.engine.DefaultAuthenticationRiskEvaluator;
 import org.apereo.cas.impl.engine.DefaultAuthenticationRiskMitigator;
+import org.apereo.cas.impl.engine.DefaultAuthenticationRiskProfileStore;
 import org.apereo.cas.impl.notify.AuthenticationRiskEmailNotifier;
 import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifier;
 import org.apereo.cas.impl.plans.BaseAuthenticationRiskContingencyPlan;
@@ -138,6 +141,14 @@ public class ElectronicFenceConfiguration implements AuditTrailRecordResolutionP
         return new GeoLocationAuthenticationRequestRiskCalculator(this.casEventRepository);
     }
 
+    @ConditionalOnMissingBean(name = "authenticationRiskProfileStore")
+    @Bean
+    public AuthenticationRiskProfileStore authenticationRiskProfileStore() {
+        final RiskBasedAuthenticationProperties risk = casProperties.getAuthn().getAdaptive().getRisk();
+        return new DefaultAuthenticationRiskProfileStore(this.casEventRepository, risk.getDaysInRecentHistory(),
+            risk.getProfile().getMaximumSize(), Beans.newDuration(risk.getProfile().getExpireAfterWrite()));
+    }
+
     @ConditionalOnMissingBean(name = "authenticationRiskEvaluator")
     @Bean
     @RefreshScope
@@ -162,7 +173,7 @@ public class ElectronicFenceConfiguration implements AuditTrailRecordResolutionP
             LOGGER.warn("No risk calculators are defined to examine authentication requests");
         }
 
-        return new DefaultAuthenticationRiskEvaluator(calculators);
+        return new DefaultAuthenticationRiskEvaluator(calculators, authenticationRiskProfileStore());
     }
 
     private void configureContingencyPlan(final BaseAuthenticationRiskContingencyPlan b) {
@@ -2,6 +2,7 @@ package org.apereo.cas.impl.calcs;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
+import org.apereo.cas.api.AuthenticationRiskProfile;
 import org.apereo.cas.api.AuthenticationRiskScore;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.principal.Principal;
@@ -45,27 +46,35 @@ public abstract class BaseAuthenticationRequestRiskCalculator implements Authent
                                                    final HttpServletRequest request) {
         final Principal principal = authentication.getPrincipal();
         final Collection<CasEvent> events = getCasTicketGrantingTicketCreatedEventsFor(principal.getId());
-        if (events.isEmpty()) {
+        return calculate(authentication, service, request, AuthenticationRiskProfile.of(principal.getId(), events));
+    }
+
+    @Override
+    public final AuthenticationRiskScore calculate(final Authentication authentication,
+                                                   final RegisteredService service,
+                                                   final HttpServletRequest request,
+                                                   final AuthenticationRiskProfile profile) {
+        if (profile.isEmpty()) {
             return new AuthenticationRiskScore(HIGHEST_RISK_SCORE);
         }
-        final AuthenticationRiskScore score = new AuthenticationRiskScore(calculateScore(request, authentication, service, events));
+        final AuthenticationRiskScore score = new AuthenticationRiskScore(calculateScore(request, authentication, service, profile));
         LOGGER.debug("Calculated authentication risk score by [{}] is [{}]", getClass().getSimpleName(), score);
         return score;
     }
-    
+
     /**
      * Calculate score authentication risk score.
      *
      * @param request        the request
      * @param authentication the authentication
      * @param service        the service
-     * @param events         the events
+     * @param profile        the risk profile of the principal
      * @return the authentication risk score
      */
     protected BigDecimal calculateScore(final HttpServletRequest request,
                                     final Authentication authentication,
                                     final RegisteredService service,
-                                    final Collection<CasEvent> events) {
+                                    final AuthenticationRiskProfile profile) {
         return HIGHEST_RISK_SCORE;
     }
 
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.api.AuthenticationRequestRiskCalculator;
 import org.apereo.cas.api.AuthenticationRiskEvaluator;
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
 import org.apereo.cas.api.AuthenticationRiskScore;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.services.RegisteredService;
@@ -26,6 +28,11 @@ import java.util.Set;
 public class DefaultAuthenticationRiskEvaluator implements AuthenticationRiskEvaluator {
     private final Set<AuthenticationRequestRiskCalculator> calculators;
 
+    /**
+     * Store that provides the risk profile of the principal, which is shared by all calculators.
+     */
+    private final AuthenticationRiskProfileStore authenticationRiskProfileStore;
+
     @Override
     public Set<AuthenticationRequestRiskCalculator> getCalculators() {
         return calculators;
@@ -42,8 +49,9 @@ public class DefaultAuthenticationRiskEvaluator implements AuthenticationRiskEva
             return new AuthenticationRiskScore(AuthenticationRequestRiskCalculator.HIGHEST_RISK_SCORE);
         }
 
+        final AuthenticationRiskProfile profile = this.authenticationRiskProfileStore.getProfile(authentication.getPrincipal().getId());
         final List<AuthenticationRiskScore> scores = new ArrayList<>();
-        this.calculators.forEach(r -> scores.add(r.calculate(authentication, service, request)));
+        this.calculators.forEach(r -> scores.add(r.calculate(authentication, service, request, profile)));
         final BigDecimal sum = scores.stream().map(AuthenticationRiskScore::getScore).reduce(BigDecimal.ZERO, BigDecimal::add);
         final BigDecimal score = sum.divide(BigDecimal.valueOf(this.calculators.size()), 2, BigDecimal.ROUND_UP);
         return new AuthenticationRiskScore(score);
@@ -0,0 +1,108 @@
+package org.apereo.cas.impl.engine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.api.AuthenticationRiskProfileStore;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.web.support.WebUtils;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStore}. Profiles are built from the
+ * authentication events found in the event repository for the recent history, and are cached
+ * for a limited amount of time. Cached profiles are kept up to date as ticket-granting tickets
+ * are created, so the event repository is only queried once the profile is evicted.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class DefaultAuthenticationRiskProfileStore implements AuthenticationRiskProfileStore {
+    private final CasEventRepository casEventRepository;
+
+    private final long daysInRecentHistory;
+
+    private final Cache<String, AuthenticationRiskProfile> profiles;
+
+    public DefaultAuthenticationRiskProfileStore(final CasEventRepository casEventRepository, final long daysInRecentHistory,
+                                                 final long maximumSize, final Duration expireAfterWrite) {
+        this.casEventRepository = casEventRepository;
+        this.daysInRecentHistory = daysInRecentHistory;
+        this.profiles = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .build();
+    }
+
+    @Override
+    public AuthenticationRiskProfile getProfile(final String principal) {
+        return this.profiles.get(principal, this::loadProfile);
+    }
+
+    @Override
+    public void record(final TicketGrantingTicket ticketGrantingTicket) {
+        final String principal = ticketGrantingTicket.getAuthentication().getPrincipal().getId();
+        final AuthenticationRiskProfile profile = this.profiles.getIfPresent(principal);
+        if (profile == null) {
+            LOGGER.trace("No authentication risk profile is cached for [{}]", principal);
+            return;
+        }
+        final ZonedDateTime creationTime = ticketGrantingTicket.getCreationTime();
+        if (creationTime != null && creationTime.isBefore(profile.getCreatedAt())) {
+            LOGGER.trace("Ticket-granting ticket [{}] predates the risk profile of [{}] and is already accounted for",
+                ticketGrantingTicket.getId(), principal);
+            return;
+        }
+        final ClientInfo clientInfo = ClientInfoHolder.getClientInfo();
+        profile.record(clientInfo != null ? clientInfo.getClientIpAddress() : null,
+            WebUtils.getHttpServletRequestUserAgentFromRequestContext(),
+            WebUtils.getHttpServletRequestGeoLocationFromRequestContext(),
+            creationTime);
+        LOGGER.debug("Updated authentication risk profile [{}]", profile);
+    }
+
+    @Override
+    public void invalidate(final String principal) {
+        this.profiles.invalidate(principal);
+    }
+
+    /**
+     * Handle TGT creation event.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleCasTicketGrantingTicketCreatedEvent(final CasTicketGrantingTicketCreatedEvent event) {
+        try {
+            record(event.getTicketGrantingTicket());
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to update authentication risk profile: [{}]", e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load the profile of the principal from the event repository.
+     *
+     * @param principal the principal
+     * @return the profile
+     */
+    protected AuthenticationRiskProfile loadProfile(final String principal) {
+        final String type = CasTicketGrantingTicketCreatedEvent.class.getName();
+        LOGGER.debug("Retrieving events of type [{}] for [{}]", type, principal);
+        final ZonedDateTime date = ZonedDateTime.now().minusDays(this.daysInRecentHistory);
+        final Collection<CasEvent> events = this.casEventRepository.getEventsOfTypeForPrincipal(type, principal, date);
+        return AuthenticationRiskProfile.of(principal, events);
+    }
+}
@@ -5,6 +5,7 @@ import org.apereo.cas.impl.calcs.DateTimeAuthenticationRequestRiskCalculatorTest
 import org.apereo.cas.impl.calcs.GeoLocationAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.IpAddressAuthenticationRequestRiskCalculatorTests;
 import org.apereo.cas.impl.calcs.UserAgentAuthenticationRequestRiskCalculatorTests;
+import org.apereo.cas.impl.engine.DefaultAuthenticationRiskProfileStoreTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskEmailNotifierTests;
 import org.apereo.cas.impl.notify.AuthenticationRiskSmsNotifierTests;
 import org.junit.runner.RunWith;
@@ -23,7 +24,8 @@ import org.junit.runners.Suite;
     IpAddressAuthenticationRequestRiskCalculatorTests.class,
     UserAgentAuthenticationRequestRiskCalculatorTests.class,
     AuthenticationRiskEmailNotifierTests.class,
-    AuthenticationRiskSmsNotifierTests.class
+    AuthenticationRiskSmsNotifierTests.class,
+    DefaultAuthenticationRiskProfileStoreTests.class
 })
 @Slf4j
 public class AllTestsSuite {
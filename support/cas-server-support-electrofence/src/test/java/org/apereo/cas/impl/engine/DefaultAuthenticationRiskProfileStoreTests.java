@@ -0,0 +1,100 @@
+package org.apereo.cas.impl.engine;
+
+import org.apereo.cas.api.AuthenticationRiskProfile;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
+import org.apereo.cas.authentication.adaptive.geo.GeoLocationRequest;
+import org.apereo.cas.support.events.CasEventRepository;
+import org.apereo.cas.support.events.dao.CasEvent;
+import org.apereo.cas.support.events.ticket.CasTicketGrantingTicketCreatedEvent;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.util.CollectionUtils;
+import org.apereo.inspektr.common.web.ClientInfo;
+import org.apereo.inspektr.common.web.ClientInfoHolder;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link DefaultAuthenticationRiskProfileStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class DefaultAuthenticationRiskProfileStoreTests {
+
+    @After
+    public void tearDown() {
+        ClientInfoHolder.clear();
+    }
+
+    private static CasEvent newEvent(final String ip, final String agent, final String latitude, final String longitude) {
+        final CasEvent event = new CasEvent();
+        event.setType(CasTicketGrantingTicketCreatedEvent.class.getName());
+        event.setPrincipalId("casuser");
+        event.setCreationTime(ZonedDateTime.now(ZoneOffset.UTC).withHour(10).toString());
+        event.putClientIpAddress(ip);
+        event.putAgent(agent);
+        final GeoLocationRequest location = new GeoLocationRequest();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setAccuracy("50");
+        location.setTimestamp("1");
+        event.putGeoLocation(location);
+        return event;
+    }
+
+    @Test
+    public void verifyProfileAggregatesEvents() {
+        final AuthenticationRiskProfile profile = AuthenticationRiskProfile.of("casuser", CollectionUtils.wrapList(
+            newEvent("1.2.3.4", "Firefox", "40.71", "-74.005"),
+            newEvent("1.2.3.4", "firefox", "48.85", "2.35"),
+            newEvent("5.6.7.8", "Chrome", "40.71", "-74.005")));
+
+        assertEquals(3, profile.getTotalEvents());
+        assertEquals(2, profile.getClientIpAddressCount("1.2.3.4"));
+        assertEquals(0, profile.getClientIpAddressCount("9.9.9.9"));
+        assertEquals(2, profile.getUserAgentCount("FIREFOX"));
+        assertEquals(2, profile.getGeoLocationCount(newEvent(null, null, "40.71", "-74.005").getGeoLocation()));
+        assertEquals(3, profile.getHourOfDayCount(hour -> hour == 10));
+        assertEquals(0, profile.getHourOfDayCount(hour -> hour != 10));
+    }
+
+    @Test
+    public void verifyHistoryIsFetchedOnceAndUpdatedIncrementally() throws Exception {
+        final CasEventRepository repository = mock(CasEventRepository.class);
+        when(repository.getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class)))
+            .thenReturn(CollectionUtils.wrapList(newEvent("1.2.3.4", "Firefox", "40.71", "-74.005")));
+        final DefaultAuthenticationRiskProfileStore store =
+            new DefaultAuthenticationRiskProfileStore(repository, 30, 100, Duration.ofMinutes(5));
+
+        final AuthenticationRiskProfile profile = store.getProfile("casuser");
+        assertSame(profile, store.getProfile("casuser"));
+        verify(repository, times(1)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("5.6.7.8");
+        request.setLocalAddr("127.0.0.1");
+        ClientInfoHolder.setClientInfo(new ClientInfo(request));
+
+        Thread.sleep(10);
+        final TicketGrantingTicket tgt = mock(TicketGrantingTicket.class);
+        when(tgt.getId()).thenReturn("TGT-1");
+        when(tgt.getAuthentication()).thenReturn(CoreAuthenticationTestUtils.getAuthentication("casuser"));
+        when(tgt.getCreationTime()).thenReturn(ZonedDateTime.now(ZoneOffset.UTC));
+        store.handleCasTicketGrantingTicketCreatedEvent(new CasTicketGrantingTicketCreatedEvent(this, tgt));
+
+        assertEquals(2, profile.getTotalEvents());
+        assertEquals(1, profile.getClientIpAddressCount("5.6.7.8"));
+
+        store.invalidate("casuser");
+        assertNotSame(profile, store.getProfile("casuser"));
+        verify(repository, times(2)).getEventsOfTypeForPrincipal(anyString(), eq("casuser"), any(ZonedDateTime.class));
+    }
+}
@@ -6,6 +6,7 @@ import org.apereo.cas.authentication.OneTimeToken;
 
 import javax.persistence.Entity;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
 /**
  * This is {@link GoogleAuthenticatorToken}.
@@ -14,7 +15,7 @@ import javax.persistence.Table;
  * @since 5.1.0
  */
 @Entity
-@Table(name = "GoogleAuthenticatorToken")
+@Table(name = "GoogleAuthenticatorToken", uniqueConstraints = @UniqueConstraint(columnNames = {"userId", "token"}))
 @Slf4j
 @NoArgsConstructor
 public class GoogleAuthenticatorToken extends OneTimeToken {
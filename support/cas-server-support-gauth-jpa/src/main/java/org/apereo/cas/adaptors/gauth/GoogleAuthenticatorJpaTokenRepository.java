@@ -5,11 +5,16 @@ import org.apereo.cas.adaptors.gauth.token.GoogleAuthenticatorToken;
 import org.apereo.cas.authentication.OneTimeToken;
 import org.apereo.cas.otp.repository.token.BaseOneTimeTokenRepository;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.PersistenceUnit;
 import java.time.LocalDateTime;
 
 /**
@@ -27,6 +32,9 @@ public class GoogleAuthenticatorJpaTokenRepository extends BaseOneTimeTokenRepos
     @PersistenceContext(unitName = "googleAuthenticatorEntityManagerFactory")
     private transient EntityManager entityManager;
 
+    @PersistenceUnit(unitName = "googleAuthenticatorEntityManagerFactory")
+    private transient EntityManagerFactory entityManagerFactory;
+
     private final long expireTokensInSeconds;
 
     public GoogleAuthenticatorJpaTokenRepository(final long expireTokensInSeconds) {
@@ -36,7 +44,7 @@ public class GoogleAuthenticatorJpaTokenRepository extends BaseOneTimeTokenRepos
     @Override
     public void cleanInternal() {
         final int count = this.entityManager.createQuery("DELETE FROM " + GoogleAuthenticatorToken.class.getSimpleName()
-            + " r where r.issuedDateTime>= :expired")
+            + " r where r.issuedDateTime < :expired")
             .setParameter("expired", LocalDateTime.now().minusSeconds(this.expireTokensInSeconds))
             .executeUpdate();
         LOGGER.debug("Deleted [{}] expired previously used token record(s)", count);
@@ -47,6 +55,34 @@ public class GoogleAuthenticatorJpaTokenRepository extends BaseOneTimeTokenRepos
         this.entityManager.merge(token);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tokens are inserted in a transaction of their own, where the unique constraint on the user and the token
+     * rejects tokens that were used already. A failed insert would otherwise mark the surrounding transaction
+     * for rollback. Tokens are always inserted with a generated identifier, and never update another record.</p>
+     */
+    @Override
+    @Transactional(transactionManager = "transactionManagerGoogleAuthenticator", propagation = Propagation.NOT_SUPPORTED)
+    public boolean storeIfAbsent(final OneTimeToken token) {
+        final EntityManager em = this.entityManagerFactory.createEntityManager();
+        final EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            token.setId(0);
+            em.persist(token);
+            transaction.commit();
+            return true;
+        } catch (final PersistenceException e) {
+            LOGGER.debug("Token [{}] cannot be recorded for [{}] and may have been used previously: [{}]", token.getToken(), token.getUserId(), e.getMessage());
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public GoogleAuthenticatorToken get(final String uid, final Integer otp) {
         try {
@@ -9,6 +9,7 @@ import org.apereo.cas.adaptors.gauth.repository.credentials.GoogleAuthenticatorA
 import org.apereo.cas.adaptors.gauth.token.GoogleAuthenticatorToken;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.jpa.JpaConfigDataHolder;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
 import org.apereo.cas.configuration.support.JpaBeans;
 import org.apereo.cas.otp.repository.credentials.OneTimeTokenCredentialRepository;
 import org.apereo.cas.otp.repository.token.OneTimeTokenRepository;
@@ -103,9 +104,8 @@ public class GoogleAuthenticatorJpaConfiguration {
     @ConditionalOnMissingBean(name = "oneTimeTokenAuthenticatorTokenRepository")
     @Bean
     public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
-        return new GoogleAuthenticatorJpaTokenRepository(
-            casProperties.getAuthn().getMfa().getGauth().getTimeStepSize()
-        );
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        return new GoogleAuthenticatorJpaTokenRepository(gauth.getTimeStepSize() * gauth.getWindowSize());
     }
 
 }
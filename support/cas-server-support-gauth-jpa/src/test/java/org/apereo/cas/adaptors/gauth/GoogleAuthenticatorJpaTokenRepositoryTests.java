@@ -85,4 +85,12 @@ public class GoogleAuthenticatorJpaTokenRepositoryTests {
         repository.store(token);
         assertTrue(repository.exists("casuser", 1234));
     }
+
+    @Test
+    public void verifyTokenIsRecordedOnce() {
+        assertTrue(repository.storeIfAbsent(new GoogleAuthenticatorToken(4321, "casuser")));
+        assertFalse(repository.storeIfAbsent(new GoogleAuthenticatorToken(4321, "casuser")));
+        assertTrue(repository.storeIfAbsent(new GoogleAuthenticatorToken(4321, "otheruser")));
+        assertTrue(repository.exists("otheruser", 4321));
+    }
 }
@@ -1,40 +1,79 @@
 package org.apereo.cas.adaptors.gauth;
 
-import lombok.AllArgsConstructor;
+import com.mongodb.WriteResult;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.adaptors.gauth.token.GoogleAuthenticatorToken;
 import org.apereo.cas.authentication.OneTimeToken;
 import org.apereo.cas.otp.repository.token.BaseOneTimeTokenRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import javax.persistence.NoResultException;
 import java.time.LocalDateTime;
 
 /**
  * This is {@link GoogleAuthenticatorMongoDbTokenRepository}.
+ * <p>
+ * The token collection carries a unique index on the user and the token, which is created at startup
+ * and rejects tokens that were used already.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Slf4j
-@AllArgsConstructor
 public class GoogleAuthenticatorMongoDbTokenRepository extends BaseOneTimeTokenRepository {
     private final MongoOperations mongoTemplate;
     private final String collectionName;
     private final long expireTokensInSeconds;
 
+    public GoogleAuthenticatorMongoDbTokenRepository(final MongoOperations mongoTemplate, final String collectionName,
+                                                     final long expireTokensInSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.collectionName = collectionName;
+        this.expireTokensInSeconds = expireTokensInSeconds;
+        this.mongoTemplate.indexOps(this.collectionName).ensureIndex(new Index()
+            .on("userId", Sort.Direction.ASC)
+            .on("token", Sort.Direction.ASC)
+            .unique());
+    }
+
     @Override
     public void store(final OneTimeToken token) {
         this.mongoTemplate.save(token, this.collectionName);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tokens are recorded via an upsert on the user and the token that only sets fields on insert,
+     * so a token that was used already is left untouched. The identifier of the record is generated by MongoDb.</p>
+     */
+    @Override
+    public boolean storeIfAbsent(final OneTimeToken token) {
+        try {
+            final Update update = new Update().setOnInsert("issuedDateTime", token.getIssuedDateTime());
+            final WriteResult result = this.mongoTemplate.upsert(getTokenQuery(token.getUserId(), token.getToken()),
+                update, GoogleAuthenticatorToken.class, this.collectionName);
+            if (result.getUpsertedId() != null) {
+                return true;
+            }
+        } catch (final DuplicateKeyException e) {
+            LOGGER.trace("Token [{}] was recorded concurrently for [{}]", token.getToken(), token.getUserId());
+        }
+        LOGGER.debug("Token [{}] was used previously by [{}]", token.getToken(), token.getUserId());
+        return false;
+    }
+
     @Override
     public GoogleAuthenticatorToken get(final String uid, final Integer otp) {
         try {
-            final Query query = new Query();
-            query.addCriteria(Criteria.where("userId").is(uid).and("token").is(otp));
+            final Query query = getTokenQuery(uid, otp);
+            // identifiers generated by MongoDb for tokens recorded via storeIfAbsent are not numeric
+            query.fields().exclude("_id");
             final GoogleAuthenticatorToken r = this.mongoTemplate.findOne(query, GoogleAuthenticatorToken.class, this.collectionName);
             return r;
         } catch (final NoResultException e) {
@@ -47,10 +86,14 @@ public class GoogleAuthenticatorMongoDbTokenRepository extends BaseOneTimeTokenR
     protected void cleanInternal() {
         try {
             final Query query = new Query();
-            query.addCriteria(Criteria.where("issuedDateTime").gte(LocalDateTime.now().minusSeconds(this.expireTokensInSeconds)));
+            query.addCriteria(Criteria.where("issuedDateTime").lt(LocalDateTime.now().minusSeconds(this.expireTokensInSeconds)));
             this.mongoTemplate.remove(query, GoogleAuthenticatorToken.class, this.collectionName);
         } catch (final Exception e) {
             LOGGER.warn(e.getMessage(), e);
         }
     }
+
+    private static Query getTokenQuery(final String uid, final Integer otp) {
+        return new Query(Criteria.where("userId").is(uid).and("token").is(otp));
+    }
 }
@@ -71,9 +71,9 @@ public class GoogleAuthenticatorMongoDbConfiguration {
 
     @Bean
     public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
-        final GAuthMultifactorProperties.MongoDb mongo = casProperties.getAuthn().getMfa().getGauth().getMongo();
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
         return new GoogleAuthenticatorMongoDbTokenRepository(mongoDbGoogleAuthenticatorTemplate(),
-            mongo.getTokenCollection(),
-            casProperties.getAuthn().getMfa().getGauth().getTimeStepSize());
+            gauth.getMongo().getTokenCollection(),
+            gauth.getTimeStepSize() * gauth.getWindowSize());
     }
 }
@@ -46,6 +46,7 @@ import org.springframework.test.context.junit4.rules.SpringMethodRule;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.annotation.PostConstruct;
+import java.util.UUID;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -127,6 +128,21 @@ public class GoogleAuthenticatorMongoDbTokenRepositoryTests {
         assertTrue(t1.getToken() == 1111);
     }
 
+    @Test
+    public void verifyTokenIsRecordedOnce() {
+        final String uid = UUID.randomUUID().toString();
+        assertTrue(repository.storeIfAbsent(new GoogleAuthenticatorToken(4321, uid)));
+        assertFalse(repository.storeIfAbsent(new GoogleAuthenticatorToken(4321, uid)));
+        assertTrue(repository.exists(uid, 4321));
+
+        final OneTimeToken first = new GoogleAuthenticatorToken(2468, uid);
+        final OneTimeToken second = new GoogleAuthenticatorToken(1357, uid);
+        second.setId(first.getId());
+        assertTrue(repository.storeIfAbsent(first));
+        assertTrue(repository.storeIfAbsent(second));
+        assertTrue(repository.exists(uid, 1357));
+    }
+
     @TestConfiguration
     public static class MongoTestConfiguration {
         @Autowired
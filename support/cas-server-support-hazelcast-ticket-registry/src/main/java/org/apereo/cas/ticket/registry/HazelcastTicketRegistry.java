@@ -2,19 +2,29 @@ package org.apereo.cas.ticket.registry;
 
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
-import lombok.AllArgsConstructor;
+import com.hazelcast.core.MultiMap;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.QueryConstants;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
 
 import javax.annotation.PreDestroy;
 import java.io.Closeable;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Hazelcast-based implementation of a {@link TicketRegistry}.
@@ -28,12 +38,23 @@ import java.util.stream.Collectors;
  * @since 4.1.0
  */
 @Slf4j
-@AllArgsConstructor
 public class HazelcastTicketRegistry extends AbstractTicketRegistry implements Closeable {
+    /**
+     * Name of the distributed map that indexes ticket-granting ticket ids by principal.
+     */
+    public static final String PRINCIPAL_SESSIONS_MAP_NAME = "principalSessionsCache";
+
     private final HazelcastInstance hazelcastInstance;
     private final TicketCatalog ticketCatalog;
     private final long pageSize;
 
+    public HazelcastTicketRegistry(final HazelcastInstance hazelcastInstance, final TicketCatalog ticketCatalog, final long pageSize) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.ticketCatalog = ticketCatalog;
+        this.pageSize = pageSize;
+        registerSessionEvictionListeners();
+    }
+
     @Override
     public Ticket updateTicket(final Ticket ticket) {
         addTicket(ticket);
@@ -55,6 +76,61 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
 
         ticketMap.set(encTicket.getId(), encTicket, ttl, TimeUnit.SECONDS);
         LOGGER.debug("Added ticket [{}] with ttl [{}s]", encTicket.getId(), ttl);
+
+        final String principal = getPrincipalIndexKey(ticket);
+        if (principal != null) {
+            getPrincipalSessionsMapInstance().put(principal, ticket.getId());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Sessions are indexed in a distributed multi-map keyed by principal. Entries are removed
+     * once their tickets are deleted or evicted from the ticket maps, and entries whose tickets
+     * are no longer found are pruned as the index is read.</p>
+     */
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        final String principal = getPrincipalIndexKey(principalId);
+        final MultiMap<String, String> sessions = getPrincipalSessionsMapInstance();
+        return new ArrayList<>(sessions.get(principal))
+            .stream()
+            .map(ticketId -> {
+                final Ticket ticket = getTicket(ticketId);
+                if (ticket == null) {
+                    LOGGER.trace("Ticket [{}] is no longer found in the registry and is removed from the principal index", ticketId);
+                    sessions.remove(principal, ticketId);
+                }
+                return ticket;
+            })
+            .filter(TicketGrantingTicket.class::isInstance)
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+    /**
+     * Multi-maps do not support expiration, so ticket-granting tickets that expire or are evicted
+     * from their maps are removed from the principal index as well. Listeners are local, so that the
+     * member that owns an evicted entry is the only one that updates the index.
+     */
+    private void registerSessionEvictionListeners() {
+        this.ticketCatalog.findAll()
+            .stream()
+            .filter(metadata -> TicketGrantingTicket.class.isAssignableFrom(metadata.getImplementationClass()))
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .forEach(map -> map.addLocalEntryListener((EntryEvictedListener<String, Ticket>) event -> {
+                final Ticket value = event.getOldValue() != null ? event.getOldValue() : event.getValue();
+                final Ticket evicted = value == null ? null : decodeTicket(value);
+                final String principal = getPrincipalIndexKey(evicted);
+                if (principal != null) {
+                    LOGGER.trace("Ticket [{}] is evicted and is removed from the principal index", evicted.getId());
+                    getPrincipalSessionsMapInstance().remove(principal, evicted.getId());
+                }
+            }));
+    }
+
+    private MultiMap<String, String> getPrincipalSessionsMapInstance() {
+        return this.hazelcastInstance.getMultiMap(PRINCIPAL_SESSIONS_MAP_NAME);
     }
 
     private IMap<String, Ticket> getTicketMapInstanceByMetadata(final TicketDefinition metadata) {
@@ -90,11 +166,19 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         final String encTicketId = encodeTicketId(ticketIdToDelete);
         final TicketDefinition metadata = this.ticketCatalog.find(ticketIdToDelete);
         final IMap<String, Ticket> map = getTicketMapInstanceByMetadata(metadata);
-        return map.remove(encTicketId) != null;
+        final Ticket removed = map.remove(encTicketId);
+        if (removed != null && TicketGrantingTicket.class.isAssignableFrom(metadata.getImplementationClass())) {
+            final String principal = getPrincipalIndexKey(decodeTicket(removed));
+            if (principal != null) {
+                getPrincipalSessionsMapInstance().remove(principal, ticketIdToDelete);
+            }
+        }
+        return removed != null;
     }
 
     @Override
     public long deleteAll() {
+        getPrincipalSessionsMapInstance().clear();
         return this.ticketCatalog.findAll().stream()
             .map(this::getTicketMapInstanceByMetadata)
             .filter(Objects::nonNull)
@@ -122,6 +206,60 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
             .collect(Collectors.toSet());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Only the maps of the ticket definitions that match the query type are read.</p>
+     */
+    @Override
+    public Stream<Ticket> streamTickets(final TicketQuery query) {
+        return this.ticketCatalog.findAll()
+            .stream()
+            .filter(query::matches)
+            .map(this::getTicketMapInstanceByMetadata)
+            .filter(Objects::nonNull)
+            .flatMap(map -> map.values().stream())
+            .map(this::decodeTicket)
+            .filter(Objects::nonNull)
+            .filter(query::matches);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Pages are read from the maps of the matching ticket definitions via paging predicates
+     * that are sorted by key, so that members only return the entries of the requested page.
+     * Unfiltered count-only queries are answered by the size of the maps.</p>
+     */
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        return queryTicketsInPages(query, this.ticketCatalog.findAll(), Ticket::getId, this::decodeTicket,
+            (metadata, lastId, size) -> {
+                final Comparator<Map.Entry<String, Ticket>> comparator = new TicketIdComparator();
+                final PagingPredicate<String, Ticket> predicate = lastId == null
+                    ? new PagingPredicate<>(comparator, size)
+                    : new PagingPredicate<>(Predicates.greaterThan(QueryConstants.KEY_ATTRIBUTE_NAME.value(), lastId), comparator, size);
+                return new ArrayList<>(getTicketMapInstanceByMetadata(metadata).values(predicate));
+            },
+            this::countTickets);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are counted by the size of the maps of the matching ticket definitions,
+     * which is calculated by the members that own the entries.</p>
+     */
+    @Override
+    protected long countTickets(final Class<? extends Ticket> type) {
+        return this.ticketCatalog.findAll()
+            .stream()
+            .filter(metadata -> type.isAssignableFrom(metadata.getImplementationClass()))
+            .mapToLong(this::countTickets)
+            .sum();
+    }
+
+    private long countTickets(final TicketDefinition metadata) {
+        return getTicketMapInstanceByMetadata(metadata).size();
+    }
+
     /**
      * Make sure we shutdown HazelCast when the context is destroyed.
      */
@@ -150,4 +288,17 @@ public class HazelcastTicketRegistry extends AbstractTicketRegistry implements C
         }
         return null;
     }
+
+    /**
+     * Orders map entries by key. Paging predicates are evaluated by cluster members,
+     * which is why the comparator must be serializable.
+     */
+    private static class TicketIdComparator implements Comparator<Map.Entry<String, Ticket>>, Serializable {
+        private static final long serialVersionUID = -3214853405316235245L;
+
+        @Override
+        public int compare(final Map.Entry<String, Ticket> first, final Map.Entry<String, Ticket> second) {
+            return first.getKey().compareTo(second.getKey());
+        }
+    }
 }
@@ -2,8 +2,14 @@ package org.apereo.cas.ticket.registry;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MultiMap;
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationMetadataConfiguration;
@@ -24,6 +30,12 @@ import org.apereo.cas.config.HazelcastTicketRegistryConfiguration;
 import org.apereo.cas.config.HazelcastTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +44,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.TestPropertySource;
 
+import static org.junit.Assert.*;
+
 /**
  * Unit tests for {@link HazelcastTicketRegistry}.
  *
@@ -71,6 +85,10 @@ public class HazelcastTicketRegistryTests extends BaseSpringRunnableTicketRegist
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @Autowired
+    @Qualifier("ticketCatalog")
+    private TicketCatalog ticketCatalog;
+
     public HazelcastTicketRegistryTests(final boolean useEncryption) {
         super(useEncryption);
     }
@@ -84,4 +102,24 @@ public class HazelcastTicketRegistryTests extends BaseSpringRunnableTicketRegist
     public TicketRegistry getNewTicketRegistry() {
         return ticketRegistry;
     }
+
+    @Test
+    public void verifyEvictedSessionsAreRemovedFromPrincipalIndex() throws Exception {
+        final TicketGrantingTicket tgt = new TicketGrantingTicketImpl(TicketGrantingTicket.PREFIX + "-EVICTED",
+            CoreAuthenticationTestUtils.getAuthentication("evicteduser"), new NeverExpiresExpirationPolicy());
+        ticketRegistry.addTicket(tgt);
+
+        final HazelcastInstance instance = Hazelcast.getHazelcastInstanceByName("testlocalhostinstance");
+        final MultiMap<String, String> sessions = instance.getMultiMap(HazelcastTicketRegistry.PRINCIPAL_SESSIONS_MAP_NAME);
+        assertEquals(1, sessions.valueCount("evicteduser"));
+
+        final IMap<String, Ticket> map = instance.getMap(ticketCatalog.find(tgt).getProperties().getStorageName());
+        map.keySet().forEach(map::evict);
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (sessions.valueCount("evicteduser") > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, sessions.valueCount("evicteduser"));
+    }
 }
@@ -115,6 +115,7 @@ public class IgniteTicketRegistryConfiguration {
         final IgniteConfiguration igniteConfiguration = igniteConfiguration(ticketCatalog);
         final IgniteTicketRegistry r = new IgniteTicketRegistry(ticketCatalog, igniteConfiguration, igniteProperties);
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(igniteProperties.getCrypto(), "ignite"));
+        r.setCountCacheDuration(Beans.newDuration(casProperties.getTicket().getRegistry().getCountCacheDuration()));
         r.initialize();
         return r;
     }
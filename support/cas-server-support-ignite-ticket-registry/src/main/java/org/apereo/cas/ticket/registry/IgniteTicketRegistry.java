@@ -130,6 +130,19 @@ public class IgniteTicketRegistry extends AbstractTicketRegistry {
         return ticket;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are counted by the size of the caches of the matching ticket definitions.</p>
+     */
+    @Override
+    protected long countTickets(final Class<? extends Ticket> type) {
+        return this.ticketCatalog.findAll().stream()
+            .filter(metadata -> type.isAssignableFrom(metadata.getImplementationClass()))
+            .map(this::getIgniteCacheFromMetadata)
+            .mapToLong(cache -> cache.size())
+            .sum();
+    }
+
     /**
      * Make sure we shutdown Ignite when the context is destroyed.
      */
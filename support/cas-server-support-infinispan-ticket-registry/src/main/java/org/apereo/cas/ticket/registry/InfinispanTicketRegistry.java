@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.ticket.Ticket;
 import org.infinispan.Cache;
+import org.infinispan.util.function.SerializablePredicate;
 
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
@@ -66,6 +67,21 @@ public class InfinispanTicketRegistry extends AbstractTicketRegistry {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets of all types share a single cache, so tickets are counted by a distributed stream
+     * whose filter runs on the nodes that own the entries, and only the counts are sent back.
+     * Encoded tickets do not reveal their type and are counted by fetching them instead.</p>
+     */
+    @Override
+    protected long countTickets(final Class<? extends Ticket> type) {
+        if (isTicketEncodingEnabled()) {
+            return super.countTickets(type);
+        }
+        final SerializablePredicate<Ticket> predicate = type::isInstance;
+        return this.cache.values().stream().filter(predicate).count();
+    }
+
     @Override
     public long deleteAll() {
         final int size = this.cache.size();
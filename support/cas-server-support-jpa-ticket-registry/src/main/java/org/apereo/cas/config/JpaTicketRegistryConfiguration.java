@@ -12,6 +12,7 @@ import org.apereo.cas.configuration.support.JpaBeans;
 import org.apereo.cas.ticket.AbstractTicket;
 import org.apereo.cas.ticket.TicketCatalog;
 import org.apereo.cas.ticket.registry.JpaTicketRegistry;
+import org.apereo.cas.ticket.registry.JpaTicketRegistryPrincipalIdMigration;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.support.JpaLockingStrategy;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
@@ -33,6 +34,7 @@ import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
@@ -101,9 +103,19 @@ public class JpaTicketRegistryConfiguration {
         final JpaTicketRegistryProperties jpa = casProperties.getTicket().getRegistry().getJpa();
         final JpaTicketRegistry bean = new JpaTicketRegistry(jpa.getTicketLockType(), ticketCatalog);
         bean.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(jpa.getCrypto(), "jpa"));
+        bean.setCountCacheDuration(Beans.newDuration(casProperties.getTicket().getRegistry().getCountCacheDuration()));
         return bean;
     }
 
+    @Autowired
+    @Bean
+    public JpaTicketRegistryPrincipalIdMigration jpaTicketRegistryPrincipalIdMigration(
+        @Qualifier("ticketCatalog") final TicketCatalog ticketCatalog,
+        @Qualifier("ticketTransactionManager") final PlatformTransactionManager ticketTransactionManager) {
+        return new JpaTicketRegistryPrincipalIdMigration(ticketCatalog, new TransactionTemplate(ticketTransactionManager),
+            JpaTicketRegistryPrincipalIdMigration.DEFAULT_PAGE_SIZE);
+    }
+
     @Bean
     public LockingStrategy lockingStrategy() {
         final TicketRegistryProperties registry = casProperties.getTicket().getRegistry();
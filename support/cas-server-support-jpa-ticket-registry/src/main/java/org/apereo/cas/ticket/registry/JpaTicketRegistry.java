@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketCatalog;
@@ -16,8 +17,12 @@ import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -126,20 +131,114 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
             .flatMap(org.hibernate.query.Query::stream);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Only tickets whose projected expiration time has passed, or that were stored before the time
+     * was recorded, are loaded from the database. Tickets are loaded page by page, ordered by id, so that
+     * rows are neither locked nor held by an open cursor while expired tickets are being removed, and the
+     * persistence context is cleared before each subsequent page so that loaded tickets do not accumulate.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return getQueryTicketDefinitions(TicketQuery.builder().build())
+            .stream()
+            .flatMap(t -> streamInPages(batchSize, Ticket::getId, lastId -> getExpirationCandidatesAfter(t, lastId, batchSize)))
+            .filter(Ticket::isExpired);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the ticket entities that match the query type are read, and tickets that are marked
+     * as expired are left out by the database when expired tickets are not requested.</p>
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Ticket> streamTickets(final TicketQuery query) {
+        return getQueryTicketDefinitions(query)
+            .stream()
+            .map(t -> {
+                final String sql = String.format("select t from %s t%s", getTicketEntityName(t), getExpirationClause(query));
+                final org.hibernate.query.Query<Ticket> q = (org.hibernate.query.Query<Ticket>) entityManager.createQuery(sql, t.getImplementationClass());
+                q.setFetchSize(STREAM_BATCH_SIZE);
+                q.setLockOptions(LockOptions.NONE);
+                return q;
+            })
+            .flatMap(org.hibernate.query.Query::stream)
+            .filter(query::matches);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Pages are read with keyset queries ordered by ticket id, and unfiltered
+     * count-only queries are answered by count queries.</p>
+     */
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        return queryTicketsInPages(query, getQueryTicketDefinitions(query), Ticket::getId, Function.identity(),
+            (md, lastId, pageSize) -> getTicketsAfter(md, lastId, pageSize, !query.isIncludeExpired()),
+            this::countTickets);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Tickets whose definitions do not cascade are removed with a single
+     * statement per ticket entity.</p>
+     */
+    @Override
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        final Map<TicketDefinition, List<String>> ticketIdsByDefinition = new LinkedHashMap<>();
+        ticketIds.forEach(ticketId -> {
+            final TicketDefinition md = this.ticketCatalog.find(ticketId);
+            if (md == null) {
+                LOGGER.warn("Ticket definition for [{}] could not be found in the ticket catalog", ticketId);
+            } else {
+                ticketIdsByDefinition.computeIfAbsent(md, k -> new ArrayList<>()).add(ticketId);
+            }
+        });
+        return ticketIdsByDefinition.entrySet()
+            .stream()
+            .mapToInt(entry -> {
+                final TicketDefinition md = entry.getKey();
+                if (md.getProperties().isCascade()) {
+                    return super.deleteSingleTickets(entry.getValue());
+                }
+                final String sql = String.format("delete from %s o where o.id in :ids", getTicketEntityName(md));
+                final Query query = entityManager.createQuery(sql);
+                query.setParameter("ids", entry.getValue());
+                return query.executeUpdate();
+            })
+            .sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Sessions are located using the indexed principal id column of the ticket-granting ticket table.
+     * Rows that were created before the column was introduced are filled in once as the application starts,
+     * by {@link JpaTicketRegistryPrincipalIdMigration}.</p>
+     */
     @Override
-    public long sessionCount() {
+    @SuppressWarnings("unchecked")
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
         final TicketDefinition md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
-        final String sql = String.format("select count(t) from %s t", getTicketEntityName(md));
-        final Query query = this.entityManager.createQuery(sql);
-        return countToLong(query.getSingleResult());
+        final String sql = String.format("select t from %s t where t.principalId = :principalId", getTicketEntityName(md));
+        final org.hibernate.query.Query<TicketGrantingTicket> query =
+            (org.hibernate.query.Query<TicketGrantingTicket>) entityManager.createQuery(sql, md.getImplementationClass());
+        query.setParameter("principalId", getPrincipalIndexKey(principalId));
+        query.setFetchSize(STREAM_BATCH_SIZE);
+        query.setLockOptions(LockOptions.NONE);
+        return query.getResultList().stream().filter(t -> !t.isExpired());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are counted with a count query per matching ticket entity.</p>
+     */
     @Override
-    public long serviceTicketCount() {
-        final TicketDefinition md = this.ticketCatalog.find(ServiceTicket.PREFIX);
-        final String sql = String.format("select count(t) from %s t", getTicketEntityName(md));
-        final Query query = this.entityManager.createQuery(sql);
-        return countToLong(query.getSingleResult());
+    protected long countTickets(final Class<? extends Ticket> type) {
+        return getQueryTicketDefinitions(TicketQuery.builder().type(type).build())
+            .stream()
+            .mapToLong(this::countTickets)
+            .sum();
     }
 
     @Override
@@ -165,7 +264,68 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return totalCount != 0;
     }
 
-    private static String getTicketEntityName(final TicketDefinition tk) {
+    private List<Ticket> getExpirationCandidatesAfter(final TicketDefinition md, final String ticketId, final int batchSize) {
+        if (ticketId != null) {
+            this.entityManager.clear();
+        }
+        final String sql = String.format("select t from %s t where (t.expirationCheckTime is null or t.expirationCheckTime <= :now)%s order by t.id",
+            getTicketEntityName(md), ticketId == null ? StringUtils.EMPTY : " and t.id > :id");
+        final TypedQuery<? extends Ticket> query = entityManager.createQuery(sql, md.getImplementationClass());
+        query.setParameter("now", System.currentTimeMillis());
+        if (ticketId != null) {
+            query.setParameter("id", ticketId);
+        }
+        query.setMaxResults(batchSize);
+        query.setLockMode(LockModeType.NONE);
+        return new ArrayList<>(query.getResultList());
+    }
+
+    private List<Ticket> getTicketsAfter(final TicketDefinition md, final String ticketId, final int batchSize, final boolean unexpiredOnly) {
+        final List<String> conditions = new ArrayList<>();
+        if (ticketId != null) {
+            conditions.add("t.id > :id");
+        }
+        if (unexpiredOnly) {
+            conditions.add("t.expired = false");
+        }
+        final String sql = String.format("select t from %s t%s order by t.id", getTicketEntityName(md),
+            conditions.isEmpty() ? StringUtils.EMPTY : " where " + String.join(" and ", conditions));
+        final TypedQuery<? extends Ticket> query = entityManager.createQuery(sql, md.getImplementationClass());
+        if (ticketId != null) {
+            query.setParameter("id", ticketId);
+        }
+        query.setMaxResults(batchSize);
+        query.setLockMode(LockModeType.NONE);
+        return new ArrayList<>(query.getResultList());
+    }
+
+    /**
+     * Ticket entities are queried polymorphically, so definitions whose entity
+     * extends that of another matching definition are already covered by the latter.
+     */
+    private Collection<TicketDefinition> getQueryTicketDefinitions(final TicketQuery query) {
+        final List<TicketDefinition> definitions = this.ticketCatalog.findAll()
+            .stream()
+            .filter(query::matches)
+            .collect(Collectors.toList());
+        return definitions.stream()
+            .filter(md -> definitions.stream().noneMatch(other -> other != md
+                && other.getImplementationClass() != md.getImplementationClass()
+                && other.getImplementationClass().isAssignableFrom(md.getImplementationClass())))
+            .collect(Collectors.toList());
+    }
+
+    private static String getExpirationClause(final TicketQuery query) {
+        return query.isIncludeExpired() ? StringUtils.EMPTY : " where t.expired = false";
+    }
+
+    /**
+     * Gets the name of the entity that stores tickets of the given definition.
+     *
+     * @param tk the ticket definition
+     * @return the entity name
+     */
+    static String getTicketEntityName(final TicketDefinition tk) {
         return tk.getImplementationClass().getSimpleName();
     }
 
@@ -199,6 +359,12 @@ public class JpaTicketRegistry extends AbstractTicketRegistry {
         return totalCount;
     }
 
+    private long countTickets(final TicketDefinition md) {
+        final String sql = String.format("select count(t) from %s t", getTicketEntityName(md));
+        final Query query = this.entityManager.createQuery(sql);
+        return countToLong(query.getSingleResult());
+    }
+
     private static long countToLong(final Object result) {
         return ((Number) result).longValue();
     }
@@ -0,0 +1,124 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketDefinition;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * This is {@link JpaTicketRegistryPrincipalIdMigration}, which fills in the principal id column
+ * of ticket-granting tickets that were stored before the column was introduced, so that their sessions
+ * can be located by {@link JpaTicketRegistry#getSessionsFor(String)}.
+ * <p>
+ * The migration runs once as the application starts. Rows are read page by page, ordered by id,
+ * and each page is updated in its own transaction. Rows whose principal cannot be determined are
+ * left as they are and are not examined again during the run.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JpaTicketRegistryPrincipalIdMigration {
+    /**
+     * Default number of rows examined per page.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final TicketCatalog ticketCatalog;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int pageSize;
+
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    private transient EntityManager entityManager;
+
+    /**
+     * Handle application ready event and run the migration.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleApplicationReadyEvent(final ApplicationReadyEvent event) {
+        try {
+            migrate();
+        } catch (final Exception e) {
+            LOGGER.error("Unable to fill in the principal id of ticket-granting tickets: [{}]", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fill in the principal id of all ticket-granting tickets that carry none.
+     *
+     * @return the number of tickets whose principal id was filled in
+     */
+    public long migrate() {
+        final TicketDefinition md = this.ticketCatalog.find(TicketGrantingTicket.PREFIX);
+        if (md == null) {
+            LOGGER.debug("No ticket definition is registered for ticket-granting tickets; nothing to migrate");
+            return 0;
+        }
+        final String entityName = JpaTicketRegistry.getTicketEntityName(md);
+        long migrated = 0;
+        String lastId = null;
+        do {
+            final String afterId = lastId;
+            final Pair<String, Integer> page = this.transactionTemplate.execute(status -> migratePage(md, entityName, afterId));
+            lastId = page.getLeft();
+            migrated += page.getRight();
+        } while (lastId != null);
+        if (migrated > 0) {
+            LOGGER.info("Filled in the principal id of [{}] ticket-granting tickets", migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * Fill in the principal id of the page of tickets after the given ticket id. Returns the id
+     * of the last ticket in the page, or null once there are no more tickets, along with
+     * the number of tickets whose principal id was filled in.
+     */
+    @SuppressWarnings("unchecked")
+    private Pair<String, Integer> migratePage(final TicketDefinition md, final String entityName, final String afterId) {
+        final String sql = String.format("select t from %s t where t.principalId is null%s order by t.id",
+            entityName, afterId == null ? StringUtils.EMPTY : " and t.id > :id");
+        final TypedQuery<? extends TicketGrantingTicket> query =
+            this.entityManager.createQuery(sql, (Class<? extends TicketGrantingTicket>) md.getImplementationClass());
+        if (afterId != null) {
+            query.setParameter("id", afterId);
+        }
+        query.setMaxResults(this.pageSize);
+        query.setLockMode(LockModeType.NONE);
+        final List<? extends TicketGrantingTicket> tickets = query.getResultList();
+        if (tickets.isEmpty()) {
+            return Pair.of((String) null, 0);
+        }
+        final String update = String.format("update %s t set t.principalId = :principalId where t.id = :id and t.principalId is null", entityName);
+        int count = 0;
+        for (final TicketGrantingTicket ticket : tickets) {
+            final String principal = AbstractTicketRegistry.getPrincipalIndexKey(ticket);
+            if (principal != null) {
+                count += this.entityManager.createQuery(update)
+                    .setParameter("principalId", principal)
+                    .setParameter("id", ticket.getId())
+                    .executeUpdate();
+            }
+        }
+        final String lastId = tickets.get(tickets.size() - 1).getId();
+        this.entityManager.clear();
+        return Pair.of(tickets.size() < this.pageSize ? null : lastId, count);
+    }
+}
@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationMetadataConfiguration;
@@ -22,6 +23,13 @@ import org.apereo.cas.config.JpaTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
 import org.apereo.cas.config.support.EnvironmentConversionServiceInitializer;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,13 +38,22 @@ import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.*;
 
 /**
  * Unit test for {@link JpaTicketRegistry} class.
@@ -77,6 +94,17 @@ public class JpaTicketRegistryTests extends BaseSpringRunnableTicketRegistryTest
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    @Autowired
+    @Qualifier("ticketCatalog")
+    private TicketCatalog ticketCatalog;
+
+    @Autowired
+    @Qualifier("ticketTransactionManager")
+    private PlatformTransactionManager ticketTransactionManager;
+
+    @PersistenceContext(unitName = "ticketEntityManagerFactory")
+    private EntityManager entityManager;
+
     public JpaTicketRegistryTests(final boolean useEncryption) {
         super(useEncryption);
     }
@@ -90,4 +118,57 @@ public class JpaTicketRegistryTests extends BaseSpringRunnableTicketRegistryTest
     public static Collection<Object> getTestParameters() {
         return Arrays.asList(false);
     }
+
+    @Test
+    public void verifySessionsWithoutPrincipalIdAreFilledInByMigration() {
+        final String ticketId = TicketGrantingTicket.PREFIX + "-LEGACY";
+        final String otherId = TicketGrantingTicket.PREFIX + "-LEGACY-OTHER";
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(ticketId,
+            CoreAuthenticationTestUtils.getAuthentication("legacyuser"), new NeverExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(otherId,
+            CoreAuthenticationTestUtils.getAuthentication("otheruser"), new NeverExpiresExpirationPolicy()));
+        this.entityManager.createQuery("update TicketGrantingTicketImpl t set t.principalId = null")
+            .executeUpdate();
+        this.entityManager.clear();
+        assertEquals(0, this.ticketRegistry.getSessionsFor("LegacyUser").count());
+
+        final JpaTicketRegistryPrincipalIdMigration migration = new JpaTicketRegistryPrincipalIdMigration(this.ticketCatalog,
+            new TransactionTemplate(this.ticketTransactionManager), 1);
+        ReflectionTestUtils.setField(migration, "entityManager", this.entityManager);
+        assertEquals(2, migration.migrate());
+        assertEquals(0, migration.migrate());
+
+        assertEquals(1, this.ticketRegistry.getSessionsFor("LegacyUser").count());
+        final Object principalId = this.entityManager.createQuery("select t.principalId from TicketGrantingTicketImpl t where t.id = :id")
+            .setParameter("id", ticketId)
+            .getSingleResult();
+        assertEquals("legacyuser", principalId);
+    }
+
+    @Test
+    public void verifyExpiredTicketsAreSelectedByTheDatabase() {
+        final String expiredId = TicketGrantingTicket.PREFIX + "-EXPIRED";
+        final String legacyId = TicketGrantingTicket.PREFIX + "-LEGACY-EXPIRED";
+        final String activeId = TicketGrantingTicket.PREFIX + "-ACTIVE";
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(expiredId,
+            CoreAuthenticationTestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(legacyId,
+            CoreAuthenticationTestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(activeId,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+        this.entityManager.createQuery("update TicketGrantingTicketImpl t set t.expirationCheckTime = null where t.id = :id")
+            .setParameter("id", legacyId)
+            .executeUpdate();
+
+        final Object checkTime = this.entityManager.createQuery("select t.expirationCheckTime from TicketGrantingTicketImpl t where t.id = :id")
+            .setParameter("id", activeId)
+            .getSingleResult();
+        assertEquals(Long.MAX_VALUE, checkTime);
+
+        try (Stream<Ticket> tickets = this.ticketRegistry.getExpiredTickets(1)) {
+            final Set<String> expired = tickets.map(Ticket::getId).collect(Collectors.toSet());
+            assertTrue(expired.containsAll(Arrays.asList(expiredId, legacyId)));
+            assertFalse(expired.contains(activeId));
+        }
+    }
 }
@@ -1,17 +1,26 @@
 package org.apereo.cas.authorization;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.util.CollectionUtils;
 import org.apereo.cas.util.LdapUtils;
+import org.apereo.cas.util.ldap.LdapSearchOperationExecutor;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
 import org.ldaptive.Response;
 import org.ldaptive.SearchExecutor;
 import org.ldaptive.SearchResult;
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
 import org.pac4j.core.profile.CommonProfile;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Provides a simple {@link AuthorizationGenerator} implementation that obtains user roles from an LDAP search.
  * Two searches are performed by this component for every user details lookup:
@@ -21,6 +30,9 @@ import org.pac4j.core.profile.CommonProfile;
  * <li>Search for groups of which the user is a member. This search commonly occurs on a separate directory
  * branch than that of the user search.</li>
  * </ol>
+ * When the group search filter simply matches the user DN against a member attribute, such as {@code (member={user})},
+ * groups are looked up through the shared {@link LdapSearchOperationExecutor}, which bounds the number of searches
+ * in flight and batches member lookups into a single search.
  *
  * @author Jerome Leleu
  * @author Marvin S. Addison
@@ -32,9 +44,13 @@ public class LdapUserGroupsToRolesAuthorizationGenerator extends BaseUseAttribut
 
 
 
+    private static final Pattern MEMBER_FILTER_PATTERN = Pattern.compile("^\\(\\s*([\\w.;-]+)\\s*=\\s*\\{(?:0|"
+        + LdapUtils.LDAP_SEARCH_FILTER_DEFAULT_PARAM_NAME + ")\\}\\s*\\)$");
+
     private final String groupAttributeName;
     private final String groupPrefix;
     private final SearchExecutor groupSearchExecutor;
+    private final String groupMemberAttributeName;
 
     /**
      * Instantiates a new Ldap user groups to roles authorization generator.
@@ -56,20 +72,14 @@ public class LdapUserGroupsToRolesAuthorizationGenerator extends BaseUseAttribut
         this.groupAttributeName = groupAttributeName;
         this.groupPrefix = groupPrefix;
         this.groupSearchExecutor = groupSearchExecutor;
+        this.groupMemberAttributeName = getMemberAttributeName(groupSearchExecutor.getSearchFilter().getFilter());
     }
 
     @Override
     protected CommonProfile generateAuthorizationForLdapEntry(final CommonProfile profile, final LdapEntry userEntry) {
         try {
             LOGGER.debug("Attempting to get roles for user [{}].", userEntry.getDn());
-            final Response<SearchResult> response = this.groupSearchExecutor.search(
-                    this.connectionFactory,
-                    LdapUtils.newLdaptiveSearchFilter(this.groupSearchExecutor.getSearchFilter().getFilter(),
-                            LdapUtils.LDAP_SEARCH_FILTER_DEFAULT_PARAM_NAME, CollectionUtils.wrap(userEntry.getDn())));
-            LOGGER.debug("LDAP role search response: [{}]", response);
-            final SearchResult groupResult = response.getResult();
-
-            for (final LdapEntry entry : groupResult.getEntries()) {
+            for (final LdapEntry entry : searchGroups(userEntry)) {
                 final LdapAttribute groupAttribute = entry.getAttribute(this.groupAttributeName);
                 if (groupAttribute == null) {
                     LOGGER.warn("Role attribute not found on entry [{}]", entry);
@@ -82,4 +92,25 @@ public class LdapUserGroupsToRolesAuthorizationGenerator extends BaseUseAttribut
         }
         return profile;
     }
+
+    private Collection<LdapEntry> searchGroups(final LdapEntry userEntry) throws LdapException {
+        if (this.groupMemberAttributeName != null) {
+            final Map<String, List<LdapEntry>> groups = LdapUtils.getSearchOperationExecutor().searchGroupsByMember(this.connectionFactory,
+                this.groupSearchExecutor.getBaseDn(), this.groupMemberAttributeName, CollectionUtils.wrap(userEntry.getDn()),
+                this.groupSearchExecutor.getReturnAttributes());
+            LOGGER.debug("LDAP role search found [{}] group(s)", groups.get(userEntry.getDn()).size());
+            return groups.get(userEntry.getDn());
+        }
+        final Response<SearchResult> response = this.groupSearchExecutor.search(
+                this.connectionFactory,
+                LdapUtils.newLdaptiveSearchFilter(this.groupSearchExecutor.getSearchFilter().getFilter(),
+                        LdapUtils.LDAP_SEARCH_FILTER_DEFAULT_PARAM_NAME, CollectionUtils.wrap(userEntry.getDn())));
+        LOGGER.debug("LDAP role search response: [{}]", response);
+        return response.getResult().getEntries();
+    }
+
+    private static String getMemberAttributeName(final String filter) {
+        final Matcher matcher = MEMBER_FILTER_PATTERN.matcher(StringUtils.trimToEmpty(filter));
+        return matcher.matches() ? matcher.group(1) : null;
+    }
 }
@@ -0,0 +1,24 @@
+package org.apereo.cas.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.ldap.LdapConnectionFactoryRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This is {@link LdapCoreConfiguration}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Configuration("ldapCoreConfiguration")
+@Slf4j
+public class LdapCoreConfiguration {
+
+    @ConditionalOnMissingBean(name = LdapConnectionFactoryRegistry.BEAN_NAME)
+    @Bean(name = LdapConnectionFactoryRegistry.BEAN_NAME, destroyMethod = "close")
+    public LdapConnectionFactoryRegistry ldapConnectionFactoryRegistry() {
+        return new LdapConnectionFactoryRegistry();
+    }
+}
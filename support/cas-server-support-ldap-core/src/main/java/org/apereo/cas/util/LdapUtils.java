@@ -8,6 +8,10 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apereo.cas.configuration.model.support.ldap.AbstractLdapAuthenticationProperties;
 import org.apereo.cas.configuration.model.support.ldap.AbstractLdapProperties;
 import org.apereo.cas.configuration.support.Beans;
+import org.apereo.cas.util.ldap.LdapConnectionFactoryRegistry;
+import org.apereo.cas.util.spring.ApplicationContextProvider;
+import org.apereo.cas.util.ldap.LdapSearchOperationExecutor;
+import org.apereo.cas.util.ldap.MeteredPooledConnectionFactory;
 import org.ldaptive.ActivePassiveConnectionStrategy;
 import org.ldaptive.AddOperation;
 import org.ldaptive.AddRequest;
@@ -38,7 +42,6 @@ import org.ldaptive.ReturnAttributes;
 import org.ldaptive.RoundRobinConnectionStrategy;
 import org.ldaptive.SearchExecutor;
 import org.ldaptive.SearchFilter;
-import org.ldaptive.SearchOperation;
 import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchResult;
 import org.ldaptive.SearchScope;
@@ -87,6 +90,8 @@ import org.ldaptive.sasl.SecurityStrength;
 import org.ldaptive.ssl.KeyStoreCredentialConfig;
 import org.ldaptive.ssl.SslConfig;
 import org.ldaptive.ssl.X509CredentialConfig;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 
 import java.net.URI;
 import java.net.URL;
@@ -122,6 +127,8 @@ public class LdapUtils {
 
     private static final String LDAP_PREFIX = "ldap";
 
+    private static final LdapSearchOperationExecutor SEARCH_OPERATION_EXECUTOR = new LdapSearchOperationExecutor();
+
     /**
      * Reads a Boolean value from the LdapEntry.
      *
@@ -248,12 +255,33 @@ public class LdapUtils {
                                                                 final SearchFilter filter,
                                                                 final String[] binaryAttributes,
                                                                 final String[] returnAttributes) throws LdapException {
-        try (Connection connection = createConnection(connectionFactory)) {
-            final SearchOperation searchOperation = new SearchOperation(connection);
-            final SearchRequest request = LdapUtils.newLdaptiveSearchRequest(baseDn, filter, binaryAttributes, returnAttributes);
-            request.setReferralHandler(new SearchReferralHandler());
-            return searchOperation.execute(request);
+        final SearchRequest request = LdapUtils.newLdaptiveSearchRequest(baseDn, filter, binaryAttributes, returnAttributes);
+        request.setReferralHandler(new SearchReferralHandler());
+        return SEARCH_OPERATION_EXECUTOR.search(connectionFactory, request);
+    }
+
+    /**
+     * Gets the executor shared by LDAP search operations, which also
+     * keeps track of search latency.
+     *
+     * @return the search operation executor
+     */
+    public static LdapSearchOperationExecutor getSearchOperationExecutor() {
+        return SEARCH_OPERATION_EXECUTOR;
+    }
+
+    /**
+     * Gets the registry of shared connection pools from the application context.
+     *
+     * @return the connection factory registry, or null if the application context defines none
+     */
+    public static LdapConnectionFactoryRegistry getConnectionFactoryRegistry() {
+        final ApplicationContext context = ApplicationContextProvider.getApplicationContext();
+        if (context instanceof ConfigurableApplicationContext && ((ConfigurableApplicationContext) context).isActive()
+            && context.containsBean(LdapConnectionFactoryRegistry.BEAN_NAME)) {
+            return context.getBean(LdapConnectionFactoryRegistry.BEAN_NAME, LdapConnectionFactoryRegistry.class);
         }
+        return null;
     }
 
     /**
@@ -669,9 +697,9 @@ public class LdapUtils {
 
         final Authenticator auth;
         if (StringUtils.isBlank(l.getPrincipalAttributePassword())) {
-            auth = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptivePooledConnectionFactory(l)));
+            auth = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptiveDedicatedPooledConnectionFactory(l)));
         } else {
-            auth = new Authenticator(resolver, getPooledCompareAuthenticationHandler(l, newLdaptivePooledConnectionFactory(l)));
+            auth = new Authenticator(resolver, getPooledCompareAuthenticationHandler(l, newLdaptiveDedicatedPooledConnectionFactory(l)));
         }
 
         if (l.isEnhanceWithEntryResolver()) {
@@ -685,7 +713,7 @@ public class LdapUtils {
             throw new IllegalArgumentException("Dn format cannot be empty/blank for direct bind authentication");
         }
         final FormatDnResolver resolver = new FormatDnResolver(l.getDnFormat());
-        final Authenticator authenticator = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptivePooledConnectionFactory(l)));
+        final Authenticator authenticator = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptiveDedicatedPooledConnectionFactory(l)));
 
         if (l.isEnhanceWithEntryResolver()) {
             authenticator.setEntryResolver(newLdaptiveSearchEntryResolver(l, newLdaptivePooledConnectionFactory(l)));
@@ -698,7 +726,7 @@ public class LdapUtils {
             throw new IllegalArgumentException("Dn format cannot be empty/blank for active directory authentication");
         }
         final FormatDnResolver resolver = new FormatDnResolver(l.getDnFormat());
-        final Authenticator authn = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptivePooledConnectionFactory(l)));
+        final Authenticator authn = new Authenticator(resolver, getPooledBindAuthenticationHandler(l, newLdaptiveDedicatedPooledConnectionFactory(l)));
 
         if (l.isEnhanceWithEntryResolver()) {
             authn.setEntryResolver(newLdaptiveSearchEntryResolver(l, newLdaptivePooledConnectionFactory(l)));
@@ -727,8 +755,27 @@ public class LdapUtils {
      * @return the pooled connection factory
      */
     public static PooledConnectionFactory newLdaptivePooledConnectionFactory(final AbstractLdapProperties l) {
+        if (l.isSharedPool()) {
+            final LdapConnectionFactoryRegistry registry = getConnectionFactoryRegistry();
+            if (registry != null) {
+                return registry.getConnectionFactory(l, LdapUtils::newLdaptiveBlockingConnectionPool);
+            }
+            LOGGER.debug("No LDAP connection factory registry is defined; creating a dedicated connection pool for [{}]", l.getLdapUrl());
+        }
+        return newLdaptiveDedicatedPooledConnectionFactory(l);
+    }
+
+    /**
+     * New pooled connection factory whose pool is never shared with other components.
+     * Pools whose connections are bound as end users, such as those that authenticate
+     * users via bind operations, must not be shared.
+     *
+     * @param l the ldap properties
+     * @return the pooled connection factory
+     */
+    public static PooledConnectionFactory newLdaptiveDedicatedPooledConnectionFactory(final AbstractLdapProperties l) {
         final ConnectionPool cp = newLdaptiveBlockingConnectionPool(l);
-        return new PooledConnectionFactory(cp);
+        return new MeteredPooledConnectionFactory(cp);
     }
 
     /**
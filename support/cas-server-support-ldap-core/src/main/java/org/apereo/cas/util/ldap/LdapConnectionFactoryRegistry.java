@@ -0,0 +1,191 @@
+package org.apereo.cas.util.ldap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apereo.cas.configuration.model.support.ldap.AbstractLdapProperties;
+import org.apereo.cas.util.DigestUtils;
+import org.ldaptive.pool.ConnectionPool;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.Closeable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link LdapConnectionFactoryRegistry}, which hands out connection pools that are shared
+ * by all components that connect to the same LDAP url(s) with the same connection settings, rather than
+ * having each component open and maintain a pool of its own.
+ * <p>
+ * Pools are keyed by every setting that affects how connections are established and bound, such as
+ * the bind DN and credential, SSL/TLS and trust settings, SASL settings and timeouts. A shared pool is
+ * built from the pool settings of the first component that asks for it; pool settings of other components
+ * connecting with the same settings are ignored.
+ * <p>
+ * Each component is handed a connection factory of its own that draws connections from the shared pool,
+ * and the registry keeps track of the components that still hold on to a pool. When the application context
+ * is refreshed, all pools are retired, so that refreshed components build their pools from the new settings.
+ * A retired pool is closed once the last component that holds on to it is gone; components that are not
+ * refreshed keep using the pool they were handed.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class LdapConnectionFactoryRegistry implements Closeable {
+    /**
+     * Name of the registry bean.
+     */
+    public static final String BEAN_NAME = "ldapConnectionFactoryRegistry";
+
+    private final Map<String, SharedConnectionPool> connectionPools = new ConcurrentHashMap<>();
+
+    private final List<SharedConnectionPool> retiredConnectionPools = new CopyOnWriteArrayList<>();
+
+    /**
+     * Gets a connection factory that draws connections from the pool shared by the connection
+     * settings of the given properties, building the pool if needed.
+     *
+     * @param properties  the ldap settings
+     * @param poolBuilder builds the connection pool from the settings
+     * @return the connection factory
+     */
+    public MeteredPooledConnectionFactory getConnectionFactory(final AbstractLdapProperties properties,
+                                                               final Function<AbstractLdapProperties, ConnectionPool> poolBuilder) {
+        closeUnusedRetiredPools();
+        final String key = getKey(properties);
+        final SharedConnectionPool pool = this.connectionPools.computeIfAbsent(key, k -> {
+            LOGGER.debug("Creating shared LDAP connection pool for [{}]", k);
+            return new SharedConnectionPool(k, new MeteredPooledConnectionFactory(poolBuilder.apply(properties)));
+        });
+        return pool.newConnectionFactory();
+    }
+
+    /**
+     * Gets statistics about the shared pools, keyed by url, bind DN and
+     * a digest of the remaining connection settings.
+     *
+     * @return the statistics
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        closeUnusedRetiredPools();
+        final Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        this.connectionPools.forEach((key, pool) -> stats.put(key, pool.getConnectionFactory().getStatistics()));
+        return stats;
+    }
+
+    /**
+     * Retire all pools once the refresh scope is refreshed. Retired pools
+     * are closed once no component holds on to them.
+     *
+     * @param event the event
+     */
+    @EventListener
+    public void handleRefreshEvent(final RefreshScopeRefreshedEvent event) {
+        LOGGER.info("Retiring [{}] shared LDAP connection pool(s) after configuration refresh", this.connectionPools.size());
+        new ArrayList<>(this.connectionPools.keySet()).forEach(key -> {
+            final SharedConnectionPool pool = this.connectionPools.remove(key);
+            if (pool != null) {
+                this.retiredConnectionPools.add(pool);
+            }
+        });
+        closeUnusedRetiredPools();
+    }
+
+    @Override
+    public void close() {
+        new ArrayList<>(this.connectionPools.keySet()).forEach(key -> {
+            final SharedConnectionPool pool = this.connectionPools.remove(key);
+            if (pool != null) {
+                pool.close();
+            }
+        });
+        this.retiredConnectionPools.forEach(SharedConnectionPool::close);
+        this.retiredConnectionPools.clear();
+    }
+
+    private void closeUnusedRetiredPools() {
+        this.retiredConnectionPools.stream()
+            .filter(pool -> !pool.isInUse())
+            .forEach(pool -> {
+                LOGGER.debug("Closing retired LDAP connection pool [{}] that is no longer in use", pool.getKey());
+                this.retiredConnectionPools.remove(pool);
+                pool.close();
+            });
+    }
+
+    private static String getKey(final AbstractLdapProperties properties) {
+        final String urls = Arrays.stream(StringUtils.defaultString(properties.getLdapUrl()).split("[\\s,]+"))
+            .filter(StringUtils::isNotBlank)
+            .map(String::toLowerCase)
+            .collect(Collectors.joining(" "));
+        final List<Object> settings = Arrays.asList(
+            properties.getBindCredential(),
+            properties.isUseSsl(),
+            properties.isUseStartTls(),
+            properties.getTrustCertificates(),
+            properties.getKeystore(),
+            properties.getKeystorePassword(),
+            properties.getKeystoreType(),
+            properties.getConnectTimeout(),
+            properties.getResponseTimeout(),
+            properties.getConnectionStrategy(),
+            properties.getProviderClass(),
+            properties.isAllowMultipleDns(),
+            properties.getPoolPassivator(),
+            properties.getSaslMechanism(),
+            properties.getSaslRealm(),
+            properties.getSaslAuthorizationId(),
+            properties.getSaslSecurityStrength(),
+            properties.getSaslMutualAuth(),
+            properties.getSaslQualityOfProtection());
+        final String digest = DigestUtils.sha256(settings.stream().map(Objects::toString).collect(Collectors.joining("|")));
+        return urls + '|' + StringUtils.defaultString(properties.getBindDn()) + '|' + digest;
+    }
+
+    /**
+     * A shared pool along with the connection factories handed out for it. Connection factories
+     * are weakly referenced, so the pool is no longer in use once all of them have been collected.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class SharedConnectionPool {
+        private final String key;
+
+        private final MeteredPooledConnectionFactory connectionFactory;
+
+        private final Set<Reference<MeteredPooledConnectionFactory>> users = ConcurrentHashMap.newKeySet();
+
+        MeteredPooledConnectionFactory newConnectionFactory() {
+            final MeteredPooledConnectionFactory factory = new MeteredPooledConnectionFactory(this.connectionFactory);
+            this.users.add(new WeakReference<>(factory));
+            return factory;
+        }
+
+        boolean isInUse() {
+            this.users.removeIf(reference -> reference.get() == null);
+            return !this.users.isEmpty();
+        }
+
+        void close() {
+            try {
+                this.connectionFactory.getConnectionPool().close();
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to close LDAP connection pool [{}]: [{}]", this.key, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package org.apereo.cas.util.ldap;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apereo.cas.util.LdapUtils;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.Response;
+import org.ldaptive.ReturnAttributes;
+import org.ldaptive.SearchFilter;
+import org.ldaptive.SearchOperation;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResult;
+import org.ldaptive.referral.SearchReferralHandler;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link LdapSearchOperationExecutor}, which executes LDAP searches and keeps track of their latency.
+ * <p>
+ * Searches may be executed asynchronously, or handed over as tasks by components that search on their own,
+ * in which case the number of searches in flight is bounded so that a burst of lookups cannot exhaust the
+ * connection pools; callers wait for a slot once the bound is reached. Group memberships of several entries are looked up with as few searches as possible,
+ * by combining the DNs of the members into a single {@code OR} filter per batch.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class LdapSearchOperationExecutor implements Closeable {
+    /**
+     * Default number of searches that may be in flight at once.
+     */
+    public static final int DEFAULT_MAXIMUM_IN_FLIGHT_SEARCHES = 50;
+
+    /**
+     * Default number of member DNs combined into a single group search.
+     */
+    public static final int DEFAULT_GROUP_SEARCH_BATCH_SIZE = 50;
+
+    private final int maximumInFlightSearches;
+
+    private final int groupSearchBatchSize;
+
+    private final Semaphore inFlightSearches;
+
+    private final ExecutorService executorService;
+
+    private final LongAdder searches = new LongAdder();
+
+    private final LongAdder failedSearches = new LongAdder();
+
+    private final LongAdder totalLatency = new LongAdder();
+
+    private final AtomicLong maximumLatency = new AtomicLong();
+
+    public LdapSearchOperationExecutor() {
+        this(DEFAULT_MAXIMUM_IN_FLIGHT_SEARCHES, DEFAULT_GROUP_SEARCH_BATCH_SIZE);
+    }
+
+    public LdapSearchOperationExecutor(final int maximumInFlightSearches, final int groupSearchBatchSize) {
+        this.maximumInFlightSearches = Math.max(1, maximumInFlightSearches);
+        this.groupSearchBatchSize = Math.max(1, groupSearchBatchSize);
+        this.inFlightSearches = new Semaphore(this.maximumInFlightSearches);
+        final AtomicInteger count = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(this.maximumInFlightSearches, runnable -> {
+            final Thread thread = new Thread(runnable, "cas-ldap-search-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Execute the search.
+     *
+     * @param connectionFactory the connection factory
+     * @param request           the request
+     * @return the response
+     * @throws LdapException the ldap exception
+     */
+    public Response<SearchResult> search(final ConnectionFactory connectionFactory, final SearchRequest request) throws LdapException {
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final Response<SearchResult> response = executeSearch(connectionFactory, request);
+            failed = false;
+            return response;
+        } finally {
+            recordSearch(start, failed);
+        }
+    }
+
+    /**
+     * Execute a search that is carried out by the given task, such as a search run by a component
+     * that connects to LDAP on its own. The task runs on the calling thread once the number of searches
+     * in flight is below the bound, and is metered as a search.
+     *
+     * @param <T>  the result type
+     * @param task the task that executes the search
+     * @return the result of the task
+     * @throws LdapException the ldap exception
+     */
+    public <T> T execute(final Callable<T> task) throws LdapException {
+        try {
+            this.inFlightSearches.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LdapException(e);
+        }
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final T result = task.call();
+            failed = false;
+            return result;
+        } catch (final LdapException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new LdapException(e);
+        } finally {
+            recordSearch(start, failed);
+            this.inFlightSearches.release();
+        }
+    }
+
+    /**
+     * Execute the search asynchronously. The caller waits if the maximum number
+     * of searches is already in flight.
+     *
+     * @param connectionFactory the connection factory
+     * @param request           the request
+     * @return the response
+     */
+    public CompletableFuture<Response<SearchResult>> searchAsync(final ConnectionFactory connectionFactory, final SearchRequest request) {
+        final CompletableFuture<Response<SearchResult>> future = new CompletableFuture<>();
+        try {
+            this.inFlightSearches.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        try {
+            this.executorService.execute(() -> {
+                Response<SearchResult> response = null;
+                Exception failure = null;
+                try {
+                    response = search(connectionFactory, request);
+                } catch (final Exception e) {
+                    failure = e;
+                } finally {
+                    this.inFlightSearches.release();
+                }
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(response);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            this.inFlightSearches.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Find the groups of each of the given members. Members are looked up in batches,
+     * each batch with a single search whose filter matches any of the members of the batch.
+     *
+     * @param connectionFactory the connection factory
+     * @param baseDn            the base dn of groups
+     * @param memberAttribute   the attribute of groups that holds the DNs of members
+     * @param memberDns         the member DNs
+     * @param returnAttributes  the attributes of groups to return
+     * @return the groups, keyed by member DN
+     * @throws LdapException the ldap exception
+     */
+    public Map<String, List<LdapEntry>> searchGroupsByMember(final ConnectionFactory connectionFactory, final String baseDn,
+                                                             final String memberAttribute, final Collection<String> memberDns,
+                                                             final String... returnAttributes) throws LdapException {
+        final Map<String, List<LdapEntry>> groups = new LinkedHashMap<>();
+        memberDns.forEach(dn -> groups.put(dn, new ArrayList<>()));
+        final List<String> members = new ArrayList<>(groups.keySet());
+        final String[] attributes = getGroupReturnAttributes(memberAttribute, returnAttributes);
+
+        final Map<List<String>, CompletableFuture<Response<SearchResult>>> batches = new LinkedHashMap<>();
+        for (int i = 0; i < members.size(); i += this.groupSearchBatchSize) {
+            final List<String> batch = members.subList(i, Math.min(members.size(), i + this.groupSearchBatchSize));
+            final SearchRequest request = LdapUtils.newLdaptiveSearchRequest(baseDn, newGroupMembershipFilter(memberAttribute, batch),
+                null, attributes);
+            request.setReferralHandler(new SearchReferralHandler());
+            batches.put(batch, searchAsync(connectionFactory, request));
+        }
+        LOGGER.debug("Looking up groups of [{}] member(s) via [{}] search(es)", members.size(), batches.size());
+
+        for (final Map.Entry<List<String>, CompletableFuture<Response<SearchResult>>> entry : batches.entrySet()) {
+            final SearchResult result = getResult(entry.getValue());
+            if (result == null) {
+                continue;
+            }
+            for (final LdapEntry group : result.getEntries()) {
+                final LdapAttribute attribute = group.getAttribute(memberAttribute);
+                if (attribute == null) {
+                    continue;
+                }
+                attribute.getStringValues().forEach(value -> entry.getKey().stream()
+                    .filter(dn -> dn.trim().equalsIgnoreCase(value.trim()))
+                    .forEach(dn -> groups.get(dn).add(group)));
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Gets statistics about searches.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final long count = this.searches.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("searches", count);
+        stats.put("failedSearches", this.failedSearches.sum());
+        stats.put("averageLatencyMillis", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalLatency.sum() / count));
+        stats.put("maximumLatencyMillis", TimeUnit.NANOSECONDS.toMillis(this.maximumLatency.get()));
+        stats.put("inFlightSearches", this.maximumInFlightSearches - this.inFlightSearches.availablePermits());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        this.executorService.shutdownNow();
+    }
+
+    private void recordSearch(final long start, final boolean failed) {
+        final long latency = System.nanoTime() - start;
+        this.searches.increment();
+        if (failed) {
+            this.failedSearches.increment();
+        }
+        this.totalLatency.add(latency);
+        this.maximumLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Execute the search on a connection obtained from the factory.
+     *
+     * @param connectionFactory the connection factory
+     * @param request           the request
+     * @return the response
+     * @throws LdapException the ldap exception
+     */
+    protected Response<SearchResult> executeSearch(final ConnectionFactory connectionFactory, final SearchRequest request) throws LdapException {
+        try (Connection connection = LdapUtils.createConnection(connectionFactory)) {
+            return new SearchOperation(connection).execute(request);
+        }
+    }
+
+    /**
+     * Build a filter that matches groups of any of the given members.
+     *
+     * @param memberAttribute the member attribute
+     * @param memberDns       the member DNs
+     * @return the search filter
+     */
+    protected static SearchFilter newGroupMembershipFilter(final String memberAttribute, final List<String> memberDns) {
+        final StringBuilder filter = new StringBuilder("(|");
+        for (int i = 0; i < memberDns.size(); i++) {
+            filter.append('(').append(memberAttribute).append("={").append(i).append("})");
+        }
+        filter.append(')');
+        final SearchFilter searchFilter = new SearchFilter(filter.toString());
+        for (int i = 0; i < memberDns.size(); i++) {
+            searchFilter.setParameter(i, memberDns.get(i));
+        }
+        return searchFilter;
+    }
+
+    private static String[] getGroupReturnAttributes(final String memberAttribute, final String[] returnAttributes) {
+        if (ArrayUtils.isEmpty(returnAttributes)) {
+            return ReturnAttributes.ALL_USER.value();
+        }
+        final Set<String> attributes = new LinkedHashSet<>(Arrays.asList(returnAttributes));
+        if (!attributes.contains(ReturnAttributes.ALL_USER.value()[0])) {
+            attributes.add(memberAttribute);
+        }
+        return attributes.toArray(new String[0]);
+    }
+
+    private static SearchResult getResult(final CompletableFuture<Response<SearchResult>> future) throws LdapException {
+        try {
+            final Response<SearchResult> response = future.join();
+            return response == null ? null : response.getResult();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof LdapException) {
+                throw (LdapException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new LdapException(e);
+        }
+    }
+}
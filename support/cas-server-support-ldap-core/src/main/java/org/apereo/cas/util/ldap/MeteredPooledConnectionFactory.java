@@ -0,0 +1,89 @@
+package org.apereo.cas.util.ldap;
+
+import lombok.Getter;
+import org.ldaptive.Connection;
+import org.ldaptive.pool.ConnectionPool;
+import org.ldaptive.pool.PoolException;
+import org.ldaptive.pool.PooledConnectionFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link MeteredPooledConnectionFactory}, which keeps track of how often connections
+ * are checked out of the pool and how long callers have to wait for them.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Getter
+public class MeteredPooledConnectionFactory extends PooledConnectionFactory {
+
+    private final LongAdder checkouts;
+
+    private final LongAdder failedCheckouts;
+
+    private final LongAdder totalWaitTime;
+
+    private final AtomicLong maximumWaitTime;
+
+    public MeteredPooledConnectionFactory(final ConnectionPool pool) {
+        super(pool);
+        this.checkouts = new LongAdder();
+        this.failedCheckouts = new LongAdder();
+        this.totalWaitTime = new LongAdder();
+        this.maximumWaitTime = new AtomicLong();
+    }
+
+    /**
+     * Instantiates a connection factory that hands out connections from the pool of the given factory
+     * and shares its statistics.
+     *
+     * @param factory the factory whose pool and statistics are shared
+     */
+    public MeteredPooledConnectionFactory(final MeteredPooledConnectionFactory factory) {
+        super(factory.getConnectionPool());
+        this.checkouts = factory.checkouts;
+        this.failedCheckouts = factory.failedCheckouts;
+        this.totalWaitTime = factory.totalWaitTime;
+        this.maximumWaitTime = factory.maximumWaitTime;
+    }
+
+    @Override
+    public Connection getConnection() throws PoolException {
+        final long start = System.nanoTime();
+        try {
+            final Connection connection = getConnectionPool().getConnection();
+            this.checkouts.increment();
+            return connection;
+        } catch (final PoolException | RuntimeException e) {
+            this.failedCheckouts.increment();
+            throw e;
+        } finally {
+            final long waitTime = System.nanoTime() - start;
+            this.totalWaitTime.add(waitTime);
+            this.maximumWaitTime.accumulateAndGet(waitTime, Math::max);
+        }
+    }
+
+    /**
+     * Gets statistics about the pool.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final long checkoutCount = this.checkouts.sum();
+        final long attempts = checkoutCount + this.failedCheckouts.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("checkouts", checkoutCount);
+        stats.put("failedCheckouts", this.failedCheckouts.sum());
+        stats.put("averageWaitMillis", attempts == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(this.totalWaitTime.sum() / attempts));
+        stats.put("maximumWaitMillis", TimeUnit.NANOSECONDS.toMillis(this.maximumWaitTime.get()));
+        stats.put("activeConnections", getConnectionPool().activeCount());
+        stats.put("availableConnections", getConnectionPool().availableCount());
+        return stats;
+    }
+}
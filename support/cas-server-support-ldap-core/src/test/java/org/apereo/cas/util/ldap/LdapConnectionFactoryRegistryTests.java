@@ -0,0 +1,89 @@
+package org.apereo.cas.util.ldap;
+
+import org.apereo.cas.configuration.model.support.ldap.AbstractLdapProperties;
+import org.junit.Test;
+import org.ldaptive.pool.ConnectionPool;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link LdapConnectionFactoryRegistryTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class LdapConnectionFactoryRegistryTests {
+
+    private final LdapConnectionFactoryRegistry registry = new LdapConnectionFactoryRegistry();
+
+    @Test
+    public void verifyPoolsAreSharedByConnectionSettings() {
+        final MeteredPooledConnectionFactory first = getConnectionFactory(newLdapProperties("ldap://localhost:1389", "cn=admin"));
+        final MeteredPooledConnectionFactory second = getConnectionFactory(newLdapProperties("LDAP://localhost:1389", "cn=admin"));
+        assertSame(first.getConnectionPool(), second.getConnectionPool());
+
+        assertNotSame(first.getConnectionPool(), getConnectionFactory(newLdapProperties("ldap://localhost:1389", "cn=other")).getConnectionPool());
+
+        final AbstractLdapProperties otherCredential = newLdapProperties("ldap://localhost:1389", "cn=admin");
+        otherCredential.setBindCredential("other");
+        assertNotSame(first.getConnectionPool(), getConnectionFactory(otherCredential).getConnectionPool());
+
+        final AbstractLdapProperties startTls = newLdapProperties("ldap://localhost:1389", "cn=admin");
+        startTls.setUseSsl(false);
+        startTls.setUseStartTls(true);
+        assertNotSame(first.getConnectionPool(), getConnectionFactory(startTls).getConnectionPool());
+
+        final AbstractLdapProperties trust = newLdapProperties("ldap://localhost:1389", "cn=admin");
+        trust.setTrustCertificates("file:/etc/cas/ldap.crt");
+        assertNotSame(first.getConnectionPool(), getConnectionFactory(trust).getConnectionPool());
+
+        assertEquals(5, this.registry.getStatistics().size());
+        this.registry.getStatistics().keySet().forEach(key -> assertFalse(key.contains("password")));
+    }
+
+    @Test
+    public void verifyPoolsInUseAreRetiredOnRefreshAndClosedOnShutdown() {
+        final MeteredPooledConnectionFactory factory = getConnectionFactory(newLdapProperties("ldap://localhost:1389", "cn=admin"));
+        this.registry.handleRefreshEvent(new RefreshScopeRefreshedEvent());
+        verify(factory.getConnectionPool(), never()).close();
+        assertTrue(this.registry.getStatistics().isEmpty());
+
+        final MeteredPooledConnectionFactory refreshed = getConnectionFactory(newLdapProperties("ldap://localhost:1389", "cn=admin"));
+        assertNotSame(factory.getConnectionPool(), refreshed.getConnectionPool());
+        verify(factory.getConnectionPool(), never()).close();
+
+        this.registry.close();
+        verify(factory.getConnectionPool()).close();
+        verify(refreshed.getConnectionPool()).close();
+        assertTrue(this.registry.getStatistics().isEmpty());
+    }
+
+    @Test
+    public void verifyRetiredPoolsAreClosedOnceNoLongerInUse() throws Exception {
+        final ConnectionPool pool = mock(ConnectionPool.class);
+        this.registry.getConnectionFactory(newLdapProperties("ldap://localhost:1389", "cn=admin"), p -> pool);
+        this.registry.handleRefreshEvent(new RefreshScopeRefreshedEvent());
+        for (int i = 0; i < 20 && mockingDetails(pool).getInvocations().isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(50);
+            this.registry.getStatistics();
+        }
+        verify(pool).close();
+    }
+
+    private MeteredPooledConnectionFactory getConnectionFactory(final AbstractLdapProperties properties) {
+        return this.registry.getConnectionFactory(properties, p -> mock(ConnectionPool.class));
+    }
+
+    private static AbstractLdapProperties newLdapProperties(final String url, final String bindDn) {
+        final AbstractLdapProperties properties = new AbstractLdapProperties() {
+            private static final long serialVersionUID = 1L;
+        };
+        properties.setLdapUrl(url);
+        properties.setBindDn(bindDn);
+        properties.setBindCredential("password");
+        return properties;
+    }
+}
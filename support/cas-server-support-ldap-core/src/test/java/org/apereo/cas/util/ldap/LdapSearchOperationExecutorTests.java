@@ -0,0 +1,139 @@
+package org.apereo.cas.util.ldap;
+
+import org.junit.Test;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.Response;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link LdapSearchOperationExecutorTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class LdapSearchOperationExecutorTests {
+
+    private static final List<LdapEntry> GROUPS = Arrays.asList(
+        new LdapEntry("cn=admins,ou=groups,dc=example,dc=org",
+            new LdapAttribute("member", "uid=casuser,ou=people,dc=example,dc=org", "uid=admin,ou=people,dc=example,dc=org")),
+        new LdapEntry("cn=staff,ou=groups,dc=example,dc=org",
+            new LdapAttribute("member", "uid=casuser,ou=people,dc=example,dc=org", "uid=staff,ou=people,dc=example,dc=org")),
+        new LdapEntry("cn=guests,ou=groups,dc=example,dc=org",
+            new LdapAttribute("member", "uid=guest,ou=people,dc=example,dc=org")));
+
+    @Test
+    public void verifySearchesAreMetered() throws Exception {
+        final AtomicBoolean fail = new AtomicBoolean();
+        final LdapSearchOperationExecutor executor = new LdapSearchOperationExecutor() {
+            @Override
+            protected Response<SearchResult> executeSearch(final ConnectionFactory connectionFactory, final SearchRequest request)
+                throws LdapException {
+                if (fail.get()) {
+                    throw new LdapException("Server is down");
+                }
+                return new Response<>(new SearchResult(new LdapEntry("uid=casuser,ou=people,dc=example,dc=org")), ResultCode.SUCCESS);
+            }
+        };
+        final Response<SearchResult> response = executor.search(mock(ConnectionFactory.class), new SearchRequest());
+        assertEquals(1, response.getResult().size());
+
+        fail.set(true);
+        try {
+            executor.search(mock(ConnectionFactory.class), new SearchRequest());
+            fail("Expected the search to fail");
+        } catch (final LdapException e) {
+            assertEquals(2L, executor.getStatistics().get("searches"));
+            assertEquals(1L, executor.getStatistics().get("failedSearches"));
+        }
+    }
+
+    @Test
+    public void verifyGroupMembershipsAreSearchedInBatches() throws Exception {
+        final List<String> filters = new CopyOnWriteArrayList<>();
+        try (LdapSearchOperationExecutor executor = new LdapSearchOperationExecutor(4, 2) {
+            @Override
+            protected Response<SearchResult> executeSearch(final ConnectionFactory connectionFactory, final SearchRequest request) {
+                final String filter = request.getSearchFilter().format();
+                filters.add(filter);
+                final List<LdapEntry> matches = GROUPS.stream()
+                    .filter(group -> group.getAttribute("member").getStringValues().stream()
+                        .anyMatch(member -> filter.contains("(member=" + member + ')')))
+                    .collect(Collectors.toList());
+                return new Response<>(new SearchResult(matches), ResultCode.SUCCESS);
+            }
+        }) {
+            final List<String> members = Arrays.asList("uid=casuser,ou=people,dc=example,dc=org", "uid=admin,ou=people,dc=example,dc=org",
+                "uid=staff,ou=people,dc=example,dc=org", "uid=guest,ou=people,dc=example,dc=org", "uid=nobody,ou=people,dc=example,dc=org");
+            final Map<String, List<LdapEntry>> groups = executor.searchGroupsByMember(mock(ConnectionFactory.class),
+                "ou=groups,dc=example,dc=org", "member", members, "cn");
+
+            assertEquals(3, filters.size());
+            assertTrue(filters.contains("(|(member=uid=casuser,ou=people,dc=example,dc=org)(member=uid=admin,ou=people,dc=example,dc=org))"));
+            assertEquals(Arrays.asList("cn=admins,ou=groups,dc=example,dc=org", "cn=staff,ou=groups,dc=example,dc=org"),
+                getDns(groups.get("uid=casuser,ou=people,dc=example,dc=org")));
+            assertEquals(Arrays.asList("cn=admins,ou=groups,dc=example,dc=org"), getDns(groups.get("uid=admin,ou=people,dc=example,dc=org")));
+            assertEquals(Arrays.asList("cn=guests,ou=groups,dc=example,dc=org"), getDns(groups.get("uid=guest,ou=people,dc=example,dc=org")));
+            assertTrue(groups.get("uid=nobody,ou=people,dc=example,dc=org").isEmpty());
+            assertEquals(3L, executor.getStatistics().get("searches"));
+            assertEquals(0, executor.getStatistics().get("inFlightSearches"));
+        }
+    }
+
+    @Test
+    public void verifySearchTasksAreBoundedAndMetered() throws Exception {
+        try (LdapSearchOperationExecutor executor = new LdapSearchOperationExecutor(1, 1)) {
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch finish = new CountDownLatch(1);
+            final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return executor.execute(() -> {
+                        started.countDown();
+                        finish.await();
+                        return "first";
+                    });
+                } catch (final LdapException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            started.await();
+            assertEquals(1, executor.getStatistics().get("inFlightSearches"));
+            final CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return executor.execute(() -> "second");
+                } catch (final LdapException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(100);
+            assertFalse(second.isDone());
+
+            finish.countDown();
+            assertEquals("first", first.get());
+            assertEquals("second", second.get());
+            assertEquals(2L, executor.getStatistics().get("searches"));
+            assertEquals(0, executor.getStatistics().get("inFlightSearches"));
+        }
+    }
+
+    private static List<String> getDns(final List<LdapEntry> entries) {
+        return entries.stream().map(LdapEntry::getDn).sorted().collect(Collectors.toCollection(ArrayList::new));
+    }
+}
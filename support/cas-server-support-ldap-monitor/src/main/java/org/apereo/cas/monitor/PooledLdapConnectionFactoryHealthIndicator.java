@@ -1,6 +1,9 @@
 package org.apereo.cas.monitor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.LdapUtils;
+import org.apereo.cas.util.ldap.LdapConnectionFactoryRegistry;
+import org.apereo.cas.util.ldap.MeteredPooledConnectionFactory;
 import org.ldaptive.Connection;
 import org.ldaptive.pool.PooledConnectionFactory;
 import org.ldaptive.pool.Validator;
@@ -38,6 +41,14 @@ public class PooledLdapConnectionFactoryHealthIndicator extends AbstractPoolHeal
 
     @Override
     protected Health.Builder checkPool(final Health.Builder builder) throws Exception {
+        if (this.connectionFactory instanceof MeteredPooledConnectionFactory) {
+            builder.withDetail("pool", ((MeteredPooledConnectionFactory) this.connectionFactory).getStatistics());
+        }
+        builder.withDetail("searches", LdapUtils.getSearchOperationExecutor().getStatistics());
+        final LdapConnectionFactoryRegistry registry = LdapUtils.getConnectionFactoryRegistry();
+        if (registry != null) {
+            builder.withDetail("sharedPools", registry.getStatistics());
+        }
         if (this.connectionFactory != null && this.validator != null) {
             try (Connection conn = this.connectionFactory.getConnection()) {
                 return this.validator.validate(conn) ? builder.up() : builder.down();
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.spy.memcached.CachedData;
 import net.spy.memcached.transcoders.Transcoder;
+import org.apereo.cas.ticket.serialization.kryo.CasKryoPool;
+import org.apereo.cas.ticket.serialization.kryo.CloseableKryo;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -2,6 +2,8 @@ package org.apereo.cas.memcached.kryo;
 
 import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.ticket.serialization.kryo.CasKryoPool;
+import org.apereo.cas.ticket.serialization.kryo.CloseableKryo;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
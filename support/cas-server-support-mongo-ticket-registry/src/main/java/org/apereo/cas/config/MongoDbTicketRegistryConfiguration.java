@@ -2,17 +2,20 @@ package org.apereo.cas.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.model.support.mongo.ticketregistry.MongoTicketRegistryProperties;
 import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.mongo.MongoDbConnectionFactory;
 import org.apereo.cas.ticket.TicketCatalog;
-import org.apereo.cas.ticket.registry.DefaultTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.MongoDbTicketRegistry;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
 import org.apereo.cas.ticket.registry.NoOpTicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistryCleaner;
 import org.apereo.cas.ticket.registry.support.LockingStrategy;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.util.CoreTicketUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -22,6 +25,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * This is {@link MongoDbTicketRegistryConfiguration}.
  *
@@ -35,25 +40,37 @@ public class MongoDbTicketRegistryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("ticketRegistryCodec")
+    private TicketCodec ticketRegistryCodec;
+
     @RefreshScope
     @Bean
     @Autowired
-    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
+    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog,
+                                         @Qualifier("ticketRegistryNearCacheInvalidationChannel")
+                                         final ObjectProvider<NearCacheInvalidationChannel> nearCacheInvalidationChannel) {
         final MongoTicketRegistryProperties mongo = casProperties.getTicket().getRegistry().getMongo();
         final MongoDbTicketRegistry registry = new MongoDbTicketRegistry(ticketCatalog, mongoDbTicketRegistryTemplate(), mongo.isDropCollection());
         registry.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(mongo.getCrypto(), "mongo"));
-        return registry;
+        registry.setTicketCodec(ticketRegistryCodec);
+        registry.setCountCacheDuration(Beans.newDuration(casProperties.getTicket().getRegistry().getCountCacheDuration()));
+        final TicketRegistry nearCache = CoreTicketUtils.newNearCacheTicketRegistry(registry, casProperties.getTicket().getRegistry().getNearCache(),
+            ticketCatalog, nearCacheInvalidationChannel.getIfAvailable(), ticketRegistryCodec);
+        return CoreTicketUtils.newTieredTicketRegistry(nearCache, casProperties.getTicket().getRegistry().getTiered(), ticketCatalog);
     }
 
     @Autowired
     @Bean
     public TicketRegistryCleaner ticketRegistryCleaner(@Qualifier("lockingStrategy") final LockingStrategy lockingStrategy,
                                                        @Qualifier("logoutManager") final LogoutManager logoutManager,
-                                                       @Qualifier("ticketRegistry") final TicketRegistry ticketRegistry) {
+                                                       @Qualifier("ticketRegistry") final TicketRegistry ticketRegistry,
+                                                       @Qualifier("ticketRegistryCleanerLogoutExecutor") final ObjectProvider<ExecutorService> logoutExecutor) {
         final boolean isCleanerEnabled = casProperties.getTicket().getRegistry().getCleaner().getSchedule().isEnabled();
         if (isCleanerEnabled) {
             LOGGER.debug("Ticket registry cleaner is enabled.");
-            return new DefaultTicketRegistryCleaner(lockingStrategy, logoutManager, ticketRegistry);
+            return CoreTicketUtils.newTicketRegistryCleaner(casProperties.getTicket().getRegistry().getCleaner(),
+                lockingStrategy, logoutManager, ticketRegistry, logoutExecutor.getIfAvailable());
         }
         LOGGER.debug("Ticket registry cleaner is not enabled. "
                 + "Expired tickets are not forcefully collected and cleaned by CAS. It is up to the ticket registry itself to "
@@ -15,15 +15,21 @@ import org.apereo.cas.ticket.TicketDefinition;
 import org.apereo.cas.ticket.TicketState;
 import org.hjson.JsonValue;
 import org.hjson.Stringify;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A Ticket Registry storage backend based on MongoDB.
@@ -34,6 +40,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MongoDbTicketRegistry extends AbstractTicketRegistry {
     private static final String FIELD_NAME_EXPIRE_AFTER_SECONDS = "expireAfterSeconds";
+    private static final int STREAM_BATCH_SIZE = 100;
     private static final Query SELECT_ALL_NAMES_QUERY = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).regex(".+"));
 
     private static final ImmutableSet<String> MONGO_INDEX_KEYS = ImmutableSet.of("v", "key", "name", "ns");
@@ -64,6 +71,7 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         final BasicDBObject indexOptions = new BasicDBObject(FIELD_NAME_EXPIRE_AFTER_SECONDS, ticket.getProperties().getStorageTimeout());
         removeDifferingIndexIfAny(collection, indexKey, indexOptions);
         collection.createIndex(indexKey, indexOptions);
+        collection.createIndex(new BasicDBObject(TicketHolder.FIELD_NAME_EXPIRATION_CHECK_TIME, 1));
         return collection;
     }
 
@@ -117,7 +125,8 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
                 return null;
             }
             final Query query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId()));
-            final Update update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson());
+            final Update update = Update.update(TicketHolder.FIELD_NAME_JSON, holder.getJson())
+                .set(TicketHolder.FIELD_NAME_EXPIRATION_CHECK_TIME, holder.getExpirationCheckTime());
             this.mongoTemplate.upsert(query, update, collectionName);
             LOGGER.debug("Updated ticket [{}]", ticket);
         } catch (final Exception e) {
@@ -190,10 +199,129 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
                 .map(this::getTicketCollectionInstanceByMetadata)
                 .map(map -> mongoTemplate.findAll(TicketHolder.class, map))
                 .flatMap(List::stream)
-                .map(ticket -> decodeTicket(deserializeTicketFromMongoDocument(ticket)))
+                .map(this::readTicket)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Only documents whose projected expiration time has passed, or that were stored before the time
+     * was recorded, are loaded. Documents are loaded page by page, ordered by ticket id, so that expired
+     * tickets may be removed as the stream is consumed. Documents that can no longer be read, such as tickets
+     * written with an incompatible codec, are removed as they are found.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return this.ticketCatalog.findAll().stream()
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .flatMap(collectionName -> streamInPages(batchSize, TicketHolder::getTicketId,
+                lastId -> findExpirationCandidatesAfter(collectionName, lastId, batchSize))
+                .map(holder -> readTicketOrRemove(collectionName, holder)))
+            .filter(Objects::nonNull)
+            .filter(Ticket::isExpired);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the collections of the ticket definitions that match the query type are read.</p>
+     */
+    @Override
+    public Stream<Ticket> streamTickets(final TicketQuery query) {
+        return this.ticketCatalog.findAll().stream()
+            .filter(query::matches)
+            .map(this::getTicketCollectionInstanceByMetadata)
+            .flatMap(collectionName -> streamInPages(STREAM_BATCH_SIZE, TicketHolder::getTicketId,
+                lastId -> findTicketsAfter(collectionName, lastId, STREAM_BATCH_SIZE)))
+            .map(this::readTicket)
+            .filter(Objects::nonNull)
+            .filter(query::matches);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Pages are read from the collections of the matching ticket definitions ordered by ticket id,
+     * and unfiltered count-only queries are answered by counting documents.</p>
+     */
+    @Override
+    public TicketQueryResult queryTickets(final TicketQuery query) {
+        return queryTicketsInPages(query, this.ticketCatalog.findAll(), TicketHolder::getTicketId,
+            this::readTicket,
+            (metadata, lastId, pageSize) -> findTicketsAfter(getTicketCollectionInstanceByMetadata(metadata), lastId, pageSize),
+            this::countTickets);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are counted by the database, per collection of the matching ticket definitions.</p>
+     */
+    @Override
+    protected long countTickets(final Class<? extends Ticket> type) {
+        return this.ticketCatalog.findAll().stream()
+            .filter(metadata -> type.isAssignableFrom(metadata.getImplementationClass()))
+            .mapToLong(this::countTickets)
+            .sum();
+    }
+
+    private long countTickets(final TicketDefinition metadata) {
+        return this.mongoTemplate.count(new Query(), getTicketCollectionInstanceByMetadata(metadata));
+    }
+
+    private List<TicketHolder> findExpirationCandidatesAfter(final String collectionName, final String lastId, final int batchSize) {
+        final Criteria due = new Criteria().orOperator(
+            Criteria.where(TicketHolder.FIELD_NAME_EXPIRATION_CHECK_TIME).lte(new Date()),
+            Criteria.where(TicketHolder.FIELD_NAME_EXPIRATION_CHECK_TIME).exists(false));
+        final Criteria criteria = lastId == null
+            ? due
+            : new Criteria().andOperator(Criteria.where(TicketHolder.FIELD_NAME_ID).gt(lastId), due);
+        final Query query = new Query(criteria)
+            .with(new Sort(Sort.Direction.ASC, TicketHolder.FIELD_NAME_ID))
+            .limit(batchSize);
+        return this.mongoTemplate.find(query, TicketHolder.class, collectionName);
+    }
+
+    private List<TicketHolder> findTicketsAfter(final String collectionName, final String lastId, final int batchSize) {
+        final Criteria criteria = lastId == null
+            ? Criteria.where(TicketHolder.FIELD_NAME_ID).exists(true)
+            : Criteria.where(TicketHolder.FIELD_NAME_ID).gt(lastId);
+        final Query query = new Query(criteria)
+            .with(new Sort(Sort.Direction.ASC, TicketHolder.FIELD_NAME_ID))
+            .limit(batchSize);
+        return this.mongoTemplate.find(query, TicketHolder.class, collectionName);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are removed with a single query per collection.</p>
+     */
+    @Override
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        final Map<String, List<String>> ticketIdsByCollection = new LinkedHashMap<>();
+        ticketIds.forEach(ticketId -> {
+            final TicketDefinition metadata = this.ticketCatalog.find(ticketId);
+            if (metadata == null) {
+                LOGGER.warn("Ticket definition for [{}] could not be found in the ticket catalog", ticketId);
+            } else {
+                ticketIdsByCollection.computeIfAbsent(getTicketCollectionInstanceByMetadata(metadata), k -> new ArrayList<>())
+                    .add(encodeTicketId(ticketId));
+            }
+        });
+        return ticketIdsByCollection.entrySet()
+            .stream()
+            .mapToInt(entry -> {
+                try {
+                    final Query query = new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).in(entry.getValue()));
+                    final WriteResult res = this.mongoTemplate.remove(query, entry.getKey());
+                    LOGGER.debug("Deleted [{}] ticket(s) from [{}]", res.getN(), entry.getKey());
+                    return res.getN();
+                } catch (final Exception e) {
+                    LOGGER.error("Failed deleting tickets from [{}]: [{}]", entry.getKey(), e);
+                    return 0;
+                }
+            })
+            .sum();
+    }
+
     @Override
     public boolean deleteSingleTicket(final String ticketIdToDelete) {
         final String ticketId = encodeTicketId(ticketIdToDelete);
@@ -257,13 +385,34 @@ public class MongoDbTicketRegistry extends AbstractTicketRegistry {
         return BaseTicketSerializers.deserializeTicket(holder.getJson(), holder.getType());
     }
 
+    private Ticket readTicket(final TicketHolder holder) {
+        try {
+            return decodeTicket(deserializeTicketFromMongoDocument(holder));
+        } catch (final Exception e) {
+            LOGGER.warn("Ticket [{}] cannot be read from its document: [{}]", holder.getTicketId(), e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private Ticket readTicketOrRemove(final String collectionName, final TicketHolder holder) {
+        final Ticket ticket = readTicket(holder);
+        if (ticket == null) {
+            LOGGER.warn("Removing ticket [{}] from [{}] since it cannot be read", holder.getTicketId(), collectionName);
+            this.mongoTemplate.remove(new Query(Criteria.where(TicketHolder.FIELD_NAME_ID).is(holder.getTicketId())), collectionName);
+        }
+        return ticket;
+    }
+
     private TicketHolder buildTicketAsDocument(final Ticket ticket) {
         final Ticket encTicket = encodeTicket(ticket);
         final String json = serializeTicketForMongoDocument(encTicket);
         if (StringUtils.isNotBlank(json)) {
             LOGGER.trace("Serialized ticket into a JSON document as \n [{}]", JsonValue.readJSON(json).toString(Stringify.FORMATTED));
             final Date expireAt = getExpireAt(ticket);
-            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt);
+            final Date expirationCheckTime = new Date(TicketExpirationIndex.getProjectedExpirationTime(ticket,
+                System.currentTimeMillis(), TicketExpirationIndex.DEFAULT_RECHECK_INTERVAL_IN_MILLIS));
+            return new TicketHolder(json, encTicket.getId(), encTicket.getClass().getName(), expireAt, expirationCheckTime);
         }
         throw new IllegalArgumentException("Ticket " + ticket.getId() + " cannot be serialized to JSON");
     }
@@ -31,6 +31,11 @@ public class TicketHolder implements Serializable {
      */
     public static final String FIELD_NAME_EXPIRE_AT = "expireAt";
 
+    /**
+     * Field name to hold the projected expiration time of the ticket.
+     */
+    public static final String FIELD_NAME_EXPIRATION_CHECK_TIME = "expirationCheckTime";
+
     /**
      * Field name to hold ticket id.
      */
@@ -46,4 +51,7 @@ public class TicketHolder implements Serializable {
 
     @Indexed
     private final Date expireAt;
+
+    @Indexed
+    private final Date expirationCheckTime;
 }
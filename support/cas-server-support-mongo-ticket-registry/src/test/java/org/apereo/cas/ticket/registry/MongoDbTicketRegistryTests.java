@@ -1,6 +1,7 @@
 package org.apereo.cas.ticket.registry;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.category.MongoDbCategory;
 import org.apereo.cas.config.CasCoreAuthenticationConfiguration;
 import org.apereo.cas.config.CasCoreAuthenticationHandlersConfiguration;
@@ -21,8 +22,19 @@ import org.apereo.cas.config.CasPersonDirectoryConfiguration;
 import org.apereo.cas.config.MongoDbTicketRegistryConfiguration;
 import org.apereo.cas.config.MongoDbTicketRegistryTicketCatalogConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
+import org.apereo.cas.logout.LogoutManager;
 import org.apereo.cas.logout.config.CasCoreLogoutConfiguration;
+import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.serialization.IncompatibleSchemaTicketCodec;
+import org.apereo.cas.ticket.serialization.KryoTicketCodec;
+import org.apereo.cas.ticket.serialization.TicketCodec;
+import org.apereo.cas.ticket.support.AlwaysExpiresExpirationPolicy;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
+import org.junit.Assume;
 import org.junit.Before;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -34,9 +46,16 @@ import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * This is {@link MongoDbTicketRegistryTests}.
@@ -79,8 +98,11 @@ public class MongoDbTicketRegistryTests extends BaseSpringRunnableTicketRegistry
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    private final boolean useEncryption;
+
     public MongoDbTicketRegistryTests(final boolean useEncryption) {
         super(useEncryption);
+        this.useEncryption = useEncryption;
     }
 
     @Parameterized.Parameters
@@ -98,4 +120,47 @@ public class MongoDbTicketRegistryTests extends BaseSpringRunnableTicketRegistry
         return this.ticketRegistry;
     }
 
+    @Test
+    public void verifyExpiredTicketsAreSelectedByTheDatabase() {
+        final String expiredId = TicketGrantingTicket.PREFIX + "-EXPIRED";
+        final String activeId = TicketGrantingTicket.PREFIX + "-ACTIVE";
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(expiredId,
+            CoreAuthenticationTestUtils.getAuthentication(), new AlwaysExpiresExpirationPolicy()));
+        this.ticketRegistry.addTicket(new TicketGrantingTicketImpl(activeId,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy()));
+
+        try (Stream<Ticket> tickets = this.ticketRegistry.getExpiredTickets(1)) {
+            assertEquals(Collections.singletonList(expiredId), tickets.map(Ticket::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void verifyUnreadableTicketsAreRemovedByCleaner() {
+        Assume.assumeTrue(this.useEncryption);
+        final AbstractTicketRegistry registry = AopTestUtils.getTargetObject(this.ticketRegistry);
+        final TicketCodec codec = registry.ticketCodec;
+        try {
+            registry.setTicketCodec(new IncompatibleSchemaTicketCodec());
+            this.ticketRegistry.addTicket(newExpiredTicketGrantingTicket(TicketGrantingTicket.PREFIX + "-UNREADABLE"));
+            registry.setTicketCodec(new KryoTicketCodec());
+            this.ticketRegistry.addTicket(newExpiredTicketGrantingTicket(TicketGrantingTicket.PREFIX + "-EXPIRED"));
+
+            final DefaultTicketRegistryCleaner cleaner = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(),
+                mock(LogoutManager.class), this.ticketRegistry);
+            cleaner.setBatchSize(1);
+            cleaner.clean();
+
+            registry.setTicketCodec(new IncompatibleSchemaTicketCodec());
+            assertTrue(this.ticketRegistry.getTickets().isEmpty());
+        } finally {
+            registry.setTicketCodec(codec);
+        }
+    }
+
+    private static TicketGrantingTicketImpl newExpiredTicketGrantingTicket(final String id) {
+        final TicketGrantingTicketImpl ticket = new TicketGrantingTicketImpl(id,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        ticket.markTicketExpired();
+        return ticket;
+    }
 }
@@ -1,14 +1,12 @@
 package org.apereo.cas.otp.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.AuthenticationServiceSelectionPlan;
 import org.apereo.cas.authentication.AuthenticationSystemSupport;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.model.support.mfa.GAuthMultifactorProperties;
 import org.apereo.cas.otp.repository.token.CachingOneTimeTokenRepository;
-import org.apereo.cas.authentication.OneTimeToken;
 import org.apereo.cas.otp.repository.token.OneTimeTokenRepository;
 import org.apereo.cas.otp.web.flow.OneTimeTokenAuthenticationWebflowAction;
 import org.apereo.cas.otp.web.flow.OneTimeTokenAuthenticationWebflowEventResolver;
@@ -29,9 +27,6 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.util.CookieGenerator;
 import org.springframework.webflow.execution.Action;
 
-import java.util.Collection;
-import java.util.concurrent.TimeUnit;
-
 /**
  * This is {@link OneTimeTokenAuthenticationConfiguration}.
  *
@@ -45,9 +40,11 @@ import java.util.concurrent.TimeUnit;
 public class OneTimeTokenAuthenticationConfiguration {
     private static final int EXPIRE_TOKENS_IN_SECONDS = 30;
 
-    private static final int INITIAL_CACHE_SIZE = 50;
     private static final long MAX_CACHE_SIZE = 1_000_000;
 
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
     @Autowired
     @Qualifier("centralAuthenticationService")
     private CentralAuthenticationService centralAuthenticationService;
@@ -103,16 +100,13 @@ public class OneTimeTokenAuthenticationConfiguration {
     @ConditionalOnMissingBean(name = "oneTimeTokenAuthenticatorTokenRepository")
     @Bean
     public OneTimeTokenRepository oneTimeTokenAuthenticatorTokenRepository() {
-        final LoadingCache<String, Collection<OneTimeToken>> storage = Caffeine.newBuilder()
-            .initialCapacity(INITIAL_CACHE_SIZE)
-            .maximumSize(MAX_CACHE_SIZE)
-            .recordStats()
-            .expireAfterWrite(EXPIRE_TOKENS_IN_SECONDS, TimeUnit.SECONDS)
-            .build(s -> {
-                LOGGER.error("Load operation of the cache is not supported.");
-                return null;
-            });
-        return new CachingOneTimeTokenRepository(storage);
+        /*
+         * Used tokens must be remembered for as long as they could be accepted,
+         * which is the whole window of time steps around the step of the token.
+         */
+        final GAuthMultifactorProperties gauth = casProperties.getAuthn().getMfa().getGauth();
+        final long expireTokensInSeconds = Math.max(EXPIRE_TOKENS_IN_SECONDS, gauth.getTimeStepSize() * gauth.getWindowSize());
+        return new CachingOneTimeTokenRepository(expireTokensInSeconds, MAX_CACHE_SIZE);
     }
 
 
@@ -1,24 +1,36 @@
 package org.apereo.cas.otp.repository.token;
 
 
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.authentication.OneTimeToken;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
- * This is {@link CachingOneTimeTokenRepository}.
+ * This is {@link CachingOneTimeTokenRepository}, which keeps previously used tokens in memory.
+ * <p>
+ * Each used token is kept as a single entry keyed by the user and the token, and expires once the
+ * time window in which the token could still be accepted has passed. Tokens are recorded via an atomic
+ * insert into the cache, so concurrent submissions of the same token are accepted at most once.
  *
  * @author Misagh Moayyed
  * @since 5.1.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class CachingOneTimeTokenRepository extends BaseOneTimeTokenRepository {
-    private final LoadingCache<String, Collection<OneTimeToken>> storage;
+    private final Cache<UsedToken, OneTimeToken> storage;
+
+    public CachingOneTimeTokenRepository(final long expireTokensInSeconds, final long maximumSize) {
+        this.storage = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .expireAfterWrite(expireTokensInSeconds, TimeUnit.SECONDS)
+            .build();
+    }
 
     @Override
     public void cleanInternal() {
@@ -29,40 +41,33 @@ public class CachingOneTimeTokenRepository extends BaseOneTimeTokenRepository {
 
     @Override
     public void store(final OneTimeToken token) {
-        if (exists(token.getUserId(), token.getToken())) {
-            try {
-                final Collection<OneTimeToken> tokens = this.storage.get(token.getUserId());
-                tokens.add(token);
-
-                LOGGER.debug("Storing previously used tokens [{}] for user [{}]", tokens, token.getUserId());
-                this.storage.put(token.getUserId(), tokens);
-            } catch (final Exception e) {
-                LOGGER.warn(e.getMessage(), e);
-            }
-        } else {
-            final Collection<OneTimeToken> tokens = new ArrayList<>();
-            tokens.add(token);
+        LOGGER.debug("Storing previously used token [{}] for user [{}]", token, token.getUserId());
+        this.storage.put(new UsedToken(token.getUserId(), token.getToken()), token);
+    }
 
-            LOGGER.debug("Storing previously used token [{}] for user [{}]", token, token.getUserId());
-            this.storage.put(token.getUserId(), tokens);
+    @Override
+    public boolean storeIfAbsent(final OneTimeToken token) {
+        final OneTimeToken existing = this.storage.asMap().putIfAbsent(new UsedToken(token.getUserId(), token.getToken()), token);
+        if (existing != null) {
+            LOGGER.debug("Token [{}] was used previously by user [{}] at [{}]", token.getToken(), token.getUserId(), existing.getIssuedDateTime());
+            return false;
         }
+        LOGGER.debug("Stored previously used token [{}] for user [{}]", token, token.getUserId());
+        return true;
     }
 
     @Override
     public OneTimeToken get(final String uid, final Integer otp) {
-        try {
-            final Collection<OneTimeToken> tokens = this.storage.getIfPresent(uid);
-            LOGGER.debug("Found used tokens [{}]", tokens);
-            if (tokens != null) {
-                return tokens
-                        .stream()
-                        .filter(t -> t.getToken().equals(otp))
-                        .findFirst()
-                        .orElse(null);
-            }
-        } catch (final Exception e) {
-            LOGGER.warn(e.getMessage(), e);
+        if (uid == null || otp == null) {
+            return null;
         }
-        return null;
+        return this.storage.getIfPresent(new UsedToken(uid, otp));
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class UsedToken {
+        private final String userId;
+        private final int token;
     }
 }
@@ -23,6 +23,25 @@ public interface OneTimeTokenRepository {
      */
     void store(OneTimeToken token);
 
+    /**
+     * Store token/code in the repository unless it has been used already by the same user,
+     * as a single atomic check-and-record operation. Concurrent submissions of the same code
+     * are then guaranteed to be accepted at most once.
+     * <p>
+     * The default implementation checks and stores the token in two steps;
+     * implementations should override this to record tokens atomically.
+     *
+     * @param token the token
+     * @return true if the token was stored, false if it was used already.
+     */
+    default boolean storeIfAbsent(final OneTimeToken token) {
+        if (exists(token.getUserId(), token.getToken())) {
+            return false;
+        }
+        store(token);
+        return true;
+    }
+
     /**
      * Determine if the otp for user exists in repository.
      *
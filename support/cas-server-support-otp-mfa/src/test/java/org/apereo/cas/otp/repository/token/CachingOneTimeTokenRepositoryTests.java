@@ -30,6 +30,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.Assert.*;
 
 /**
@@ -64,6 +69,8 @@ import static org.junit.Assert.*;
     CasCoreWebConfiguration.class
 })
 public class CachingOneTimeTokenRepositoryTests {
+    private static final int CONCURRENT_SIZE = 16;
+
     @Autowired
     @Qualifier("oneTimeTokenAuthenticatorTokenRepository")
     private OneTimeTokenRepository repository;
@@ -76,4 +83,35 @@ public class CachingOneTimeTokenRepositoryTests {
         repository.clean();
         assertTrue(repository.exists("casuser", 1234));
     }
+
+    @Test
+    public void verifyTokenIsRecordedOnce() {
+        assertTrue(repository.storeIfAbsent(new OneTimeToken(4321, "casuser")));
+        assertFalse(repository.storeIfAbsent(new OneTimeToken(4321, "casuser")));
+        assertTrue(repository.storeIfAbsent(new OneTimeToken(4321, "otheruser")));
+    }
+
+    @Test
+    public void verifyConcurrentSubmissionsAreRecordedOnce() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_SIZE);
+        try {
+            for (int otp = 100_000; otp < 100_100; otp++) {
+                final OneTimeToken token = new OneTimeToken(otp, "concurrentuser");
+                final Callable<Boolean> submission = () -> repository.storeIfAbsent(token);
+                final long accepted = executor.invokeAll(Collections.nCopies(CONCURRENT_SIZE, submission))
+                    .stream()
+                    .filter(result -> {
+                        try {
+                            return result.get();
+                        } catch (final Exception e) {
+                            throw new AssertionError(e);
+                        }
+                    })
+                    .count();
+                assertEquals(1, accepted);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
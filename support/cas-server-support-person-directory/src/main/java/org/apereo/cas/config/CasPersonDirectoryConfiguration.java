@@ -12,7 +12,11 @@ import org.apereo.cas.configuration.model.core.authentication.GrouperPrincipalAt
 import org.apereo.cas.configuration.model.core.authentication.PrincipalAttributesProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.support.JpaBeans;
+import org.apereo.cas.persondir.AttributeRepositoryStatistics;
+import org.apereo.cas.persondir.BoundedLdaptivePersonAttributeDao;
+import org.apereo.cas.persondir.CoalescingPersonAttributeDao;
 import org.apereo.cas.persondir.DefaultPersonDirectoryAttributeRepositoryPlan;
+import org.apereo.cas.persondir.ParallelMergingPersonAttributeDao;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlan;
 import org.apereo.cas.persondir.PersonDirectoryAttributeRepositoryPlanConfigurer;
 import org.apereo.cas.util.CollectionUtils;
@@ -48,7 +52,9 @@ import org.springframework.http.HttpMethod;
 
 import javax.naming.directory.SearchControls;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -87,22 +93,35 @@ public class CasPersonDirectoryConfiguration implements PersonDirectoryAttribute
         list.addAll(scriptedAttributeRepositories());
         list.addAll(stubAttributeRepositories());
 
-        final List<PersonDirectoryAttributeRepositoryPlanConfigurer> configurers =
-            ObjectUtils.defaultIfNull(attributeRepositoryConfigurers.getIfAvailable(), new ArrayList<>());
-        final PersonDirectoryAttributeRepositoryPlan plan = new DefaultPersonDirectoryAttributeRepositoryPlan();
-        configurers.forEach(c -> c.configureAttributeRepositoryPlan(plan));
-        list.addAll(plan.getAttributeRepositories());
+        list.addAll(personDirectoryAttributeRepositoryPlan().getAttributeRepositories());
 
         OrderComparator.sort(list);
         LOGGER.debug("Final list of attribute repositories is [{}]", list);
         return list;
     }
 
+    @ConditionalOnMissingBean(name = "personDirectoryAttributeRepositoryPlan")
+    @Bean
+    @RefreshScope
+    public PersonDirectoryAttributeRepositoryPlan personDirectoryAttributeRepositoryPlan() {
+        final List<PersonDirectoryAttributeRepositoryPlanConfigurer> configurers =
+            ObjectUtils.defaultIfNull(attributeRepositoryConfigurers.getIfAvailable(), new ArrayList<>());
+        final PersonDirectoryAttributeRepositoryPlan plan = new DefaultPersonDirectoryAttributeRepositoryPlan(attributeRepositoryStatistics());
+        configurers.forEach(c -> c.configureAttributeRepositoryPlan(plan));
+        return plan;
+    }
+
+    @ConditionalOnMissingBean(name = "attributeRepositoryStatistics")
+    @Bean
+    public AttributeRepositoryStatistics attributeRepositoryStatistics() {
+        return new AttributeRepositoryStatistics();
+    }
+
     @ConditionalOnMissingBean(name = "attributeRepository")
     @Bean
     @RefreshScope
     public IPersonAttributeDao attributeRepository() {
-        return cachingAttributeRepository();
+        return new CoalescingPersonAttributeDao(cachingAttributeRepository());
     }
 
     @ConditionalOnMissingBean(name = "jsonAttributeRepositories")
@@ -221,7 +240,7 @@ public class CasPersonDirectoryConfiguration implements PersonDirectoryAttribute
         final PrincipalAttributesProperties attrs = casProperties.getAuthn().getAttributeRepository();
         attrs.getLdap().forEach(ldap -> {
             if (StringUtils.isNotBlank(ldap.getBaseDn()) && StringUtils.isNotBlank(ldap.getLdapUrl())) {
-                final LdaptivePersonAttributeDao ldapDao = new LdaptivePersonAttributeDao();
+                final LdaptivePersonAttributeDao ldapDao = new BoundedLdaptivePersonAttributeDao(LdapUtils.getSearchOperationExecutor());
 
                 LOGGER.debug("Configured LDAP attribute source for [{}] and baseDn [{}]", ldap.getLdapUrl(), ldap.getBaseDn());
                 ldapDao.setConnectionFactory(LdapUtils.newLdaptivePooledConnectionFactory(ldap));
@@ -330,20 +349,30 @@ public class CasPersonDirectoryConfiguration implements PersonDirectoryAttribute
     @Bean
     @ConditionalOnMissingBean(name = "aggregatingAttributeRepository")
     public IPersonAttributeDao aggregatingAttributeRepository() {
-        final MergingPersonAttributeDaoImpl mergingDao = new MergingPersonAttributeDaoImpl();
-        final String merger = StringUtils.defaultIfBlank(casProperties.getAuthn().getAttributeRepository().getMerger(), "replace".trim());
+        final PrincipalAttributesProperties props = casProperties.getAuthn().getAttributeRepository();
+        final String merger = StringUtils.defaultIfBlank(props.getMerger(), "replace".trim());
         LOGGER.debug("Configured merging strategy for attribute sources is [{}]", merger);
-        mergingDao.setMerger(getAttributeMerger(merger));
 
         final List<IPersonAttributeDao> list = attributeRepositories();
-        mergingDao.setPersonAttributeDaos(list);
-
         if (list.isEmpty()) {
             LOGGER.debug("No attribute repository sources are available/defined to merge together.");
         } else {
             LOGGER.debug("Configured attribute repository sources to merge together: [{}]", list);
         }
 
+        final PrincipalAttributesProperties.Parallel parallel = props.getParallel();
+        if (parallel.isEnabled()) {
+            LOGGER.debug("Attribute repository sources are queried concurrently with a deadline of [{}]", parallel.getDeadline());
+            final Map<String, Duration> sourceTimeouts = new HashMap<>();
+            parallel.getSourceTimeouts().forEach((name, timeout) -> sourceTimeouts.put(name, Beans.newDuration(timeout)));
+            return new ParallelMergingPersonAttributeDao(list, getAttributeMerger(merger), parallel.getPoolSize(),
+                Beans.newDuration(parallel.getSourceTimeout()), sourceTimeouts, Beans.newDuration(parallel.getDeadline()),
+                parallel.isFailFast(), parallel.getOptionalSources(), attributeRepositoryStatistics());
+        }
+
+        final MergingPersonAttributeDaoImpl mergingDao = new MergingPersonAttributeDaoImpl();
+        mergingDao.setMerger(getAttributeMerger(merger));
+        mergingDao.setPersonAttributeDaos(list);
         return mergingDao;
     }
 
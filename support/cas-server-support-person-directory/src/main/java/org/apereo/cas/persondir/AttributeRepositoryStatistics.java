@@ -0,0 +1,99 @@
+package org.apereo.cas.persondir;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link AttributeRepositoryStatistics}, which keeps track of the latency and outcome
+ * of queries against each attribute repository.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class AttributeRepositoryStatistics {
+
+    private final Map<String, SourceStatistics> sources = new ConcurrentHashMap<>();
+
+    /**
+     * Record a query that completed.
+     *
+     * @param name         the repository name
+     * @param latencyNanos the latency in nanoseconds
+     * @param failed       whether the query failed
+     */
+    public void recordQuery(final String name, final long latencyNanos, final boolean failed) {
+        final SourceStatistics stats = getSourceStatistics(name);
+        stats.getQueries().increment();
+        stats.getTotalLatency().add(latencyNanos);
+        stats.getMaximumLatency().accumulateAndGet(latencyNanos, Math::max);
+        if (failed) {
+            stats.getFailures().increment();
+        }
+    }
+
+    /**
+     * Record a query whose results did not arrive in time.
+     *
+     * @param name the repository name
+     */
+    public void recordTimeout(final String name) {
+        getSourceStatistics(name).getTimeouts().increment();
+    }
+
+    /**
+     * Record a query whose failure or timeout was tolerated,
+     * and whose results were left out of the merged attributes.
+     *
+     * @param name the repository name
+     */
+    public void recordSkipped(final String name) {
+        getSourceStatistics(name).getSkipped().increment();
+    }
+
+    /**
+     * Gets statistics, keyed by the repository name.
+     *
+     * @return the statistics
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        final Map<String, Map<String, Object>> results = new TreeMap<>();
+        this.sources.forEach((name, stats) -> {
+            final long queries = stats.getQueries().sum();
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("queries", queries);
+            map.put("failures", stats.getFailures().sum());
+            map.put("timeouts", stats.getTimeouts().sum());
+            map.put("skipped", stats.getSkipped().sum());
+            map.put("averageLatencyMillis", queries == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(stats.getTotalLatency().sum() / queries));
+            map.put("maximumLatencyMillis", TimeUnit.NANOSECONDS.toMillis(stats.getMaximumLatency().get()));
+            results.put(name, map);
+        });
+        return results;
+    }
+
+    private SourceStatistics getSourceStatistics(final String name) {
+        return this.sources.computeIfAbsent(name, k -> new SourceStatistics());
+    }
+
+    @Getter
+    private static class SourceStatistics {
+        private final LongAdder queries = new LongAdder();
+
+        private final LongAdder failures = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final LongAdder skipped = new LongAdder();
+
+        private final LongAdder totalLatency = new LongAdder();
+
+        private final AtomicLong maximumLatency = new AtomicLong();
+    }
+}
@@ -0,0 +1,39 @@
+package org.apereo.cas.persondir;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.util.ldap.LdapSearchOperationExecutor;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.ldap.LdaptivePersonAttributeDao;
+import org.ldaptive.LdapException;
+import org.ldaptive.SearchFilter;
+
+import java.util.List;
+
+/**
+ * This is {@link BoundedLdaptivePersonAttributeDao}, which hands its searches over to a
+ * {@link LdapSearchOperationExecutor}, so that attribute lookups count towards the number of LDAP searches
+ * that may be in flight at once and are metered along with all other LDAP searches. When attribute repositories
+ * are queried in parallel, a burst of authentication requests cannot exhaust the LDAP connection pools.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class BoundedLdaptivePersonAttributeDao extends LdaptivePersonAttributeDao {
+
+    private final LdapSearchOperationExecutor searchOperationExecutor;
+
+    public BoundedLdaptivePersonAttributeDao(final LdapSearchOperationExecutor searchOperationExecutor) {
+        this.searchOperationExecutor = searchOperationExecutor;
+    }
+
+    @Override
+    protected List<IPersonAttributes> getPeopleForQuery(final SearchFilter filter, final String userName) {
+        try {
+            return this.searchOperationExecutor.execute(() -> super.getPeopleForQuery(filter, userName));
+        } catch (final LdapException e) {
+            LOGGER.debug("Failed executing LDAP query [{}]: [{}]", filter, e.getMessage());
+            throw new IllegalStateException("Failed executing LDAP query " + filter, e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.apereo.cas.persondir;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.BasePersonAttributeDao;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * This is {@link CoalescingPersonAttributeDao}, which makes concurrent lookups of the same person
+ * share a single in-flight query against the underlying attribute repository. When several authentication
+ * or validation requests for the same user arrive at once and miss the cache, only the first of them
+ * queries the attribute repository and the others wait for, and reuse, its result. Lookups by username and
+ * queries by attributes are coalesced alike, while the latter are matched on the attributes of the query.
+ * A failed lookup is reported to every request that joined it.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class CoalescingPersonAttributeDao extends BasePersonAttributeDao {
+
+    private final IPersonAttributeDao delegate;
+
+    private final ConcurrentMap<Object, CompletableFuture<?>> lookups = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder coalescedRequests = new LongAdder();
+
+    public CoalescingPersonAttributeDao(final IPersonAttributeDao delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public IPersonAttributes getPerson(final String uid) {
+        return coalesce(uid, () -> this.delegate.getPerson(uid));
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeople(final Map<String, Object> query) {
+        return coalesce(new PeopleQuery(query, false), () -> this.delegate.getPeople(query));
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+        return coalesce(new PeopleQuery(query, true), () -> this.delegate.getPeopleWithMultivaluedAttributes(query));
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames() {
+        return this.delegate.getPossibleUserAttributeNames();
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes() {
+        return this.delegate.getAvailableQueryAttributes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(final Object key, final Supplier<T> lookup) {
+        this.requests.increment();
+        if (key == null) {
+            return lookup.get();
+        }
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final CompletableFuture<T> inFlight = (CompletableFuture<T>) this.lookups.putIfAbsent(key, future);
+        if (inFlight != null) {
+            LOGGER.trace("Joining the in-flight lookup of [{}]", key);
+            this.coalescedRequests.increment();
+            try {
+                return inFlight.join();
+            } catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            final T result = lookup.get();
+            future.complete(result);
+            return result;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.lookups.remove(key, future);
+        }
+    }
+
+    /**
+     * Key of a query by attributes, which takes a copy of the query
+     * so that callers changing it afterwards do not affect in-flight lookups.
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static class PeopleQuery {
+        private final Map<String, ?> query;
+
+        private final boolean multivalued;
+
+        PeopleQuery(final Map<String, ?> query, final boolean multivalued) {
+            this.query = query == null ? null : new HashMap<>(query);
+            this.multivalued = multivalued;
+        }
+    }
+
+    /**
+     * Gets statistics about lookups, including the share of lookups
+     * that were answered by joining a lookup already in flight.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final long total = this.requests.sum();
+        final long coalesced = this.coalescedRequests.sum();
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", total);
+        stats.put("coalescedRequests", coalesced);
+        stats.put("coalescingRatio", total == 0 ? 0D : (double) coalesced / total);
+        stats.put("inFlight", this.lookups.size());
+        return stats;
+    }
+}
@@ -1,5 +1,7 @@
 package org.apereo.cas.persondir;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.services.persondir.IPersonAttributeDao;
 import org.springframework.aop.support.AopUtils;
@@ -7,6 +9,7 @@ import org.springframework.aop.support.AopUtils;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This is {@link DefaultPersonDirectoryAttributeRepositoryPlan}.
@@ -15,8 +18,16 @@ import java.util.List;
  * @since 5.3.0
  */
 @Slf4j
+@Getter
+@RequiredArgsConstructor
 public class DefaultPersonDirectoryAttributeRepositoryPlan implements PersonDirectoryAttributeRepositoryPlan {
-    private List<IPersonAttributeDao> attributeRepositories = new ArrayList<>();
+    private final List<IPersonAttributeDao> attributeRepositories = new ArrayList<>();
+
+    private final AttributeRepositoryStatistics statistics;
+
+    public DefaultPersonDirectoryAttributeRepositoryPlan() {
+        this(new AttributeRepositoryStatistics());
+    }
 
     @Override
     public void registerAttributeRepository(final IPersonAttributeDao repository) {
@@ -29,4 +40,9 @@ public class DefaultPersonDirectoryAttributeRepositoryPlan implements PersonDire
     public Collection<IPersonAttributeDao> getAttributeRepositories() {
         return attributeRepositories;
     }
+
+    @Override
+    public Map<String, Map<String, Object>> getAttributeRepositoryStatistics() {
+        return this.statistics.getStatistics();
+    }
 }
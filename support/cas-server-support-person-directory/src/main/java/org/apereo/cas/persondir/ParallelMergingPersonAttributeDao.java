@@ -0,0 +1,224 @@
+package org.apereo.cas.persondir;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.AbstractDefaultAttributePersonAttributeDao;
+import org.apereo.services.persondir.support.merger.IAttributeMerger;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDao}, which queries all attribute repositories concurrently
+ * on a dedicated pool of threads, so that the latency of attribute resolution is bound by the slowest repository
+ * rather than the sum of all repositories.
+ * <p>
+ * Each repository is given its own timeout, and all repositories share an overall deadline. Results are merged
+ * in the order of the repositories using the configured {@link IAttributeMerger}, just as
+ * {@link org.apereo.services.persondir.support.MergingPersonAttributeDaoImpl} would, skipping repositories whose
+ * results did not arrive in time. Repositories that fail or time out are skipped, which is logged and recorded in
+ * the {@link AttributeRepositoryStatistics}. In fail-fast mode, failures and timeouts of repositories that are not
+ * marked as optional fail the lookup instead.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+@Getter
+public class ParallelMergingPersonAttributeDao extends AbstractDefaultAttributePersonAttributeDao implements DisposableBean {
+    /**
+     * Marks all attribute repositories as optional.
+     */
+    public static final String ALL_SOURCES = "*";
+
+    private final Map<String, IPersonAttributeDao> personAttributeDaos;
+
+    private final IAttributeMerger merger;
+
+    private final ExecutorService executorService;
+
+    private final Duration sourceTimeout;
+
+    private final Map<String, Duration> sourceTimeouts;
+
+    private final Duration deadline;
+
+    private final boolean failFast;
+
+    private final Set<String> optionalSources;
+
+    private final AttributeRepositoryStatistics statistics;
+
+    public ParallelMergingPersonAttributeDao(final List<IPersonAttributeDao> personAttributeDaos, final IAttributeMerger merger,
+                                             final int poolSize, final Duration sourceTimeout, final Map<String, Duration> sourceTimeouts,
+                                             final Duration deadline, final boolean failFast, final Set<String> optionalSources,
+                                             final AttributeRepositoryStatistics statistics) {
+        this.personAttributeDaos = getNamedAttributeRepositories(personAttributeDaos);
+        this.merger = merger;
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, poolSize), newThreadFactory());
+        this.sourceTimeout = sourceTimeout;
+        this.sourceTimeouts = new HashMap<>(sourceTimeouts);
+        this.deadline = deadline;
+        this.failFast = failFast;
+        this.optionalSources = new LinkedHashSet<>(optionalSources);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+        final long start = System.nanoTime();
+        final long deadlineNanos = start + this.deadline.toNanos();
+
+        final Map<String, Future<Set<IPersonAttributes>>> futures = new LinkedHashMap<>();
+        this.personAttributeDaos.forEach((name, dao) -> futures.put(name, this.executorService.submit(() -> query(name, dao, query))));
+
+        Set<IPersonAttributes> results = null;
+        try {
+            for (final Map.Entry<String, Future<Set<IPersonAttributes>>> entry : futures.entrySet()) {
+                final String name = entry.getKey();
+                final Set<IPersonAttributes> people = getResults(name, entry.getValue(), start, deadlineNanos);
+                if (people != null) {
+                    results = results == null ? new LinkedHashSet<>(people) : this.merger.mergeResults(results, people);
+                }
+            }
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        LOGGER.debug("Merged attributes from [{}] attribute repositories in [{}] ms",
+            futures.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return results;
+    }
+
+    @Override
+    public Set<String> getPossibleUserAttributeNames() {
+        Set<String> names = null;
+        for (final IPersonAttributeDao dao : this.personAttributeDaos.values()) {
+            final Set<String> current = dao.getPossibleUserAttributeNames();
+            if (current != null) {
+                names = names == null ? new LinkedHashSet<>(current) : this.merger.mergePossibleUserAttributeNames(names, current);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public Set<String> getAvailableQueryAttributes() {
+        Set<String> names = null;
+        for (final IPersonAttributeDao dao : this.personAttributeDaos.values()) {
+            final Set<String> current = dao.getAvailableQueryAttributes();
+            if (current != null) {
+                names = names == null ? new LinkedHashSet<>(current) : this.merger.mergeAvailableQueryAttributes(names, current);
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public void destroy() {
+        this.executorService.shutdownNow();
+    }
+
+    private Set<IPersonAttributes> query(final String name, final IPersonAttributeDao dao, final Map<String, List<Object>> query) {
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final Set<IPersonAttributes> people = dao.getPeopleWithMultivaluedAttributes(query);
+            failed = false;
+            return people;
+        } finally {
+            this.statistics.recordQuery(name, System.nanoTime() - start, failed);
+        }
+    }
+
+    private Set<IPersonAttributes> getResults(final String name, final Future<Set<IPersonAttributes>> future,
+                                              final long start, final long deadlineNanos) {
+        final Duration timeout = this.sourceTimeouts.getOrDefault(name, this.sourceTimeout);
+        final long waitNanos = Math.min(start + timeout.toNanos(), deadlineNanos) - System.nanoTime();
+        try {
+            return future.get(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            this.statistics.recordTimeout(name);
+            return handleFailure(name, new IllegalStateException("Attribute repository [" + name + "] did not produce results in time", e));
+        } catch (final ExecutionException e) {
+            return handleFailure(name, e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return handleFailure(name, e);
+        }
+    }
+
+    private Set<IPersonAttributes> handleFailure(final String name, final Throwable e) {
+        if (!this.failFast || isOptional(name)) {
+            LOGGER.warn("Attribute repository [{}] is skipped: [{}]", name, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            this.statistics.recordSkipped(name);
+            return null;
+        }
+        LOGGER.error("Attribute repository [{}] failed: [{}]", name, e.getMessage());
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw new IllegalStateException(e.getMessage(), e);
+    }
+
+    private boolean isOptional(final String name) {
+        return this.optionalSources.contains(ALL_SOURCES) || this.optionalSources.contains(name)
+            || this.optionalSources.contains(getTypeName(this.personAttributeDaos.get(name)));
+    }
+
+    /**
+     * Attribute repositories are named after their type, suffixed with
+     * their position among repositories of the same type if needed.
+     */
+    private static Map<String, IPersonAttributeDao> getNamedAttributeRepositories(final Collection<IPersonAttributeDao> daos) {
+        final Map<String, Integer> counts = new HashMap<>();
+        final Map<String, IPersonAttributeDao> named = new LinkedHashMap<>();
+        daos.forEach(dao -> {
+            final String type = getTypeName(dao);
+            final int count = counts.merge(type, 1, Integer::sum);
+            named.put(count == 1 ? type : type + '-' + count, dao);
+        });
+        return named;
+    }
+
+    private static String getTypeName(final IPersonAttributeDao dao) {
+        return AopUtils.isAopProxy(dao) ? AopUtils.getTargetClass(dao).getSimpleName() : dao.getClass().getSimpleName();
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "cas-attribute-repository-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Gets the names of the attribute repositories.
+     *
+     * @return the names
+     */
+    public Collection<String> getAttributeRepositoryNames() {
+        return new ArrayList<>(this.personAttributeDaos.keySet());
+    }
+}
@@ -3,6 +3,8 @@ package org.apereo.cas.persondir;
 import org.apereo.services.persondir.IPersonAttributeDao;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * This is {@link PersonDirectoryAttributeRepositoryPlan}.
@@ -25,4 +27,14 @@ public interface PersonDirectoryAttributeRepositoryPlan {
      * @return the attribute repositories
      */
     Collection<IPersonAttributeDao> getAttributeRepositories();
+
+    /**
+     * Gets the latency and outcome of queries against attribute repositories,
+     * keyed by the repository name, when repositories are queried concurrently.
+     *
+     * @return the statistics
+     */
+    default Map<String, Map<String, Object>> getAttributeRepositoryStatistics() {
+        return new LinkedHashMap<>(0);
+    }
 }
@@ -0,0 +1,152 @@
+package org.apereo.cas.persondir;
+
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.StubPersonAttributeDao;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link CoalescingPersonAttributeDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class CoalescingPersonAttributeDaoTests {
+    private static final int CONCURRENCY = 4;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+
+    private final BlockingPersonAttributeDao delegate = new BlockingPersonAttributeDao();
+
+    private final CoalescingPersonAttributeDao dao = new CoalescingPersonAttributeDao(this.delegate);
+
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void verifyConcurrentLookupsOfSamePersonShareOneQuery() throws Exception {
+        final List<Future<IPersonAttributes>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(this.executor.submit(() -> this.dao.getPerson("casuser")));
+        }
+        awaitCoalescedRequests(CONCURRENCY - 1);
+        this.delegate.release.countDown();
+
+        for (final Future<IPersonAttributes> result : results) {
+            assertEquals("casuser", result.get(10, TimeUnit.SECONDS).getName());
+        }
+        assertEquals(1, this.delegate.queries.get());
+        assertEquals(0, this.dao.getStatistics().get("inFlight"));
+
+        this.dao.getPerson("casuser");
+        assertEquals(2, this.delegate.queries.get());
+    }
+
+    @Test
+    public void verifyConcurrentQueriesByAttributesShareOneQuery() throws Exception {
+        final Map<String, List<Object>> query = Collections.singletonMap("username", Collections.singletonList("casuser"));
+        final List<Future<Set<IPersonAttributes>>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(this.executor.submit(() -> this.dao.getPeopleWithMultivaluedAttributes(new HashMap<>(query))));
+        }
+        awaitCoalescedRequests(CONCURRENCY - 1);
+        this.delegate.release.countDown();
+
+        for (final Future<Set<IPersonAttributes>> result : results) {
+            assertEquals(1, result.get(10, TimeUnit.SECONDS).size());
+        }
+        assertEquals(1, this.delegate.queries.get());
+    }
+
+    @Test
+    public void verifyFailureIsPropagatedToJoinedLookups() throws Exception {
+        this.delegate.failure = new IllegalStateException("Attribute repository is down");
+        final List<Future<IPersonAttributes>> results = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            results.add(this.executor.submit(() -> this.dao.getPerson("casuser")));
+        }
+        awaitCoalescedRequests(CONCURRENCY - 1);
+        this.delegate.release.countDown();
+
+        for (final Future<IPersonAttributes> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("Expected the lookup to fail");
+            } catch (final ExecutionException e) {
+                assertSame(this.delegate.failure, e.getCause());
+            }
+        }
+        assertEquals(1, this.delegate.queries.get());
+        assertEquals(0, this.dao.getStatistics().get("inFlight"));
+    }
+
+    private void awaitCoalescedRequests(final long count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while ((Long) this.dao.getStatistics().get("coalescedRequests") < count) {
+            assertTrue("Lookups were not coalesced in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class BlockingPersonAttributeDao extends StubPersonAttributeDao {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger queries = new AtomicInteger();
+
+        private volatile RuntimeException failure;
+
+        BlockingPersonAttributeDao() {
+            super(newAttributes());
+        }
+
+        @Override
+        public IPersonAttributes getPerson(final String uid) {
+            await();
+            return super.getPerson(uid);
+        }
+
+        @Override
+        public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+            await();
+            return super.getPeopleWithMultivaluedAttributes(query);
+        }
+
+        private void await() {
+            this.queries.incrementAndGet();
+            try {
+                this.release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            if (this.failure != null) {
+                throw this.failure;
+            }
+        }
+
+        private static Map<String, List<Object>> newAttributes() {
+            final Map<String, List<Object>> attributes = new HashMap<>();
+            attributes.put("username", Collections.singletonList("casuser"));
+            attributes.put("cn", Collections.singletonList("CAS User"));
+            return attributes;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.apereo.cas.persondir;
+
+import org.apereo.services.persondir.IPersonAttributeDao;
+import org.apereo.services.persondir.IPersonAttributes;
+import org.apereo.services.persondir.support.StubPersonAttributeDao;
+import org.apereo.services.persondir.support.merger.ReplacingAttributeAdder;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link ParallelMergingPersonAttributeDaoTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class ParallelMergingPersonAttributeDaoTests {
+    private static final Map<String, List<Object>> QUERY = Collections.singletonMap("username", Collections.singletonList("casuser"));
+
+    private final AttributeRepositoryStatistics statistics = new AttributeRepositoryStatistics();
+
+    @Test
+    public void verifyResultsAreMergedInOrderOfRepositories() {
+        final ParallelMergingPersonAttributeDao dao = newDao(Duration.ofSeconds(5), false, Collections.emptySet(),
+            new SlowPersonAttributeDao(newAttributes("first"), 300),
+            new StubPersonAttributeDao(newAttributes("second")));
+        try {
+            final IPersonAttributes person = getPerson(dao);
+            assertEquals(Collections.singletonList("second"), person.getAttributes().get("source"));
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    @Test
+    public void verifyDeadlineSkipsSlowRepositories() {
+        final ParallelMergingPersonAttributeDao dao = newDao(Duration.ofMillis(200), false, Collections.emptySet(),
+            new StubPersonAttributeDao(newAttributes("fast")),
+            new SlowPersonAttributeDao(newAttributes("slow"), 10_000));
+        try {
+            final long start = System.currentTimeMillis();
+            final IPersonAttributes person = getPerson(dao);
+            assertTrue(System.currentTimeMillis() - start < 5_000);
+            assertEquals(Collections.singletonList("fast"), person.getAttributes().get("source"));
+
+            final Map<String, Object> slow = this.statistics.getStatistics().get(SlowPersonAttributeDao.class.getSimpleName());
+            assertEquals(1L, slow.get("timeouts"));
+            assertEquals(1L, slow.get("skipped"));
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    @Test
+    public void verifyFailingRepositoriesAreSkippedByDefault() {
+        final ParallelMergingPersonAttributeDao dao = newDao(Duration.ofSeconds(5), false, Collections.emptySet(),
+            new StubPersonAttributeDao(newAttributes("healthy")),
+            new FailingPersonAttributeDao());
+        try {
+            final IPersonAttributes person = getPerson(dao);
+            assertEquals(Collections.singletonList("healthy"), person.getAttributes().get("source"));
+
+            final Map<String, Object> failing = this.statistics.getStatistics().get(FailingPersonAttributeDao.class.getSimpleName());
+            assertEquals(1L, failing.get("failures"));
+            assertEquals(1L, failing.get("skipped"));
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void verifyRequiredRepositoryFailsLookupWhenFailingFast() {
+        final ParallelMergingPersonAttributeDao dao = newDao(Duration.ofSeconds(5), true, Collections.emptySet(),
+            new StubPersonAttributeDao(newAttributes("healthy")),
+            new FailingPersonAttributeDao());
+        try {
+            dao.getPeopleWithMultivaluedAttributes(QUERY);
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    @Test
+    public void verifyOptionalRepositoryIsSkippedWhenFailingFast() {
+        final ParallelMergingPersonAttributeDao dao = newDao(Duration.ofSeconds(5), true,
+            Collections.singleton(FailingPersonAttributeDao.class.getSimpleName()),
+            new StubPersonAttributeDao(newAttributes("healthy")),
+            new FailingPersonAttributeDao());
+        try {
+            final IPersonAttributes person = getPerson(dao);
+            assertEquals(Collections.singletonList("healthy"), person.getAttributes().get("source"));
+        } finally {
+            dao.destroy();
+        }
+    }
+
+    private ParallelMergingPersonAttributeDao newDao(final Duration deadline, final boolean failFast, final Set<String> optionalSources,
+                                                     final IPersonAttributeDao... daos) {
+        return new ParallelMergingPersonAttributeDao(Arrays.asList(daos), new ReplacingAttributeAdder(), 4,
+            Duration.ofSeconds(5), Collections.emptyMap(), deadline, failFast, optionalSources, this.statistics);
+    }
+
+    private static IPersonAttributes getPerson(final ParallelMergingPersonAttributeDao dao) {
+        final Set<IPersonAttributes> people = dao.getPeopleWithMultivaluedAttributes(QUERY);
+        assertNotNull(people);
+        assertEquals(1, people.size());
+        return people.iterator().next();
+    }
+
+    private static Map<String, List<Object>> newAttributes(final String source) {
+        final Map<String, List<Object>> attributes = new HashMap<>();
+        attributes.put("username", Collections.singletonList("casuser"));
+        attributes.put("source", Collections.singletonList(source));
+        return attributes;
+    }
+
+    private static class SlowPersonAttributeDao extends StubPersonAttributeDao {
+        private final long delay;
+
+        SlowPersonAttributeDao(final Map<String, List<Object>> attributes, final long delay) {
+            super(attributes);
+            this.delay = delay;
+        }
+
+        @Override
+        public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+            try {
+                Thread.sleep(this.delay);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return super.getPeopleWithMultivaluedAttributes(query);
+        }
+    }
+
+    private static class FailingPersonAttributeDao extends StubPersonAttributeDao {
+        @Override
+        public Set<IPersonAttributes> getPeopleWithMultivaluedAttributes(final Map<String, List<Object>> query) {
+            throw new IllegalStateException("Attribute repository is down");
+        }
+    }
+}
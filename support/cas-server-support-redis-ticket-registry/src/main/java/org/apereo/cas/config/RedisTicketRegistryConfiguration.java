@@ -2,19 +2,27 @@ package org.apereo.cas.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.configuration.model.support.redis.RedisTicketRegistryProperties;
 import org.apereo.cas.redis.core.RedisObjectFactory;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketCatalog;
+import org.apereo.cas.ticket.registry.NearCacheInvalidationChannel;
+import org.apereo.cas.ticket.registry.RedisNearCacheInvalidationChannel;
 import org.apereo.cas.ticket.registry.RedisTicketRegistry;
 import org.apereo.cas.ticket.registry.TicketRegistry;
+import org.apereo.cas.ticket.serialization.TicketCodec;
 import org.apereo.cas.util.CoreTicketUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 /**
  * This is {@link RedisTicketRegistryConfiguration}.
@@ -30,6 +38,10 @@ public class RedisTicketRegistryConfiguration {
     @Autowired
     private CasConfigurationProperties casProperties;
 
+    @Autowired
+    @Qualifier("ticketRegistryCodec")
+    private TicketCodec ticketRegistryCodec;
+
     @ConditionalOnMissingBean(name = "redisTicketConnectionFactory")
     @Bean
     public RedisConnectionFactory redisTicketConnectionFactory() {
@@ -46,10 +58,32 @@ public class RedisTicketRegistryConfiguration {
     }
 
     @Bean
-    public TicketRegistry ticketRegistry() {
+    @ConditionalOnMissingBean(name = "redisNearCacheListenerContainer")
+    public RedisMessageListenerContainer redisNearCacheListenerContainer() {
+        final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTicketConnectionFactory());
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(name = "ticketRegistryNearCacheInvalidationChannel")
+    public NearCacheInvalidationChannel ticketRegistryNearCacheInvalidationChannel() {
+        if (!casProperties.getTicket().getRegistry().getNearCache().isEnabled()) {
+            return NearCacheInvalidationChannel.local();
+        }
+        return new RedisNearCacheInvalidationChannel(new StringRedisTemplate(redisTicketConnectionFactory()), redisNearCacheListenerContainer());
+    }
+
+    @Autowired
+    @Bean
+    public TicketRegistry ticketRegistry(@Qualifier("ticketCatalog") final TicketCatalog ticketCatalog) {
         final RedisTicketRegistryProperties redis = casProperties.getTicket().getRegistry().getRedis();
-        final RedisTicketRegistry r = new RedisTicketRegistry(ticketRedisTemplate());
+        final RedisTicketRegistry r = new RedisTicketRegistry(ticketRedisTemplate(), redis.getBatchSize());
         r.setCipherExecutor(CoreTicketUtils.newTicketRegistryCipherExecutor(redis.getCrypto(), "redis"));
-        return r;
+        r.setTicketCodec(ticketRegistryCodec);
+        r.setCountCacheDuration(Beans.newDuration(casProperties.getTicket().getRegistry().getCountCacheDuration()));
+        final TicketRegistry registry = CoreTicketUtils.newNearCacheTicketRegistry(r, casProperties.getTicket().getRegistry().getNearCache(),
+            ticketCatalog, ticketRegistryNearCacheInvalidationChannel(), ticketRegistryCodec);
+        return CoreTicketUtils.newTieredTicketRegistry(registry, casProperties.getTicket().getRegistry().getTiered(), ticketCatalog);
     }
 }
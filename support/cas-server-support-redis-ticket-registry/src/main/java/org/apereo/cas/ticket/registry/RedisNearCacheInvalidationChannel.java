@@ -0,0 +1,71 @@
+package org.apereo.cas.ticket.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * This is {@link RedisNearCacheInvalidationChannel}, which broadcasts near cache invalidations
+ * over Redis pub/sub. Messages carry the identifier of the publishing node, so a node
+ * does not drop the tickets it has just refreshed in its own near cache.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class RedisNearCacheInvalidationChannel implements NearCacheInvalidationChannel {
+    /**
+     * Default topic on which invalidations are published.
+     */
+    public static final String DEFAULT_TOPIC = "CAS_NEAR_CACHE_INVALIDATIONS";
+
+    private static final char SEPARATOR = '|';
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ChannelTopic topic;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisNearCacheInvalidationChannel(final StringRedisTemplate redisTemplate,
+                                             final RedisMessageListenerContainer listenerContainer) {
+        this(redisTemplate, listenerContainer, DEFAULT_TOPIC);
+    }
+
+    public RedisNearCacheInvalidationChannel(final StringRedisTemplate redisTemplate,
+                                             final RedisMessageListenerContainer listenerContainer,
+                                             final String topic) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(topic);
+    }
+
+    @Override
+    public void publish(final String ticketId) {
+        try {
+            this.redisTemplate.convertAndSend(this.topic.getTopic(), this.nodeId + SEPARATOR + ticketId);
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to publish the near cache invalidation of [{}]: [{}]", ticketId, e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<String> listener) {
+        this.listenerContainer.addMessageListener((message, pattern) -> {
+            final String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            final String origin = StringUtils.substringBefore(body, String.valueOf(SEPARATOR));
+            if (!this.nodeId.equals(origin)) {
+                listener.accept(StringUtils.substringAfter(body, String.valueOf(SEPARATOR)));
+            }
+        }, this.topic);
+    }
+}
@@ -1,44 +1,91 @@
 package org.apereo.cas.ticket.registry;
 
-import lombok.AllArgsConstructor;
+import com.google.common.collect.Iterators;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Key-value ticket registry implementation that stores tickets in redis keyed on the ticket ID.
+ * Bulk operations walk the key space with {@code SCAN} cursors and fetch tickets in
+ * {@code MGET} batches, so that the redis server is never blocked by {@code KEYS}.
+ * Sessions and service tickets are also tracked in sorted sets per type, scored by the time
+ * at which redis expires the ticket, so that they can be counted without walking the key space.
+ * Each type is spread over several sorted sets by ticket id, so that adding and updating tickets
+ * does not contend on a single key and the sets are distributed across the nodes of a cluster.
  *
  * @author serv
  * @since 5.1.0
  */
 @Slf4j
-@AllArgsConstructor
 public class RedisTicketRegistry extends AbstractTicketRegistry {
+    /**
+     * Default number of keys requested per scan iteration and fetched per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
     private static final String CAS_TICKET_PREFIX = "CAS_TICKET:";
 
+    private static final String CAS_PRINCIPAL_PREFIX = "CAS_PRINCIPAL:";
+
+    private static final String CAS_TICKET_COUNT_PREFIX = "CAS_TICKET_COUNT:";
+
+    private static final int TICKET_COUNT_SHARDS = 16;
+
+    private static final List<Class<? extends Ticket>> COUNTED_TICKET_TYPES = Arrays.asList(TicketGrantingTicket.class, ServiceTicket.class);
+
     @NotNull
     private final RedisTemplate<String, Ticket> client;
 
+    private final int batchSize;
+
+    public RedisTicketRegistry(final RedisTemplate<String, Ticket> client) {
+        this(client, DEFAULT_BATCH_SIZE);
+    }
+
+    public RedisTicketRegistry(final RedisTemplate<String, Ticket> client, final int batchSize) {
+        this.client = client;
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
     @Override
     public long deleteAll() {
-        final Set<String> redisKeys = this.client.keys(getPatternTicketRedisKey());
-        final int size = redisKeys.size();
-        this.client.delete(redisKeys);
+        final long size = deleteKeysMatching(getPatternTicketRedisKey());
+        deleteKeysMatching(CAS_PRINCIPAL_PREFIX + "*");
+        deleteKeysMatching(CAS_TICKET_COUNT_PREFIX + "*");
         return size;
     }
-    
+
     @Override
     public boolean deleteSingleTicket(final String ticketId) {
         try {
             final String redisKey = getTicketRedisKey(ticketId);
             this.client.delete(redisKey);
+            uncountTickets(Collections.singletonList(ticketId));
             return true;
         } catch (final Exception e) {
             LOGGER.error("Ticket not found or is already removed. Failed deleting [{}]", ticketId, e);
@@ -46,6 +93,33 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Tickets are removed with one {@code DEL} command per batch of keys.</p>
+     */
+    @Override
+    protected int deleteSingleTickets(final Collection<String> ticketIds) {
+        try {
+            final RedisSerializer<String> serializer = getKeySerializer();
+            final Iterator<List<String>> batches = Iterators.partition(ticketIds.iterator(), this.batchSize);
+            long count = 0;
+            while (batches.hasNext()) {
+                final List<String> batch = batches.next();
+                final byte[][] keys = batch
+                    .stream()
+                    .map(ticketId -> serializer.serialize(getTicketRedisKey(ticketId)))
+                    .toArray(byte[][]::new);
+                final Long deleted = this.client.execute((RedisCallback<Long>) connection -> connection.del(keys));
+                count += deleted == null ? 0 : deleted;
+                uncountTickets(batch);
+            }
+            return (int) count;
+        } catch (final Exception e) {
+            LOGGER.error("Failed deleting tickets [{}]", ticketIds, e);
+        }
+        return 0;
+    }
+
     @Override
     public void addTicket(final Ticket ticket) {
         try {
@@ -55,11 +129,41 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             final Ticket encodeTicket = this.encodeTicket(ticket);
             this.client.boundValueOps(redisKey)
                     .set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            indexSession(ticket);
+            countTicket(ticket);
         } catch (final Exception e) {
             LOGGER.error("Failed to add [{}]", ticket, e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Sessions are indexed in a redis set per principal, which lives as long as the longest session.
+     * Members of the set whose tickets have expired or were removed are pruned as the set is read.</p>
+     */
+    @Override
+    public Stream<TicketGrantingTicket> getSessionsFor(final String principalId) {
+        final RedisSerializer<String> serializer = getKeySerializer();
+        final byte[] principalKey = serializer.serialize(getPrincipalRedisKey(getPrincipalIndexKey(principalId)));
+        final Set<byte[]> members = this.client.execute((RedisCallback<Set<byte[]>>) connection -> connection.sMembers(principalKey));
+        if (members == null) {
+            return Stream.empty();
+        }
+        return members.stream()
+            .map(member -> {
+                final String ticketId = serializer.deserialize(member);
+                final Ticket ticket = getTicket(ticketId);
+                if (ticket == null) {
+                    LOGGER.trace("Ticket [{}] is no longer found in the registry and is removed from the principal index", ticketId);
+                    this.client.execute((RedisCallback<Long>) connection -> connection.sRem(principalKey, member));
+                }
+                return ticket;
+            })
+            .filter(TicketGrantingTicket.class::isInstance)
+            .map(TicketGrantingTicket.class::cast);
+    }
+
+
     @Override
     public Ticket getTicket(final String ticketId) {
         try {
@@ -82,18 +186,108 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
 
     @Override
     public Collection<Ticket> getTickets() {
-        return this.client.keys(getPatternTicketRedisKey()).stream()
-                .map(redisKey -> {
-                    final Ticket ticket = this.client.boundValueOps(redisKey).get();
-                    if (ticket == null) {
-                        this.client.delete(redisKey);
-                        return null;
-                    }
-                    return ticket;
-                })
-                .filter(Objects::nonNull)
-                .map(this::decodeTicket)
-                .collect(Collectors.toSet());
+        try (Stream<Ticket> tickets = getTicketsStream()) {
+            return tickets.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Ticket keys are located via a {@code SCAN} cursor, and tickets are fetched
+     * in {@code MGET} batches. The stream holds a redis connection until it is fully
+     * consumed or closed.</p>
+     */
+    @Override
+    public Stream<Ticket> getTicketsStream() {
+        return getTicketsStream(this.batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Expired tickets are generally evicted by redis itself once their time-to-live elapses;
+     * the key space is scanned and fetched {@code batchSize} keys at a time to find the rest.
+     * Entries that can no longer be read, such as tickets written with an incompatible codec,
+     * are removed as they are found.</p>
+     */
+    @Override
+    public Stream<Ticket> getExpiredTickets(final int batchSize) {
+        return getTicketsStream(batchSize, true).filter(Ticket::isExpired);
+    }
+
+    private Stream<Ticket> getTicketsStream(final int count) {
+        return getTicketsStream(count, false);
+    }
+
+    private Stream<Ticket> getTicketsStream(final int count, final boolean removeUnreadable) {
+        final Cursor<byte[]> cursor = scanKeys(getPatternTicketRedisKey(), count);
+        final Spliterator<List<byte[]>> batches = Spliterators.spliteratorUnknownSize(
+            Iterators.partition(cursor, count), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(batches, false)
+            .onClose(() -> closeCursor(cursor))
+            .flatMap(keys -> readTickets(keys, removeUnreadable).stream());
+    }
+
+    private List<Ticket> readTickets(final List<byte[]> keys, final boolean removeUnreadable) {
+        final List<byte[]> values = this.client.execute((RedisCallback<List<byte[]>>)
+            connection -> connection.mGet(keys.toArray(new byte[keys.size()][])));
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        final List<Ticket> tickets = new ArrayList<>(values.size());
+        final List<byte[]> unreadable = new ArrayList<>();
+        for (int i = 0; i < values.size(); i++) {
+            final byte[] value = values.get(i);
+            if (value != null) {
+                final Ticket ticket = readTicket(value);
+                if (ticket == null) {
+                    unreadable.add(keys.get(i));
+                } else {
+                    tickets.add(ticket);
+                }
+            }
+        }
+        if (removeUnreadable && !unreadable.isEmpty()) {
+            LOGGER.warn("Removing [{}] ticket(s) from redis that cannot be read", unreadable.size());
+            this.client.execute((RedisCallback<Long>) connection -> connection.del(unreadable.toArray(new byte[unreadable.size()][])));
+        }
+        return tickets;
+    }
+
+    private Ticket readTicket(final byte[] value) {
+        try {
+            final Ticket ticket = getValueSerializer().deserialize(value);
+            return ticket == null ? null : decodeTicket(ticket);
+        } catch (final Exception e) {
+            LOGGER.warn("Ticket cannot be read from redis: [{}]", e.getMessage());
+            LOGGER.debug(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>All tickets are written in a single pipelined round trip.</p>
+     */
+    @Override
+    public void updateAndAddTickets(final Collection<? extends Ticket> ticketsToUpdate, final Collection<? extends Ticket> ticketsToAdd) {
+        try {
+            final List<Ticket> tickets = new ArrayList<>(ticketsToUpdate);
+            tickets.addAll(ticketsToAdd);
+            LOGGER.debug("Saving tickets [{}] in a single pipeline", tickets);
+            final RedisSerializer<String> keySerializer = getKeySerializer();
+            final RedisSerializer<Ticket> valueSerializer = getValueSerializer();
+            this.client.executePipelined((RedisCallback<Object>) connection -> {
+                tickets.forEach(ticket -> {
+                    connection.setEx(keySerializer.serialize(getTicketRedisKey(ticket.getId())),
+                        getTimeout(ticket), valueSerializer.serialize(encodeTicket(ticket)));
+                    countTicket(connection, ticket);
+                });
+                return null;
+            });
+            ticketsToAdd.forEach(this::indexSession);
+        } catch (final Exception e) {
+            LOGGER.error("Failed to save tickets [{}] and [{}]", ticketsToUpdate, ticketsToAdd, e);
+        }
     }
 
     @Override
@@ -103,6 +297,7 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
             final Ticket encodeTicket = this.encodeTicket(ticket);
             final String redisKey = getTicketRedisKey(ticket.getId());
             this.client.boundValueOps(redisKey).set(encodeTicket, getTimeout(ticket), TimeUnit.SECONDS);
+            countTicket(ticket);
             return encodeTicket;
         } catch (final Exception e) {
             LOGGER.error("Failed to update [{}]", ticket, e);
@@ -110,6 +305,31 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return null;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Sessions and service tickets are counted via their sorted sets, once members whose tickets
+     * have been expired by redis are pruned; other types are counted by walking the key space.</p>
+     */
+    @Override
+    protected long countTickets(final Class<? extends Ticket> type) {
+        if (!COUNTED_TICKET_TYPES.contains(type)) {
+            return super.countTickets(type);
+        }
+        final RedisSerializer<String> serializer = getKeySerializer();
+        final long now = System.currentTimeMillis();
+        final Long count = this.client.execute((RedisCallback<Long>) connection -> {
+            long total = 0;
+            for (int shard = 0; shard < TICKET_COUNT_SHARDS; shard++) {
+                final byte[] countKey = serializer.serialize(getTicketCountRedisKey(type, shard));
+                connection.zRemRangeByScore(countKey, 0, now);
+                final Long shardCount = connection.zCard(countKey);
+                total += shardCount == null ? 0 : shardCount;
+            }
+            return total;
+        });
+        return count == null ? 0 : count;
+    }
+
     /**
      * If not time out value is specified, expire the ticket immediately.
      *
@@ -124,6 +344,107 @@ public class RedisTicketRegistry extends AbstractTicketRegistry {
         return ttl;
     }
 
+    private long deleteKeysMatching(final String pattern) {
+        final Cursor<byte[]> cursor = scanKeys(pattern);
+        try {
+            long count = 0;
+            final Iterator<List<byte[]>> batches = Iterators.partition(cursor, this.batchSize);
+            while (batches.hasNext()) {
+                final List<byte[]> keys = batches.next();
+                this.client.execute((RedisCallback<Long>) connection -> connection.del(keys.toArray(new byte[keys.size()][])));
+                count += keys.size();
+            }
+            return count;
+        } finally {
+            closeCursor(cursor);
+        }
+    }
+
+    private Cursor<byte[]> scanKeys(final String pattern) {
+        return scanKeys(pattern, this.batchSize);
+    }
+
+    private Cursor<byte[]> scanKeys(final String pattern, final int count) {
+        final ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        return this.client.executeWithStickyConnection(connection -> connection.scan(options));
+    }
+
+    @SneakyThrows
+    private static void closeCursor(final Cursor<byte[]> cursor) {
+        if (!cursor.isClosed()) {
+            cursor.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<String> getKeySerializer() {
+        return (RedisSerializer<String>) this.client.getKeySerializer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<Ticket> getValueSerializer() {
+        return (RedisSerializer<Ticket>) this.client.getValueSerializer();
+    }
+
+    private void indexSession(final Ticket ticket) {
+        final String principal = getPrincipalIndexKey(ticket);
+        if (principal == null) {
+            return;
+        }
+        final RedisSerializer<String> serializer = getKeySerializer();
+        final byte[] principalKey = serializer.serialize(getPrincipalRedisKey(principal));
+        final byte[] member = serializer.serialize(ticket.getId());
+        final long timeout = getTimeout(ticket);
+        this.client.execute((RedisCallback<Object>) connection -> {
+            connection.sAdd(principalKey, member);
+            final Long ttl = connection.ttl(principalKey);
+            if (ttl == null || ttl < timeout) {
+                connection.expire(principalKey, timeout);
+            }
+            return null;
+        });
+    }
+
+    private void countTicket(final Ticket ticket) {
+        this.client.execute((RedisCallback<Object>) connection -> {
+            countTicket(connection, ticket);
+            return null;
+        });
+    }
+
+    private void countTicket(final RedisConnection connection, final Ticket ticket) {
+        final RedisSerializer<String> serializer = getKeySerializer();
+        final long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(getTimeout(ticket));
+        COUNTED_TICKET_TYPES.stream()
+            .filter(type -> type.isInstance(ticket))
+            .forEach(type -> connection.zAdd(serializer.serialize(getTicketCountRedisKey(type, getTicketCountShard(ticket.getId()))),
+                expiresAt, serializer.serialize(ticket.getId())));
+    }
+
+    private void uncountTickets(final Collection<String> ticketIds) {
+        final RedisSerializer<String> serializer = getKeySerializer();
+        final Map<Integer, List<String>> shards = ticketIds.stream().collect(Collectors.groupingBy(RedisTicketRegistry::getTicketCountShard));
+        this.client.execute((RedisCallback<Object>) connection -> {
+            shards.forEach((shard, ids) -> {
+                final byte[][] members = ids.stream().map(serializer::serialize).toArray(byte[][]::new);
+                COUNTED_TICKET_TYPES.forEach(type -> connection.zRem(serializer.serialize(getTicketCountRedisKey(type, shard)), members));
+            });
+            return null;
+        });
+    }
+
+    private static int getTicketCountShard(final String ticketId) {
+        return Math.floorMod(ticketId.hashCode(), TICKET_COUNT_SHARDS);
+    }
+
+    private static String getTicketCountRedisKey(final Class<? extends Ticket> type, final int shard) {
+        return CAS_TICKET_COUNT_PREFIX + type.getSimpleName() + ':' + shard;
+    }
+
+    private static String getPrincipalRedisKey(final String principal) {
+        return CAS_PRINCIPAL_PREFIX + principal;
+    }
+
     // Add a prefix as the key of redis
     private static String getTicketRedisKey(final String ticketId) {
         return CAS_TICKET_PREFIX + ticketId;
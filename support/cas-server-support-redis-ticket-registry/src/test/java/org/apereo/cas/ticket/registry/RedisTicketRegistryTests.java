@@ -1,14 +1,23 @@
 package org.apereo.cas.ticket.registry;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.authentication.CoreAuthenticationTestUtils;
 import org.apereo.cas.category.RedisCategory;
 import org.apereo.cas.config.CasCoreTicketCatalogConfiguration;
 import org.apereo.cas.config.CasCoreTicketsConfiguration;
 import org.apereo.cas.config.CasCoreWebConfiguration;
 import org.apereo.cas.config.RedisTicketRegistryConfiguration;
 import org.apereo.cas.config.support.CasWebApplicationServiceFactoryConfiguration;
+import org.apereo.cas.logout.LogoutManager;
+import org.apereo.cas.ticket.TicketGrantingTicketImpl;
+import org.apereo.cas.ticket.serialization.IncompatibleSchemaTicketCodec;
+import org.apereo.cas.ticket.serialization.KryoTicketCodec;
+import org.apereo.cas.ticket.serialization.TicketCodec;
+import org.apereo.cas.ticket.support.NeverExpiresExpirationPolicy;
 import org.junit.AfterClass;
+import org.junit.Assume;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -19,12 +28,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.autoconfigure.RefreshAutoConfiguration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import redis.embedded.RedisServer;
 
 import java.util.Arrays;
 import java.util.Collection;
 
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
 /**
  * Unit test for {@link RedisTicketRegistry}.
  *
@@ -53,8 +66,11 @@ public class RedisTicketRegistryTests extends BaseSpringRunnableTicketRegistryTe
     @Qualifier("ticketRegistry")
     private TicketRegistry ticketRegistry;
 
+    private final boolean useEncryption;
+
     public RedisTicketRegistryTests(final boolean useEncryption) {
         super(useEncryption);
+        this.useEncryption = useEncryption;
     }
 
     @Parameterized.Parameters
@@ -78,4 +94,35 @@ public class RedisTicketRegistryTests extends BaseSpringRunnableTicketRegistryTe
     public TicketRegistry getNewTicketRegistry() {
         return this.ticketRegistry;
     }
+
+    @Test
+    public void verifyUnreadableTicketsAreRemovedByCleaner() {
+        Assume.assumeTrue(this.useEncryption);
+        final AbstractTicketRegistry registry = AopTestUtils.getTargetObject(this.ticketRegistry);
+        final TicketCodec codec = registry.ticketCodec;
+        try {
+            registry.setTicketCodec(new IncompatibleSchemaTicketCodec());
+            this.ticketRegistry.addTicket(newExpiredTicketGrantingTicket("TGT-UNREADABLE"));
+            registry.setTicketCodec(new KryoTicketCodec());
+            this.ticketRegistry.addTicket(newExpiredTicketGrantingTicket("TGT-EXPIRED"));
+            assertTrue(this.ticketRegistry.getTickets().stream().allMatch(t -> "TGT-EXPIRED".equals(t.getId())));
+
+            final DefaultTicketRegistryCleaner cleaner = new DefaultTicketRegistryCleaner(new NoOpLockingStrategy(),
+                mock(LogoutManager.class), this.ticketRegistry);
+            cleaner.setBatchSize(1);
+            cleaner.clean();
+
+            registry.setTicketCodec(new IncompatibleSchemaTicketCodec());
+            assertTrue(this.ticketRegistry.getTickets().isEmpty());
+        } finally {
+            registry.setTicketCodec(codec);
+        }
+    }
+
+    private static TicketGrantingTicketImpl newExpiredTicketGrantingTicket(final String id) {
+        final TicketGrantingTicketImpl ticket = new TicketGrantingTicketImpl(id,
+            CoreAuthenticationTestUtils.getAuthentication(), new NeverExpiresExpirationPolicy());
+        ticket.markTicketExpired();
+        return ticket;
+    }
 }
@@ -2,6 +2,7 @@ package org.apereo.cas.web.report;
 
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.apereo.cas.CentralAuthenticationService;
 import org.apereo.cas.authentication.Authentication;
 import org.apereo.cas.authentication.principal.Principal;
@@ -9,6 +10,10 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.ticket.Ticket;
 import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.proxy.ProxyGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketQuery;
+import org.apereo.cas.ticket.registry.TicketQueryResult;
+import org.apereo.cas.ticket.registry.TicketRegistry;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.util.ISOStandardDateFormat;
 import org.apereo.cas.web.BaseCasMvcEndpoint;
@@ -28,6 +33,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 import lombok.Getter;
 
@@ -49,6 +55,12 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
 
     private static final String TICKET_GRANTING_TICKET = "ticketGrantingTicket";
 
+    private static final String NEXT_CURSOR = "nextCursor";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int MAXIMUM_PAGE_SIZE = 1000;
+
     private enum SsoSessionReportOptions {
 
         ALL("all"), PROXIED("proxied"), DIRECT("direct");
@@ -96,22 +108,50 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
 
     private final CentralAuthenticationService centralAuthenticationService;
 
+    private final TicketRegistry ticketRegistry;
+
     public SingleSignOnSessionsReportController(final CentralAuthenticationService centralAuthenticationService,
+                                                final TicketRegistry ticketRegistry,
                                                 final CasConfigurationProperties casProperties) {
         super("ssosessions", "/ssosessions", casProperties.getMonitor().getEndpoints().getSingleSignOnReport(), casProperties);
         this.centralAuthenticationService = centralAuthenticationService;
+        this.ticketRegistry = ticketRegistry;
+    }
+
+    /**
+     * Gets the sessions of the principal, or the page of all sessions that follows the cursor.
+     * The cursor of the next page, if any, is put into the given model.
+     *
+     * @param principal the principal whose sessions should be reported, or blank for all sessions
+     * @param cursor    the cursor handed out with the previous page, if any
+     * @param size      the page size, which is capped at {@value #MAXIMUM_PAGE_SIZE}
+     * @param model     the model
+     * @return the sessions, which the caller must close
+     */
+    private Stream<TicketGrantingTicket> getSessions(final String principal, final String cursor, final int size,
+                                                     final Map<String, Object> model) {
+        if (StringUtils.isNotBlank(principal)) {
+            return this.ticketRegistry.getSessionsFor(principal);
+        }
+        final TicketQueryResult result = getNonExpiredTicketGrantingTickets(cursor, size);
+        if (result.hasMore()) {
+            model.put(NEXT_CURSOR, result.getNextCursor());
+        }
+        return result.getTickets().stream().map(TicketGrantingTicket.class::cast);
     }
 
     /**
      * Gets sso sessions.
      *
-     * @param option the option
+     * @param option   the option
+     * @param sessions the sessions
      * @return the sso sessions
      */
-    private Collection<Map<String, Object>> getActiveSsoSessions(final SsoSessionReportOptions option) {
+    private Collection<Map<String, Object>> getActiveSsoSessions(final SsoSessionReportOptions option,
+                                                                 final Stream<TicketGrantingTicket> sessions) {
         final Collection<Map<String, Object>> activeSessions = new ArrayList<>();
         final ISOStandardDateFormat dateFormat = new ISOStandardDateFormat();
-        getNonExpiredTicketGrantingTickets().stream().map(TicketGrantingTicket.class::cast)
+        sessions
             .filter(tgt -> !(option == SsoSessionReportOptions.DIRECT && tgt.getProxiedBy() != null))
             .forEach(tgt -> {
                 final Authentication authentication = tgt.getAuthentication();
@@ -140,31 +180,62 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
     }
 
     /**
-     * Gets non expired ticket granting tickets.
+     * Gets a page of non expired ticket granting tickets.
      *
+     * @param cursor the cursor handed out with the previous page, if any
+     * @param size   the page size, which is capped at {@value #MAXIMUM_PAGE_SIZE}
      * @return the non expired ticket granting tickets
      */
-    private Collection<Ticket> getNonExpiredTicketGrantingTickets() {
-        return this.centralAuthenticationService.getTickets(ticket -> ticket instanceof TicketGrantingTicket && !ticket.isExpired());
+    private TicketQueryResult getNonExpiredTicketGrantingTickets(final String cursor, final int size) {
+        final TicketQuery query = TicketQuery.builder()
+            .type(TicketGrantingTicket.class)
+            .includeExpired(false)
+            .cursor(StringUtils.defaultIfBlank(cursor, null))
+            .pageSize(Math.min(size <= 0 ? DEFAULT_PAGE_SIZE : size, MAXIMUM_PAGE_SIZE))
+            .build();
+        return this.centralAuthenticationService.queryTickets(query);
     }
 
     /**
-     * Endpoint for getting SSO Sessions in JSON format.
+     * Count the tickets of the given type in the registry, without fetching them.
      *
-     * @param type     the type
-     * @param request  the request
-     * @param response the response
+     * @param type the ticket type
+     * @return the count
+     */
+    private long countTickets(final Class<? extends Ticket> type) {
+        return this.centralAuthenticationService.queryTickets(TicketQuery.builder().type(type).countOnly(true).build()).getCount();
+    }
+
+    /**
+     * Endpoint for getting SSO Sessions in JSON format. Sessions of all principals are returned one page at a time,
+     * in which case each page continues after the cursor that is handed out with the previous page. Ticket totals
+     * are then counted by the ticket registry and include sessions that have expired but are not yet removed,
+     * while the number of principals and uses are reported for the page only, as {@code pagePrincipals}
+     * and {@code pageUsageCount}.
+     *
+     * @param type      the type
+     * @param principal the principal whose sessions should be reported, if any
+     * @param cursor    the cursor handed out with the previous page, if any
+     * @param size      the page size, which is capped at {@value #MAXIMUM_PAGE_SIZE}
+     * @param request   the request
+     * @param response  the response
      * @return the sso sessions
      */
     @GetMapping(value = "/getSsoSessions")
     @ResponseBody
     public WebAsyncTask<Map<String, Object>> getSsoSessions(@RequestParam(defaultValue = "ALL") final String type,
+                                                            @RequestParam(required = false) final String principal,
+                                                            @RequestParam(required = false) final String cursor,
+                                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) final int size,
                                                             final HttpServletRequest request, final HttpServletResponse response) {
         ensureEndpointAccessIsAuthorized(request, response);
         final Callable<Map<String, Object>> asyncTask = () -> {
-            final Map<String, Object> sessionsMap = new HashMap<>(1);
+            final Map<String, Object> sessionsMap = new HashMap<>();
             final SsoSessionReportOptions option = SsoSessionReportOptions.valueOf(type);
-            final Collection<Map<String, Object>> activeSsoSessions = getActiveSsoSessions(option);
+            final Collection<Map<String, Object>> activeSsoSessions;
+            try (Stream<TicketGrantingTicket> sessions = getSessions(principal, cursor, size, sessionsMap)) {
+                activeSsoSessions = getActiveSsoSessions(option, sessions);
+            }
             sessionsMap.put("activeSsoSessions", activeSsoSessions);
             long totalTicketGrantingTickets = 0;
             long totalProxyGrantingTickets = 0;
@@ -187,11 +258,18 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
                 }
                 totalUsageCount += Long.parseLong(activeSsoSession.get(SsoSessionAttributeKeys.NUMBER_OF_USES.getAttributeKey()).toString());
             }
+            if (StringUtils.isBlank(principal)) {
+                totalProxyGrantingTickets = countTickets(ProxyGrantingTicket.class);
+                totalTicketGrantingTickets = countTickets(TicketGrantingTicket.class) - totalProxyGrantingTickets;
+                sessionsMap.put("pagePrincipals", uniquePrincipals.size());
+                sessionsMap.put("pageUsageCount", totalUsageCount);
+            } else {
+                sessionsMap.put("totalPrincipals", uniquePrincipals.size());
+                sessionsMap.put("totalUsageCount", totalUsageCount);
+            }
             sessionsMap.put("totalProxyGrantingTickets", totalProxyGrantingTickets);
             sessionsMap.put("totalTicketGrantingTickets", totalTicketGrantingTickets);
             sessionsMap.put("totalTickets", totalTicketGrantingTickets + totalProxyGrantingTickets);
-            sessionsMap.put("totalPrincipals", uniquePrincipals.size());
-            sessionsMap.put("totalUsageCount", totalUsageCount);
             return sessionsMap;
         };
         final long timeout = Beans.newDuration(casProperties.getHttpClient().getAsyncTimeout()).toMillis();
@@ -226,30 +304,42 @@ public class SingleSignOnSessionsReportController extends BaseCasMvcEndpoint {
     }
 
     /**
-     * Endpoint for destroying SSO Sessions.
+     * Endpoint for destroying SSO Sessions. Sessions of all principals are destroyed one page at a time.
      *
-     * @param type     the type
-     * @param request  the request
-     * @param response the response
+     * @param type      the type
+     * @param principal the principal whose sessions should be destroyed, if any
+     * @param request   the request
+     * @param response  the response
      * @return result map
      */
     @PostMapping(value = "/destroySsoSessions")
     @ResponseBody
     public Map<String, Object> destroySsoSessions(@RequestParam(defaultValue = "ALL") final String type,
+                                                  @RequestParam(required = false) final String principal,
                                                   final HttpServletRequest request, final HttpServletResponse response) {
         ensureEndpointAccessIsAuthorized(request, response);
         final Map<String, Object> sessionsMap = new HashMap<>();
         final Map<String, String> failedTickets = new HashMap<>();
         final SsoSessionReportOptions option = SsoSessionReportOptions.valueOf(type);
-        final Collection<Map<String, Object>> collection = getActiveSsoSessions(option);
-        collection.stream().map(sso -> sso.get(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.getAttributeKey()).toString()).forEach(ticketGrantingTicket -> {
-            try {
-                this.centralAuthenticationService.destroyTicketGrantingTicket(ticketGrantingTicket);
-            } catch (final Exception e) {
-                LOGGER.error(e.getMessage(), e);
-                failedTickets.put(ticketGrantingTicket, e.getMessage());
+        final Map<String, Object> page = new HashMap<>();
+        do {
+            final Object cursor = page.remove(NEXT_CURSOR);
+            final Collection<Map<String, Object>> collection;
+            try (Stream<TicketGrantingTicket> sessions = getSessions(principal, cursor == null ? null : cursor.toString(),
+                MAXIMUM_PAGE_SIZE, page)) {
+                collection = getActiveSsoSessions(option, sessions);
             }
-        });
+            collection.stream()
+                .map(sso -> sso.get(SsoSessionAttributeKeys.TICKET_GRANTING_TICKET.getAttributeKey()).toString())
+                .forEach(ticketGrantingTicket -> {
+                    try {
+                        this.centralAuthenticationService.destroyTicketGrantingTicket(ticketGrantingTicket);
+                    } catch (final Exception e) {
+                        LOGGER.error(e.getMessage(), e);
+                        failedTickets.put(ticketGrantingTicket, e.getMessage());
+                    }
+                });
+        } while (page.containsKey(NEXT_CURSOR));
         if (failedTickets.isEmpty()) {
             sessionsMap.put(STATUS, HttpServletResponse.SC_OK);
         } else {
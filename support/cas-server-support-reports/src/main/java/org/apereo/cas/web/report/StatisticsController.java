@@ -12,6 +12,9 @@ import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.support.Beans;
 import org.apereo.cas.ticket.ServiceTicket;
 import org.apereo.cas.ticket.Ticket;
+import org.apereo.cas.ticket.TicketGrantingTicket;
+import org.apereo.cas.ticket.registry.TicketQuery;
+import org.apereo.cas.ticket.registry.TicketQueryResult;
 import org.apereo.cas.util.DateTimeUtils;
 import org.apereo.cas.web.BaseCasMvcEndpoint;
 import org.apereo.inspektr.audit.AuditActionContext;
@@ -49,6 +52,7 @@ import java.util.stream.Collectors;
 public class StatisticsController extends BaseCasMvcEndpoint implements ServletContextAware {
     private static final int NUMBER_OF_BYTES_IN_A_KILOBYTE = 1024;
     private static final String MONITORING_VIEW_STATISTICS = "monitoring/viewStatistics";
+    private static final int TICKET_PAGE_SIZE = 500;
 
     private final ZonedDateTime upTimeStartDate = ZonedDateTime.now(ZoneOffset.UTC);
 
@@ -251,7 +255,8 @@ public class StatisticsController extends BaseCasMvcEndpoint implements ServletC
     }
 
     /**
-     * Gets ticket stats.
+     * Gets ticket stats. Expired tickets are removed one page at a time first,
+     * after which the remaining tickets are counted by the ticket registry rather than loaded.
      *
      * @param request  the http servlet request
      * @param response the http servlet response
@@ -262,38 +267,42 @@ public class StatisticsController extends BaseCasMvcEndpoint implements ServletC
     public Map<String, Object> getTicketStats(final HttpServletRequest request, final HttpServletResponse response) {
         ensureEndpointAccessIsAuthorized(request, response);
         final Map<String, Object> model = new HashMap<>();
+        model.put("expiredTgts", deleteExpiredTickets(TicketGrantingTicket.class));
+        model.put("expiredSts", deleteExpiredTickets(ServiceTicket.class));
+        model.put("unexpiredTgts", countTickets(TicketGrantingTicket.class));
+        model.put("unexpiredSts", countTickets(ServiceTicket.class));
+        return model;
+    }
 
-        int unexpiredTgts = 0;
-        int unexpiredSts = 0;
-        int expiredTgts = 0;
-        int expiredSts = 0;
-
-        final Collection<Ticket> tickets = this.centralAuthenticationService.getTickets(ticket -> true);
-
-        for (final Ticket ticket : tickets) {
-            if (ticket instanceof ServiceTicket) {
-                if (ticket.isExpired()) {
-                    this.centralAuthenticationService.deleteTicket(ticket.getId());
-                    expiredSts++;
-                } else {
-                    unexpiredSts++;
-                }
-            } else {
-                if (ticket.isExpired()) {
-                    this.centralAuthenticationService.deleteTicket(ticket.getId());
-                    expiredTgts++;
-                } else {
-                    unexpiredTgts++;
-                }
-            }
-        }
-
-        model.put("unexpiredTgts", unexpiredTgts);
-        model.put("unexpiredSts", unexpiredSts);
-        model.put("expiredTgts", expiredTgts);
-        model.put("expiredSts", expiredSts);
+    /**
+     * Count tickets without a filter beyond their type, which registries
+     * answer by counting entries in the underlying store.
+     */
+    private long countTickets(final Class<? extends Ticket> type) {
+        final TicketQuery query = TicketQuery.builder()
+            .type(type)
+            .countOnly(true)
+            .build();
+        return this.centralAuthenticationService.queryTickets(query).getCount();
+    }
 
-        return model;
+    private long deleteExpiredTickets(final Class<? extends Ticket> type) {
+        long count = 0;
+        TicketQueryResult result;
+        String cursor = null;
+        do {
+            final TicketQuery query = TicketQuery.builder()
+                .type(type)
+                .predicate(Ticket::isExpired)
+                .cursor(cursor)
+                .pageSize(TICKET_PAGE_SIZE)
+                .build();
+            result = this.centralAuthenticationService.queryTickets(query);
+            result.getTickets().forEach(ticket -> this.centralAuthenticationService.deleteTicket(ticket.getId()));
+            count += result.getCount();
+            cursor = result.getNextCursor();
+        } while (result.hasMore());
+        return count;
     }
 
     /**
@@ -1,12 +1,17 @@
 package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Sets;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apereo.cas.configuration.CasConfigurationProperties;
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPProperties;
 import org.apereo.cas.configuration.model.support.saml.idp.SamlIdPResponseProperties;
@@ -51,14 +56,24 @@ import org.springframework.core.io.Resource;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This is {@link SamlIdPObjectSigner}.
+ * <p>
+ * Signature signing parameters are cached per service provider, for as long as the metadata of the
+ * service provider and the signing key of the identity provider remain unchanged, so the signing key is not
+ * read and parsed again and signing credentials are not resolved again for every response. The cache only
+ * holds weak references to the metadata of service providers, so that it never keeps metadata alive
+ * once the metadata is refreshed or evicted from the metadata cache.
  *
  * @author Misagh Moayyed
  * @since 5.0.0
@@ -66,6 +81,10 @@ import java.util.Set;
 @Slf4j
 @RequiredArgsConstructor
 public class SamlIdPObjectSigner {
+    private static final long SIGNING_PARAMETERS_CACHE_SIZE = 1_000;
+
+    private static final long SIGNING_PARAMETERS_CACHE_EXPIRATION_MINUTES = 15;
+
     /**
      * The Override signature reference digest methods.
      */
@@ -92,6 +111,15 @@ public class SamlIdPObjectSigner {
 
     private final SamlIdPMetadataLocator samlIdPMetadataLocator;
 
+    private final Cache<SigningParametersCacheKey, CachedSigningParameters> signingParametersCache = Caffeine.newBuilder()
+        .maximumSize(SIGNING_PARAMETERS_CACHE_SIZE)
+        .expireAfterWrite(SIGNING_PARAMETERS_CACHE_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+        .build();
+
+    private final AtomicReference<Pair<String, PrivateKey>> signingPrivateKey = new AtomicReference<>();
+
+    private MetadataCredentialResolver signingCredentialResolver;
+
     /**
      * Encode a given saml object by invoking a number of outbound security handlers on the context.
      *
@@ -168,7 +196,9 @@ public class SamlIdPObjectSigner {
     }
 
     /**
-     * Prepare security parameters context.
+     * Prepare security parameters context. Signing parameters are reused for as long as
+     * the role descriptor of the service provider, its requested credential type and the signing key
+     * and certificate of the identity provider remain the same.
      *
      * @param <T>             the type parameter
      * @param adaptor         the adaptor
@@ -182,7 +212,16 @@ public class SamlIdPObjectSigner {
         @NonNull
         final SecurityParametersContext secParametersContext = outboundContext.getSubcontext(SecurityParametersContext.class, true);
         final RoleDescriptor roleDesc = adaptor.getSsoDescriptor();
+        final SigningParametersCacheKey cacheKey = new SigningParametersCacheKey(adaptor.getEntityId(),
+            service.getSigningCredentialType(), getSigningKeyVersion());
+        final CachedSigningParameters cached = this.signingParametersCache.getIfPresent(cacheKey);
+        if (cached != null && cached.getRoleDescriptor().get() == roleDesc) {
+            secParametersContext.setSignatureSigningParameters(cached.getSigningParameters());
+            return;
+        }
+        LOGGER.debug("Building signature signing parameters for [{}]", adaptor.getEntityId());
         final SignatureSigningParameters signingParameters = buildSignatureSigningParameters(roleDesc, service);
+        this.signingParametersCache.put(cacheKey, new CachedSigningParameters(new WeakReference<>(roleDesc), signingParameters));
         secParametersContext.setSignatureSigningParameters(signingParameters);
     }
 
@@ -279,13 +318,7 @@ public class SamlIdPObjectSigner {
         LOGGER.debug("Signature signing reference digest methods: [{}]", config.getSignatureReferenceDigestMethods());
 
         final PrivateKey privateKey = getSigningPrivateKey();
-        final SamlIdPProperties idp = casProperties.getAuthn().getSamlIdp();
-
-        final MetadataCredentialResolver kekCredentialResolver = new MetadataCredentialResolver();
-        final RoleDescriptorResolver roleDescriptorResolver = SamlIdPUtils.getRoleDescriptorResolver(casSamlIdPMetadataResolver, idp.getMetadata().isRequireValidMetadata());
-        kekCredentialResolver.setRoleDescriptorResolver(roleDescriptorResolver);
-        kekCredentialResolver.setKeyInfoCredentialResolver(DefaultSecurityConfigurationBootstrap.buildBasicInlineKeyInfoCredentialResolver());
-        kekCredentialResolver.initialize();
+        final MetadataCredentialResolver kekCredentialResolver = getSigningCredentialResolver();
         final CriteriaSet criteriaSet = new CriteriaSet();
         criteriaSet.add(new SignatureSigningConfigurationCriterion(config));
         criteriaSet.add(new UsageCriterion(UsageType.SIGNING));
@@ -340,7 +373,8 @@ public class SamlIdPObjectSigner {
     }
 
     /**
-     * Gets signing private key.
+     * Gets signing private key. The key is read and parsed once, and again
+     * only when the signing key file is replaced or modified.
      *
      * @return the signing private key
      * @throws Exception the exception
@@ -348,11 +382,77 @@ public class SamlIdPObjectSigner {
     protected PrivateKey getSigningPrivateKey() throws Exception {
         final SamlIdPProperties samlIdp = casProperties.getAuthn().getSamlIdp();
         final Resource signingKey = samlIdPMetadataLocator.getSigningKey();
+        final String version = getResourceVersion(signingKey);
+        final Pair<String, PrivateKey> cached = this.signingPrivateKey.get();
+        if (cached != null && cached.getKey().equals(version)) {
+            return cached.getValue();
+        }
         final PrivateKeyFactoryBean privateKeyFactoryBean = new PrivateKeyFactoryBean();
         privateKeyFactoryBean.setLocation(new FileSystemResource(signingKey.getFile()));
         privateKeyFactoryBean.setAlgorithm(samlIdp.getMetadata().getPrivateKeyAlgName());
         privateKeyFactoryBean.setSingleton(false);
         LOGGER.debug("Locating signature signing key file from [{}]", signingKey);
-        return privateKeyFactoryBean.getObject();
+        final PrivateKey privateKey = privateKeyFactoryBean.getObject();
+        this.signingPrivateKey.set(Pair.of(version, privateKey));
+        return privateKey;
+    }
+
+    /**
+     * Gets the version of the signing key and certificate of the identity provider,
+     * which changes as soon as either file is replaced or modified.
+     *
+     * @return the signing key version
+     */
+    protected String getSigningKeyVersion() {
+        return getResourceVersion(samlIdPMetadataLocator.getSigningKey())
+            + '|' + getResourceVersion(samlIdPMetadataLocator.getSigningCertificate());
+    }
+
+    private synchronized MetadataCredentialResolver getSigningCredentialResolver() throws Exception {
+        if (this.signingCredentialResolver == null) {
+            final SamlIdPProperties idp = casProperties.getAuthn().getSamlIdp();
+            final MetadataCredentialResolver resolver = new MetadataCredentialResolver();
+            final RoleDescriptorResolver roleDescriptorResolver = SamlIdPUtils.getRoleDescriptorResolver(casSamlIdPMetadataResolver,
+                idp.getMetadata().isRequireValidMetadata());
+            resolver.setRoleDescriptorResolver(roleDescriptorResolver);
+            resolver.setKeyInfoCredentialResolver(DefaultSecurityConfigurationBootstrap.buildBasicInlineKeyInfoCredentialResolver());
+            resolver.initialize();
+            this.signingCredentialResolver = resolver;
+        }
+        return this.signingCredentialResolver;
+    }
+
+    private static String getResourceVersion(final Resource resource) {
+        if (resource == null) {
+            return StringUtils.EMPTY;
+        }
+        try {
+            return resource.getDescription() + '@' + resource.lastModified() + ':' + resource.contentLength();
+        } catch (final IOException e) {
+            LOGGER.trace("Unable to determine when [{}] was last modified: [{}]", resource, e.getMessage());
+            return resource.getDescription();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class SigningParametersCacheKey {
+        private final String entityId;
+
+        private final String credentialType;
+
+        private final String signingKeyVersion;
+    }
+
+    /**
+     * Signing parameters along with the role descriptor they were built for. Role descriptors are
+     * compared by identity, so that refreshed metadata of the service provider leads to new signing parameters.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedSigningParameters {
+        private final WeakReference<RoleDescriptor> roleDescriptor;
+
+        private final SignatureSigningParameters signingParameters;
     }
 }
@@ -0,0 +1,121 @@
+package org.apereo.cas.support.saml.web.idp.profile.builders.enc;
+
+import net.shibboleth.utilities.java.support.resolver.CriteriaSet;
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.category.FileSystemCategory;
+import org.apereo.cas.configuration.CasConfigurationProperties;
+import org.apereo.cas.support.saml.BaseSamlIdPConfigurationTests;
+import org.apereo.cas.support.saml.InMemoryResourceMetadataResolver;
+import org.apereo.cas.support.saml.SamlIdPUtils;
+import org.apereo.cas.support.saml.idp.metadata.locator.DefaultSamlIdPMetadataLocator;
+import org.apereo.cas.support.saml.services.SamlRegisteredService;
+import org.apereo.cas.support.saml.services.idp.metadata.SamlRegisteredServiceServiceProviderMetadataFacade;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.messaging.context.MessageContext;
+import org.opensaml.saml.common.SAMLObject;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.opensaml.xmlsec.SignatureSigningParameters;
+import org.opensaml.xmlsec.context.SecurityParametersContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * This is {@link SamlIdPObjectSignerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Category(FileSystemCategory.class)
+public class SamlIdPObjectSignerTests extends BaseSamlIdPConfigurationTests {
+    @Autowired
+    private CasConfigurationProperties casProperties;
+
+    private File metadataDirectory;
+
+    private SamlIdPObjectSigner signer;
+
+    private SamlRegisteredService service;
+
+    @Before
+    public void initialize() throws Exception {
+        this.metadataDirectory = Files.createTempDirectory("saml-idp-metadata").toFile();
+        FileUtils.copyDirectory(METADATA_DIRECTORY.getFile(), this.metadataDirectory);
+        this.signer = new SamlIdPObjectSigner(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+            casSamlIdPMetadataResolver, casProperties, new DefaultSamlIdPMetadataLocator(new FileSystemResource(this.metadataDirectory)));
+        this.service = getSamlRegisteredServiceForTestShib(false, true);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(this.metadataDirectory);
+    }
+
+    @Test
+    public void verifySigningParametersAreReused() throws Exception {
+        final SamlRegisteredServiceServiceProviderMetadataFacade adaptor = newAdaptor(resolveServiceProvider());
+        final SignatureSigningParameters params = getSigningParameters(adaptor);
+        assertNotNull(params);
+        assertNotNull(params.getSigningCredential());
+        assertSame(params, getSigningParameters(adaptor));
+    }
+
+    @Test
+    public void verifyReplacedSigningKeyRebuildsSigningParameters() throws Exception {
+        final SamlRegisteredServiceServiceProviderMetadataFacade adaptor = newAdaptor(resolveServiceProvider());
+        final SignatureSigningParameters params = getSigningParameters(adaptor);
+
+        final File signingKey = new File(this.metadataDirectory, "idp-signing.key");
+        FileUtils.writeByteArrayToFile(signingKey, FileUtils.readFileToByteArray(signingKey));
+        assertTrue(signingKey.setLastModified(signingKey.lastModified() + 60_000));
+
+        final SignatureSigningParameters rebuilt = getSigningParameters(adaptor);
+        assertNotSame(params, rebuilt);
+        assertSame(rebuilt, getSigningParameters(adaptor));
+    }
+
+    @Test
+    public void verifyRefreshedMetadataRebuildsSigningParameters() throws Exception {
+        final SignatureSigningParameters params = getSigningParameters(newAdaptor(resolveServiceProvider()));
+        final SamlRegisteredServiceServiceProviderMetadataFacade refreshed = newAdaptor(resolveServiceProvider());
+        final SignatureSigningParameters rebuilt = getSigningParameters(refreshed);
+        assertNotSame(params, rebuilt);
+        assertSame(rebuilt, getSigningParameters(refreshed));
+    }
+
+    private SignatureSigningParameters getSigningParameters(final SamlRegisteredServiceServiceProviderMetadataFacade adaptor) throws Exception {
+        final MessageContext<SAMLObject> context = new MessageContext<>();
+        this.signer.prepareSecurityParametersContext(adaptor, context, this.service);
+        return context.getSubcontext(SecurityParametersContext.class).getSignatureSigningParameters();
+    }
+
+    /**
+     * Each resolution parses the metadata again, as a refresh of the metadata would.
+     */
+    private SPSSODescriptor resolveServiceProvider() throws Exception {
+        final InMemoryResourceMetadataResolver resolver = new InMemoryResourceMetadataResolver(
+            new File(METADATA_DIRECTORY.getFile(), "testshib-providers.xml"), openSamlConfigBean);
+        resolver.setId(getClass().getSimpleName());
+        resolver.initialize();
+        return (SPSSODescriptor) SamlIdPUtils.getRoleDescriptorResolver(resolver, false).resolveSingle(new CriteriaSet(
+            new EntityIdCriterion(this.service.getServiceId()), new EntityRoleCriterion(SPSSODescriptor.DEFAULT_ELEMENT_NAME)));
+    }
+
+    private SamlRegisteredServiceServiceProviderMetadataFacade newAdaptor(final SPSSODescriptor descriptor) {
+        final SamlRegisteredServiceServiceProviderMetadataFacade adaptor = mock(SamlRegisteredServiceServiceProviderMetadataFacade.class);
+        when(adaptor.getEntityId()).thenReturn(this.service.getServiceId());
+        when(adaptor.getSsoDescriptor()).thenReturn(descriptor);
+        return adaptor;
+    }
+}
@@ -0,0 +1,276 @@
+package org.apereo.cas.web.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is {@link InMemoryThrottledSubmissionStore}, which tracks failed submissions per key
+ * using the generic cell rate algorithm (GCRA). Each key only keeps the theoretical arrival time
+ * of its next failure in epoch milliseconds; a failure moves that time forward by the emission interval,
+ * and the key is throttled while the theoretical arrival time, less the burst tolerance, lies in the future.
+ * A burst of {@code 1} throttles a failure that follows the previous one sooner than the emission interval.
+ * <p>
+ * Submissions are kept in a fixed-size table divided into small sets of slots, so memory remains bounded
+ * regardless of how many keys are seen. A new key takes an empty or decayed slot in its set, or else replaces
+ * the submission that is the closest to decaying, which approximates LRU eviction. Decayed submissions are
+ * treated as absent when looked up and are overwritten on demand, so no periodic sweep is required.
+ * Slots are updated with compare-and-set operations and the store does not lock.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class InMemoryThrottledSubmissionStore {
+    /**
+     * Default number of submissions the store can hold.
+     */
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    private static final int SLOTS_PER_SET = 8;
+
+    private final AtomicReferenceArray<ThrottledSubmission> slots;
+
+    private final int setMask;
+
+    private final int burst;
+
+    private final LongAdder recordedFailures = new LongAdder();
+
+    private final LongAdder throttledAttempts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public InMemoryThrottledSubmissionStore() {
+        this(DEFAULT_CAPACITY, 1);
+    }
+
+    public InMemoryThrottledSubmissionStore(final int capacity, final int burst) {
+        int sets = 1;
+        while (sets * SLOTS_PER_SET < capacity && sets < (1 << 26)) {
+            sets <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(sets * SLOTS_PER_SET);
+        this.setMask = sets - 1;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Whether the key has failed at a rate that exceeds the emission interval.
+     *
+     * @param key                    the key
+     * @param emissionIntervalMillis the minimum amount of time expected in between failures
+     * @return true/false
+     */
+    public boolean isThrottled(final String key, final long emissionIntervalMillis) {
+        final long now = System.currentTimeMillis();
+        final int index = find(key, now);
+        if (index < 0) {
+            return false;
+        }
+        final ThrottledSubmission submission = this.slots.get(index);
+        final boolean throttled = submission != null && submission.getKey().equals(key)
+            && submission.getTheoreticalArrivalTime() - getBurstTolerance(emissionIntervalMillis) > now;
+        if (throttled) {
+            this.throttledAttempts.increment();
+        }
+        return throttled;
+    }
+
+    /**
+     * Record a failed submission for the key.
+     *
+     * @param key                    the key
+     * @param emissionIntervalMillis the minimum amount of time expected in between failures
+     */
+    public void recordFailure(final String key, final long emissionIntervalMillis) {
+        final long tolerance = getBurstTolerance(emissionIntervalMillis);
+        while (true) {
+            final long now = System.currentTimeMillis();
+            final long ceiling = add(now, add(emissionIntervalMillis, tolerance));
+            final int index = find(key, now);
+            if (index >= 0) {
+                final ThrottledSubmission current = this.slots.get(index);
+                if (current != null && current.getKey().equals(key) && !current.isDecayed(now)) {
+                    final long arrival = Math.min(add(Math.max(current.getTheoreticalArrivalTime(), now), emissionIntervalMillis), ceiling);
+                    final ThrottledSubmission updated = new ThrottledSubmission(key, arrival,
+                        current.getFailures() + 1, current.getFirstFailureTime(), now);
+                    if (this.slots.compareAndSet(index, current, updated)) {
+                        break;
+                    }
+                    continue;
+                }
+            }
+            final int victim = index >= 0 ? index : findVictim(key, now);
+            final ThrottledSubmission replaced = this.slots.get(victim);
+            final ThrottledSubmission created = new ThrottledSubmission(key, Math.min(add(now, emissionIntervalMillis), ceiling), 1, now, now);
+            if (this.slots.compareAndSet(victim, replaced, created)) {
+                if (replaced != null && !replaced.isDecayed(now) && !replaced.getKey().equals(key)) {
+                    LOGGER.trace("Evicted throttled submission [{}] to make room for [{}]", replaced, key);
+                    this.evictions.increment();
+                }
+                break;
+            }
+        }
+        this.recordedFailures.increment();
+    }
+
+    /**
+     * Gets the submission tracked for the key, unless it has decayed.
+     *
+     * @param key the key
+     * @return the submission
+     */
+    public Optional<ThrottledSubmission> getSubmission(final String key) {
+        final int index = find(key, System.currentTimeMillis());
+        return index < 0 ? Optional.empty() : Optional.ofNullable(this.slots.get(index)).filter(s -> s.getKey().equals(key));
+    }
+
+    /**
+     * Remove the submission tracked for the key.
+     *
+     * @param key the key
+     */
+    public void remove(final String key) {
+        final int set = getSet(key);
+        for (int i = set; i < set + SLOTS_PER_SET; i++) {
+            final ThrottledSubmission submission = this.slots.get(i);
+            if (submission != null && submission.getKey().equals(key)) {
+                this.slots.compareAndSet(i, submission, null);
+            }
+        }
+    }
+
+    /**
+     * Gets the submissions that have not decayed, the most recent failure first.
+     * The whole table is examined, so this is meant for monitoring rather than for every request.
+     *
+     * @param limit the maximum number of submissions returned
+     * @return the submissions
+     */
+    public List<ThrottledSubmission> getSubmissions(final int limit) {
+        final long now = System.currentTimeMillis();
+        final Comparator<ThrottledSubmission> byLastFailure = Comparator.comparingLong(ThrottledSubmission::getLastFailureTime);
+        final PriorityQueue<ThrottledSubmission> recent = new PriorityQueue<>(byLastFailure);
+        for (int i = 0; i < this.slots.length(); i++) {
+            final ThrottledSubmission submission = this.slots.get(i);
+            if (submission != null && !submission.isDecayed(now)) {
+                recent.offer(submission);
+                if (recent.size() > limit) {
+                    recent.poll();
+                }
+            }
+        }
+        final List<ThrottledSubmission> submissions = new ArrayList<>(recent);
+        submissions.sort(byLastFailure.reversed());
+        return submissions;
+    }
+
+    /**
+     * Gets statistics about the store.
+     *
+     * @return the statistics
+     */
+    public Map<String, Object> getStatistics() {
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", this.slots.length());
+        stats.put("recordedFailures", this.recordedFailures.sum());
+        stats.put("throttledAttempts", this.throttledAttempts.sum());
+        stats.put("evictions", this.evictions.sum());
+        return stats;
+    }
+
+    public int getCapacity() {
+        return this.slots.length();
+    }
+
+    private long getBurstTolerance(final long emissionIntervalMillis) {
+        if (this.burst <= 1) {
+            return 0;
+        }
+        return emissionIntervalMillis > Long.MAX_VALUE / this.burst ? Long.MAX_VALUE : (this.burst - 1) * emissionIntervalMillis;
+    }
+
+    private int find(final String key, final long now) {
+        final int set = getSet(key);
+        for (int i = set; i < set + SLOTS_PER_SET; i++) {
+            final ThrottledSubmission submission = this.slots.get(i);
+            if (submission != null && submission.getKey().equals(key)) {
+                return submission.isDecayed(now) ? -1 : i;
+            }
+        }
+        return -1;
+    }
+
+    private int findVictim(final String key, final long now) {
+        final int set = getSet(key);
+        int victim = set;
+        long earliest = Long.MAX_VALUE;
+        for (int i = set; i < set + SLOTS_PER_SET; i++) {
+            final ThrottledSubmission submission = this.slots.get(i);
+            if (submission == null || submission.isDecayed(now) || submission.getKey().equals(key)) {
+                return i;
+            }
+            if (submission.getTheoreticalArrivalTime() < earliest) {
+                earliest = submission.getTheoreticalArrivalTime();
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private int getSet(final String key) {
+        final int hash = key.hashCode();
+        return ((hash ^ (hash >>> 16)) & this.setMask) * SLOTS_PER_SET;
+    }
+
+    private static long add(final long a, final long b) {
+        final long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * A failed submission tracked for a key. Instances are immutable and replaced on every failure.
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class ThrottledSubmission {
+        private final String key;
+
+        /**
+         * Earliest time, in epoch milliseconds, at which the next failure conforms to the rate.
+         */
+        private final long theoreticalArrivalTime;
+
+        /**
+         * Number of failures recorded since the submission was tracked.
+         */
+        private final long failures;
+
+        private final long firstFailureTime;
+
+        private final long lastFailureTime;
+
+        /**
+         * Whether the failures of this submission no longer count towards throttling.
+         *
+         * @param now the current time in milliseconds
+         * @return true/false
+         */
+        public boolean isDecayed(final long now) {
+            return this.theoreticalArrivalTime <= now;
+        }
+    }
+}
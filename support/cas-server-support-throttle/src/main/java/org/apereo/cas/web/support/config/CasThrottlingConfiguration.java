@@ -12,11 +12,14 @@ import org.apereo.cas.web.support.DefaultAuthenticationThrottlingExecutionPlan;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressAndUsernameHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter;
 import org.apereo.cas.web.support.InMemoryThrottledSubmissionCleaner;
+import org.apereo.cas.web.support.InMemoryThrottledSubmissionStore;
 import org.apereo.cas.web.support.NoOpThrottledSubmissionHandlerInterceptor;
 import org.apereo.cas.web.support.ThrottledSubmissionHandlerInterceptor;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -39,6 +42,7 @@ import java.util.List;
 @AutoConfigureAfter(CasCoreUtilConfiguration.class)
 @Slf4j
 public class CasThrottlingConfiguration {
+    private static final int MAX_REPORTED_SUBMISSIONS = 100;
 
     @Autowired
     @Qualifier("auditTrailExecutionPlan")
@@ -66,7 +70,8 @@ public class CasThrottlingConfiguration {
                 throttle.getUsernameParameter(),
                 throttle.getFailure().getCode(),
                 auditTrailExecutionPlan.getIfAvailable(),
-                throttle.getAppcode());
+                throttle.getAppcode(),
+                inMemoryThrottledSubmissionStore());
         }
         LOGGER.debug("Activating authentication throttling based on IP address...");
         return new InMemoryThrottledSubmissionByIpAddressHandlerInterceptorAdapter(throttle.getFailure().getThreshold(),
@@ -74,7 +79,27 @@ public class CasThrottlingConfiguration {
             throttle.getUsernameParameter(),
             throttle.getFailure().getCode(),
             auditTrailExecutionPlan.getIfAvailable(),
-            throttle.getAppcode());
+            throttle.getAppcode(),
+            inMemoryThrottledSubmissionStore());
+    }
+
+    @ConditionalOnMissingBean(name = "inMemoryThrottledSubmissionStore")
+    @Bean
+    public InMemoryThrottledSubmissionStore inMemoryThrottledSubmissionStore() {
+        final ThrottleProperties.InMemory inMemory = casProperties.getAuthn().getThrottle().getInMemory();
+        return new InMemoryThrottledSubmissionStore(inMemory.getCapacity(), inMemory.getBurst());
+    }
+
+    @ConditionalOnMissingBean(name = "inMemoryThrottledSubmissionStoreHealthIndicator")
+    @Bean
+    public HealthIndicator inMemoryThrottledSubmissionStoreHealthIndicator() {
+        return () -> {
+            final InMemoryThrottledSubmissionStore store = inMemoryThrottledSubmissionStore();
+            final Health.Builder builder = Health.up();
+            store.getStatistics().forEach(builder::withDetail);
+            builder.withDetail("submissions", store.getSubmissions(MAX_REPORTED_SUBMISSIONS));
+            return builder.build();
+        };
     }
 
     @Autowired
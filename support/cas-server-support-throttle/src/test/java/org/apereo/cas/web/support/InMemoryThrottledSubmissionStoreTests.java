@@ -0,0 +1,73 @@
+package org.apereo.cas.web.support;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link InMemoryThrottledSubmissionStoreTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class InMemoryThrottledSubmissionStoreTests {
+
+    @Test
+    public void verifyFailuresDecay() throws Exception {
+        final InMemoryThrottledSubmissionStore store = new InMemoryThrottledSubmissionStore(16, 1);
+        assertFalse(store.isThrottled("1.2.3.4", 200));
+        store.recordFailure("1.2.3.4", 200);
+        assertTrue(store.isThrottled("1.2.3.4", 200));
+        assertFalse(store.isThrottled("5.6.7.8", 200));
+
+        Thread.sleep(300);
+        assertFalse(store.isThrottled("1.2.3.4", 200));
+        assertFalse(store.getSubmission("1.2.3.4").isPresent());
+    }
+
+    @Test
+    public void verifyBurstIsTolerated() {
+        final InMemoryThrottledSubmissionStore store = new InMemoryThrottledSubmissionStore(16, 3);
+        store.recordFailure("casuser", 10_000);
+        assertFalse(store.isThrottled("casuser", 10_000));
+        store.recordFailure("casuser", 10_000);
+        assertFalse(store.isThrottled("casuser", 10_000));
+        store.recordFailure("casuser", 10_000);
+        assertTrue(store.isThrottled("casuser", 10_000));
+
+        final InMemoryThrottledSubmissionStore.ThrottledSubmission submission = store.getSubmission("casuser").get();
+        assertEquals(3, submission.getFailures());
+        assertTrue(submission.getLastFailureTime() >= submission.getFirstFailureTime());
+        assertEquals(3L, store.getStatistics().get("recordedFailures"));
+        assertEquals(1L, store.getStatistics().get("throttledAttempts"));
+    }
+
+    @Test
+    public void verifyCapacityIsBounded() {
+        final InMemoryThrottledSubmissionStore store = new InMemoryThrottledSubmissionStore(64, 1);
+        IntStream.range(0, 10_000).forEach(i -> store.recordFailure("10.0." + (i / 256) + '.' + (i % 256), 60_000));
+        assertEquals(64, store.getCapacity());
+        assertTrue((Long) store.getStatistics().get("evictions") >= 10_000 - 64);
+        assertTrue(store.isThrottled("10.0.39.15", 60_000));
+    }
+
+    @Test
+    public void verifyRecentSubmissionsAreReported() throws Exception {
+        final InMemoryThrottledSubmissionStore store = new InMemoryThrottledSubmissionStore(64, 1);
+        store.recordFailure("1.2.3.4", 60_000);
+        Thread.sleep(5);
+        store.recordFailure("5.6.7.8", 60_000);
+        store.recordFailure("9.9.9.9", 1);
+        Thread.sleep(5);
+
+        final List<InMemoryThrottledSubmissionStore.ThrottledSubmission> submissions = store.getSubmissions(10);
+        assertEquals(Arrays.asList("5.6.7.8", "1.2.3.4"), submissions.stream().map(InMemoryThrottledSubmissionStore.ThrottledSubmission::getKey)
+            .collect(Collectors.toList()));
+        assertEquals("5.6.7.8", store.getSubmissions(1).get(0).getKey());
+    }
+}
@@ -5,16 +5,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.trusted.authentication.api.MultifactorAuthenticationTrustRecord;
-import org.apereo.cas.util.ResourceUtils;
+import org.apereo.cas.util.io.JournaledJsonStore;
 import org.hjson.JsonValue;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
 import java.io.File;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -22,28 +22,33 @@ import java.util.stream.Collectors;
 
 /**
  * This is {@link JsonMultifactorAuthenticationTrustStorage}.
+ * <p>
+ * Records are kept in a {@link JournaledJsonStore}, so that changes are appended to a journal
+ * next to the JSON resource instead of rewriting the resource on every change.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 @Slf4j
-public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage {
+public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAuthenticationTrustStorage implements DisposableBean {
 
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
 
-    private final Resource location;
-
-    private Map<String, MultifactorAuthenticationTrustRecord> storage;
+    private final JournaledJsonStore<MultifactorAuthenticationTrustRecord> storage;
 
+    @SneakyThrows
     public JsonMultifactorAuthenticationTrustStorage(final Resource location) {
-        this.location = location;
-        readTrustedRecordsFromResource();
+        this.storage = new JournaledJsonStore<>(location.getFile(), MAPPER, MultifactorAuthenticationTrustRecord.class,
+            JsonMultifactorAuthenticationTrustStorage::readTrustedRecordsFromFile, records -> records);
     }
 
     @Override
     public void expire(final String key) {
-        storage.keySet().removeIf(k -> k.equalsIgnoreCase(key));
-        writeTrustedRecordsToResource();
+        storage.asMap().keySet()
+            .stream()
+            .filter(k -> k.equalsIgnoreCase(key))
+            .collect(Collectors.toList())
+            .forEach(storage::remove);
     }
 
     @Override
@@ -59,7 +64,6 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
         if (!results.isEmpty()) {
             results.forEach(entry -> storage.remove(entry.getRecordKey()));
             LOGGER.info("Invalidated and removed [{}] expired records", results.size());
-            writeTrustedRecordsToResource();
         }
     }
 
@@ -88,31 +92,26 @@ public class JsonMultifactorAuthenticationTrustStorage extends BaseMultifactorAu
     @Override
     public MultifactorAuthenticationTrustRecord setInternal(final MultifactorAuthenticationTrustRecord record) {
         this.storage.put(record.getRecordKey(), record);
-        writeTrustedRecordsToResource();
         return record;
     }
 
-    @SneakyThrows
-    private void readTrustedRecordsFromResource() {
-        this.storage = new LinkedHashMap<>();
-        if (ResourceUtils.doesResourceExist(location)) {
-            try (Reader reader = new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8)) {
-                final TypeReference<Map<String, MultifactorAuthenticationTrustRecord>> personList =
-                    new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
-                    };
-                this.storage = MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
-            }
-        }
+    /**
+     * Close the store, which compacts pending changes into the JSON resource.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.storage.close();
     }
 
     @SneakyThrows
-    private void writeTrustedRecordsToResource() {
-        final File file = this.location.getFile();
-        final boolean res = file.createNewFile();
-        if (res) {
-            LOGGER.debug("Created JSON resource @ [{}]", this.location);
+    private static Map<String, MultifactorAuthenticationTrustRecord> readTrustedRecordsFromFile(final File file) {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final TypeReference<Map<String, MultifactorAuthenticationTrustRecord>> personList =
+                new TypeReference<Map<String, MultifactorAuthenticationTrustRecord>>() {
+                };
+            return MAPPER.readValue(JsonValue.readHjson(reader).toString(), personList);
         }
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, this.storage);
-        readTrustedRecordsFromResource();
     }
 }
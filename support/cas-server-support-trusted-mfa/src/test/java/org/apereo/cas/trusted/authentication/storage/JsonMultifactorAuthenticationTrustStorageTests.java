@@ -3,6 +3,7 @@ package org.apereo.cas.trusted.authentication.storage;
 import org.apache.commons.io.FileUtils;
 import org.apereo.cas.category.FileSystemCategory;
 import org.apereo.cas.trusted.AbstractMultifactorAuthenticationTrustStorageTests;
+import org.apereo.cas.util.io.JournaledJsonStore;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.experimental.categories.Category;
@@ -39,5 +40,9 @@ public class JsonMultifactorAuthenticationTrustStorageTests extends AbstractMult
         if (file.exists()) {
             FileUtils.forceDelete(file);
         }
+        final File journal = new File(file.getPath() + JournaledJsonStore.JOURNAL_FILE_EXTENSION);
+        if (journal.exists()) {
+            FileUtils.forceDelete(journal);
+        }
     }
 }
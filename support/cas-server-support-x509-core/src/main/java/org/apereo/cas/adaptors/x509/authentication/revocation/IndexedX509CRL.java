@@ -0,0 +1,310 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation;
+
+import lombok.Getter;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.security.Principal;
+import java.security.PublicKey;
+import java.security.cert.CRLException;
+import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509CRLEntry;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This is {@link IndexedX509CRL}, which is a compact, read-only view of a CRL that keeps the serial numbers of
+ * revoked certificates in sorted arrays, rather than the parsed entries and the encoded form of the CRL.
+ * Revocation checks are answered via a binary search over the serial numbers of the issuer.
+ * <p>
+ * Serial numbers that fit into a {@code long} are kept as primitives, while larger serial numbers
+ * are kept in a separate sorted array. Revocation dates are kept alongside the serial numbers;
+ * extensions of the CRL and its entries are not retained, and neither is its encoded form,
+ * which is why the CRL can no longer be encoded or verified.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class IndexedX509CRL extends X509CRL {
+    @Getter
+    private final X500Principal issuerX500Principal;
+
+    private final Date thisUpdate;
+
+    private final Date nextUpdate;
+
+    @Getter
+    private final int version;
+
+    @Getter
+    private final String sigAlgName;
+
+    @Getter
+    private final String sigAlgOID;
+
+    private final long[] serials;
+
+    private final long[] revocationDates;
+
+    private final BigInteger[] largeSerials;
+
+    private final long[] largeRevocationDates;
+
+    private IndexedX509CRL(final X509CRL crl, final List<X509CRLEntry> smallEntries, final List<X509CRLEntry> largeEntries) {
+        this.issuerX500Principal = crl.getIssuerX500Principal();
+        this.thisUpdate = crl.getThisUpdate();
+        this.nextUpdate = crl.getNextUpdate();
+        this.version = crl.getVersion();
+        this.sigAlgName = crl.getSigAlgName();
+        this.sigAlgOID = crl.getSigAlgOID();
+
+        this.serials = new long[smallEntries.size()];
+        this.revocationDates = new long[smallEntries.size()];
+        for (int i = 0; i < smallEntries.size(); i++) {
+            this.serials[i] = smallEntries.get(i).getSerialNumber().longValue();
+            this.revocationDates[i] = getTime(smallEntries.get(i));
+        }
+        this.largeSerials = new BigInteger[largeEntries.size()];
+        this.largeRevocationDates = new long[largeEntries.size()];
+        for (int i = 0; i < largeEntries.size(); i++) {
+            this.largeSerials[i] = largeEntries.get(i).getSerialNumber();
+            this.largeRevocationDates[i] = getTime(largeEntries.get(i));
+        }
+    }
+
+    /**
+     * Build an index of the given CRL.
+     *
+     * @param crl the crl
+     * @return the indexed crl
+     */
+    public static IndexedX509CRL of(final X509CRL crl) {
+        if (crl instanceof IndexedX509CRL) {
+            return (IndexedX509CRL) crl;
+        }
+        final List<X509CRLEntry> smallEntries = new ArrayList<>();
+        final List<X509CRLEntry> largeEntries = new ArrayList<>();
+        final Set<? extends X509CRLEntry> entries = crl.getRevokedCertificates();
+        if (entries != null) {
+            entries.forEach(entry -> {
+                if (entry.getSerialNumber().bitLength() < Long.SIZE) {
+                    smallEntries.add(entry);
+                } else {
+                    largeEntries.add(entry);
+                }
+            });
+        }
+        smallEntries.sort(Comparator.comparingLong(entry -> entry.getSerialNumber().longValue()));
+        largeEntries.sort(Comparator.comparing(X509CRLEntry::getSerialNumber));
+        return new IndexedX509CRL(crl, smallEntries, largeEntries);
+    }
+
+    /**
+     * Number of revoked certificates in this CRL.
+     *
+     * @return the count
+     */
+    public int getRevokedCount() {
+        return this.serials.length + this.largeSerials.length;
+    }
+
+    @Override
+    public Principal getIssuerDN() {
+        return this.issuerX500Principal;
+    }
+
+    @Override
+    public Date getThisUpdate() {
+        return this.thisUpdate == null ? null : new Date(this.thisUpdate.getTime());
+    }
+
+    @Override
+    public Date getNextUpdate() {
+        return this.nextUpdate == null ? null : new Date(this.nextUpdate.getTime());
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final BigInteger serialNumber) {
+        if (serialNumber.bitLength() < Long.SIZE) {
+            final int index = Arrays.binarySearch(this.serials, serialNumber.longValue());
+            return index < 0 ? null : new IndexedX509CRLEntry(serialNumber, this.revocationDates[index]);
+        }
+        final int index = Arrays.binarySearch(this.largeSerials, serialNumber);
+        return index < 0 ? null : new IndexedX509CRLEntry(serialNumber, this.largeRevocationDates[index]);
+    }
+
+    @Override
+    public X509CRLEntry getRevokedCertificate(final X509Certificate certificate) {
+        if (!this.issuerX500Principal.equals(certificate.getIssuerX500Principal())) {
+            return null;
+        }
+        return getRevokedCertificate(certificate.getSerialNumber());
+    }
+
+    @Override
+    public boolean isRevoked(final Certificate cert) {
+        return cert instanceof X509Certificate && getRevokedCertificate((X509Certificate) cert) != null;
+    }
+
+    @Override
+    public Set<? extends X509CRLEntry> getRevokedCertificates() {
+        if (getRevokedCount() == 0) {
+            return null;
+        }
+        final Set<X509CRLEntry> entries = new LinkedHashSet<>(getRevokedCount());
+        for (int i = 0; i < this.serials.length; i++) {
+            entries.add(new IndexedX509CRLEntry(BigInteger.valueOf(this.serials[i]), this.revocationDates[i]));
+        }
+        for (int i = 0; i < this.largeSerials.length; i++) {
+            entries.add(new IndexedX509CRLEntry(this.largeSerials[i], this.largeRevocationDates[i]));
+        }
+        return entries;
+    }
+
+    @Override
+    public byte[] getEncoded() throws CRLException {
+        throw new CRLException("Encoded form of indexed CRL issued by " + this.issuerX500Principal + " is not retained");
+    }
+
+    @Override
+    public byte[] getTBSCertList() throws CRLException {
+        throw new CRLException("Encoded form of indexed CRL issued by " + this.issuerX500Principal + " is not retained");
+    }
+
+    @Override
+    public void verify(final PublicKey key) throws CRLException {
+        throw new CRLException("Indexed CRL issued by " + this.issuerX500Principal + " cannot be verified");
+    }
+
+    @Override
+    public void verify(final PublicKey key, final String sigProvider) throws CRLException {
+        verify(key);
+    }
+
+    @Override
+    public byte[] getSignature() {
+        return new byte[0];
+    }
+
+    @Override
+    public byte[] getSigAlgParams() {
+        return null;
+    }
+
+    @Override
+    public boolean hasUnsupportedCriticalExtension() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getCriticalExtensionOIDs() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<String> getNonCriticalExtensionOIDs() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public byte[] getExtensionValue(final String oid) {
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[issuer=" + this.issuerX500Principal + ", thisUpdate=" + this.thisUpdate
+            + ", nextUpdate=" + this.nextUpdate + ", revoked=" + getRevokedCount() + ']';
+    }
+
+    private static long getTime(final X509CRLEntry entry) {
+        return entry.getRevocationDate() == null ? 0 : entry.getRevocationDate().getTime();
+    }
+
+    /**
+     * Entry of a revoked certificate, created on demand from the index.
+     */
+    private static class IndexedX509CRLEntry extends X509CRLEntry {
+        private final BigInteger serialNumber;
+
+        private final long revocationDate;
+
+        IndexedX509CRLEntry(final BigInteger serialNumber, final long revocationDate) {
+            this.serialNumber = serialNumber;
+            this.revocationDate = revocationDate;
+        }
+
+        @Override
+        public BigInteger getSerialNumber() {
+            return this.serialNumber;
+        }
+
+        @Override
+        public Date getRevocationDate() {
+            return new Date(this.revocationDate);
+        }
+
+        @Override
+        public boolean hasExtensions() {
+            return false;
+        }
+
+        @Override
+        public byte[] getEncoded() throws CRLException {
+            throw new CRLException("Encoded form of indexed CRL entry " + this.serialNumber + " is not retained");
+        }
+
+        @Override
+        public boolean hasUnsupportedCriticalExtension() {
+            return false;
+        }
+
+        @Override
+        public Set<String> getCriticalExtensionOIDs() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<String> getNonCriticalExtensionOIDs() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public byte[] getExtensionValue(final String oid) {
+            return null;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof IndexedX509CRLEntry && ((IndexedX509CRLEntry) other).serialNumber.equals(this.serialNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.serialNumber.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Serial number: " + this.serialNumber.toString(16) + ", revocation date: " + getRevocationDate();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apereo.cas.adaptors.x509.authentication.CRLFetcher;
+import org.apereo.cas.util.DigestUtils;
+import org.apereo.cas.util.crypto.CertUtils;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509CRL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This is {@link PrefetchingCRLManager}, which keeps the CRLs of distribution points current so that
+ * revocation checks rarely have to wait for a CRL to be downloaded.
+ * <p>
+ * Once a CRL is known, it is fetched again in the background ahead of its next update. When a CRL is missing
+ * or has expired regardless, it is fetched during the revocation check, while concurrent checks against the same
+ * distribution point wait for that single fetch. CRLs are kept in memory as {@link IndexedX509CRL} instances.
+ * The last CRL fetched from each distribution point may also be kept on disk, and is loaded again on startup.
+ * <p>
+ * Distribution points that have not been checked for longer than the idle timeout are dropped, along with their
+ * CRLs on disk, and are no longer fetched in the background. Beyond the maximum number of distribution points,
+ * those that were checked least recently are dropped first.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+@Slf4j
+public class PrefetchingCRLManager implements Closeable {
+    private static final String CRL_FILE_EXTENSION = ".crl";
+
+    private static final String URI_FILE_EXTENSION = ".uri";
+
+    private static final long MINIMUM_REFRESH_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    @Getter
+    private final CRLFetcher fetcher;
+
+    @Getter
+    private final File cacheDirectory;
+
+    @Getter
+    private final Duration refreshAhead;
+
+    @Getter
+    private final Duration refreshInterval;
+
+    @Getter
+    private final Duration idleTimeout;
+
+    @Getter
+    private final int maxDistributionPoints;
+
+    private final Map<URI, IndexedX509CRL> crls = new ConcurrentHashMap<>();
+
+    private final Map<URI, Long> accessTimes = new ConcurrentHashMap<>();
+
+    private final Map<URI, CompletableFuture<IndexedX509CRL>> fetches = new ConcurrentHashMap<>();
+
+    private final Map<URI, ScheduledFuture<?>> refreshes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, getClass().getSimpleName());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Instantiates a new manager.
+     *
+     * @param fetcher         the fetcher
+     * @param cacheDirectory  directory that holds the last CRL of each distribution point, or null to keep CRLs in memory only
+     * @param refreshAhead    how long ahead of its next update a CRL is fetched again
+     * @param refreshInterval       how often CRLs without a next update are fetched again, and fetches that failed are retried
+     * @param idleTimeout           how long after it was last checked the CRL of a distribution point is dropped
+     * @param maxDistributionPoints the maximum number of distribution points whose CRLs are kept
+     */
+    public PrefetchingCRLManager(final CRLFetcher fetcher, final File cacheDirectory,
+                                 final Duration refreshAhead, final Duration refreshInterval,
+                                 final Duration idleTimeout, final int maxDistributionPoints) {
+        this.fetcher = fetcher;
+        this.cacheDirectory = cacheDirectory;
+        this.refreshAhead = refreshAhead;
+        this.refreshInterval = refreshInterval;
+        this.idleTimeout = idleTimeout;
+        this.maxDistributionPoints = Math.max(1, maxDistributionPoints);
+        loadCachedCRLs();
+        final long evictionDelay = Math.max(MINIMUM_REFRESH_DELAY, Math.min(idleTimeout.toMillis(), refreshInterval.toMillis()));
+        this.scheduler.scheduleWithFixedDelay(this::evictIdleCRLs, evictionDelay, evictionDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the CRL of the given distribution point, and fetch it if it is missing or has expired.
+     * The last known CRL is returned if it has expired and cannot be fetched again.
+     *
+     * @param uri the distribution point
+     * @return the CRL, or null
+     * @throws IOException              if the CRL cannot be fetched
+     * @throws GeneralSecurityException if the CRL cannot be parsed
+     */
+    public X509CRL getCRL(final URI uri) throws IOException, GeneralSecurityException {
+        this.accessTimes.put(uri, System.currentTimeMillis());
+        final IndexedX509CRL crl = this.crls.get(uri);
+        if (crl != null && !CertUtils.isExpired(crl)) {
+            return crl;
+        }
+        try {
+            final IndexedX509CRL fetched = fetch(uri);
+            if (fetched != null) {
+                return fetched;
+            }
+        } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+            if (crl == null) {
+                throw e;
+            }
+            LOGGER.warn("Unable to fetch CRL at [{}]; using the CRL that expired on [{}]: [{}]", uri, crl.getNextUpdate(), e.getMessage());
+        }
+        return crl;
+    }
+
+    /**
+     * Keep track of the given CRL for the distribution point.
+     *
+     * @param uri the distribution point
+     * @param crl the crl
+     * @return the indexed crl
+     */
+    public X509CRL addCRL(final URI uri, final X509CRL crl) {
+        final IndexedX509CRL indexed = IndexedX509CRL.of(crl);
+        if (crl != indexed) {
+            saveCRL(uri, crl);
+        }
+        this.accessTimes.putIfAbsent(uri, System.currentTimeMillis());
+        this.crls.put(uri, indexed);
+        scheduleRefresh(uri, getRefreshDelay(indexed));
+        LOGGER.debug("Tracking CRL [{}] at [{}]", indexed, uri);
+        evictLeastRecentlyUsedCRLs(uri);
+        return indexed;
+    }
+
+    /**
+     * Stop tracking the CRL of the distribution point, and remove it from disk.
+     *
+     * @param uri the distribution point
+     * @return true if a CRL was tracked
+     */
+    public boolean removeCRL(final URI uri) {
+        final ScheduledFuture<?> refresh = this.refreshes.remove(uri);
+        if (refresh != null) {
+            refresh.cancel(false);
+        }
+        this.accessTimes.remove(uri);
+        deleteCachedCRL(DigestUtils.sha256(uri.toString()));
+        return this.crls.remove(uri) != null;
+    }
+
+    /**
+     * Stop tracking the CRLs of distribution points that have not been checked within the idle timeout.
+     *
+     * @return the number of distribution points that were dropped
+     */
+    public int evictIdleCRLs() {
+        final long idleSince = System.currentTimeMillis() - this.idleTimeout.toMillis();
+        final List<URI> idle = this.accessTimes.entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() <= idleSince)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        idle.forEach(uri -> {
+            LOGGER.debug("Dropping CRL at [{}] that has not been checked for [{}]", uri, this.idleTimeout);
+            removeCRL(uri);
+        });
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+    }
+
+    private IndexedX509CRL fetch(final URI uri) throws IOException, GeneralSecurityException {
+        final CompletableFuture<IndexedX509CRL> fetch = new CompletableFuture<>();
+        final CompletableFuture<IndexedX509CRL> existing = this.fetches.putIfAbsent(uri, fetch);
+        if (existing != null) {
+            LOGGER.debug("Waiting for CRL at [{}] that is being fetched already", uri);
+            return await(existing);
+        }
+        try {
+            LOGGER.debug("Fetching CRL at [{}]", uri);
+            final X509CRL crl = this.fetcher.fetch(uri);
+            final IndexedX509CRL indexed = crl == null ? null : (IndexedX509CRL) addCRL(uri, crl);
+            fetch.complete(indexed);
+            return indexed;
+        } catch (final IOException | GeneralSecurityException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.fetches.remove(uri, fetch);
+        }
+    }
+
+    private void refresh(final URI uri) {
+        final Long accessed = this.accessTimes.get(uri);
+        if (accessed == null || accessed <= System.currentTimeMillis() - this.idleTimeout.toMillis()) {
+            LOGGER.debug("Dropping CRL at [{}] instead of refreshing it, since it has not been checked for [{}]", uri, this.idleTimeout);
+            removeCRL(uri);
+            return;
+        }
+        try {
+            if (fetch(uri) == null) {
+                scheduleRefresh(uri, getRetryDelay());
+            }
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to refresh CRL at [{}]; retrying in [{}] ms: [{}]", uri, getRetryDelay(), e.getMessage());
+            scheduleRefresh(uri, getRetryDelay());
+        }
+    }
+
+    private void scheduleRefresh(final URI uri, final long delay) {
+        if (this.scheduler.isShutdown()) {
+            return;
+        }
+        LOGGER.trace("Scheduling refresh of CRL at [{}] in [{}] ms", uri, delay);
+        final ScheduledFuture<?> previous = this.refreshes.put(uri, this.scheduler.schedule(() -> refresh(uri), delay, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void evictLeastRecentlyUsedCRLs(final URI added) {
+        final int excess = this.crls.size() - this.maxDistributionPoints;
+        if (excess <= 0) {
+            return;
+        }
+        this.accessTimes.entrySet()
+            .stream()
+            .filter(entry -> !entry.getKey().equals(added) && this.crls.containsKey(entry.getKey()))
+            .sorted(Map.Entry.comparingByValue())
+            .limit(excess)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList())
+            .forEach(uri -> {
+                LOGGER.debug("Dropping CRL at [{}] to keep at most [{}] distribution points", uri, this.maxDistributionPoints);
+                removeCRL(uri);
+            });
+    }
+
+    private long getRefreshDelay(final X509CRL crl) {
+        final Date nextUpdate = crl.getNextUpdate();
+        if (nextUpdate == null) {
+            return this.refreshInterval.toMillis();
+        }
+        return Math.max(MINIMUM_REFRESH_DELAY, nextUpdate.getTime() - this.refreshAhead.toMillis() - System.currentTimeMillis());
+    }
+
+    private long getRetryDelay() {
+        return Math.max(MINIMUM_REFRESH_DELAY, Math.min(this.refreshInterval.toMillis(), this.refreshAhead.toMillis() / 4));
+    }
+
+    private void saveCRL(final URI uri, final X509CRL crl) {
+        if (this.cacheDirectory == null) {
+            return;
+        }
+        try {
+            final String name = DigestUtils.sha256(uri.toString());
+            final File temp = new File(this.cacheDirectory, name + CRL_FILE_EXTENSION + ".tmp");
+            Files.write(temp.toPath(), crl.getEncoded());
+            Files.move(temp.toPath(), new File(this.cacheDirectory, name + CRL_FILE_EXTENSION).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final File uriFile = new File(this.cacheDirectory, name + URI_FILE_EXTENSION);
+            if (!uriFile.exists()) {
+                Files.write(uriFile.toPath(), uri.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to save CRL at [{}] into [{}]: [{}]", uri, this.cacheDirectory, e.getMessage());
+        }
+    }
+
+    private void deleteCachedCRL(final String name) {
+        if (this.cacheDirectory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(new File(this.cacheDirectory, name + CRL_FILE_EXTENSION).toPath());
+            Files.deleteIfExists(new File(this.cacheDirectory, name + URI_FILE_EXTENSION).toPath());
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to remove cached CRL [{}] from [{}]: [{}]", name, this.cacheDirectory, e.getMessage());
+        }
+    }
+
+    private void loadCachedCRLs() {
+        if (this.cacheDirectory == null) {
+            return;
+        }
+        if (!this.cacheDirectory.exists() && !this.cacheDirectory.mkdirs()) {
+            LOGGER.warn("Unable to create CRL cache directory [{}]", this.cacheDirectory);
+            return;
+        }
+        final File[] files = this.cacheDirectory.listFiles((dir, name) -> name.endsWith(URI_FILE_EXTENSION) || name.endsWith(CRL_FILE_EXTENSION));
+        if (files == null) {
+            return;
+        }
+        final List<File> crlFiles = Arrays.stream(files)
+            .filter(file -> file.getName().endsWith(CRL_FILE_EXTENSION))
+            .sorted(Comparator.comparingLong(File::lastModified).reversed())
+            .collect(Collectors.toList());
+        final Set<String> loaded = new HashSet<>();
+        for (final File crlFile : crlFiles) {
+            final String name = crlFile.getName().substring(0, crlFile.getName().length() - CRL_FILE_EXTENSION.length());
+            final File uriFile = new File(this.cacheDirectory, name + URI_FILE_EXTENSION);
+            if (this.crls.size() >= this.maxDistributionPoints || !uriFile.exists()) {
+                continue;
+            }
+            try {
+                final URI uri = new URI(new String(Files.readAllBytes(uriFile.toPath()), StandardCharsets.UTF_8).trim());
+                final X509CRL crl = this.fetcher.fetch(new FileSystemResource(crlFile));
+                if (crl != null) {
+                    final IndexedX509CRL indexed = IndexedX509CRL.of(crl);
+                    this.crls.put(uri, indexed);
+                    this.accessTimes.put(uri, System.currentTimeMillis());
+                    scheduleRefresh(uri, getRefreshDelay(indexed));
+                    loaded.add(name);
+                    LOGGER.debug("Loaded CRL [{}] of [{}] from [{}]", indexed, uri, crlFile);
+                }
+            } catch (final Exception e) {
+                LOGGER.warn("Unable to load cached CRL from [{}]: [{}]", crlFile, e.getMessage());
+            }
+        }
+        Arrays.stream(files)
+            .map(file -> file.getName().substring(0, file.getName().lastIndexOf('.')))
+            .filter(name -> !loaded.contains(name))
+            .distinct()
+            .forEach(this::deleteCachedCRL);
+        LOGGER.info("Loaded [{}] cached CRL(s) from [{}]", this.crls.size(), this.cacheDirectory);
+    }
+
+    private static IndexedX509CRL await(final CompletableFuture<IndexedX509CRL> fetch) throws IOException, GeneralSecurityException {
+        try {
+            return fetch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e.getMessage(), e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
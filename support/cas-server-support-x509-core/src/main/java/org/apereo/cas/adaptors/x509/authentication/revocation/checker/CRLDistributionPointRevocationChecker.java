@@ -7,6 +7,7 @@ import net.sf.ehcache.Cache;
 import net.sf.ehcache.Element;
 import org.apereo.cas.adaptors.x509.authentication.CRLFetcher;
 import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.adaptors.x509.authentication.revocation.PrefetchingCRLManager;
 import org.apereo.cas.adaptors.x509.authentication.revocation.policy.RevocationPolicy;
 import org.apereo.cas.util.crypto.CertUtils;
 import org.apereo.cas.util.CollectionUtils;
@@ -36,7 +37,8 @@ import java.util.stream.IntStream;
  * expects the name to define an absolute URL, which is the most common
  * implementation.  This implementation caches CRL resources fetched from remote
  * URLs to improve performance by avoiding CRL fetching on every revocation
- * check.
+ * check. Alternatively, CRLs may be handed over to a {@link PrefetchingCRLManager}
+ * which fetches them again in the background before they expire.
  *
  * @author Marvin S. Addison
  * @since 3.4.6
@@ -47,6 +49,7 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     private final Cache crlCache;
     private final CRLFetcher fetcher;
     private final boolean throwOnFetchFailure;
+    private final PrefetchingCRLManager crlManager;
 
     /**
      * Creates a new instance that uses the given cache instance for CRL caching.
@@ -104,6 +107,27 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         this.crlCache = crlCache;
         this.fetcher = fetcher;
         this.throwOnFetchFailure = throwOnFetchFailure;
+        this.crlManager = null;
+    }
+
+    /**
+     * Instantiates a new CRL distribution point revocation checker
+     * that keeps CRLs current via the given manager.
+     *
+     * @param checkAll             the check all
+     * @param unavailableCRLPolicy the unavailable crl policy
+     * @param expiredCRLPolicy     the expired crl policy
+     * @param crlManager           the crl manager
+     * @param throwOnFetchFailure  the throw on fetch failure
+     */
+    public CRLDistributionPointRevocationChecker(final boolean checkAll, final RevocationPolicy<Void> unavailableCRLPolicy,
+                                                 final RevocationPolicy<X509CRL> expiredCRLPolicy,
+                                                 final PrefetchingCRLManager crlManager, final boolean throwOnFetchFailure) {
+        super(checkAll, unavailableCRLPolicy, expiredCRLPolicy);
+        this.crlCache = null;
+        this.fetcher = crlManager.getFetcher();
+        this.throwOnFetchFailure = throwOnFetchFailure;
+        this.crlManager = crlManager;
     }
 
     @Override
@@ -116,25 +140,10 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
         
         for (int index = 0; !stopFetching && index < urls.length; index++) {
             final URI url = urls[index];
-            final Element item = this.crlCache.get(url);
-
-            if (item != null) {
-                LOGGER.debug("Found CRL in cache for [{}]", CertUtils.toString(cert));
-                final byte[] encodedCrl = (byte[]) item.getObjectValue();
-                final X509CRL crlFetched = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
-
-                if (crlFetched != null) {
-                    listOfLocations.add(crlFetched);
-                } else {
-                    LOGGER.warn("Could fetch X509 CRL for [{}]. Returned value is null", url);
-                }
-            } else {
-                LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", CertUtils.toString(cert));
+            if (this.crlManager != null) {
                 try {
-                    final X509CRL crl = this.fetcher.fetch(url);
+                    final X509CRL crl = this.crlManager.getCRL(url);
                     if (crl != null) {
-                        LOGGER.info("Success. Caching fetched CRL at [{}].", url);
-                        addCRL(url, crl);
                         listOfLocations.add(crl);
                     }
                 } catch (final Exception e) {
@@ -143,6 +152,35 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
                         throw new RuntimeException(e.getMessage(), e);
                     }
                 }
+            } else {
+                final Element item = this.crlCache.get(url);
+
+                if (item != null) {
+                    LOGGER.debug("Found CRL in cache for [{}]", CertUtils.toString(cert));
+                    final byte[] encodedCrl = (byte[]) item.getObjectValue();
+                    final X509CRL crlFetched = this.fetcher.fetch(new ByteArrayResource(encodedCrl));
+
+                    if (crlFetched != null) {
+                        listOfLocations.add(crlFetched);
+                    } else {
+                        LOGGER.warn("Could fetch X509 CRL for [{}]. Returned value is null", url);
+                    }
+                } else {
+                    LOGGER.debug("CRL for [{}] is not cached. Fetching and caching...", CertUtils.toString(cert));
+                    try {
+                        final X509CRL crl = this.fetcher.fetch(url);
+                        if (crl != null) {
+                            LOGGER.info("Success. Caching fetched CRL at [{}].", url);
+                            addCRL(url, crl);
+                            listOfLocations.add(crl);
+                        }
+                    } catch (final Exception e) {
+                        LOGGER.error("Error fetching CRL at [{}]", url, e);
+                        if (this.throwOnFetchFailure) {
+                            throw new RuntimeException(e.getMessage(), e);
+                        }
+                    }
+                }
             }
 
             if (!this.checkAll && !listOfLocations.isEmpty()) {
@@ -159,6 +197,14 @@ public class CRLDistributionPointRevocationChecker extends AbstractCRLRevocation
     @Override
     @SneakyThrows
     protected boolean addCRL(final Object id, final X509CRL crl) {
+        if (this.crlManager != null) {
+            final URI uri = id instanceof URI ? (URI) id : new URI(id.toString());
+            if (crl == null) {
+                LOGGER.debug("No CRL was passed. Removing [{}] from cache...", id);
+                return this.crlManager.removeCRL(uri);
+            }
+            return this.crlManager.addCRL(uri, crl) != null;
+        }
         if (crl == null) {
             LOGGER.debug("No CRL was passed. Removing [{}] from cache...", id);
             return this.crlCache.remove(id);
@@ -11,6 +11,7 @@ import org.apereo.cas.adaptors.x509.authentication.principal.X509SerialNumberPri
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectAlternativeNameUPNPrincipalResolverTests;
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectDNPrincipalResolverTests;
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectPrincipalResolverTests;
+import org.apereo.cas.adaptors.x509.authentication.revocation.PrefetchingCRLManagerTests;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -32,7 +33,8 @@ import org.junit.runners.Suite;
     ResourceCRLRevocationCheckerTests.class,
     ThresholdExpiredCRLRevocationPolicyTests.class,
     X509CredentialsAuthenticationHandlerTests.class,
-    CRLDistributionPointRevocationCheckerTests.class})
+    CRLDistributionPointRevocationCheckerTests.class,
+    PrefetchingCRLManagerTests.class})
 @Slf4j
 public class AllTestsSuite {
 }
@@ -0,0 +1,169 @@
+package org.apereo.cas.adaptors.x509.authentication.revocation;
+
+import org.apache.commons.io.FileUtils;
+import org.apereo.cas.adaptors.x509.authentication.ResourceCRLFetcher;
+import org.apereo.cas.util.crypto.CertUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Files;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * This is {@link PrefetchingCRLManagerTests}.
+ *
+ * @author Misagh Moayyed
+ * @since 5.3.0
+ */
+public class PrefetchingCRLManagerTests {
+    private static final URI DISTRIBUTION_POINT = URI.create("http://localhost:8085/userCA.crl");
+
+    private static final URI OTHER_DISTRIBUTION_POINT = URI.create("http://localhost:8085/otherCA.crl");
+
+    private static final int CONCURRENCY = 4;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private File directory;
+
+    @Before
+    public void initialize() throws Exception {
+        this.directory = Files.createTempDirectory("crls").toFile();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        FileUtils.deleteDirectory(this.directory);
+    }
+
+    @Test
+    public void verifyIndexedCRLMatchesParsedCRL() throws Exception {
+        final X509CRL crl = new ResourceCRLFetcher().fetch(new ClassPathResource("userCA-valid.crl"));
+        final IndexedX509CRL indexed = IndexedX509CRL.of(crl);
+        assertEquals(crl.getRevokedCertificates().size(), indexed.getRevokedCount());
+        assertEquals(crl.getNextUpdate(), indexed.getNextUpdate());
+        crl.getRevokedCertificates().forEach(entry ->
+            assertNotNull(indexed.getRevokedCertificate(entry.getSerialNumber())));
+        assertNull(indexed.getRevokedCertificate(BigInteger.ONE));
+
+        final X509Certificate revoked = CertUtils.readCertificate(new ClassPathResource("user-revoked.crt"));
+        final X509Certificate valid = CertUtils.readCertificate(new ClassPathResource("user-valid.crt"));
+        assertTrue(indexed.isRevoked(revoked));
+        assertEquals(crl.isRevoked(valid), indexed.isRevoked(valid));
+    }
+
+    @Test
+    public void verifyConcurrentChecksShareSingleFetch() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        final CountDownLatch checking = new CountDownLatch(CONCURRENCY);
+        try (PrefetchingCRLManager manager = newManager(null)) {
+            final List<Future<X509CRL>> results = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                results.add(executor.submit(() -> {
+                    checking.countDown();
+                    return manager.getCRL(DISTRIBUTION_POINT);
+                }));
+            }
+            assertTrue(checking.await(10, TimeUnit.SECONDS));
+            this.release.countDown();
+            for (final Future<X509CRL> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS) instanceof IndexedX509CRL);
+            }
+            assertSame(manager.getCRL(DISTRIBUTION_POINT), results.get(0).get());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, this.fetches.get());
+    }
+
+    @Test
+    public void verifyCRLsAreLoadedFromCacheDirectory() throws Exception {
+        this.release.countDown();
+        try (PrefetchingCRLManager manager = newManager(this.directory)) {
+            assertNotNull(manager.getCRL(DISTRIBUTION_POINT));
+        }
+        assertEquals(1, this.fetches.get());
+
+        try (PrefetchingCRLManager manager = newManager(this.directory)) {
+            final X509CRL crl = manager.getCRL(DISTRIBUTION_POINT);
+            assertTrue(crl instanceof IndexedX509CRL);
+            assertEquals(4, ((IndexedX509CRL) crl).getRevokedCount());
+        }
+        assertEquals(1, this.fetches.get());
+    }
+
+    @Test
+    public void verifyIdleDistributionPointsAreDropped() throws Exception {
+        this.release.countDown();
+        try (PrefetchingCRLManager manager = newManager(this.directory, Duration.ZERO, 10)) {
+            assertNotNull(manager.getCRL(DISTRIBUTION_POINT));
+            assertEquals(2, this.directory.list().length);
+
+            assertEquals(1, manager.evictIdleCRLs());
+            assertEquals(0, this.directory.list().length);
+            assertEquals(0, manager.evictIdleCRLs());
+
+            assertNotNull(manager.getCRL(DISTRIBUTION_POINT));
+        }
+        assertEquals(2, this.fetches.get());
+    }
+
+    @Test
+    public void verifyLeastRecentlyCheckedDistributionPointsAreDropped() throws Exception {
+        this.release.countDown();
+        try (PrefetchingCRLManager manager = newManager(this.directory, Duration.ofHours(1), 2)) {
+            assertNotNull(manager.getCRL(DISTRIBUTION_POINT));
+            assertNotNull(manager.getCRL(OTHER_DISTRIBUTION_POINT));
+            assertEquals(4, this.directory.list().length);
+        }
+        assertEquals(2, this.fetches.get());
+
+        try (PrefetchingCRLManager manager = newManager(this.directory, Duration.ofHours(1), 1)) {
+            assertEquals(2, this.directory.list().length);
+            assertNotNull(manager.getCRL(URI.create("http://localhost:8085/thirdCA.crl")));
+            assertEquals(2, this.directory.list().length);
+        }
+        assertEquals(3, this.fetches.get());
+    }
+
+    private PrefetchingCRLManager newManager(final File cacheDirectory) {
+        return newManager(cacheDirectory, Duration.ofHours(1), 10);
+    }
+
+    private PrefetchingCRLManager newManager(final File cacheDirectory, final Duration idleTimeout, final int maxDistributionPoints) {
+        final ResourceCRLFetcher fetcher = new ResourceCRLFetcher() {
+            @Override
+            public X509CRL fetch(final URI crl) throws IOException {
+                fetches.incrementAndGet();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                    return fetch(new ClassPathResource("userCA-valid.crl"));
+                } catch (final Exception e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        return new PrefetchingCRLManager(fetcher, cacheDirectory, Duration.ofHours(1), Duration.ofHours(1),
+            idleTimeout, maxDistributionPoints);
+    }
+}
@@ -13,6 +13,7 @@ import org.apereo.cas.adaptors.x509.authentication.principal.X509SerialNumberPri
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectAlternativeNameUPNPrincipalResolver;
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectDNPrincipalResolver;
 import org.apereo.cas.adaptors.x509.authentication.principal.X509SubjectPrincipalResolver;
+import org.apereo.cas.adaptors.x509.authentication.revocation.PrefetchingCRLManager;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.CRLDistributionPointRevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.NoOpRevocationChecker;
 import org.apereo.cas.adaptors.x509.authentication.revocation.checker.ResourceCRLRevocationChecker;
@@ -35,6 +36,7 @@ import org.apereo.services.persondir.IPersonAttributeDao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.context.annotation.Bean;
@@ -42,6 +44,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
+import java.io.File;
+import java.time.Duration;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -90,9 +94,29 @@ public class X509AuthenticationConfiguration {
         return new DenyRevocationPolicy();
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "cas.authn.x509", name = "crlPrefetch", havingValue = "true")
+    public PrefetchingCRLManager crlDistributionPointCRLManager() {
+        final X509Properties x509 = casProperties.getAuthn().getX509();
+        return new PrefetchingCRLManager(crlFetcher(),
+                StringUtils.isNotBlank(x509.getCrlCacheDirectory()) ? new File(x509.getCrlCacheDirectory()) : null,
+                Duration.ofSeconds(x509.getCrlRefreshAheadSeconds()),
+                Duration.ofSeconds(x509.getRefreshIntervalSeconds()),
+                Duration.ofSeconds(x509.getCrlIdleTimeoutSeconds()),
+                x509.getCrlMaxDistributionPoints());
+    }
+
     @Bean
     public RevocationChecker crlDistributionPointRevocationChecker() {
         final X509Properties x509 = casProperties.getAuthn().getX509();
+        if (x509.isCrlPrefetch()) {
+            return new CRLDistributionPointRevocationChecker(
+                    x509.isCheckAll(),
+                    getRevocationPolicy(x509.getCrlUnavailablePolicy()),
+                    getRevocationPolicy(x509.getCrlExpiredPolicy()),
+                    crlDistributionPointCRLManager(),
+                    x509.isThrowOnFetchFailure());
+        }
         final Cache cache = new Cache("CRL".concat(UUID.randomUUID().toString()),
                 x509.getCacheMaxElementsInMemory(),
                 x509.isCacheDiskOverflow(),
@@ -1,62 +1,76 @@
 package org.apereo.cas.adaptors.yubikey.registry;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apereo.cas.adaptors.yubikey.YubiKeyAccountValidator;
-import org.apereo.cas.util.ResourceUtils;
+import org.apereo.cas.util.io.JournaledJsonStore;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.io.Resource;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * This is {@link JsonYubiKeyAccountRegistry}.
+ * <p>
+ * Device registrations are kept in a {@link JournaledJsonStore}, so that registrations are appended
+ * to a journal next to the JSON resource instead of rewriting the resource on every registration.
  *
  * @author Misagh Moayyed
  * @since 5.2.0
  */
 @Slf4j
-public class JsonYubiKeyAccountRegistry extends WhitelistYubiKeyAccountRegistry {
+public class JsonYubiKeyAccountRegistry extends WhitelistYubiKeyAccountRegistry implements DisposableBean {
 
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();
-    private final Resource jsonResource;
+
+    private final JournaledJsonStore<String> store;
 
     public JsonYubiKeyAccountRegistry(final Resource jsonResource, final YubiKeyAccountValidator validator) {
-        super(getDevicesFromJsonResource(jsonResource), validator);
-        this.jsonResource = jsonResource;
+        this(getDevicesStore(jsonResource), validator);
+    }
+
+    private JsonYubiKeyAccountRegistry(final JournaledJsonStore<String> store, final YubiKeyAccountValidator validator) {
+        super(store.asMap(), validator);
+        this.store = store;
     }
 
-    @SneakyThrows
     @Override
     public boolean registerAccountFor(final String uid, final String token) {
         if (getAccountValidator().isValid(uid, token)) {
             final String yubikeyPublicId = getAccountValidator().getTokenPublicId(token);
-            final File file = jsonResource.getFile();
-            this.devices.put(uid, getCipherExecutor().encode(yubikeyPublicId));
-            MAPPER.writer().withDefaultPrettyPrinter().writeValue(file, this.devices);
+            this.store.put(uid, getCipherExecutor().encode(yubikeyPublicId));
             return true;
         }
         return false;
     }
 
+    /**
+     * Close the store, which compacts pending changes into the JSON resource.
+     *
+     * @throws Exception the exception
+     */
+    @Override
+    public void destroy() throws Exception {
+        this.store.close();
+    }
+
     @SneakyThrows
-    private static Map<String, String> getDevicesFromJsonResource(final Resource jsonResource) {
-        if (!ResourceUtils.doesResourceExist(jsonResource)) {
-            final boolean res = jsonResource.getFile().createNewFile();
-            if (res) {
-                LOGGER.debug("Created JSON resource @ [{}]", jsonResource);
-            }
-        }
-        if (ResourceUtils.doesResourceExist(jsonResource)) {
-            final File file = jsonResource.getFile();
-            if (file.canRead() && file.length() > 0) {
-                return MAPPER.readValue(file, Map.class);
-            }
-        } else {
-            LOGGER.warn("JSON resource @ [{}] does not exist", jsonResource);
+    private static JournaledJsonStore<String> getDevicesStore(final Resource jsonResource) {
+        final File file = jsonResource.getFile();
+        LOGGER.debug("Loading YubiKey device registrations from JSON resource @ [{}]", jsonResource);
+        return new JournaledJsonStore<>(file, MAPPER, String.class, JsonYubiKeyAccountRegistry::getDevicesFromJsonFile, devices -> devices);
+    }
+
+    @SneakyThrows
+    private static Map<String, String> getDevicesFromJsonFile(final File file) {
+        if (!file.canRead()) {
+            LOGGER.warn("JSON resource @ [{}] cannot be read", file);
+            return null;
         }
-        return new HashMap<>(0);
+        return MAPPER.readValue(file, new TypeReference<Map<String, String>>() {
+        });
     }
 }
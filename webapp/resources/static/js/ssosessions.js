@@ -83,6 +83,40 @@ function format(d) {
 
 }
 
+var SSO_SESSIONS_PAGE_SIZE = 1000;
+
+/* Sessions are handed out one page at a time; follow the cursor of each page until all sessions are loaded */
+function loadSsoSessions(callback) {
+    var sessions = [];
+    var loadPage = function (cursor) {
+        var params = {size: SSO_SESSIONS_PAGE_SIZE};
+        if (cursor) {
+            params.cursor = cursor;
+        }
+        $.ajax({
+            type: 'get',
+            url: urls.getSessions,
+            data: params,
+            dataType: 'json',
+            success: function (page) {
+                sessions = sessions.concat(page.activeSsoSessions);
+                if (page.nextCursor && page.nextCursor != cursor) {
+                    loadPage(page.nextCursor);
+                } else {
+                    page.activeSsoSessions = sessions;
+                    page.data = sessions;
+                    callback(page);
+                }
+            },
+            error: function () {
+                alertUser('There appears to be an error. Please try your request again.', 'danger');
+                callback({data: sessions, activeSsoSessions: sessions});
+            }
+        });
+    };
+    loadPage(null);
+}
+
 function updateAdminPanels(data) {
     //$('#totalUsers').text(data.totalPrincipals);
     $('#totalUsers').text(data.activeSsoSessions.length);
@@ -199,9 +233,8 @@ var ssoSessions = (function () {
                 'zeroRecords': 'No matching sessions found'
             },
             'processing': true,
-            'ajax': {
-                'url': urls.getSessions,
-                'dataSrc': 'activeSsoSessions'
+            'ajax': function (data, callback) {
+                loadSsoSessions(callback);
             },
 
             columnDefs: [